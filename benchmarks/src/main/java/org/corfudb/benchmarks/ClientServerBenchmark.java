@@ -0,0 +1,105 @@
+package org.corfudb.benchmarks;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.protocols.wireprotocol.TokenResponse;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.clients.BaseClient;
+import org.corfudb.runtime.clients.SequencerClient;
+import org.corfudb.runtime.view.stream.IStreamView;
+import org.corfudb.util.CFUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures requests from a runtime to an {@link InProcessCorfu} deployment,
+ * which exercises the client, message serialization and server handler paths
+ * without a network in between.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClientServerBenchmark {
+
+    /** The number of entries written before reads are measured. */
+    static final int PREFILLED_ENTRIES = 1_000;
+
+    /** The size of the payload of each append, in bytes. */
+    @Param({"64", "4096"})
+    int payloadSize;
+
+    InProcessCorfu corfu;
+
+    CorfuRuntime runtime;
+
+    BaseClient baseClient;
+
+    SequencerClient sequencerClient;
+
+    IStreamView stream;
+
+    byte[] payload;
+
+    /** Start a deployment and prefill a stream to read. */
+    @Setup(Level.Trial)
+    public void setup() {
+        corfu = new InProcessCorfu();
+        // Disable the client cache so that reads reach the log unit.
+        runtime = corfu.newRuntime()
+                .setCacheDisabled(true)
+                .connect();
+        baseClient = runtime.getRouter(InProcessCorfu.ENDPOINT).getClient(BaseClient.class);
+        sequencerClient = runtime.getRouter(InProcessCorfu.ENDPOINT)
+                .getClient(SequencerClient.class);
+        stream = runtime.getStreamsView().get(UUID.nameUUIDFromBytes("bench".getBytes()));
+        payload = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(payload);
+        for (int i = 0; i < PREFILLED_ENTRIES; i++) {
+            stream.append(payload);
+        }
+    }
+
+    /** Shut down the runtime and the deployment. */
+    @TearDown(Level.Trial)
+    public void teardown() {
+        runtime.shutdown();
+        corfu.shutdown();
+    }
+
+    /** Ping the server. */
+    @Benchmark
+    public boolean ping() {
+        return baseClient.pingSync();
+    }
+
+    /** Acquire a token from the sequencer. */
+    @Benchmark
+    public TokenResponse nextToken() {
+        return CFUtils.getUninterruptibly(sequencerClient.nextToken(Collections.emptySet(), 1));
+    }
+
+    /** Append an entry to a stream, acquiring a token and writing to the log unit. */
+    @Benchmark
+    public long append() {
+        return stream.append(payload);
+    }
+
+    /** Read a random prefilled address from the log unit. */
+    @Benchmark
+    public ILogData read() {
+        return runtime.getAddressSpaceView()
+                .read(ThreadLocalRandom.current().nextLong(PREFILLED_ENTRIES));
+    }
+}
@@ -0,0 +1,137 @@
+package org.corfudb.benchmarks;
+
+import com.google.common.reflect.TypeToken;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.CorfuTable;
+import org.corfudb.runtime.object.ICorfuSMR;
+import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
+import org.corfudb.runtime.object.VersionLockedObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures {@link CorfuTable} operations, and the {@link VersionLockedObject}
+ * access underneath them, against an {@link InProcessCorfu} deployment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CorfuTableBenchmark {
+
+    /** The number of keys in the table. */
+    @Param({"1000"})
+    int numKeys;
+
+    /** The number of distinct values, and hence index entries. */
+    static final int NUM_VALUES = 26;
+
+    /** An index by the first letter of each value. */
+    @RequiredArgsConstructor
+    public enum FirstLetterIndex
+            implements CorfuTable.IndexSpecification<String, String, String, String> {
+        BY_FIRST_LETTER((k, v) -> Collections.singleton(v.substring(0, 1)));
+
+        @Getter
+        final CorfuTable.IndexFunction<String, String, String> indexFunction;
+
+        @Getter
+        final CorfuTable.ProjectionFunction<String, String, String, String> projectionFunction
+                = (i, s) -> s.map(entry -> entry.getValue());
+    }
+
+    InProcessCorfu corfu;
+
+    CorfuRuntime runtime;
+
+    CorfuTable<String, String, FirstLetterIndex, String> table;
+
+    VersionLockedObject<CorfuTable<String, String, FirstLetterIndex, String>> object;
+
+    String[] keys;
+
+    String[] values;
+
+    /** Start a deployment and fill a table. */
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        corfu = new InProcessCorfu();
+        runtime = corfu.newRuntime().connect();
+        table = runtime.getObjectsView().build()
+                .setTypeToken(
+                        new TypeToken<CorfuTable<String, String, FirstLetterIndex, String>>() {})
+                .setArguments(FirstLetterIndex.class)
+                .setStreamName("bench")
+                .open();
+        object = ((ICorfuSMRProxyInternal<CorfuTable<String, String, FirstLetterIndex, String>>)
+                ((ICorfuSMR<CorfuTable<String, String, FirstLetterIndex, String>>) table)
+                        .getCorfuSMRProxy()).getUnderlyingObject();
+
+        keys = new String[numKeys];
+        for (int i = 0; i < numKeys; i++) {
+            keys[i] = "key" + i;
+        }
+        values = new String[NUM_VALUES];
+        for (int i = 0; i < NUM_VALUES; i++) {
+            values[i] = (char) ('a' + i) + "value";
+        }
+        for (int i = 0; i < numKeys; i++) {
+            table.put(keys[i], values[i % NUM_VALUES]);
+        }
+        // Bring the object up to date, so reads are served directly.
+        table.size();
+    }
+
+    /** Shut down the runtime and the deployment. */
+    @TearDown(Level.Trial)
+    public void teardown() {
+        runtime.shutdown();
+        corfu.shutdown();
+    }
+
+    /** Put a value, which appends an update to the log. */
+    @Benchmark
+    public String put() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return table.put(keys[random.nextInt(numKeys)], values[random.nextInt(NUM_VALUES)]);
+    }
+
+    /** Get a value from an up to date table. */
+    @Benchmark
+    public String get() {
+        return table.get(keys[ThreadLocalRandom.current().nextInt(numKeys)]);
+    }
+
+    /** Get the values which share a first letter through the secondary index. */
+    @Benchmark
+    public Collection<String> getByIndex() {
+        return table.getByIndex(FirstLetterIndex.BY_FIRST_LETTER,
+                values[ThreadLocalRandom.current().nextInt(NUM_VALUES)].substring(0, 1));
+    }
+
+    /** Access the underlying object directly, without syncing it. */
+    @Benchmark
+    public String versionLockedObjectAccess() {
+        final String key = keys[ThreadLocalRandom.current().nextInt(numKeys)];
+        return object.access(o -> !o.isOptimisticallyModifiedUnsafe(),
+                o -> { },
+                o -> o.get(key));
+    }
+}
@@ -0,0 +1,38 @@
+package org.corfudb.benchmarks;
+
+import io.netty.channel.ChannelHandlerContext;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.corfudb.infrastructure.AbstractServer;
+import org.corfudb.infrastructure.IServerRouter;
+import org.corfudb.protocols.wireprotocol.CorfuMsg;
+
+/**
+ * A server router which keeps only the last response sent, so that a server
+ * handler can be driven directly in a benchmark loop without accumulating
+ * responses.
+ */
+public class DiscardingServerRouter implements IServerRouter {
+
+    /** The last response sent through this router. */
+    @Getter
+    volatile CorfuMsg lastResponse;
+
+    @Getter
+    @Setter
+    volatile long serverEpoch;
+
+    @Override
+    public void sendResponse(ChannelHandlerContext ctx, CorfuMsg inMsg, CorfuMsg outMsg) {
+        outMsg.copyBaseFields(inMsg);
+        outMsg.setEpoch(serverEpoch);
+        lastResponse = outMsg;
+    }
+
+    @Override
+    public void addServer(AbstractServer server) {
+        // Handlers are invoked directly by the benchmarks.
+    }
+}
@@ -0,0 +1,92 @@
+package org.corfudb.benchmarks;
+
+import lombok.Getter;
+
+import org.corfudb.infrastructure.BaseServer;
+import org.corfudb.infrastructure.LayoutServer;
+import org.corfudb.infrastructure.LogUnitServer;
+import org.corfudb.infrastructure.ManagementServer;
+import org.corfudb.infrastructure.SequencerServer;
+import org.corfudb.infrastructure.ServerContext;
+import org.corfudb.infrastructure.ServerContextBuilder;
+import org.corfudb.infrastructure.TestServerRouter;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.clients.BaseClient;
+import org.corfudb.runtime.clients.LayoutClient;
+import org.corfudb.runtime.clients.LogUnitClient;
+import org.corfudb.runtime.clients.ManagementClient;
+import org.corfudb.runtime.clients.SequencerClient;
+import org.corfudb.runtime.clients.TestClientRouter;
+
+/**
+ * A single-node, in-memory Corfu deployment, wired together through the test
+ * routers so that requests go through message serialization and the server
+ * handlers without any network transport.
+ *
+ * <p>This mirrors the default server set up by the unit tests' AbstractViewTest.
+ */
+public class InProcessCorfu {
+
+    /** The port the server is registered at. */
+    public static final int PORT = 9000;
+
+    /** The endpoint of the server. */
+    public static final String ENDPOINT = "test:" + PORT;
+
+    @Getter
+    final TestServerRouter serverRouter;
+
+    @Getter
+    final LogUnitServer logUnitServer;
+
+    @Getter
+    final ManagementServer managementServer;
+
+    @Getter
+    final TestClientRouter clientRouter;
+
+    /** Start a bootstrapped single-node server and a client router to it. */
+    public InProcessCorfu() {
+        serverRouter = new TestServerRouter(PORT);
+        ServerContext serverContext = new ServerContextBuilder()
+                .setPort(PORT)
+                .setServerRouter(serverRouter)
+                .build();
+        logUnitServer = new LogUnitServer(serverContext);
+        managementServer = new ManagementServer(serverContext);
+
+        serverRouter.addServer(new BaseServer());
+        serverRouter.addServer(new SequencerServer(serverContext));
+        serverRouter.addServer(new LayoutServer(serverContext));
+        serverRouter.addServer(logUnitServer);
+        serverRouter.addServer(managementServer);
+
+        clientRouter = new TestClientRouter(serverRouter);
+        clientRouter.addClient(new BaseClient())
+                .addClient(new SequencerClient())
+                .addClient(new LayoutClient())
+                .addClient(new LogUnitClient())
+                .addClient(new ManagementClient());
+    }
+
+    /**
+     * Get a new runtime for this deployment, which the caller must connect.
+     *
+     * @return A new, unconnected runtime.
+     */
+    public CorfuRuntime newRuntime() {
+        CorfuRuntime.overrideGetRouterFunction = (runtime, endpoint) -> {
+            if (!endpoint.equals(ENDPOINT)) {
+                throw new RuntimeException("Unsupported endpoint in benchmark: " + endpoint);
+            }
+            return clientRouter;
+        };
+        return new CorfuRuntime(ENDPOINT);
+    }
+
+    /** Shut down the servers. */
+    public void shutdown() {
+        logUnitServer.shutdown();
+        managementServer.shutdown();
+    }
+}
@@ -0,0 +1,74 @@
+package org.corfudb.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.protocols.logprotocol.SMREntry;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.util.serializer.Serializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures serializing a {@link LogData} to the wire format and back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LogDataBenchmark {
+
+    /** The size of the value carried by the entry, in bytes. */
+    @Param({"16", "1024", "65536"})
+    int valueSize;
+
+    LogData logData;
+
+    byte[] serialized;
+
+    /** Build an entry carrying an SMR update and its serialized form. */
+    @Setup
+    public void setup() {
+        SMREntry entry = new SMREntry("put",
+                new Object[] {"key", new byte[valueSize]}, Serializers.CORFU);
+        logData = new LogData(DataType.DATA, entry);
+        logData.setGlobalAddress(0L);
+        logData.setBackpointerMap(Collections.singletonMap(
+                UUID.nameUUIDFromBytes("stream".getBytes()), -1L));
+
+        ByteBuf buf = Unpooled.buffer();
+        logData.doSerialize(buf);
+        serialized = new byte[buf.readableBytes()];
+        buf.readBytes(serialized);
+    }
+
+    /** Serialize the entry into a pooled buffer. */
+    @Benchmark
+    public int serialize() {
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            logData.doSerialize(buf);
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+
+    /** Deserialize the entry, including its payload. */
+    @Benchmark
+    public Object deserialize() {
+        LogData ld = new LogData(Unpooled.wrappedBuffer(serialized));
+        return ld.getPayload(null);
+    }
+}
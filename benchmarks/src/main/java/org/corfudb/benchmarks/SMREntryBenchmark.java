@@ -0,0 +1,77 @@
+package org.corfudb.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.protocols.logprotocol.LogEntry;
+import org.corfudb.protocols.logprotocol.SMREntry;
+import org.corfudb.util.serializer.ISerializer;
+import org.corfudb.util.serializer.Serializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures serializing an {@link SMREntry} and its arguments with each of the
+ * system {@link Serializers}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SMREntryBenchmark {
+
+    /** The name of the serializer field in {@link Serializers}. */
+    @Param({"CORFU", "JAVA", "JSON", "PRIMITIVE"})
+    String serializerName;
+
+    /** The length of the value argument, in characters. */
+    @Param({"16", "1024"})
+    int valueLength;
+
+    SMREntry entry;
+
+    byte[] serialized;
+
+    /** Build an entry with the selected serializer, and its serialized form. */
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        ISerializer serializer = (ISerializer) Serializers.class
+                .getField(serializerName).get(null);
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < valueLength; i++) {
+            value.append((char) ('a' + i % 26));
+        }
+        entry = new SMREntry("put", new Object[] {"key", value.toString()}, serializer);
+
+        ByteBuf buf = Unpooled.buffer();
+        entry.serialize(buf);
+        serialized = new byte[buf.readableBytes()];
+        buf.readBytes(serialized);
+    }
+
+    /** Serialize the entry into a pooled buffer. */
+    @Benchmark
+    public int serialize() {
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            entry.serialize(buf);
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+
+    /** Deserialize the entry and its arguments. */
+    @Benchmark
+    public Object deserialize() {
+        return LogEntry.deserialize(Unpooled.wrappedBuffer(serialized), null);
+    }
+}
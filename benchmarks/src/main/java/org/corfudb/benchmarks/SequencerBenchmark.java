@@ -0,0 +1,76 @@
+package org.corfudb.benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.infrastructure.SequencerServer;
+import org.corfudb.infrastructure.ServerContextBuilder;
+import org.corfudb.protocols.wireprotocol.CorfuMsg;
+import org.corfudb.protocols.wireprotocol.CorfuMsgType;
+import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
+import org.corfudb.protocols.wireprotocol.TokenRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the throughput of {@link SequencerServer#tokenRequest}, invoked
+ * directly without any transport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SequencerBenchmark {
+
+    /** The number of streams each token is requested for. */
+    @Param({"0", "1", "10"})
+    int numStreams;
+
+    SequencerServer server;
+
+    DiscardingServerRouter router;
+
+    CorfuPayloadMsg<TokenRequest> allocateRequest;
+
+    CorfuPayloadMsg<TokenRequest> queryRequest;
+
+    /** Create a sequencer and the requests to send to it. */
+    @Setup
+    public void setup() {
+        router = new DiscardingServerRouter();
+        server = new SequencerServer(new ServerContextBuilder()
+                .setServerRouter(router)
+                .build());
+        server.setReadyStateEpoch(0L);
+
+        Set<UUID> streams = new HashSet<>();
+        for (int i = 0; i < numStreams; i++) {
+            streams.add(UUID.nameUUIDFromBytes(("stream" + i).getBytes()));
+        }
+        allocateRequest = new CorfuPayloadMsg<>(CorfuMsgType.TOKEN_REQ,
+                new TokenRequest(1L, streams));
+        queryRequest = new CorfuPayloadMsg<>(CorfuMsgType.TOKEN_REQ,
+                new TokenRequest(0L, streams));
+    }
+
+    /** Allocate a single token. */
+    @Benchmark
+    public CorfuMsg allocateToken() {
+        server.tokenRequest(allocateRequest, null, router, false);
+        return router.getLastResponse();
+    }
+
+    /** Query the current tail. */
+    @Benchmark
+    public CorfuMsg queryToken() {
+        server.tokenRequest(queryRequest, null, router, false);
+        return router.getLastResponse();
+    }
+}
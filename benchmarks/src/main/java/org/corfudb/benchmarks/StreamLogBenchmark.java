@@ -0,0 +1,95 @@
+package org.corfudb.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.corfudb.infrastructure.ServerContextBuilder;
+import org.corfudb.infrastructure.log.StreamLogFiles;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.util.serializer.Serializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures {@link StreamLogFiles} appends and reads against a log in a
+ * temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StreamLogBenchmark {
+
+    /** The number of entries written before reads are measured. */
+    static final int PREFILLED_ENTRIES = 10_000;
+
+    /** The size of the payload of each entry, in bytes. */
+    @Param({"64", "4096"})
+    int payloadSize;
+
+    File logDir;
+
+    StreamLogFiles log;
+
+    byte[] payload;
+
+    /** The next address to append at, shared by the benchmark threads. */
+    final AtomicLong nextAddress = new AtomicLong();
+
+    /** Create a fresh log, prefilled with entries to read. */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        logDir = Files.createTempDirectory("corfu-bench").toFile();
+        log = new StreamLogFiles(new ServerContextBuilder()
+                .setLogPath(logDir.getAbsolutePath())
+                .setMemory(false)
+                .build(), false);
+        payload = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(payload);
+        for (long address = 0; address < PREFILLED_ENTRIES; address++) {
+            log.append(address, newEntry());
+        }
+        nextAddress.set(PREFILLED_ENTRIES);
+    }
+
+    /** Close the log and remove its files. */
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        log.close();
+        FileUtils.deleteDirectory(logDir);
+    }
+
+    LogData newEntry() {
+        ByteBuf b = Unpooled.buffer();
+        Serializers.CORFU.serialize(payload, b);
+        return new LogData(DataType.DATA, b);
+    }
+
+    /** Append an entry at the next address. */
+    @Benchmark
+    public void append() {
+        log.append(nextAddress.getAndIncrement(), newEntry());
+    }
+
+    /** Read an entry at a random prefilled address. */
+    @Benchmark
+    public LogData read() {
+        return log.read(ThreadLocalRandom.current().nextLong(PREFILLED_ENTRIES));
+    }
+}
@@ -49,6 +49,13 @@ public class BatchWriter<K, V> implements CacheWriter<K, V>, AutoCloseable {
         writerService.submit(this::batchWriteProcessor);
     }
 
+    /**
+     * Get the number of operations waiting to be processed.
+     */
+    public int getQueueSize() {
+        return operationsQueue.size();
+    }
+
     @Override
     public void write(@Nonnull K key, @Nonnull V value) {
         try {
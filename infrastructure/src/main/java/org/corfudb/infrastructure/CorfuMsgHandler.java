@@ -15,6 +15,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.corfudb.infrastructure.management.NodeMetricsCollector;
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.ExceptionMsg;
@@ -147,6 +148,10 @@ public class CorfuMsgHandler {
                         } else {
                             t = null;
                         }
+                        // The data path handlers are always timed, as their latency is
+                        // reported in heartbeats.
+                        final boolean alwaysTimed = NodeMetricsCollector.DATA_PATH_HANDLERS
+                                .contains(a.opTimer());
                         // Now create the lambda that wraps the lambda-like-thing that's
                         // stored in 'h' and insert it into the handlerMap.
                         handlerMap.put(a.type(),
@@ -154,7 +159,8 @@ public class CorfuMsgHandler {
                                  boolean isMetricsEnabled) -> {
                                     try (Timer.Context timerCxt
                                                  = MetricsUtils.getConditionalContext(
-                                            t != null && isMetricsEnabled, t)) {
+                                            t != null && (isMetricsEnabled || alwaysTimed),
+                                            t)) {
                                         h.handle(msg, ctx, r, isMetricsEnabled);
                                     }
                             });
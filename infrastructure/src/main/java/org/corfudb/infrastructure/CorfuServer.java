@@ -11,9 +11,8 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.ssl.SslContext;
@@ -43,6 +42,7 @@ import org.corfudb.protocols.wireprotocol.NettyCorfuMessageEncoder;
 import org.corfudb.security.sasl.plaintext.PlainTextSaslNettyServer;
 import org.corfudb.security.tls.SslContextConstructor;
 import org.corfudb.security.tls.TlsUtils;
+import org.corfudb.util.ChannelImplementation;
 import org.corfudb.util.GitRepositoryState;
 import org.corfudb.util.Version;
 import org.docopt.Docopt;
@@ -85,7 +85,11 @@ public class CorfuServer {
                     + "<keystore> -f <keystore_password_file>] [-r <truststore> -w "
                     + "<truststore_password_file>] [-b] [-g -o <username_file> -j <password_file>] "
                     + "[-k <seqcache>]"
-                    + "[-x <ciphers>] [-z <tls-protocols>]] [--agent] <port>\n"
+                    + "[-x <ciphers>] [-z <tls-protocols>]] [--native-transport] "
+                    + "[--io-threads=<threads>] [--disable-tcp-nodelay] "
+                    + "[--write-buffer-low-watermark=<bytes>] "
+                    + "[--write-buffer-high-watermark=<bytes>] "
+                    + "[--failure-detector=<policy>] [--agent] <port>\n"
                     + "\n"
                     + "Options:\n"
                     + " -l <path>, --log-path=<path>                                             "
@@ -160,6 +164,22 @@ public class CorfuServer {
                     + "              Comma separated list of TLS protocols to use.\n"
                     + "                                                                          "
                     + "              [default: TLSv1.1,TLSv1.2].\n"
+                    + " --native-transport                                                       "
+                    + "              Use the native (epoll) transport if available, otherwise "
+                    + "NIO.\n"
+                    + " --io-threads=<threads>                                                   "
+                    + "              Number of io and event threads, 0 for 2 x available "
+                    + "processors [default: 0].\n"
+                    + " --disable-tcp-nodelay                                                    "
+                    + "              Do not set TCP_NODELAY on client connections.\n"
+                    + " --write-buffer-low-watermark=<bytes>                                     "
+                    + "              Low watermark of the channel write buffer [default: 32768]."
+                    + "\n --write-buffer-high-watermark=<bytes>                                   "
+                    + "                High watermark of the channel write buffer "
+                    + "[default: 65536].\n"
+                    + " --failure-detector=<policy>                                              "
+                    + "              Failure detection policy of the management server: "
+                    + "periodic or phi-accrual [default: periodic].\n"
                     + " --agent      Run with byteman agent to enable runtime code injection.\n  "
                     + " -h, --help                                                               "
                     + "              Show this screen\n"
@@ -318,12 +338,23 @@ public class CorfuServer {
 
         Boolean saslPlainTextAuth = (Boolean) opts.get("--enable-sasl-plain-text-auth");
 
+        // Select the transport and its tuning.
+        ChannelImplementation channelImplementation = ChannelImplementation
+                .select((Boolean) opts.get("--native-transport"));
+        int numThreads = ChannelImplementation
+                .resolveThreads(Integer.parseInt((String) opts.get("--io-threads")));
+        boolean tcpNoDelay = !(Boolean) opts.get("--disable-tcp-nodelay");
+        WriteBufferWaterMark writeBufferWaterMark = new WriteBufferWaterMark(
+                Integer.parseInt((String) opts.get("--write-buffer-low-watermark")),
+                Integer.parseInt((String) opts.get("--write-buffer-high-watermark")));
+        log.info("Using {} transport with {} io threads", channelImplementation, numThreads);
+
         // Create the event loops responsible for servicing inbound messages.
         EventLoopGroup bossGroup;
         EventLoopGroup workerGroup;
         EventExecutorGroup ee;
 
-        bossGroup = new NioEventLoopGroup(1, new ThreadFactory() {
+        bossGroup = channelImplementation.generateEventLoopGroup(1, new ThreadFactory() {
             final AtomicInteger threadNum = new AtomicInteger(0);
 
             @Override
@@ -334,7 +365,7 @@ public class CorfuServer {
             }
         });
 
-        workerGroup = new NioEventLoopGroup(Runtime.getRuntime().availableProcessors() * 2, new
+        workerGroup = channelImplementation.generateEventLoopGroup(numThreads, new
                 ThreadFactory() {
                     final AtomicInteger threadNum = new AtomicInteger(0);
 
@@ -346,7 +377,7 @@ public class CorfuServer {
                     }
                 });
 
-        ee = new DefaultEventExecutorGroup(Runtime.getRuntime().availableProcessors() * 2, new
+        ee = new DefaultEventExecutorGroup(numThreads, new
                 ThreadFactory() {
 
                     final AtomicInteger threadNum = new AtomicInteger(0);
@@ -369,12 +400,13 @@ public class CorfuServer {
         try {
             ServerBootstrap b = new ServerBootstrap();
             b.group(bossGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
+                    .channel(channelImplementation.getServerChannelClass())
                     .option(ChannelOption.SO_BACKLOG, 100)
                     .childOption(ChannelOption.SO_KEEPALIVE, true)
                     .childOption(ChannelOption.SO_REUSEADDR, true)
-                    .childOption(ChannelOption.TCP_NODELAY, true)
+                    .childOption(ChannelOption.TCP_NODELAY, tcpNoDelay)
                     .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                    .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark)
                     .childHandler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         public void initChannel(io.netty.channel.socket.SocketChannel ch) throws
@@ -1,9 +1,7 @@
 package org.corfudb.infrastructure;
 
-import com.github.benmanes.caffeine.cache.CacheWriter;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
-import com.github.benmanes.caffeine.cache.RemovalCause;
 
 import java.io.File;
 import java.io.IOException;
@@ -11,6 +9,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,10 +27,11 @@ import org.corfudb.util.JsonUtils;
  *
  * <p>In in-memory mode, the "cache" is actually the store, so we never evict anything from it.
  *
- * <p>In persistent mode, we use a {@link LoadingCache}, where an in-memory map is backed by disk.
- * In this scheme, the key for each value is also the name of the file where the value is stored.
- * The key is determined as (prefix + "_" + key).
- * The cache here serves mostly for easily managed synchronization of in-memory/file.
+ * <p>In persistent mode, the cache holds every value, and is backed by a {@link DataStoreLog}
+ * under {@link DataStore::logDir}, which every update is appended to, and which is replayed
+ * to rebuild the cache on startup. The key for each value is determined as
+ * (prefix + "_" + key). Values which were stored as a file per key, named by the key, by
+ * earlier versions are still loaded, and move to the log once they are updated.
  *
  * <p>If 'opts' either has '--memory=true' or a log-path for storing files is not provided,
  * the store is just an in memory cache.
@@ -45,6 +45,7 @@ public class DataStore implements IDataStore {
     @Getter
     private final LoadingCache<String, String> cache;
     private final String logDir;
+    private final DataStoreLog dataStoreLog;
 
     @Getter
     private final long dsCacheSize = 1_000; // size bound for in-memory cache for dataStore
@@ -61,12 +62,15 @@ public class DataStore implements IDataStore {
             // in-memory dataSture case
             isPersistent = false;
             this.logDir = null;
+            this.dataStoreLog = null;
             cache = buildMemoryDs();
         } else {
             // persistent dataSture case
             isPersistent = true;
             this.logDir = (String) opts.get("--log-path");
+            this.dataStoreLog = new DataStoreLog(logDir);
             cache = buildPersistentDs();
+            cache.putAll(dataStoreLog.replay());
         }
     }
 
@@ -82,39 +86,15 @@ public class DataStore implements IDataStore {
     }
 
     /**
-     * obtain a {@link LoadingCache}.
-     * The cache is backed up by file-per-key uner {@link DataStore::logDir}.
-     * The cache size is bounded by {@link DataStore::dsCacheSize}.
+     * obtain a {@link LoadingCache} for the persistent case.
+     * The cache is not bounded, since it holds every value of the {@link DataStoreLog}.
+     * Values missing from the log are loaded from the file-per-key layout of earlier versions.
      *
      * @return the cache object
      */
     private LoadingCache<String, String> buildPersistentDs() {
         LoadingCache<String, String> cache = Caffeine.newBuilder()
                 .recordStats()
-                .writer(new CacheWriter<String, String>() {
-                    @Override
-                    public synchronized void write(@Nonnull String key, @Nonnull String value) {
-                        try {
-                            Path path = Paths.get(logDir + File.separator + key);
-                            Files.write(path, value.getBytes());
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-
-                    @Override
-                    public synchronized void delete(@Nonnull String key,
-                                                    @Nullable String value,
-                                                    @Nonnull RemovalCause cause) {
-                        try {
-                            Path path = Paths.get(logDir + File.separator + key);
-                            Files.deleteIfExists(path);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                })
-                .maximumSize(dsCacheSize)
                 .build(key -> {
                     try {
                         Path path = Paths.get(logDir + File.separator + key);
@@ -130,9 +110,65 @@ public class DataStore implements IDataStore {
         return cache;
     }
 
+    /**
+     * Update a key, and append the update to the log. The caller must hold the lock of
+     * the store, so that the log and the cache agree on the order of updates.
+     *
+     * @param key   the key updated
+     * @param value the new value, or null if the key was deleted
+     * @return the sequence number to commit
+     */
+    private long update(String key, @Nullable String value) {
+        if (value == null) {
+            cache.invalidate(key);
+            deleteLegacyFile(key);
+        } else {
+            cache.put(key, value);
+        }
+        return isPersistent ? dataStoreLog.append(key, value) : 0L;
+    }
+
+    /**
+     * Wait until an update is durable. This is done without holding the lock of the store,
+     * so that concurrent updates share a single sync.
+     *
+     * @param seq the sequence number of the update
+     */
+    private void commit(long seq) {
+        if (!isPersistent) {
+            return;
+        }
+        dataStoreLog.commit(seq);
+
+        if (dataStoreLog.shouldCompact(cache.estimatedSize())) {
+            synchronized (this) {
+                if (dataStoreLog.shouldCompact(cache.estimatedSize())) {
+                    dataStoreLog.compact(new HashMap<>(cache.asMap()));
+                }
+            }
+        }
+    }
+
+    /** Delete the file of a key stored by an earlier version, so it is not loaded again. */
+    private void deleteLegacyFile(String key) {
+        if (!isPersistent) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(logDir + File.separator + key));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
-    public synchronized  <T> void put(Class<T> tclass, String prefix, String key, T value) {
-        cache.put(getKey(prefix, key), JsonUtils.parser.toJson(value, tclass));
+    public <T> void put(Class<T> tclass, String prefix, String key, T value) {
+        final String json = JsonUtils.parser.toJson(value, tclass);
+        final long seq;
+        synchronized (this) {
+            seq = update(getKey(prefix, key), json);
+        }
+        commit(seq);
     }
 
     @Override
@@ -155,7 +191,17 @@ public class DataStore implements IDataStore {
      */
     public <T> T get(Class<T> tclass, String prefix, String key, T value) {
         String keyString = getKey(prefix, key);
-        String json = cache.get(keyString, k -> JsonUtils.parser.toJson(value, tclass));
+        final String json;
+        final long seq;
+        synchronized (this) {
+            String current = cache.get(keyString);
+            if (isNotNull(current)) {
+                return getObject(current, tclass);
+            }
+            json = JsonUtils.parser.toJson(value, tclass);
+            seq = update(keyString, json);
+        }
+        commit(seq);
         return getObject(json, tclass);
     }
 
@@ -171,8 +217,12 @@ public class DataStore implements IDataStore {
     }
 
     @Override
-    public synchronized <T> void delete(Class<T> tclass, String prefix, String key) {
-        cache.invalidate(getKey(prefix, key));
+    public <T> void delete(Class<T> tclass, String prefix, String key) {
+        final long seq;
+        synchronized (this) {
+            seq = update(getKey(prefix, key), null);
+        }
+        commit(seq);
     }
 
     // Helper methods
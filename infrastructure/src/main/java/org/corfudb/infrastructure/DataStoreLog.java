@@ -0,0 +1,310 @@
+package org.corfudb.infrastructure;
+
+import com.google.common.hash.Hashing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An append-only, checksummed log of the updates to a {@link DataStore}.
+ *
+ * <p>Each record holds a key and its new value, or no value if the key was deleted,
+ * and is framed by its length and checksum. The live values are rebuilt by replaying
+ * the log, which stops at the first torn or corrupted record.
+ *
+ * <p>Updates are appended to a pending batch, and made durable with group commit: the
+ * first writer to commit writes and syncs all pending records, so concurrent writers
+ * share a single fsync. Once enough records are superseded, the log is compacted by
+ * writing the live values to a new file, which atomically replaces the log.
+ */
+@Slf4j
+class DataStoreLog {
+
+    /** The name of the log file, in the log directory. */
+    static final String LOG_FILE_NAME = "datastore.log";
+
+    /** The minimum number of records in the log before it is compacted. */
+    static final int COMPACTION_MIN_RECORDS = 1_000;
+
+    /** The size of the frame of a record: its length and checksum. */
+    private static final int FRAME_SIZE = Integer.BYTES * 2;
+
+    /** A value length which marks a deleted key. */
+    private static final int DELETED = -1;
+
+    private final Path path;
+
+    /** The records which were appended, but not committed yet. Guarded by this. */
+    private List<ByteBuffer> pending = new ArrayList<>();
+
+    /** The sequence number of the last record appended. Guarded by this. */
+    private long appendedSeq = 0L;
+
+    /** Serializes writes to the log file. */
+    private final Object commitLock = new Object();
+
+    /** The sequence number of the last record committed. Guarded by commitLock. */
+    private long committedSeq = 0L;
+
+    /** The number of records in the log file. Guarded by commitLock. */
+    private long records = 0L;
+
+    /** Whether a failed commit left a partial record in the log file, which can't be
+     * appended to anymore. Guarded by commitLock. */
+    private boolean failed = false;
+
+    /**
+     * Returns a log in a directory.
+     *
+     * @param logDir the directory of the log file
+     */
+    DataStoreLog(@Nonnull String logDir) {
+        this.path = Paths.get(logDir, LOG_FILE_NAME);
+    }
+
+    /**
+     * Replay the log, and truncate any torn or corrupted records at its end.
+     *
+     * @return the live value of each key
+     */
+    Map<String, String> replay() {
+        Map<String, String> values = new HashMap<>();
+        if (Files.notExists(path)) {
+            return values;
+        }
+
+        synchronized (commitLock) {
+            try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer buf = ByteBuffer.allocate((int) fc.size());
+                while (buf.hasRemaining() && fc.read(buf) >= 0) {
+                    // Read the whole log.
+                }
+                buf.flip();
+
+                long validBytes = 0L;
+                while (buf.remaining() >= FRAME_SIZE) {
+                    final int length = buf.getInt();
+                    final int checksum = buf.getInt();
+                    if (length < 0 || length > buf.remaining()) {
+                        break;
+                    }
+                    byte[] body = new byte[length];
+                    buf.get(body);
+                    if (checksum != getChecksum(body)) {
+                        break;
+                    }
+
+                    ByteBuffer record = ByteBuffer.wrap(body);
+                    String key = getString(record, record.getInt());
+                    int valueLength = record.getInt();
+                    if (valueLength == DELETED) {
+                        values.remove(key);
+                    } else {
+                        values.put(key, getString(record, valueLength));
+                    }
+                    validBytes = buf.position();
+                    records++;
+                }
+
+                if (validBytes < fc.size()) {
+                    log.warn("replay: Truncating {} bytes of torn or corrupted records in {}",
+                            fc.size() - validBytes, path);
+                    fc.truncate(validBytes);
+                    fc.force(true);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Append an update of a key to the pending batch. The update is durable only once
+     * it was committed.
+     *
+     * @param key   the key updated
+     * @param value the new value of the key, or null if it was deleted
+     * @return the sequence number to commit
+     */
+    synchronized long append(@Nonnull String key, @Nullable String value) {
+        pending.add(getRecord(key, value));
+        return ++appendedSeq;
+    }
+
+    private static ByteBuffer getRecord(@Nonnull String key, @Nullable String value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+
+        byte[] body = ByteBuffer.allocate(Integer.BYTES * 2 + keyBytes.length
+                + valueBytes.length)
+                .putInt(keyBytes.length)
+                .put(keyBytes)
+                .putInt(value == null ? DELETED : valueBytes.length)
+                .put(valueBytes)
+                .array();
+
+        ByteBuffer record = ByteBuffer.allocate(FRAME_SIZE + body.length);
+        record.putInt(body.length);
+        record.putInt(getChecksum(body));
+        record.put(body);
+        record.flip();
+        return record;
+    }
+
+    /**
+     * Wait until an appended record is durable, writing and syncing all pending records
+     * if no other writer did so yet.
+     *
+     * @param seq the sequence number of the record
+     */
+    void commit(long seq) {
+        synchronized (commitLock) {
+            if (committedSeq >= seq) {
+                return;
+            }
+            if (failed) {
+                throw new IllegalStateException("The data store log " + path
+                        + " failed, and may hold a partial record");
+            }
+
+            final List<ByteBuffer> batch;
+            final long batchSeq;
+            synchronized (this) {
+                batch = pending;
+                batchSeq = appendedSeq;
+                pending = new ArrayList<>();
+            }
+
+            final boolean created = Files.notExists(path);
+            try (FileChannel fc = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                final long size = fc.size();
+                try {
+                    ByteBuffer[] buffers = batch.toArray(new ByteBuffer[batch.size()]);
+                    while (buffers.length > 0 && buffers[buffers.length - 1].hasRemaining()) {
+                        fc.write(buffers);
+                    }
+                    fc.force(false);
+                } catch (IOException e) {
+                    // Drop the part of the batch which was written, otherwise the replay
+                    // would stop at it, and lose every record committed after it.
+                    try {
+                        fc.truncate(size);
+                        fc.force(false);
+                    } catch (IOException te) {
+                        e.addSuppressed(te);
+                        failed = true;
+                    }
+                    throw e;
+                }
+                if (created) {
+                    syncDirectory();
+                }
+            } catch (IOException e) {
+                // Keep the batch pending, so the next commit retries it.
+                synchronized (this) {
+                    batch.forEach(ByteBuffer::rewind);
+                    batch.addAll(pending);
+                    pending = batch;
+                }
+                throw new RuntimeException(e);
+            }
+
+            records += batch.size();
+            committedSeq = batchSeq;
+        }
+    }
+
+    /**
+     * Whether enough records of the log were superseded to compact it.
+     *
+     * @param liveRecords the number of live keys
+     */
+    boolean shouldCompact(long liveRecords) {
+        synchronized (commitLock) {
+            return records > Math.max(COMPACTION_MIN_RECORDS, 2 * liveRecords);
+        }
+    }
+
+    /**
+     * Replace the log with one which only holds the live values. The caller must ensure
+     * that no records are appended concurrently, and that the values include the records
+     * which are still pending, which are committed by the compaction.
+     *
+     * @param values the live value of each key
+     */
+    void compact(@Nonnull Map<String, String> values) {
+        synchronized (commitLock) {
+            Path compactPath = Paths.get(path.toString() + ".compact");
+            List<ByteBuffer> batch = new ArrayList<>();
+            values.forEach((key, value) -> batch.add(getRecord(key, value)));
+
+            try (FileChannel fc = FileChannel.open(compactPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (ByteBuffer record : batch) {
+                    while (record.hasRemaining()) {
+                        fc.write(record);
+                    }
+                }
+                fc.force(true);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            try {
+                Files.move(compactPath, path, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                syncDirectory();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            log.debug("compact: Compacted {} records to {}", records, batch.size());
+            records = batch.size();
+            // The compacted log replaced any partial record.
+            failed = false;
+            synchronized (this) {
+                pending.clear();
+                committedSeq = appendedSeq;
+            }
+        }
+    }
+
+    /**
+     * Sync the directory of the log, so that the creation or replacement of the log file
+     * is durable.
+     */
+    private void syncDirectory() throws IOException {
+        try (FileChannel dir = FileChannel.open(path.getParent(), StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    private static String getString(ByteBuffer buf, int length) {
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int getChecksum(byte[] bytes) {
+        return Hashing.crc32c().hashBytes(bytes).asInt();
+    }
+}
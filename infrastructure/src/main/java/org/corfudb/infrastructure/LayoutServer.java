@@ -6,9 +6,11 @@ import java.lang.invoke.MethodHandles;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
@@ -52,6 +54,10 @@ import org.corfudb.runtime.view.Layout.LayoutSegment;
  * server that a new rank has been accepted by a quorum of
  * servers.
  *
+ * <p>Clients may also subscribe to layout changes, in which case the server pushes
+ * the epoch of each layout it is bootstrapped with or commits, so that clients don't
+ * need to poll for new layouts.
+ *
  * <p>Created by mwei on 12/8/15.
  */
 //TODO Finer grained synchronization needed for this class.
@@ -84,6 +90,22 @@ public class LayoutServer extends AbstractServer {
 
     private static final String metricsPrefix = "corfu.server.layout.";
 
+    /**
+     * The subscriptions to layout changes, by the channel they were made on.
+     */
+    private final Map<ChannelHandlerContext, Subscription> subscriptions =
+            new ConcurrentHashMap<>();
+
+    /**
+     * A subscription to layout changes. Notifications reply to the subscribe message,
+     * so that they are routed to the client which subscribed.
+     */
+    @Value
+    private static class Subscription {
+        CorfuMsg msg;
+        IServerRouter router;
+    }
+
     /**
      * Returns new LayoutServer for context.
      *
@@ -159,6 +181,44 @@ public class LayoutServer extends AbstractServer {
         }
     }
 
+    /**
+     * Subscribes the client to layout changes, for as long as its channel is open.
+     *
+     * @param msg corfu message containing LAYOUT_SUBSCRIBE
+     * @param ctx netty ChannelHandlerContext
+     * @param r   server router
+     */
+    @ServerHandler(type = CorfuMsgType.LAYOUT_SUBSCRIBE, opTimer = metricsPrefix + "subscribe")
+    public void handleMessageLayoutSubscribe(CorfuMsg msg, ChannelHandlerContext ctx,
+                                             IServerRouter r, boolean isMetricsEnabled) {
+        if (ctx == null) {
+            // Without a channel, there is nothing to push notifications to.
+            r.sendResponse(ctx, msg, new CorfuMsg(CorfuMsgType.NACK));
+            return;
+        }
+        subscriptions.put(ctx, new Subscription(msg, r));
+        log.debug("handleMessageLayoutSubscribe: {} subscribed to layout changes",
+                msg.getClientID());
+        r.sendResponse(ctx, msg, new CorfuMsg(CorfuMsgType.ACK));
+    }
+
+    /**
+     * Pushes the epoch of a new layout to the subscribed clients, and drops the
+     * subscriptions of closed channels.
+     *
+     * @param epoch the epoch of the new layout
+     */
+    private void notifySubscribers(long epoch) {
+        subscriptions.forEach((ctx, subscription) -> {
+            if (ctx.channel() != null && !ctx.channel().isActive()) {
+                subscriptions.remove(ctx);
+                return;
+            }
+            subscription.getRouter().sendResponse(ctx, subscription.getMsg(),
+                    CorfuMsgType.LAYOUT_NOTIFICATION.payloadMsg(epoch));
+        });
+    }
+
     /**
      * Sets the new layout if the server has not been bootstrapped with one already.
      *
@@ -180,6 +240,7 @@ public class LayoutServer extends AbstractServer {
             serverContext.setServerEpoch(getCurrentLayout().getEpoch());
             //send a response that the bootstrap was successful.
             r.sendResponse(ctx, msg, new CorfuMsg(CorfuMsgType.ACK));
+            notifySubscribers(getCurrentLayout().getEpoch());
         } else {
             // We are already bootstrapped, bootstrap again is not allowed.
             log.warn("handleMessageLayoutBootstrap: Got a request to bootstrap a server which is "
@@ -366,6 +427,7 @@ public class LayoutServer extends AbstractServer {
         setCurrentLayout(commitLayout);
         setServerEpoch(msg.getPayload().getEpoch());
         r.sendResponse(ctx, msg, new CorfuMsg(CorfuMsgType.ACK));
+        notifySubscribers(commitLayout.getEpoch());
     }
 
 
@@ -1,6 +1,9 @@
 package org.corfudb.infrastructure;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.RemovalCause;
@@ -10,8 +13,12 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.lang.invoke.MethodHandles;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -21,17 +28,28 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import org.corfudb.infrastructure.log.InMemoryStreamLog;
+import org.corfudb.infrastructure.management.NodeMetricsCollector;
+import org.corfudb.infrastructure.log.SegmentedStreamLog;
 import org.corfudb.infrastructure.log.StreamLog;
 import org.corfudb.infrastructure.log.StreamLogFiles;
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
+import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.LogDataDigest;
 import org.corfudb.protocols.wireprotocol.MultipleReadRequest;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
+import org.corfudb.protocols.wireprotocol.ReadDigestResponse;
+import org.corfudb.protocols.wireprotocol.ReadHint;
 import org.corfudb.protocols.wireprotocol.ReadRequest;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.protocols.wireprotocol.ScanRequest;
+import org.corfudb.protocols.wireprotocol.ScanResponse;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.SegmentChunkRequest;
+import org.corfudb.protocols.wireprotocol.StreamTailsResponse;
 import org.corfudb.protocols.wireprotocol.TrimRequest;
 import org.corfudb.protocols.wireprotocol.WriteRequest;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
@@ -103,6 +121,24 @@ public class LogUnitServer extends AbstractServer {
 
     private static final String metricsPrefix = "corfu.server.logunit.";
 
+    /** The maximum number of addresses a single scan request examines. */
+    public static final int SCAN_MAX_ADDRESSES = 4096;
+
+    /** Detects clients which read the log sequentially. */
+    private final SequentialReadDetector sequentialReadDetector = new SequentialReadDetector();
+
+    /** Cache hits, for each class of read. */
+    private final Map<ReadHint, Counter> cacheHits = new EnumMap<>(ReadHint.class);
+
+    /** Cache misses, for each class of read. */
+    private final Map<ReadHint, Counter> cacheMisses = new EnumMap<>(ReadHint.class);
+
+    /** Bytes of segment files received by state transfer. */
+    private final Counter transferBytesReceived;
+
+    /** Segments installed by state transfer. */
+    private final Counter transferSegmentsInstalled;
+
     /**
      * Returns a new LogUnitServer.
      * @param serverContext context object providing settings and objects
@@ -137,6 +173,37 @@ public class LogUnitServer extends AbstractServer {
 
         MetricRegistry metrics = serverContext.getMetrics();
 //        MetricsUtils.addCacheGauges(metrics, metricsPrefix + "cache.", dataCache);
+        for (ReadHint hint : ReadHint.values()) {
+            final String name = metricsPrefix + "cache." + hint.name().toLowerCase() + ".";
+            final Counter hits = metrics.counter(name + "hits");
+            final Counter misses = metrics.counter(name + "misses");
+            cacheHits.put(hint, hits);
+            cacheMisses.put(hint, misses);
+            // Counters are shared by name, so a gauge registered by an earlier instance
+            // already reports the same counters. The registry is shared by the servers,
+            // so the check and the registration must not interleave with another's.
+            synchronized (metrics) {
+                if (!metrics.getGauges().containsKey(name + "hit-rate")) {
+                    metrics.register(name + "hit-rate", new RatioGauge() {
+                        @Override
+                        protected Ratio getRatio() {
+                            return Ratio.of(hits.getCount(),
+                                    hits.getCount() + misses.getCount());
+                        }
+                    });
+                }
+            }
+        }
+
+        // Report the queue of this log unit, replacing any log unit which was stopped.
+        metrics.remove(NodeMetricsCollector.BATCH_WRITER_QUEUE_SIZE);
+        metrics.register(NodeMetricsCollector.BATCH_WRITER_QUEUE_SIZE,
+                (Gauge<Integer>) batchWriter::getQueueSize);
+
+        transferBytesReceived = metrics.counter(metricsPrefix
+                + "state-transfer.bytes-received");
+        transferSegmentsInstalled = metrics.counter(metricsPrefix
+                + "state-transfer.segments-installed");
 
         Runnable task = () -> streamLog.compact();
         compactor = scheduler.scheduleAtFixedRate(task, 10, 45, TimeUnit.MINUTES);
@@ -151,6 +218,17 @@ public class LogUnitServer extends AbstractServer {
         r.sendResponse(ctx, msg, CorfuMsgType.TAIL_RESPONSE.payloadMsg(streamLog.getGlobalTail()));
     }
 
+    /**
+     * Service an incoming request for the tail of each stream written to this logging unit.
+     */
+    @ServerHandler(type = CorfuMsgType.STREAM_TAILS_REQUEST,
+            opTimer = metricsPrefix + "streamTailsReq")
+    public void handleStreamTailsRequest(CorfuMsg msg, ChannelHandlerContext ctx,
+                                         IServerRouter r, boolean isMetricsEnabled) {
+        r.sendResponse(ctx, msg, CorfuMsgType.STREAM_TAILS_RESPONSE.payloadMsg(
+                new StreamTailsResponse(streamLog.getStreamTails())));
+    }
+
     /**
      * Service an incoming request to retrieve the starting address of this logging unit.
      */
@@ -186,11 +264,13 @@ public class LogUnitServer extends AbstractServer {
     private void read(CorfuPayloadMsg<ReadRequest> msg, ChannelHandlerContext ctx, IServerRouter r,
                       boolean isMetricsEnabled) {
         log.trace("read: {}", msg.getPayload().getRange());
+        final long first = msg.getPayload().getRange().lowerEndpoint();
+        final long last = msg.getPayload().getRange().upperEndpoint();
+        final ReadHint hint = classifyRead(msg, msg.getPayload().getHint(), first, last);
         ReadResponse rr = new ReadResponse();
         try {
-            for (Long l = msg.getPayload().getRange().lowerEndpoint();
-                    l < msg.getPayload().getRange().upperEndpoint() + 1L; l++) {
-                ILogData e = dataCache.get(l);
+            for (Long l = first; l < last + 1L; l++) {
+                ILogData e = readEntry(l, hint);
                 if (e == null) {
                     rr.put(l, LogData.getEmpty(l));
                 } else {
@@ -207,11 +287,15 @@ public class LogUnitServer extends AbstractServer {
     private void multiRead(CorfuPayloadMsg<MultipleReadRequest> msg, ChannelHandlerContext ctx, IServerRouter r,
                            boolean isMetricsEnabled) {
         log.trace("multiRead: {}", msg.getPayload().getAddresses());
+        final List<Long> addresses = msg.getPayload().getAddresses();
+        final ReadHint hint = addresses.isEmpty() ? ReadHint.NORMAL
+                : classifyRead(msg, msg.getPayload().getHint(),
+                        addresses.get(0), addresses.get(addresses.size() - 1));
 
         ReadResponse rr = new ReadResponse();
         try {
-            for (Long l : msg.getPayload().getAddresses()) {
-                ILogData e = dataCache.get(l);
+            for (Long l : addresses) {
+                ILogData e = readEntry(l, hint);
                 if (e == null) {
                     rr.put(l, LogData.getEmpty(l));
                 } else {
@@ -224,6 +308,87 @@ public class LogUnitServer extends AbstractServer {
         }
     }
 
+    /**
+     * Service a read, returning only the digest of each entry rather than its payload,
+     * for replicas which only need to confirm the entry another replica returns.
+     *
+     * <p>Entries which are not cached are read directly from the log, without being
+     * added to the cache, as the payload of the entry is not served by this replica.
+     */
+    @ServerHandler(type = CorfuMsgType.READ_DIGEST_REQUEST, opTimer = metricsPrefix + "readDigest")
+    private void readDigest(CorfuPayloadMsg<MultipleReadRequest> msg, ChannelHandlerContext ctx,
+                            IServerRouter r, boolean isMetricsEnabled) {
+        log.trace("readDigest: {}", msg.getPayload().getAddresses());
+
+        ReadDigestResponse rr = new ReadDigestResponse();
+        try {
+            for (Long l : msg.getPayload().getAddresses()) {
+                ILogData e = dataCache.getIfPresent(l);
+                if (e == null) {
+                    e = handleRetrieval(l);
+                }
+                rr.put(l, LogDataDigest.of((LogData) e));
+            }
+            r.sendResponse(ctx, msg, CorfuMsgType.READ_DIGEST_RESPONSE.payloadMsg(rr));
+        } catch (DataCorruptionException e) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_DATA_CORRUPTION.msg());
+        }
+    }
+
+    /**
+     * Service a scan of a range of addresses, returning only the entries which belong
+     * to the requested streams, up to the requested size.
+     *
+     * <p>Entries which are not cached are read directly from the log, without being
+     * added to the cache, so that large sequential scans do not evict the working set.
+     *
+     * <p>A request examines at most {@link #SCAN_MAX_ADDRESSES} addresses, so that a
+     * sparse or large range does not hold the handler for long. The response then
+     * carries the address to continue from, and may hold no entries.
+     *
+     * <p>The addresses examined which hold no entry are returned as well, so that the
+     * reader can tell them apart from the entries of other streams, and hole fill them.
+     */
+    @ServerHandler(type = CorfuMsgType.SCAN_REQUEST, opTimer = metricsPrefix + "scan")
+    private void scan(CorfuPayloadMsg<ScanRequest> msg, ChannelHandlerContext ctx,
+                      IServerRouter r, boolean isMetricsEnabled) {
+        ScanRequest request = msg.getPayload();
+        log.trace("scan: {} streams: {}", request.getRange(), request.getStreams());
+
+        long start = request.getRange().lowerEndpoint();
+        long end = request.getRange().upperEndpoint();
+        if (start < streamLog.getTrimMark()) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_TRIMMED.msg());
+            return;
+        }
+
+        Map<Long, LogData> entries = new HashMap<>();
+        Set<Long> unwritten = new HashSet<>();
+        long bytes = 0;
+        long address = start;
+        final long lastAddress = Math.min(end, start + SCAN_MAX_ADDRESSES - 1);
+        try {
+            while (address <= lastAddress
+                    && (entries.isEmpty() || bytes < request.getMaxBytes())) {
+                ILogData e = readEntry(address, ReadHint.SEQUENTIAL);
+                if (e == null) {
+                    unwritten.add(address);
+                } else if (e.getType() == DataType.DATA
+                        && (request.getStreams().isEmpty()
+                        || request.getStreams().stream().anyMatch(e::containsStream))) {
+                    entries.put(address, (LogData) e);
+                    bytes += e.getSizeEstimate();
+                }
+                address++;
+            }
+            r.sendResponse(ctx, msg, CorfuMsgType.SCAN_RESPONSE.payloadMsg(
+                    new ScanResponse(entries, unwritten, address > end
+                            ? ScanResponse.SCAN_COMPLETE : address)));
+        } catch (DataCorruptionException e) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_DATA_CORRUPTION.msg());
+        }
+    }
+
     @ServerHandler(type = CorfuMsgType.FILL_HOLE, opTimer = metricsPrefix + "fill-hole")
     private void fillHole(CorfuPayloadMsg<TrimRequest> msg, ChannelHandlerContext ctx,
                           IServerRouter r,
@@ -301,6 +466,94 @@ public class LogUnitServer extends AbstractServer {
         r.sendResponse(ctx, msg, CorfuMsgType.WRITE_OK.msg());
     }
 
+    /**
+     * Service an incoming request for the segments of the log.
+     */
+    @ServerHandler(type = CorfuMsgType.SEGMENT_INFO_REQUEST,
+            opTimer = metricsPrefix + "segmentInfoReq")
+    private void segmentInfo(CorfuMsg msg, ChannelHandlerContext ctx, IServerRouter r,
+                             boolean isMetricsEnabled) {
+        try {
+            r.sendResponse(ctx, msg, CorfuMsgType.SEGMENT_INFO_RESPONSE.payloadMsg(
+                    getSegmentedStreamLog().getSegmentInfo()));
+        } catch (UnsupportedOperationException e) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_SEGMENTS_UNSUPPORTED.msg());
+        }
+    }
+
+    /**
+     * Service an incoming request for a chunk of a sealed segment file.
+     */
+    @ServerHandler(type = CorfuMsgType.SEGMENT_CHUNK_REQUEST,
+            opTimer = metricsPrefix + "segmentChunkReq")
+    private void readSegmentChunk(CorfuPayloadMsg<SegmentChunkRequest> msg,
+                                  ChannelHandlerContext ctx, IServerRouter r,
+                                  boolean isMetricsEnabled) {
+        SegmentChunkRequest request = msg.getPayload();
+        try {
+            r.sendResponse(ctx, msg, CorfuMsgType.SEGMENT_CHUNK_RESPONSE.payloadMsg(
+                    getSegmentedStreamLog().readSegmentChunk(request.getSegment(),
+                            request.getType(), request.getOffset(), request.getMaxLength())));
+        } catch (UnsupportedOperationException e) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_SEGMENTS_UNSUPPORTED.msg());
+        }
+    }
+
+    /**
+     * Services incoming chunks of transferred segment files.
+     */
+    @ServerHandler(type = CorfuMsgType.SEGMENT_CHUNK_WRITE,
+            opTimer = metricsPrefix + "segmentChunkWrite")
+    private void writeSegmentChunk(CorfuPayloadMsg<SegmentChunk> msg,
+                                   ChannelHandlerContext ctx, IServerRouter r,
+                                   boolean isMetricsEnabled) {
+        try {
+            getSegmentedStreamLog().writeSegmentChunk(msg.getPayload());
+            transferBytesReceived.inc(msg.getPayload().getData().length);
+            r.sendResponse(ctx, msg, CorfuMsgType.WRITE_OK.msg());
+        } catch (DataCorruptionException e) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_DATA_CORRUPTION.msg());
+        } catch (UnsupportedOperationException e) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_SEGMENTS_UNSUPPORTED.msg());
+        }
+    }
+
+    /**
+     * Installs a transferred segment.
+     */
+    @ServerHandler(type = CorfuMsgType.SEGMENT_INSTALL,
+            opTimer = metricsPrefix + "segmentInstall")
+    private void installSegment(CorfuPayloadMsg<Long> msg, ChannelHandlerContext ctx,
+                                IServerRouter r, boolean isMetricsEnabled) {
+        try {
+            getSegmentedStreamLog().installSegment(msg.getPayload());
+            // Entries cached as unwritten may have been installed.
+            dataCache.invalidateAll();
+            transferSegmentsInstalled.inc();
+            r.sendResponse(ctx, msg, CorfuMsgType.WRITE_OK.msg());
+        } catch (OverwriteException e) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_OVERWRITE.msg());
+        } catch (DataCorruptionException e) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_DATA_CORRUPTION.msg());
+        } catch (UnsupportedOperationException e) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_SEGMENTS_UNSUPPORTED.msg());
+        }
+    }
+
+    /**
+     * Get the log as a segmented log, for the state transfer of whole segments.
+     *
+     * @return The segmented log.
+     * @throws UnsupportedOperationException If the log is not segmented, in which case
+     *                                       the entries are transferred record by record.
+     */
+    private SegmentedStreamLog getSegmentedStreamLog() {
+        if (!(streamLog instanceof SegmentedStreamLog)) {
+            throw new UnsupportedOperationException("The log is not segmented");
+        }
+        return (SegmentedStreamLog) streamLog;
+    }
+
     /**
      * Resets the log unit server.
      * Warning: Clears all data.
@@ -313,6 +566,39 @@ public class LogUnitServer extends AbstractServer {
         r.sendResponse(ctx, msg, CorfuMsgType.ACK.msg());
     }
 
+    /** Classify a read, as either a NORMAL read or part of a SEQUENTIAL scan.
+     *
+     * @param msg       The read request.
+     * @param hint      The hint given by the client.
+     * @param first     The first address read.
+     * @param last      The last address read.
+     * @return          SEQUENTIAL, if the client hinted so, or if the read continues
+     *                  the previous read of the client, otherwise NORMAL.
+     */
+    private ReadHint classifyRead(CorfuMsg msg, ReadHint hint, long first, long last) {
+        boolean sequential = sequentialReadDetector.isSequential(msg.getClientID(), first, last);
+        return hint == ReadHint.SEQUENTIAL || sequential ? ReadHint.SEQUENTIAL : ReadHint.NORMAL;
+    }
+
+    /** Read an entry, accounting the cache hit or miss to the given class of read.
+     *
+     * <p>Entries which miss the cache on a SEQUENTIAL read are read directly from the log,
+     * without being added to the cache, so that scans do not evict the working set.
+     *
+     * @param address   The address to read.
+     * @param hint      The class of the read.
+     * @return          The entry at the address, or null, if it is unwritten.
+     */
+    private ILogData readEntry(long address, ReadHint hint) {
+        ILogData e = dataCache.getIfPresent(address);
+        if (e != null) {
+            cacheHits.get(hint).inc();
+            return e;
+        }
+        cacheMisses.get(hint).inc();
+        return hint == ReadHint.SEQUENTIAL ? handleRetrieval(address) : dataCache.get(address);
+    }
+
     /**
      * Retrieve the LogUnitEntry from disk, given an address.
      *
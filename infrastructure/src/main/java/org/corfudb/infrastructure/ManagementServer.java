@@ -1,5 +1,6 @@
 package org.corfudb.infrastructure;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
@@ -27,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.corfudb.format.Types.NodeMetrics;
 
 import org.corfudb.infrastructure.management.IFailureDetectorPolicy;
+import org.corfudb.infrastructure.management.NodeMetricsCollector;
 import org.corfudb.infrastructure.management.PollReport;
 
 import org.corfudb.infrastructure.management.ReconfigurationEventHandler;
@@ -114,6 +116,12 @@ public class ManagementServer extends AbstractServer {
     @Getter
     private volatile CompletableFuture<Boolean> sequencerBootstrappedFuture;
 
+    /**
+     * Nodes which responded to the last poll, but were degraded.
+     */
+    @Getter
+    private volatile Set<String> degradedNodes = Collections.emptySet();
+
     /**
      * Returns new ManagementServer.
      *
@@ -166,6 +174,10 @@ public class ManagementServer extends AbstractServer {
                         .setNameFormat("FaultDetector-%d-" + getLocalEndpoint())
                         .build());
 
+        ServerContext.getMetrics().remove(metricsPrefix + "degraded-nodes");
+        ServerContext.getMetrics().register(metricsPrefix + "degraded-nodes",
+                (Gauge<Integer>) () -> degradedNodes.size());
+
         // Initiating periodic task to poll for failures.
         try {
             failureDetectorService.scheduleAtFixedRate(
@@ -359,8 +371,8 @@ public class ManagementServer extends AbstractServer {
 
     /**
      * Handles the heartbeat request.
-     * It accumulates the metrics required to build
-     * and send the response(NodeMetrics).
+     * It accumulates the load of the servers of this node
+     * and sends the response(NodeMetrics).
      *
      * @param msg corfu message containing HEARTBEAT_REQUEST
      * @param ctx netty ChannelHandlerContext
@@ -370,9 +382,8 @@ public class ManagementServer extends AbstractServer {
             + "heartbeat-request")
     public void handleHeartbeatRequest(CorfuMsg msg, ChannelHandlerContext ctx, IServerRouter r,
                                        boolean isMetricsEnabled) {
-        // Currently builds a default instance of the model.
-        // TODO: Collect metrics from Layout, Sequencer and LogUnit Servers.
-        NodeMetrics nodeMetrics = NodeMetrics.getDefaultInstance();
+        NodeMetrics nodeMetrics = NodeMetricsCollector.collect(getLocalEndpoint(),
+                ServerContext.getMetrics());
         r.sendResponse(ctx, msg, new CorfuPayloadMsg<>(CorfuMsgType.HEARTBEAT_RESPONSE,
                 nodeMetrics.toByteArray()));
     }
@@ -483,6 +494,12 @@ public class ManagementServer extends AbstractServer {
         // Analyze the poll report and trigger failure handler if needed.
         analyzePollReportAndTriggerHandler(pollReport);
 
+        // Degraded nodes are still responsive, so they are reported but not reconfigured.
+        degradedNodes = pollReport.getDegradedNodes();
+        if (!degradedNodes.isEmpty()) {
+            log.warn("failureDetectorTask: Degraded nodes: {}", degradedNodes);
+        }
+
     }
 
     /**
@@ -1,12 +1,14 @@
 package org.corfudb.infrastructure;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -17,6 +19,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import org.corfudb.infrastructure.management.NodeMetricsCollector;
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
@@ -78,7 +81,7 @@ public class NettyServerRouter extends ChannelInboundHandlerAdapter
                 e);
     }
 
-    protected final ExecutorService handlerWorkers =
+    protected final ForkJoinPool handlerWorkers =
             new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
                     new ServerThreadFactory(),
                     NettyServerRouter::handleUncaughtException, true);
@@ -105,6 +108,12 @@ public class NettyServerRouter extends ChannelInboundHandlerAdapter
         handlerMap = new ConcurrentHashMap<>();
         baseServer = new BaseServer();
         addServer(baseServer);
+
+        // Report the queue of this router, replacing any router which was stopped.
+        MetricRegistry metrics = ServerContext.getMetrics();
+        metrics.remove(NodeMetricsCollector.HANDLER_QUEUE_DEPTH);
+        metrics.register(NodeMetricsCollector.HANDLER_QUEUE_DEPTH, (Gauge<Long>) () ->
+                handlerWorkers.getQueuedSubmissionCount() + handlerWorkers.getQueuedTaskCount());
     }
 
     /**
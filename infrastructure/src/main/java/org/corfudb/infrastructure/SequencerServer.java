@@ -11,9 +11,10 @@ import com.google.common.collect.ImmutableMap;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -21,6 +22,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import lombok.Getter;
 import lombok.Setter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
@@ -120,7 +122,16 @@ public class SequencerServer extends AbstractServer {
      */
     private long maxConflictWildcard = Address.NOT_FOUND;
 
-    private final Cache<String, Long> conflictToGlobalTailCache;
+    private final Cache<ConflictTxStream, Long> conflictToGlobalTailCache;
+
+    /**
+     * The key of the conflict cache: a conflict parameter fingerprint of a stream.
+     */
+    @Value
+    public static class ConflictTxStream {
+        final UUID streamId;
+        final long conflictParam;
+    }
 
     /**
      * Handler for this server.
@@ -137,6 +148,14 @@ public class SequencerServer extends AbstractServer {
     @Setter
     private volatile long readyStateEpoch = -1;
 
+    /**
+     * The epoch since which the sequencer has been bootstrapped at every epoch without
+     * resetting its state. Tokens issued since this epoch were not issued again, so
+     * they remain valid in the current epoch.
+     */
+    @Getter
+    private volatile long continuousSinceEpoch = -1;
+
     @Override
     public boolean isServerReadyToHandleMsg(CorfuMsg msg) {
         if ((readyStateEpoch != serverContext.getServerEpoch())
@@ -175,7 +194,7 @@ public class SequencerServer extends AbstractServer {
 
         conflictToGlobalTailCache = Caffeine.newBuilder()
                 .maximumSize(cacheSize)
-                .removalListener((String k, Long v, RemovalCause cause) -> {
+                .removalListener((ConflictTxStream k, Long v, RemovalCause cause) -> {
                     if (!RemovalCause.REPLACED.equals(cause)) {
                         log.trace("Updating maxConflictWildcard. Old value = '{}', new value='{}'"
                                         + " conflictParam = '{}'. Removal cause = '{}'",
@@ -187,17 +206,6 @@ public class SequencerServer extends AbstractServer {
                 .build();
     }
 
-    /**
-    * Get the conflict hash code for a stream ID and conflict param.
-    *
-    * @param streamId      The stream ID.
-    * @param conflictParam The conflict parameter.
-    * @return A conflict hash code.
-    */
-    private String getConflictHashCode(UUID streamId, byte[] conflictParam) {
-        return streamId.toString() + Utils.bytesToHex(conflictParam);
-    }
-
     /**
      * If the request submits a timestamp (a global offset) that is less than one of the
      * global offsets of a streams specified in the request, then abort; otherwise commit.
@@ -225,28 +233,27 @@ public class SequencerServer extends AbstractServer {
 
         AtomicReference<TokenType> response = new AtomicReference<>(TokenType.NORMAL);
 
-        for (Map.Entry<UUID, Set<byte[]>> entry : txInfo.getConflictSet().entrySet()) {
+        for (Map.Entry<UUID, long[]> entry : txInfo.getConflictSet().entrySet()) {
             if (response.get() != TokenType.NORMAL) {
                 break;
             }
 
             // if conflict-parameters are present, check for conflict based on conflict-parameter
             // updates
-            Set<byte[]> conflictParamSet = entry.getValue();
-            if (conflictParamSet != null && conflictParamSet.size() > 0) {
+            long[] conflictParamSet = entry.getValue();
+            if (conflictParamSet != null && conflictParamSet.length > 0) {
                 // for each key pair, check for conflict;
                 // if not present, check against the wildcard
-                for (byte[] conflictParam : conflictParamSet) {
+                for (long conflictParam : conflictParamSet) {
 
-                    String conflictKeyHash = getConflictHashCode(entry.getKey(),
-                            conflictParam);
-                    Long v = conflictToGlobalTailCache.getIfPresent(conflictKeyHash);
+                    Long v = conflictToGlobalTailCache.getIfPresent(
+                            new ConflictTxStream(entry.getKey(), conflictParam));
 
                     log.trace("Commit-ck[{}] conflict-key[{}](ts={})", txInfo, conflictParam, v);
 
                     if (v != null && v > txSnapshotTimestamp) {
                         log.debug("ABORT[{}] conflict-key[{}](ts={})", txInfo, conflictParam, v);
-                        conflictKey.set(conflictParam);
+                        conflictKey.set(Utils.longToBigEndianByteArray(conflictParam));
                         response.set(TokenType.TX_ABORT_CONFLICT);
                         break;
                     }
@@ -283,6 +290,10 @@ public class SequencerServer extends AbstractServer {
      * <p>This returns information about the tail of the
      * log and/or streams without changing/allocating anything.
      *
+     * <p>A query for several streams returns the largest of their tails as the token, and
+     * the tail of each stream in the backpointer map, so that the tails of many streams
+     * are fetched in a single round trip.
+     *
      * @param msg corfu message containing token query
      * @param ctx netty ChannelHandlerContext
      * @param r   server router
@@ -291,15 +302,19 @@ public class SequencerServer extends AbstractServer {
                                  ChannelHandlerContext ctx, IServerRouter r) {
         TokenRequest req = msg.getPayload();
 
-        // sanity backward-compatibility assertion; TODO: remove
-        if (req.getStreams().size() > 1) {
-            log.error("TOKEN-QUERY[{}]", req.getStreams());
-        }
-
         long maxStreamGlobalTail = Address.NON_EXIST;
+        Map<UUID, Long> streamTails = Collections.emptyMap();
 
-        // see if this query is for a specific stream-tail
-        if (req.getStreams().size() == 1) {
+        // see if this query is for specific stream-tails
+        if (req.getStreams().size() > 1) {
+            streamTails = new HashMap<>();
+            for (UUID streamId : req.getStreams()) {
+                long streamTail = streamTailToGlobalTailMap.getOrDefault(streamId,
+                        Address.NON_EXIST);
+                streamTails.put(streamId, streamTail);
+                maxStreamGlobalTail = Math.max(maxStreamGlobalTail, streamTail);
+            }
+        } else if (req.getStreams().size() == 1) {
             UUID streamId = req.getStreams().iterator().next();
 
             if (streamTailToGlobalTailMap.get(streamId) != null) {
@@ -313,7 +328,18 @@ public class SequencerServer extends AbstractServer {
                 maxStreamGlobalTail;
         Token token = new Token(responseGlobalTail, r.getServerEpoch());
         r.sendResponse(ctx, msg, CorfuMsgType.TOKEN_RES.payloadMsg(new TokenResponse(
-                TokenType.NORMAL, TokenResponse.NO_CONFLICT_KEY, token, Collections.emptyMap())));
+                TokenType.NORMAL, TokenResponse.NO_CONFLICT_KEY, token, streamTails)));
+    }
+
+    /**
+     * Respond with the epoch since which the state of the sequencer is continuous.
+     */
+    @ServerHandler(type = CorfuMsgType.SEQUENCER_CONTINUITY_REQ,
+            opTimer = metricsPrefix + "continuity")
+    public void continuityRequest(CorfuMsg msg, ChannelHandlerContext ctx, IServerRouter r,
+                                  boolean isMetricsEnabled) {
+        r.sendResponse(ctx, msg, CorfuMsgType.SEQUENCER_CONTINUITY_RES
+                .payloadMsg(continuousSinceEpoch));
     }
 
     @ServerHandler(type = CorfuMsgType.SEQUENCER_TRIM_REQ, opTimer = metricsPrefix + "trimCache")
@@ -327,7 +353,8 @@ public class SequencerServer extends AbstractServer {
         }
 
         long entries = 0;
-        for (Map.Entry<String, Long> entry : conflictToGlobalTailCache.asMap().entrySet()) {
+        for (Map.Entry<ConflictTxStream, Long> entry
+                : conflictToGlobalTailCache.asMap().entrySet()) {
             if (entry.getValue() < trimMark) {
                 conflictToGlobalTailCache.invalidate(entry.getKey());
                 entries++;
@@ -369,7 +396,15 @@ public class SequencerServer extends AbstractServer {
         // Note, this is correct, but conservative (may lead to false abort).
         // It is necessary because we reset the sequencer.
         //
-        if (initialToken > globalLogTail.get()) {
+        final boolean stateReset = initialToken > globalLogTail.get();
+
+        // The state is continuous only if the sequencer was serving the previous epoch,
+        // since another sequencer may have issued tokens in the epochs it skipped.
+        if (stateReset || readyStateEpoch < 0 || readyEpoch > readyStateEpoch + 1) {
+            continuousSinceEpoch = readyEpoch;
+        }
+
+        if (stateReset) {
             globalLogTail.set(initialToken);
             maxConflictWildcard = initialToken - 1;
             conflictToGlobalTailCache.invalidateAll();
@@ -383,8 +418,9 @@ public class SequencerServer extends AbstractServer {
         readyStateEpoch = readyEpoch;
 
         log.info("Sequencer reset with token = {}, streamTailToGlobalTailMap = {},"
-                        + " readyStateEpoch = {}",
-                initialToken, streamTailToGlobalTailMap, readyStateEpoch);
+                        + " readyStateEpoch = {}, continuousSinceEpoch = {}",
+                initialToken, streamTailToGlobalTailMap, readyStateEpoch,
+                continuousSinceEpoch);
         r.sendResponse(ctx, msg, CorfuMsgType.ACK.msg());
     }
 
@@ -530,13 +566,12 @@ public class SequencerServer extends AbstractServer {
                     // for each entry
                     .forEach(txEntry ->
                             // and for each conflict param
-                            txEntry.getValue().stream().forEach(conflictParam ->
+                            Arrays.stream(txEntry.getValue()).forEach(conflictParam ->
                                     // insert an entry with the new timestamp
-                                    // using the hash code based on the param
-                                    // and the stream id.
+                                    // keyed by the param and the stream id.
                                     conflictToGlobalTailCache.put(
-                                            getConflictHashCode(txEntry
-                                                    .getKey(), conflictParam),
+                                            new ConflictTxStream(txEntry.getKey(),
+                                                    conflictParam),
                                             newTail - 1)));
         }
 
@@ -551,7 +586,7 @@ public class SequencerServer extends AbstractServer {
     }
 
     @VisibleForTesting
-    public Cache<String, Long> getConflictToGlobalTailCache() {
+    public Cache<ConflictTxStream, Long> getConflictToGlobalTailCache() {
         return conflictToGlobalTailCache;
     }
 }
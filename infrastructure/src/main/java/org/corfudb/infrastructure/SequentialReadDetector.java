@@ -0,0 +1,48 @@
+package org.corfudb.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects clients which are scanning the log sequentially, such as a runtime loading
+ * its objects or catching up on the log.
+ *
+ * <p>A read is considered sequential if it starts right after the last address the same
+ * client read. Entries which miss the cache on a sequential read are unlikely to be read
+ * again soon, so they are better left out of the cache.
+ */
+class SequentialReadDetector {
+
+    /** The maximum number of clients whose reads are tracked. */
+    private static final long MAX_TRACKED_CLIENTS = 10_000;
+
+    /** How long, in seconds, a client which stops reading is tracked for. */
+    private static final long TRACKING_EXPIRY_SECONDS = 60;
+
+    /** The address each client is expected to read next, if it is scanning. */
+    private final Cache<UUID, Long> nextAddresses = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_CLIENTS)
+            .expireAfterAccess(TRACKING_EXPIRY_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    /** Record a read of a range of addresses by a client, and return whether it
+     * continues a sequential scan.
+     *
+     * @param clientId  The client which read, or null, if it is not known.
+     * @param first     The first address read.
+     * @param last      The last address read.
+     * @return          True, if the read started right after the previous read of
+     *                  the client ended.
+     */
+    boolean isSequential(UUID clientId, long first, long last) {
+        if (clientId == null) {
+            return false;
+        }
+        Long expected = nextAddresses.getIfPresent(clientId);
+        nextAddresses.put(clientId, last + 1);
+        return expected != null && expected == first;
+    }
+}
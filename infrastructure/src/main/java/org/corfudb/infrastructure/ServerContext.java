@@ -8,8 +8,10 @@ import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 
+import org.corfudb.infrastructure.log.StreamTails;
 import org.corfudb.infrastructure.management.IFailureDetectorPolicy;
 import org.corfudb.infrastructure.management.PeriodicPollPolicy;
+import org.corfudb.infrastructure.management.PhiAccrualPollPolicy;
 import org.corfudb.runtime.view.ConservativeFailureHandlerPolicy;
 import org.corfudb.runtime.view.IFailureHandlerPolicy;
 import org.corfudb.util.MetricsUtils;
@@ -37,6 +39,8 @@ public class ServerContext {
     private static final String KEY_TAIL_SEGMENT = "CURRENT";
     private static final String PREFIX_STARTING_ADDRESS = "STARTING_ADDRESS";
     private static final String KEY_STARTING_ADDRESS = "CURRENT";
+    private static final String PREFIX_STREAM_TAILS = "STREAM_TAILS";
+    private static final String KEY_STREAM_TAILS = "CURRENT";
 
     /**
      * various duration constants.
@@ -74,7 +78,8 @@ public class ServerContext {
         this.serverConfig = serverConfig;
         this.dataStore = new DataStore(serverConfig);
         this.serverRouter = serverRouter;
-        this.failureDetectorPolicy = new PeriodicPollPolicy();
+        this.failureDetectorPolicy = "phi-accrual".equals(serverConfig.get("--failure-detector"))
+                ? new PhiAccrualPollPolicy() : new PeriodicPollPolicy();
         this.failureHandlerPolicy = new ConservativeFailureHandlerPolicy();
 
         // Metrics setup & reporting configuration
@@ -129,4 +134,17 @@ public class ServerContext {
     public void setStartingAddress(long startingAddress) {
         dataStore.put(Long.class, PREFIX_STARTING_ADDRESS, KEY_STARTING_ADDRESS, startingAddress);
     }
+
+    /**
+     * Returns the stream tails persisted by the stream log.
+     * @return the stream tails, or null if none were persisted
+     */
+    public StreamTails.Snapshot getStreamTails() {
+        return dataStore.get(StreamTails.Snapshot.class, PREFIX_STREAM_TAILS, KEY_STREAM_TAILS);
+    }
+
+    public void setStreamTails(StreamTails.Snapshot streamTails) {
+        dataStore.put(StreamTails.Snapshot.class, PREFIX_STREAM_TAILS, KEY_STREAM_TAILS,
+                streamTails);
+    }
 }
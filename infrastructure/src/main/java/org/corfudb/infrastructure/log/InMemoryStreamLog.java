@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -22,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 public class InMemoryStreamLog implements StreamLog, StreamLogWithRankedAddressSpace {
 
     private final AtomicLong globalTail = new AtomicLong(0L);
+    private final StreamTails streamTails = new StreamTails();
     private Map<Long, LogData> logCache;
     private Set<Long> trimmed;
     private volatile long startingAddress;
@@ -43,6 +45,7 @@ public class InMemoryStreamLog implements StreamLog, StreamLogWithRankedAddressS
             }
 
             logCache.put(entry.getGlobalAddress(), entry);
+            streamTails.update(entry.getGlobalAddress(), entry);
             globalTail.getAndUpdate(maxTail -> entry.getGlobalAddress() > maxTail
                     ? entry.getGlobalAddress() : maxTail);
         }
@@ -58,7 +61,7 @@ public class InMemoryStreamLog implements StreamLog, StreamLogWithRankedAddressS
             throwLogUnitExceptionsIfNecessary(address, entry);
         }
         logCache.put(address, entry);
-
+        streamTails.update(address, entry);
 
         globalTail.getAndUpdate(maxTail -> entry.getGlobalAddress() > maxTail
                 ? entry.getGlobalAddress() : maxTail);
@@ -85,6 +88,11 @@ public class InMemoryStreamLog implements StreamLog, StreamLogWithRankedAddressS
         return globalTail.get();
     }
 
+    @Override
+    public Map<UUID, Long> getStreamTails() {
+        return streamTails.get();
+    }
+
     @Override
     public long getTrimMark() {
         return startingAddress;
@@ -156,6 +164,7 @@ public class InMemoryStreamLog implements StreamLog, StreamLogWithRankedAddressS
     public void reset() {
         startingAddress = 0;
         globalTail.set(0L);
+        streamTails.clear();
         // Clear the trimmed addresses record.
         trimmed.clear();
         // Clearing all data from the cache.
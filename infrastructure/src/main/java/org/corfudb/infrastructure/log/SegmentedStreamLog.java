@@ -0,0 +1,47 @@
+package org.corfudb.infrastructure.log;
+
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.SegmentFileType;
+import org.corfudb.protocols.wireprotocol.SegmentInfo;
+
+/**
+ * A stream log which stores its address space in files of fixed-size segments. Once a
+ * segment is sealed, its files can be transferred to another log unit as they are,
+ * rather than record by record.
+ */
+public interface SegmentedStreamLog {
+
+    /**
+     * Get the segments of the stream log.
+     */
+    SegmentInfo getSegmentInfo();
+
+    /**
+     * Read a byte range of a file of a sealed segment.
+     *
+     * @param segment   segment to read
+     * @param type      file of the segment to read
+     * @param offset    offset in the file to read from
+     * @param maxLength maximum number of bytes to read
+     * @return the bytes read, which are empty past the end of the file
+     */
+    SegmentChunk readSegmentChunk(long segment, SegmentFileType type, long offset,
+                                  int maxLength);
+
+    /**
+     * Write a byte range of a file of a segment being transferred to this stream log,
+     * after verifying its checksum. A chunk at offset zero restarts the transfer of
+     * the file.
+     *
+     * @param chunk the chunk to write
+     */
+    void writeSegmentChunk(SegmentChunk chunk);
+
+    /**
+     * Verify the records of a transferred segment, and install its files in place of
+     * the segment, which must not hold any records.
+     *
+     * @param segment the transferred segment
+     */
+    void installSegment(long segment);
+}
@@ -2,6 +2,8 @@ package org.corfudb.infrastructure.log;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.corfudb.protocols.wireprotocol.LogData;
 
@@ -58,6 +60,11 @@ public interface StreamLog {
      */
     long getGlobalTail();
 
+    /**
+     * Get the greatest address written to each stream, including trimmed addresses.
+     */
+    Map<UUID, Long> getStreamTails();
+
     /**
      * Get the first untrimmed address in the address space.
      */
@@ -1,10 +1,14 @@
 package org.corfudb.infrastructure.log;
 
+import com.codahale.metrics.Timer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import com.google.protobuf.AbstractMessage;
 import com.google.protobuf.ByteString;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import io.netty.buffer.ByteBuf;
@@ -22,6 +26,7 @@ import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
@@ -38,8 +43,15 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nullable;
@@ -55,9 +67,13 @@ import org.corfudb.format.Types.LogHeader;
 import org.corfudb.format.Types.Metadata;
 import org.corfudb.format.Types.TrimEntry;
 import org.corfudb.infrastructure.ServerContext;
+import org.corfudb.infrastructure.management.NodeMetricsCollector;
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
 import org.corfudb.protocols.wireprotocol.IMetadata;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.SegmentFileType;
+import org.corfudb.protocols.wireprotocol.SegmentInfo;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.OverwriteException;
 
@@ -71,7 +87,8 @@ import org.corfudb.runtime.exceptions.OverwriteException;
  */
 
 @Slf4j
-public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpace {
+public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpace,
+        SegmentedStreamLog {
 
     public static final short RECORD_DELIMITER = 0x4C45;
     public static final int METADATA_SIZE = Metadata.newBuilder()
@@ -82,15 +99,38 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     public static int VERSION = 1;
     public static int RECORDS_PER_LOG_FILE = 10000;
     public static int TRIM_THRESHOLD = (int) (.25 * RECORDS_PER_LOG_FILE);
+    /** The number of records read ahead once ascending reads are detected, or 0 to disable. */
+    public static int READ_AHEAD_RECORDS = 64;
+    /** The maximum number of bytes read in a single read-ahead I/O. */
+    public static int READ_AHEAD_MAX_BYTES = 4 * 1024 * 1024;
+    /** The maximum time, in milliseconds, a read waits for its record to be read ahead,
+     * before reading it directly. */
+    public static long READ_AHEAD_MAX_WAIT_MS = 10;
+    /** Reads records ahead and parses them, off the read path. */
+    private final ExecutorService readAheadExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("StreamLogReadAhead-%d")
+                    .build());
+    /** The number of reads served from the read-ahead buffer. */
+    private final AtomicLong readAheadHits = new AtomicLong();
     public final String logDir;
     private final boolean noVerify;
     private final ServerContext serverContext;
     private final AtomicLong globalTail = new AtomicLong(0L);
+    private final StreamTails streamTails = new StreamTails();
     private Map<String, SegmentHandle> writeChannels;
     private Set<FileChannel> channelsToSync;
+    /** Times the syncs of the log to disk. */
+    private final Timer syncTimer = ServerContext.getMetrics()
+            .timer(NodeMetricsCollector.DISK_SYNC);
     private MultiReadWriteLock segmentLocks = new MultiReadWriteLock();
     private long lastSegment;
     private volatile long startingAddress;
+    /** Records which were read ahead, or are being read ahead, by address. */
+    private final Cache<Long, CompletableFuture<LogData>> readAheadBuffer = Caffeine.newBuilder()
+            .maximumSize(Math.max(1, 2 * READ_AHEAD_RECORDS))
+            .build();
 
     /**
      * Returns a file-based stream log object.
@@ -113,6 +153,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         // Starting address initialization should happen before
         // initializing the tail segment (i.e. initializeMaxGlobalAddress)
         initializeStartingAddress();
+        initializeStreamTails();
         initializeMaxGlobalAddress();
 
         // This can happen if a prefix trim happens on
@@ -130,6 +171,22 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         return segmentPath + ".trimmed";
     }
 
+    private static String getTransferFilePath(String filePath) {
+        return filePath + ".transfer";
+    }
+
+    private String getSegmentFilePath(long segment, SegmentFileType type) {
+        String segmentPath = logDir + File.separator + segment + ".log";
+        switch (type) {
+            case TRIMMED:
+                return getTrimmedFilePath(segmentPath);
+            case PENDING_TRIMS:
+                return getPendingTrimsFilePath(segmentPath);
+            default:
+                return segmentPath;
+        }
+    }
+
     /**
      * Write the header for a Corfu log file.
      *
@@ -210,10 +267,16 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         long segment = address / RECORDS_PER_LOG_FILE;
         if (lastSegment < segment) {
             serverContext.setTailSegment(segment);
+            serverContext.setStreamTails(new StreamTails.Snapshot(segment, streamTails.get()));
             lastSegment = segment;
         }
     }
 
+    @Override
+    public Map<UUID, Long> getStreamTails() {
+        return streamTails.get();
+    }
+
     @Override
     public void prefixTrim(long address) {
         if (address < startingAddress) {
@@ -242,6 +305,38 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         startingAddress = serverContext.getStartingAddress();
     }
 
+    /**
+     * Load the stream tails persisted when the tail segment was started, and advance
+     * them with the entries of the segments which may have been written since.
+     * The entries of the tail segment itself are loaded with the global tail.
+     */
+    private void initializeStreamTails() {
+        final long tailSegment = serverContext.getTailSegment();
+        long firstSegment = startingAddress / RECORDS_PER_LOG_FILE;
+
+        StreamTails.Snapshot snapshot = serverContext.getStreamTails();
+        if (snapshot != null) {
+            streamTails.merge(snapshot.getTails());
+            // Entries could still be written to the segment before the one started last.
+            firstSegment = Math.max(firstSegment, snapshot.getSegment() - 1);
+        }
+
+        for (long segment = firstSegment; segment < tailSegment; segment++) {
+            String filePath = logDir + File.separator + segment + ".log";
+            if (!new File(filePath).exists()) {
+                continue;
+            }
+            try {
+                for (LogEntry entry : getCompactedEntries(filePath, new HashSet<>())
+                        .getEntries()) {
+                    streamTails.update(entry.getGlobalAddress(), getLogData(entry));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+    }
+
     private void initializeMaxGlobalAddress() {
         long tailSegment = serverContext.getTailSegment();
         long addressInTailSegment = (tailSegment * RECORDS_PER_LOG_FILE) + 1;
@@ -254,6 +349,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
                 long currentAddress = entry.getGlobalAddress();
                 globalTail.getAndUpdate(maxTail -> currentAddress > maxTail
                         ? currentAddress : maxTail);
+                streamTails.update(currentAddress, getLogData(entry));
             }
         } catch (IOException e) {
             throw new RuntimeException(e.getMessage(), e);
@@ -319,9 +415,12 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
 
     @Override
     public void sync(boolean force) throws IOException {
-        if (force) {
-            for (FileChannel ch : channelsToSync) {
-                ch.force(true);
+        if (force && !channelsToSync.isEmpty()) {
+            // Always timed, as the sync latency is reported in heartbeats.
+            try (Timer.Context context = syncTimer.time()) {
+                for (FileChannel ch : channelsToSync) {
+                    ch.force(true);
+                }
             }
         }
         log.debug("Sync'd {} channels", channelsToSync.size());
@@ -358,6 +457,8 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
 
     @Override
     public synchronized void compact() {
+        // Compaction moves records, so records read ahead may be stale.
+        invalidateReadAhead();
         if (startingAddress == 0) {
             spaseCompact();
         } else {
@@ -653,6 +754,193 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         }
     }
 
+    /**
+     * Schedule a read-ahead of the records following an address, if the reads of its
+     * segment are ascending and the records read ahead so far are about to run out.
+     *
+     * @param sh      The segment of the address.
+     * @param address The address which was just read.
+     */
+    private void maybeReadAhead(SegmentHandle sh, long address) {
+        if (READ_AHEAD_RECORDS <= 0) {
+            return;
+        }
+        final long from;
+        final long to;
+        synchronized (sh) {
+            boolean ascending = address == sh.lastReadAddress + 1;
+            sh.lastReadAddress = address;
+            if (!ascending || address + READ_AHEAD_RECORDS / 2 < sh.readAheadEnd) {
+                return;
+            }
+            final long segmentEnd = (sh.getSegment() + 1) * RECORDS_PER_LOG_FILE - 1;
+            from = Math.max(address + 1, sh.readAheadEnd + 1);
+            to = Math.min(from + READ_AHEAD_RECORDS - 1, segmentEnd);
+            if (from > to) {
+                return;
+            }
+            sh.readAheadEnd = to;
+        }
+
+        // Register the pending records, so that reads wait for them instead of
+        // reading them again.
+        Map<Long, CompletableFuture<LogData>> pending = new LinkedHashMap<>();
+        for (long a = from; a <= to; a++) {
+            if (sh.getKnownAddresses().containsKey(a)
+                    && readAheadBuffer.getIfPresent(a) == null) {
+                CompletableFuture<LogData> f = new CompletableFuture<>();
+                readAheadBuffer.put(a, f);
+                pending.put(a, f);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        sh.retain();
+        try {
+            readAheadExecutor.execute(() -> {
+                try {
+                    readRecords(sh, pending);
+                } catch (Exception e) {
+                    log.debug("readAhead[{}-{}]: failed", from, to, e);
+                } finally {
+                    abandonReadAhead(sh, pending);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The log was closed.
+            abandonReadAhead(sh, pending);
+        }
+    }
+
+    /**
+     * Give up on the records of a read-ahead which were not read, so that they are read
+     * directly, and release the segment of the read-ahead.
+     *
+     * @param sh      The segment of the read-ahead.
+     * @param pending The futures of the records of the read-ahead.
+     */
+    private void abandonReadAhead(SegmentHandle sh,
+                                  Map<Long, CompletableFuture<LogData>> pending) {
+        pending.forEach((a, f) -> {
+            if (f.completeExceptionally(new IllegalStateException("Not read ahead"))) {
+                readAheadBuffer.asMap().remove(a, f);
+            }
+        });
+        sh.release();
+    }
+
+    /**
+     * Drop the records which were read ahead, and forget the progress of the read-ahead
+     * in each segment, so that it starts over with the next ascending reads.
+     */
+    private void invalidateReadAhead() {
+        readAheadBuffer.invalidateAll();
+        for (SegmentHandle sh : writeChannels.values()) {
+            synchronized (sh) {
+                sh.lastReadAddress = -1L;
+                sh.readAheadEnd = -1L;
+            }
+        }
+    }
+
+    /**
+     * Read a set of records which lie close together in a segment file with a single I/O,
+     * and complete their futures with the parsed records.
+     *
+     * @param sh      The segment to read from.
+     * @param pending The futures of the records to read, in ascending address order.
+     */
+    private void readRecords(SegmentHandle sh, Map<Long, CompletableFuture<LogData>> pending)
+            throws IOException {
+        // Cover as many records as fit into a single read.
+        Map<Long, AddressMetaData> records = new LinkedHashMap<>();
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (Long a : pending.keySet()) {
+            AddressMetaData md = sh.getKnownAddresses().get(a);
+            if (md == null) {
+                continue;
+            }
+            long newStart = Math.min(start, md.offset);
+            long newEnd = Math.max(end, md.offset + md.length);
+            if (!records.isEmpty() && newEnd - newStart > READ_AHEAD_MAX_BYTES) {
+                break;
+            }
+            records.put(a, md);
+            start = newStart;
+            end = newEnd;
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate((int) (end - start));
+        FileChannel fc = getChannel(sh.fileName, true);
+        if (fc == null) {
+            return;
+        }
+        try {
+            while (buf.hasRemaining()) {
+                if (fc.read(buf, start + buf.position()) < 0) {
+                    break;
+                }
+            }
+        } finally {
+            fc.close();
+        }
+
+        for (Map.Entry<Long, AddressMetaData> record : records.entrySet()) {
+            AddressMetaData md = record.getValue();
+            int recordStart = (int) (md.offset - start);
+            if (recordStart + md.length > buf.position()) {
+                continue;
+            }
+            try {
+                LogEntry entry = LogEntry.parseFrom(ByteString.copyFrom(buf.array(),
+                        recordStart, md.length));
+                pending.get(record.getKey()).complete(getLogData(entry));
+            } catch (InvalidProtocolBufferException e) {
+                log.debug("readAhead[{}]: unable to parse record", record.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Take a record which was read ahead out of the read-ahead buffer, waiting a bounded
+     * time for it if it is still being read.
+     *
+     * @param address The address of the record.
+     * @return The record, or null, if it was not read ahead in time.
+     */
+    private @Nullable LogData takeReadAhead(long address) {
+        CompletableFuture<LogData> f = readAheadBuffer.asMap().remove(address);
+        if (f == null) {
+            return null;
+        }
+        try {
+            LogData record = f.get(READ_AHEAD_MAX_WAIT_MS, TimeUnit.MILLISECONDS);
+            readAheadHits.incrementAndGet();
+            return record;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Get the number of reads which were served from the read-ahead buffer.
+     *
+     * @return The number of reads served from the read-ahead buffer.
+     */
+    @VisibleForTesting
+    long getReadAheadHits() {
+        return readAheadHits.get();
+    }
+
     /**
      * Read a log entry in a file.
      *
@@ -931,6 +1219,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             allRecordsBuf.flip();
             sh.logChannel.write(allRecordsBuf);
             channelsToSync.add(sh.logChannel);
+            entries.forEach(entry -> streamTails.update(entry.getGlobalAddress(), entry));
             syncTailSegment(entries.get(entries.size() - 1).getGlobalAddress());
         }
 
@@ -966,6 +1255,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             channelOffset = fh.logChannel.position() + Short.BYTES + METADATA_SIZE;
             fh.logChannel.write(recordBuf);
             channelsToSync.add(fh.logChannel);
+            streamTails.update(address, entry);
             syncTailSegment(address);
         }
 
@@ -1115,6 +1405,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
                     assertAppendPermittedUnsafe(address, entry);
                     AddressMetaData addressMetaData = writeRecord(fh, address, entry);
                     fh.getKnownAddresses().put(address, addressMetaData);
+                    readAheadBuffer.invalidate(address);
                 }
             } else {
                 AddressMetaData addressMetaData = writeRecord(fh, address, entry);
@@ -1140,6 +1431,11 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             if (sh.getPendingTrims().contains(address)) {
                 return LogData.getTrimmed(address);
             }
+            maybeReadAhead(sh, address);
+            LogData readAhead = takeReadAhead(address);
+            if (readAhead != null) {
+                return readAhead;
+            }
             return readRecord(sh, address);
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -1150,6 +1446,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
 
     @Override
     public void close() {
+        readAheadExecutor.shutdownNow();
         for (SegmentHandle fh : writeChannels.values()) {
             fh.close();
         }
@@ -1228,15 +1525,146 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             }
         });
 
+        invalidateReadAhead();
         serverContext.setStartingAddress(0L);
         serverContext.setTailSegment(0L);
+        serverContext.setStreamTails(new StreamTails.Snapshot(0L, Collections.emptyMap()));
         globalTail.set(0L);
+        streamTails.clear();
         initializeStartingAddress();
         initializeMaxGlobalAddress();
 
         log.info("reset: Completed, end segment {}", endSegment);
     }
 
+    @Override
+    public SegmentInfo getSegmentInfo() {
+        return new SegmentInfo(RECORDS_PER_LOG_FILE, startingAddress / RECORDS_PER_LOG_FILE,
+                lastSegment);
+    }
+
+    @Override
+    public SegmentChunk readSegmentChunk(long segment, SegmentFileType type, long offset,
+                                         int maxLength) {
+        if (segment >= lastSegment) {
+            throw new IllegalArgumentException("Segment " + segment + " is not sealed");
+        }
+
+        String filePath = getSegmentFilePath(segment, type);
+        if (!new File(filePath).exists()) {
+            return new SegmentChunk(segment, type, offset, 0L, new byte[0]);
+        }
+
+        try (MultiReadWriteLock.AutoCloseableLock ignored =
+                     segmentLocks.acquireReadLock(segment);
+             FileChannel fc = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            final long fileLength = fc.size();
+            ByteBuffer buf = ByteBuffer.allocate(
+                    (int) Math.max(0L, Math.min(maxLength, fileLength - offset)));
+            while (buf.hasRemaining() && fc.read(buf, offset + buf.position()) > 0) {
+                // Read the whole chunk.
+            }
+            return new SegmentChunk(segment, type, offset, fileLength, buf.array());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void writeSegmentChunk(SegmentChunk chunk) {
+        if (!chunk.isValid()) {
+            log.error("writeSegmentChunk: Checksum mismatch in {} of segment {} at offset {}",
+                    chunk.getType(), chunk.getSegment(), chunk.getOffset());
+            throw new DataCorruptionException();
+        }
+
+        String filePath = getTransferFilePath(
+                getSegmentFilePath(chunk.getSegment(), chunk.getType()));
+        try (FileChannel fc = FileChannel.open(Paths.get(filePath),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (chunk.getOffset() == 0L) {
+                fc.truncate(0L);
+            }
+            ByteBuffer buf = ByteBuffer.wrap(chunk.getData());
+            while (buf.hasRemaining()) {
+                fc.write(buf, chunk.getOffset() + buf.position());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public synchronized void installSegment(long segment) {
+        final String segmentPath = getSegmentFilePath(segment, SegmentFileType.LOG);
+        final String transferPath = getTransferFilePath(segmentPath);
+        if (!new File(transferPath).exists()) {
+            throw new IllegalArgumentException("Segment " + segment + " was not transferred");
+        }
+
+        SegmentHandle sh = getSegmentHandleForAddress(segment * RECORDS_PER_LOG_FILE);
+        try {
+            if (!sh.getKnownAddresses().isEmpty()) {
+                throw new OverwriteException();
+            }
+        } finally {
+            sh.release();
+        }
+
+        final Collection<LogEntry> entries;
+        try {
+            entries = getCompactedEntries(transferPath, Collections.emptySet()).getEntries();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        for (LogEntry entry : entries) {
+            if (entry.getGlobalAddress() / RECORDS_PER_LOG_FILE != segment) {
+                log.error("installSegment: Address {} doesn't belong to segment {}",
+                        entry.getGlobalAddress(), segment);
+                throw new DataCorruptionException();
+            }
+        }
+
+        try (MultiReadWriteLock.AutoCloseableLock ignored =
+                     segmentLocks.acquireWriteLock(segment)) {
+            // Close the handle opened to check the segment was empty, and force the
+            // reload of the installed segment
+            SegmentHandle replaced = writeChannels.remove(segmentPath);
+            if (replaced != null) {
+                if (replaced.getRefCount() != 0) {
+                    log.warn("installSegment: Segment {} is replaced, but refCount is {},"
+                            + " attempting to install anyways", segment, replaced.getRefCount());
+                }
+                replaced.close();
+            }
+
+            for (SegmentFileType type : SegmentFileType.values()) {
+                Path filePath = Paths.get(getSegmentFilePath(segment, type));
+                Path transferredPath = Paths.get(getTransferFilePath(filePath.toString()));
+                if (Files.exists(transferredPath)) {
+                    Files.move(transferredPath, filePath, StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    Files.deleteIfExists(filePath);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        invalidateReadAhead();
+        long maxAddress = -1L;
+        for (LogEntry entry : entries) {
+            streamTails.update(entry.getGlobalAddress(), getLogData(entry));
+            maxAddress = Math.max(maxAddress, entry.getGlobalAddress());
+        }
+        if (maxAddress >= 0) {
+            syncTailSegment(maxAddress);
+        }
+        log.info("installSegment: Installed segment {} with {} records", segment,
+                entries.size());
+    }
+
     @VisibleForTesting
     Set<FileChannel> getChannelsToSync() {
         return channelsToSync;
@@ -1286,6 +1714,10 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         private Set<Long> trimmedAddresses = Collections.newSetFromMap(new ConcurrentHashMap<>());
         private Set<Long> pendingTrims = Collections.newSetFromMap(new ConcurrentHashMap<>());
         private volatile int refCount = 0;
+        /** The last address read from this segment, used to detect ascending reads. */
+        private long lastReadAddress = -1L;
+        /** The last address which was read ahead in this segment. */
+        private long readAheadEnd = -1L;
 
 
         public synchronized void retain() {
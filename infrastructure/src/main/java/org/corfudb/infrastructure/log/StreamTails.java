@@ -0,0 +1,84 @@
+package org.corfudb.infrastructure.log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import org.corfudb.protocols.logprotocol.CheckpointEntry;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.runtime.view.Address;
+
+/**
+ * Tracks the greatest address written to each stream of a stream log.
+ *
+ * <p>Like the sequencer recovery of the FastObjectLoader, the end of a checkpoint also
+ * advances the tail of the checkpointed stream to the address the checkpoint started at.
+ * Trimming the log does not affect the tails.
+ */
+public class StreamTails {
+
+    private final Map<UUID, Long> tails = new ConcurrentHashMap<>();
+
+    /**
+     * Advance the tails of the streams of an entry which was written.
+     *
+     * @param address The address the entry was written to.
+     * @param entry   The entry written.
+     */
+    void update(long address, ILogData entry) {
+        if (entry.getType() != DataType.DATA) {
+            return;
+        }
+        for (UUID streamId : entry.getStreams()) {
+            tails.merge(streamId, address, Math::max);
+        }
+        if (entry.hasCheckpointMetadata()
+                && entry.getCheckpointType() == CheckpointEntry.CheckpointEntryType.END) {
+            final UUID checkpointedStreamId = entry.getCheckpointedStreamId();
+            final Long startAddress = entry.getCheckpointedStreamStartLogAddress();
+            if (checkpointedStreamId != null && startAddress != null
+                    && Address.isAddress(startAddress)) {
+                tails.merge(checkpointedStreamId, startAddress, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Advance the tails to those of a snapshot.
+     *
+     * @param streamTails The tails to merge.
+     */
+    void merge(Map<UUID, Long> streamTails) {
+        streamTails.forEach((streamId, tail) -> tails.merge(streamId, tail, Math::max));
+    }
+
+    /** Get a copy of the tail of each stream. */
+    Map<UUID, Long> get() {
+        return new HashMap<>(tails);
+    }
+
+    void clear() {
+        tails.clear();
+    }
+
+    /**
+     * The stream tails persisted when a stream log starts a new segment, which cover
+     * the entries written to the segments before it.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Snapshot {
+        /** The segment which was started when the snapshot was taken. */
+        private long segment;
+
+        /** The tail of each stream. */
+        private Map<UUID, Long> tails;
+    }
+}
@@ -0,0 +1,98 @@
+package org.corfudb.infrastructure.management;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.format.Types.NodeMetrics;
+
+/**
+ * Collects the load of a node from the metrics of its servers, to report it in
+ * heartbeats.
+ *
+ * <p>Metrics which were not registered, for example because the node doesn't run a
+ * log unit, are left unset in the heartbeat. The latencies reported are recorded even
+ * if metrics collection is disabled, so that a slow node is always detected.
+ */
+public final class NodeMetricsCollector {
+
+    /** Gauge of the number of requests waiting for a handler thread. */
+    public static final String HANDLER_QUEUE_DEPTH = "corfu.server.router.handler-queue-depth";
+
+    /** Gauge of the number of operations waiting for the log unit batch writer. */
+    public static final String BATCH_WRITER_QUEUE_SIZE =
+            "corfu.server.logunit.batch-writer.queue-size";
+
+    /** Gauge of the hit rate of the log unit cache, for normal reads. */
+    public static final String CACHE_HIT_RATE = "corfu.server.logunit.cache.normal.hit-rate";
+
+    /** Timer of syncs of the log to disk. */
+    public static final String DISK_SYNC = "corfu.server.logunit.disk.sync";
+
+    /** Timers of the request handlers on the data path. Handlers which are expected to
+     * be slow, such as compaction or reconfiguration, are left out. */
+    public static final List<String> DATA_PATH_HANDLERS = ImmutableList.of(
+            "corfu.server.logunit.write",
+            "corfu.server.logunit.rangeWrite",
+            "corfu.server.logunit.read",
+            "corfu.server.logunit.multiRead",
+            "corfu.server.sequencer.token-req");
+
+    private NodeMetricsCollector() {
+        // Prevent instantiation of this class
+    }
+
+    /**
+     * Collect the load of a node.
+     *
+     * @param endpoint the endpoint of the node
+     * @param metrics  the metrics of the servers of the node
+     * @return the metrics to report in a heartbeat
+     */
+    public static NodeMetrics collect(String endpoint, MetricRegistry metrics) {
+        NodeMetrics.Builder builder = NodeMetrics.newBuilder()
+                .setEndpoint(endpoint);
+
+        Gauge handlerQueueDepth = metrics.getGauges().get(HANDLER_QUEUE_DEPTH);
+        if (handlerQueueDepth != null) {
+            builder.setHandlerQueueDepth(((Number) handlerQueueDepth.getValue()).longValue());
+        }
+        Gauge batchWriterQueueSize = metrics.getGauges().get(BATCH_WRITER_QUEUE_SIZE);
+        if (batchWriterQueueSize != null) {
+            builder.setBatchWriterQueueSize(
+                    ((Number) batchWriterQueueSize.getValue()).longValue());
+        }
+        Gauge cacheHitRate = metrics.getGauges().get(CACHE_HIT_RATE);
+        if (cacheHitRate != null) {
+            double hitRate = ((Number) cacheHitRate.getValue()).doubleValue();
+            if (!Double.isNaN(hitRate)) {
+                builder.setCacheHitRate(hitRate);
+            }
+        }
+
+        double handlerLatency = -1;
+        for (String name : DATA_PATH_HANDLERS) {
+            Timer timer = metrics.getTimers().get(name);
+            if (timer != null && timer.getCount() > 0) {
+                handlerLatency = Math.max(handlerLatency, getP99Ms(timer));
+            }
+        }
+        if (handlerLatency >= 0) {
+            builder.setHandlerLatencyP99Ms(handlerLatency);
+        }
+        Timer diskSync = metrics.getTimers().get(DISK_SYNC);
+        if (diskSync != null && diskSync.getCount() > 0) {
+            builder.setDiskSyncLatencyP99Ms(getP99Ms(diskSync));
+        }
+
+        return builder.build();
+    }
+
+    private static double getP99Ms(Timer timer) {
+        return timer.getSnapshot().get99thPercentile() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -1,5 +1,8 @@
 package org.corfudb.infrastructure.management;
 
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -10,11 +13,14 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import org.corfudb.format.Types.NodeMetrics;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.clients.BaseClient;
 import org.corfudb.runtime.clients.IClientRouter;
+import org.corfudb.runtime.clients.ManagementClient;
 import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.runtime.view.Layout;
 import org.corfudb.util.CFUtils;
@@ -27,6 +33,11 @@ import org.corfudb.util.CFUtils;
  * Considers failure if server a node does not respond to the ping
  * more than 2 times in a row.
  *
+ * <p>Degraded Condition:
+ * Considers a responsive node degraded if the load reported in its heartbeat
+ * exceeds the thresholds 3 times in a row. Degraded nodes are reported apart
+ * from failures.
+ *
  * <p>Created by zlokhandwala on 9/29/16.
  */
 @Slf4j
@@ -42,12 +53,14 @@ public class PeriodicPollPolicy implements IFailureDetectorPolicy {
      * polling history.
      */
     private int[] historyPollFailures = null;
+    private int[] historyPollDegraded = null;
     private long[] historyPollEpochExceptions = null;
     private ConcurrentHashMap<String, Long> historyNodeEpoch;
     private int historyPollCount = 0;
     private HashMap<String, Boolean> historyStatus = null;
     private CompletableFuture[] pollCompletableFutures = null;
     private final int pollTaskTimeout = 5000;
+    private final int heartbeatTimeout = 5000;
 
     /**
      * Failed Poll Limit.
@@ -55,6 +68,22 @@ public class PeriodicPollPolicy implements IFailureDetectorPolicy {
      */
     final long FAILED_POLL_LIMIT = 3;
 
+    /**
+     * Degraded Poll Limit.
+     * Heartbeats above the load thresholds after which a node is considered degraded.
+     */
+    final long DEGRADED_POLL_LIMIT = 3;
+
+    /**
+     * Load thresholds, above which a node is degraded.
+     */
+    @Setter
+    private double maxHandlerLatencyP99Ms = 500.0;
+    @Setter
+    private double maxDiskSyncLatencyP99Ms = 200.0;
+    @Setter
+    private long maxQueueDepth = 1000L;
+
     /**
      * Executes the policy once.
      * Checks for changes in the layout.
@@ -94,6 +123,7 @@ public class PeriodicPollPolicy implements IFailureDetectorPolicy {
             historyServers = allServers;
             historyRouters = new IClientRouter[allServers.length];
             historyPollFailures = new int[allServers.length];
+            historyPollDegraded = new int[allServers.length];
             historyNodeEpoch = new ConcurrentHashMap<>();
             historyPollEpochExceptions = new long[allServers.length];
             pollCompletableFutures = new CompletableFuture[allServers.length];
@@ -131,6 +161,9 @@ public class PeriodicPollPolicy implements IFailureDetectorPolicy {
                             .ping(), WrongEpochException.class);
 
                     historyPollFailures[ii] = pingResult ? 0 : historyPollFailures[ii] + 1;
+                    if (pingResult) {
+                        pollLoad(ii);
+                    }
 
                 } catch (WrongEpochException wee) {
                     // If Wrong epoch exception is received, mark server as out of phase.
@@ -158,6 +191,54 @@ public class PeriodicPollPolicy implements IFailureDetectorPolicy {
         historyPollCount++;
     }
 
+    /**
+     * Requests the heartbeat of a responsive server, and checks the load it reports once
+     * it is received. The heartbeat is not awaited by the ping task, and a heartbeat
+     * which fails or times out is never counted as a failure of the server: a server
+     * which doesn't report its load is not considered degraded.
+     *
+     * @param i Index of the server in historyServers
+     */
+    private void pollLoad(int i) {
+        // The history is replaced if the layout changes before the heartbeat completes.
+        final int[] pollDegraded = historyPollDegraded;
+        final String server = historyServers[i];
+        CFUtils.within(historyRouters[i].getClient(ManagementClient.class)
+                .sendHeartbeatRequest(), Duration.ofMillis(heartbeatTimeout))
+                .whenComplete((heartbeat, e) -> {
+                    if (e != null) {
+                        log.debug("Heartbeat failed for {}. Cause : {}", server, e);
+                        return;
+                    }
+                    try {
+                        NodeMetrics nodeMetrics = NodeMetrics.parseFrom(heartbeat);
+                        pollDegraded[i] = isDegraded(nodeMetrics) ? pollDegraded[i] + 1 : 0;
+                    } catch (InvalidProtocolBufferException ipbe) {
+                        log.debug("Invalid heartbeat from {}. Cause : {}", server, ipbe);
+                    }
+                });
+    }
+
+    /**
+     * Checks whether the load reported by a node exceeds any of the thresholds.
+     *
+     * @param nodeMetrics Load reported by the node
+     * @return True if the node is degraded
+     */
+    private boolean isDegraded(NodeMetrics nodeMetrics) {
+        boolean degraded = (nodeMetrics.hasHandlerLatencyP99Ms()
+                && nodeMetrics.getHandlerLatencyP99Ms() > maxHandlerLatencyP99Ms)
+                || (nodeMetrics.hasDiskSyncLatencyP99Ms()
+                && nodeMetrics.getDiskSyncLatencyP99Ms() > maxDiskSyncLatencyP99Ms)
+                || nodeMetrics.getHandlerQueueDepth() > maxQueueDepth
+                || nodeMetrics.getBatchWriterQueueSize() > maxQueueDepth;
+        if (degraded) {
+            log.debug("Degraded load reported by {}: {}", nodeMetrics.getEndpoint(),
+                    nodeMetrics);
+        }
+        return degraded;
+    }
+
     /**
      * Gets the server status from the last poll.
      * Reports failures or partially sealed servers.
@@ -170,6 +251,7 @@ public class PeriodicPollPolicy implements IFailureDetectorPolicy {
     public PollReport getServerStatus() {
 
         Set<String> failingNodes = new HashSet<>();
+        Set<String> degradedNodes = new HashSet<>();
         HashMap<String, Long> outOfPhaseEpochNodes = new HashMap<>();
 
         if (historyPollCount > 3) {
@@ -216,6 +298,9 @@ public class PeriodicPollPolicy implements IFailureDetectorPolicy {
                         }
                     }
                 }
+                if (isUp && historyPollDegraded[i] >= DEGRADED_POLL_LIMIT) {
+                    degradedNodes.add(historyServers[i]);
+                }
                 if (isPartialSeal) {
                     // Mark server as out of phased epoch. NOTE: This is not the same as
                     // marking it as failed.
@@ -234,6 +319,7 @@ public class PeriodicPollPolicy implements IFailureDetectorPolicy {
         return new PollReport.PollReportBuilder()
                 .setFailingNodes(failingNodes)
                 .setOutOfPhaseEpochNodes(outOfPhaseEpochNodes)
+                .setDegradedNodes(degradedNodes)
                 .build();
     }
 }
@@ -0,0 +1,113 @@
+package org.corfudb.infrastructure.management;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Accrual failure detector of a single node.
+ *
+ * <p>Instead of a boolean verdict, it derives a suspicion level, phi, from the time
+ * elapsed since the last heartbeat of the node, relative to the distribution of the
+ * intervals between its recent heartbeats. Phi is the negative decimal logarithm of
+ * the probability that a heartbeat arrives even later, modeling the intervals as a
+ * normal distribution: a phi of 1 means a 10% chance of a false suspicion, a phi of 8
+ * a 0.000001% chance. Nodes whose heartbeats are irregular thus have to be silent for
+ * longer before they are suspected.
+ *
+ * <p>Based on Hayashibara et al., "The phi Accrual Failure Detector" (2004).
+ *
+ * <p>This class is thread-safe.
+ */
+public class PhiAccrualFailureDetector {
+
+    /** The maximum number of intervals kept to estimate the distribution. */
+    private final int windowSize;
+
+    /** The minimum standard deviation of the intervals, so that very regular
+     * heartbeats don't make the detector over-sensitive. */
+    private final double minStdDeviationMs;
+
+    /** A pause which is tolerated on top of the expected interval. */
+    private final double acceptablePauseMs;
+
+    /** The intervals between the last heartbeats, oldest first. */
+    private final Deque<Long> intervals = new ArrayDeque<>();
+    private double intervalSum = 0;
+    private double intervalSquaredSum = 0;
+
+    /** The time of the last heartbeat, or of the start of the detection. */
+    private long lastHeartbeatMs;
+
+    /**
+     * Returns a failure detector which has not received any heartbeat yet. Until it
+     * does, the intervals are estimated.
+     *
+     * @param windowSize         The maximum number of intervals to keep
+     * @param minStdDeviationMs  The minimum standard deviation of the intervals
+     * @param acceptablePauseMs  A pause to tolerate on top of the expected interval
+     * @param firstIntervalMs    An estimate of the interval between heartbeats
+     * @param nowMs              The time at which the detection starts
+     */
+    public PhiAccrualFailureDetector(int windowSize, double minStdDeviationMs,
+                                     double acceptablePauseMs, long firstIntervalMs,
+                                     long nowMs) {
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("The window must hold at least 2 intervals");
+        }
+        this.windowSize = windowSize;
+        this.minStdDeviationMs = minStdDeviationMs;
+        this.acceptablePauseMs = acceptablePauseMs;
+        this.lastHeartbeatMs = nowMs;
+
+        // Seed the window with two intervals around the estimate.
+        final long deviation = firstIntervalMs / 4;
+        addInterval(firstIntervalMs - deviation);
+        addInterval(firstIntervalMs + deviation);
+    }
+
+    /**
+     * Record the arrival of a heartbeat.
+     *
+     * @param nowMs The time the heartbeat arrived
+     */
+    public synchronized void heartbeat(long nowMs) {
+        addInterval(Math.max(0, nowMs - lastHeartbeatMs));
+        lastHeartbeatMs = nowMs;
+    }
+
+    private void addInterval(long intervalMs) {
+        if (intervals.size() >= windowSize) {
+            long dropped = intervals.removeFirst();
+            intervalSum -= dropped;
+            intervalSquaredSum -= (double) dropped * dropped;
+        }
+        intervals.addLast(intervalMs);
+        intervalSum += intervalMs;
+        intervalSquaredSum += (double) intervalMs * intervalMs;
+    }
+
+    /**
+     * Get the suspicion level of the node.
+     *
+     * @param nowMs The current time
+     * @return Phi, which grows with the time elapsed since the last heartbeat
+     */
+    public synchronized double phi(long nowMs) {
+        final double elapsedMs = nowMs - lastHeartbeatMs;
+        final double mean = intervalSum / intervals.size() + acceptablePauseMs;
+        final double variance = intervalSquaredSum / intervals.size()
+                - (intervalSum / intervals.size()) * (intervalSum / intervals.size());
+        final double stdDeviation = Math.max(Math.sqrt(Math.max(0, variance)),
+                minStdDeviationMs);
+
+        // Logistic approximation of the cumulative normal distribution, which keeps
+        // its precision in the tail: P(later) = 1 / (1 + e^(y * (1.5976 + 0.070566 y^2))).
+        final double y = (elapsedMs - mean) / stdDeviation;
+        final double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        if (elapsedMs > mean) {
+            return -Math.log10(e / (1.0 + e));
+        } else {
+            return -Math.log10(1.0 - 1.0 / (1.0 + e));
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.corfudb.infrastructure.management;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.corfudb.infrastructure.ServerContext;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.clients.BaseClient;
+import org.corfudb.runtime.clients.IClientRouter;
+import org.corfudb.runtime.exceptions.WrongEpochException;
+import org.corfudb.runtime.view.Layout;
+
+/**
+ * Adaptive polling policy.
+ * Every node polls every other node, and keeps a {@link PhiAccrualFailureDetector}
+ * per node, which learns the intervals between its responses.
+ *
+ * <p>Failure Condition:
+ * Considers failure if the suspicion level (phi) of a node reaches the failure
+ * threshold. A node which responds irregularly, for example because of GC pauses or
+ * network jitter, has to be silent for longer before it is suspected, while a node
+ * which stops responding to regular polls is suspected quickly.
+ *
+ * <p>Polls don't block on each other, nor hold a thread while they are pending: a node
+ * whose previous ping is still pending is not polled again, and its suspicion keeps
+ * growing until the ping completes.
+ *
+ * <p>The suspicion level of each node is exported as a gauge.
+ */
+@Slf4j
+public class PhiAccrualPollPolicy implements IFailureDetectorPolicy {
+
+    private static final String metricsPrefix = "corfu.server.management-server.phi.";
+
+    /**
+     * Failed Poll Limit.
+     * Wrong epoch responses after which a node is considered out of phase.
+     */
+    final long FAILED_POLL_LIMIT = 3;
+
+    /**
+     * Suspicion level at which a node is considered failed.
+     */
+    @Getter
+    @Setter
+    private double failureThreshold = 8.0;
+
+    /**
+     * Number of intervals between responses kept per node.
+     */
+    @Setter
+    private int windowSize = 100;
+
+    /**
+     * Minimum standard deviation of the intervals between responses.
+     */
+    @Setter
+    private double minStdDeviationMs = 100.0;
+
+    /**
+     * Pause tolerated on top of the expected interval between responses.
+     */
+    @Setter
+    private double acceptablePauseMs = 1000.0;
+
+    /**
+     * Estimate of the interval between responses, until a node responded.
+     */
+    @Setter
+    private long firstIntervalMs = 1000L;
+
+    /** The time in milliseconds. */
+    private final LongSupplier clock;
+
+    private final Map<String, PhiAccrualFailureDetector> detectors = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> pendingPolls = new ConcurrentHashMap<>();
+    private final Map<String, Long> historyNodeEpoch = new ConcurrentHashMap<>();
+    private final Map<String, Long> historyPollEpochExceptions = new ConcurrentHashMap<>();
+
+    public PhiAccrualPollPolicy() {
+        this(() -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    /**
+     * Returns a policy which reads the time from a clock.
+     *
+     * @param clock Supplies the time in milliseconds
+     */
+    public PhiAccrualPollPolicy(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Executes the policy once.
+     * Starts tracking new servers of the layout, and polls every server which
+     * has no pending poll.
+     *
+     * @param layout Current Layout
+     */
+    @Override
+    public void executePolicy(Layout layout, CorfuRuntime corfuRuntime) {
+        final Set<String> allServers = layout.getAllServers();
+        final MetricRegistry metrics = ServerContext.getMetrics();
+
+        for (String server : new HashSet<>(detectors.keySet())) {
+            if (!allServers.contains(server)) {
+                log.debug("executePolicy: Stopped tracking {}", server);
+                detectors.remove(server);
+                pendingPolls.remove(server);
+                historyNodeEpoch.remove(server);
+                historyPollEpochExceptions.remove(server);
+                metrics.remove(metricsPrefix + server);
+            }
+        }
+
+        for (String server : allServers) {
+            PhiAccrualFailureDetector detector = detectors.computeIfAbsent(server, s -> {
+                log.debug("executePolicy: Started tracking {}", s);
+                PhiAccrualFailureDetector d = new PhiAccrualFailureDetector(windowSize,
+                        minStdDeviationMs, acceptablePauseMs, firstIntervalMs,
+                        clock.getAsLong());
+                metrics.remove(metricsPrefix + s);
+                metrics.register(metricsPrefix + s,
+                        (Gauge<Double>) () -> d.phi(clock.getAsLong()));
+                return d;
+            });
+
+            CompletableFuture<Void> pendingPoll = pendingPolls.get(server);
+            if (pendingPoll != null && !pendingPoll.isDone()) {
+                continue;
+            }
+            pendingPolls.put(server, poll(server, corfuRuntime, detector));
+        }
+    }
+
+    /**
+     * Pings a server, and records a heartbeat once it responds. The ping is not waited
+     * for, so no thread is held while the server is silent.
+     *
+     * @return A future which completes once the ping completed or failed.
+     */
+    private CompletableFuture<Void> poll(String server, CorfuRuntime corfuRuntime,
+                                         PhiAccrualFailureDetector detector) {
+        final CompletableFuture<Boolean> ping;
+        try {
+            IClientRouter router = corfuRuntime.getRouterFunction.apply(server);
+            ping = router.getClient(BaseClient.class).ping();
+        } catch (Exception e) {
+            log.debug("Ping failed for {}. Cause : {}", server, e);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return ping.handle((pingResult, e) -> {
+            final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            if (cause == null) {
+                if (pingResult) {
+                    detector.heartbeat(clock.getAsLong());
+                }
+            } else if (cause instanceof WrongEpochException) {
+                // The node responded, but is out of phase.
+                detector.heartbeat(clock.getAsLong());
+
+                // Count the wrong epoch responses in a row with the same epoch.
+                final long pingedNodeEpoch = ((WrongEpochException) cause).getCorrectEpoch();
+                if (pingedNodeEpoch == historyNodeEpoch.getOrDefault(server, -1L)) {
+                    historyPollEpochExceptions.merge(server, 1L, Long::sum);
+                } else {
+                    historyNodeEpoch.put(server, pingedNodeEpoch);
+                    historyPollEpochExceptions.put(server, 0L);
+                }
+            } else {
+                log.debug("Ping failed for {}. Cause : {}", server, cause);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Get the suspicion level of a server.
+     *
+     * @param server Endpoint of the server
+     * @return Phi, or zero if the server is not tracked
+     */
+    public double getSuspicion(String server) {
+        PhiAccrualFailureDetector detector = detectors.get(server);
+        return detector == null ? 0.0 : detector.phi(clock.getAsLong());
+    }
+
+    /**
+     * Gets the server status.
+     * Reports the servers whose suspicion level reached the failure threshold,
+     * and the servers which responded with a wrong epoch repeatedly.
+     *
+     * @return A report of the failed and out of phase nodes.
+     */
+    @Override
+    public PollReport getServerStatus() {
+        final long now = clock.getAsLong();
+        Set<String> failingNodes = new HashSet<>();
+        Map<String, Long> outOfPhaseEpochNodes = new HashMap<>();
+
+        detectors.forEach((server, detector) -> {
+            final double phi = detector.phi(now);
+            if (phi >= failureThreshold) {
+                log.debug("getServerStatus: {} is suspected, phi = {}", server, phi);
+                failingNodes.add(server);
+            }
+            if (historyPollEpochExceptions.getOrDefault(server, 0L) >= FAILED_POLL_LIMIT) {
+                outOfPhaseEpochNodes.put(server, historyNodeEpoch.get(server));
+            }
+        });
+
+        if (!outOfPhaseEpochNodes.isEmpty()) {
+            // Reset all epoch exceptions as all endpoints will be sealed.
+            historyPollEpochExceptions.replaceAll((server, count) -> 0L);
+        }
+
+        return new PollReport.PollReportBuilder()
+                .setFailingNodes(failingNodes)
+                .setOutOfPhaseEpochNodes(outOfPhaseEpochNodes)
+                .build();
+    }
+}
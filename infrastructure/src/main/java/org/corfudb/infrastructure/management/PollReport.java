@@ -2,6 +2,7 @@ package org.corfudb.infrastructure.management;
 
 import com.google.common.collect.ImmutableMap;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
@@ -16,11 +17,13 @@ public class PollReport {
     private final Boolean isFailurePresent;
     private final Set<String> failingNodes;
     private final ImmutableMap<String, Long> outOfPhaseEpochNodes;
+    private final Set<String> degradedNodes;
 
     private PollReport(PollReportBuilder pollReportBuilder) {
         this.isFailurePresent = pollReportBuilder.isFailurePresent;
         this.failingNodes = pollReportBuilder.failingNodes;
         this.outOfPhaseEpochNodes = pollReportBuilder.outOfPhaseEpochNodes;
+        this.degradedNodes = pollReportBuilder.degradedNodes;
     }
 
     public static class PollReportBuilder {
@@ -28,6 +31,7 @@ public class PollReport {
         private Boolean isFailurePresent = false;
         private Set<String> failingNodes;
         private ImmutableMap<String, Long> outOfPhaseEpochNodes;
+        private Set<String> degradedNodes = Collections.emptySet();
 
         public PollReportBuilder setIsStatusChangePresent() {
             isFailurePresent = true;
@@ -60,6 +64,17 @@ public class PollReport {
             return this;
         }
 
+        /**
+         * Returns a PollReportBuilder configured for nodes which are responsive, but
+         * degraded. Degraded nodes are not failures.
+         * @param degradedNodes set of degraded nodes
+         * @return builder for a PollReport containing degraded nodes
+         */
+        public PollReportBuilder setDegradedNodes(Set<String> degradedNodes) {
+            this.degradedNodes = degradedNodes;
+            return this;
+        }
+
         public PollReport build() {
             return new PollReport(this);
         }
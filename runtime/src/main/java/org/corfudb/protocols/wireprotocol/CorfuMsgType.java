@@ -49,12 +49,18 @@ public enum CorfuMsgType {
     TOKEN_RES(21, new TypeToken<CorfuPayloadMsg<TokenResponse>>(){}),
     BOOTSTRAP_SEQUENCER(22, new TypeToken<CorfuPayloadMsg<SequencerTailsRecoveryMsg>>(){}),
     SEQUENCER_TRIM_REQ(23, new TypeToken<CorfuPayloadMsg<Long>>() {}),
+    SEQUENCER_CONTINUITY_REQ(24, TypeToken.of(CorfuMsg.class)),
+    SEQUENCER_CONTINUITY_RES(25, new TypeToken<CorfuPayloadMsg<Long>>() {}),
 
     // Logging Unit Messages
     WRITE(30, new TypeToken<CorfuPayloadMsg<WriteRequest>>() {}),
     READ_REQUEST(31, new TypeToken<CorfuPayloadMsg<ReadRequest>>() {}),
     READ_RESPONSE(32, new TypeToken<CorfuPayloadMsg<ReadResponse>>() {}),
     MULTIPLE_READ_REQUEST(35, new TypeToken<CorfuPayloadMsg<MultipleReadRequest>>() {}),
+    READ_DIGEST_REQUEST(36, new TypeToken<CorfuPayloadMsg<MultipleReadRequest>>() {}),
+    READ_DIGEST_RESPONSE(37, new TypeToken<CorfuPayloadMsg<ReadDigestResponse>>() {}),
+    SCAN_REQUEST(39, new TypeToken<CorfuPayloadMsg<ScanRequest>>() {}),
+    SCAN_RESPONSE(40, new TypeToken<CorfuPayloadMsg<ScanResponse>>() {}),
     TRIM(33, new TypeToken<CorfuPayloadMsg<TrimRequest>>() {}),
     FILL_HOLE(34, new TypeToken<CorfuPayloadMsg<TrimRequest>>() {}),
     PREFIX_TRIM(38, new TypeToken<CorfuPayloadMsg<TrimRequest>>() {}),
@@ -65,6 +71,8 @@ public enum CorfuMsgType {
     TRIM_MARK_REQUEST(45, TypeToken.of(CorfuMsg.class), true),
     TRIM_MARK_RESPONSE(46, new TypeToken<CorfuPayloadMsg<Long>>(){}, true),
     RESET_LOGUNIT(47, TypeToken.of(CorfuMsg.class)),
+    STREAM_TAILS_REQUEST(48, TypeToken.of(CorfuMsg.class), true),
+    STREAM_TAILS_RESPONSE(49, new TypeToken<CorfuPayloadMsg<StreamTailsResponse>>(){}, true),
 
     WRITE_OK(50, TypeToken.of(CorfuMsg.class)),
     ERROR_TRIMMED(51, TypeToken.of(CorfuMsg.class)),
@@ -81,6 +89,17 @@ public enum CorfuMsgType {
     // EXTRA CODES
     LAYOUT_ALREADY_BOOTSTRAP(60, TypeToken.of(CorfuMsg.class), true),
     LAYOUT_PREPARE_ACK(61, new TypeToken<CorfuPayloadMsg<LayoutPrepareResponse>>(){}, true),
+    LAYOUT_SUBSCRIBE(62, TypeToken.of(CorfuMsg.class), true),
+    LAYOUT_NOTIFICATION(63, new TypeToken<CorfuPayloadMsg<Long>>(){}, true),
+
+    // State Transfer Messages
+    SEGMENT_INFO_REQUEST(80, TypeToken.of(CorfuMsg.class), true),
+    SEGMENT_INFO_RESPONSE(81, new TypeToken<CorfuPayloadMsg<SegmentInfo>>(){}, true),
+    SEGMENT_CHUNK_REQUEST(82, new TypeToken<CorfuPayloadMsg<SegmentChunkRequest>>(){}, true),
+    SEGMENT_CHUNK_RESPONSE(83, new TypeToken<CorfuPayloadMsg<SegmentChunk>>(){}, true),
+    SEGMENT_CHUNK_WRITE(84, new TypeToken<CorfuPayloadMsg<SegmentChunk>>(){}),
+    SEGMENT_INSTALL(85, new TypeToken<CorfuPayloadMsg<Long>>(){}),
+    ERROR_SEGMENTS_UNSUPPORTED(86, TypeToken.of(CorfuMsg.class), true),
 
     // Management Messages
     MANAGEMENT_BOOTSTRAP_REQUEST(70, new TypeToken<CorfuPayloadMsg<Layout>>(){}, true),
@@ -9,6 +9,8 @@ import java.util.concurrent.atomic.AtomicReference;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import net.openhft.hashing.LongHashFunction;
+
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
 import org.corfudb.protocols.logprotocol.LogEntry;
 import org.corfudb.runtime.CorfuRuntime;
@@ -119,6 +121,29 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
         return 1;
     }
 
+    /**
+     * Return a checksum of the data, which is equal for every copy of the same data.
+     *
+     * @return The checksum of the data, or 0, if this entry has no data.
+     */
+    public long getChecksum() {
+        if (type != DataType.DATA) {
+            return 0L;
+        }
+        byte[] tempData = data;
+        if (tempData != null) {
+            return LongHashFunction.xx().hashBytes(tempData);
+        }
+        // The payload was deserialized, so checksum its serialized form instead.
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            Serializers.CORFU.serialize(payload.get(), buf);
+            return LongHashFunction.xx().hashBytes(buf.nioBuffer());
+        } finally {
+            buf.release();
+        }
+    }
+
     @Getter
     final EnumMap<LogUnitMetadataType, Object> metadataMap;
 
@@ -0,0 +1,59 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The metadata of a log entry which replicas compare to agree on its value, without
+ * transferring its payload: the type of the entry, its rank and a checksum of its data.
+ */
+@Data
+@AllArgsConstructor
+public class LogDataDigest implements ICorfuPayload<LogDataDigest> {
+
+    /** The type of the entry. */
+    final DataType type;
+
+    /** The rank of the entry, or null, if it has no rank. */
+    final IMetadata.DataRank rank;
+
+    /** A checksum of the data of the entry, or 0, if it has no data. */
+    final long checksum;
+
+    /**
+     * Deserialization Constructor from ByteBuf to LogDataDigest.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public LogDataDigest(ByteBuf buf) {
+        type = ICorfuPayload.fromBuffer(buf, DataType.class);
+        rank = ICorfuPayload.fromBuffer(buf, Boolean.class)
+                ? ICorfuPayload.fromBuffer(buf, IMetadata.DataRank.class) : null;
+        checksum = ICorfuPayload.fromBuffer(buf, Long.class);
+    }
+
+    /** Generate the digest of a log entry.
+     *
+     * @param logData   The entry to digest, or null, if there is no entry.
+     * @return          The digest of the entry, which is EMPTY if there is no entry.
+     */
+    public static LogDataDigest of(LogData logData) {
+        if (logData == null) {
+            return new LogDataDigest(DataType.EMPTY, null, 0L);
+        }
+        return new LogDataDigest(logData.getType(), logData.getRank(),
+                logData.getChecksum());
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, type);
+        ICorfuPayload.serialize(buf, rank != null);
+        if (rank != null) {
+            ICorfuPayload.serialize(buf, rank);
+        }
+        ICorfuPayload.serialize(buf, checksum);
+    }
+}
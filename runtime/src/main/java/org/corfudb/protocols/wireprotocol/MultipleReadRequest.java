@@ -20,6 +20,10 @@ public class MultipleReadRequest implements ICorfuPayload<MultipleReadRequest> {
     @Getter
     final List<Long> addresses;
 
+    /** The access pattern of the read. */
+    @Getter
+    final ReadHint hint;
+
     /**
      * Deserialization Constructor from ByteBuf to ReadRequest.
      *
@@ -27,14 +31,20 @@ public class MultipleReadRequest implements ICorfuPayload<MultipleReadRequest> {
      */
     public MultipleReadRequest(ByteBuf buf) {
         addresses = ICorfuPayload.listFromBuffer(buf, Long.class);
+        hint = ICorfuPayload.fromBuffer(buf, ReadHint.class);
+    }
+
+    public MultipleReadRequest(List<Long> addresses) {
+        this(addresses, ReadHint.NORMAL);
     }
 
     public MultipleReadRequest(Long address) {
-        addresses = Arrays.asList(address);
+        this(Arrays.asList(address), ReadHint.NORMAL);
     }
 
     @Override
     public void doSerialize(ByteBuf buf) {
         ICorfuPayload.serialize(buf, addresses);
+        ICorfuPayload.serialize(buf, hint);
     }
 }
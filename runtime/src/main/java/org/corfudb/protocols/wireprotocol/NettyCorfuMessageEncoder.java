@@ -10,7 +10,11 @@ import java.util.concurrent.atomic.LongAccumulator;
 import java.util.function.LongBinaryOperator;
 
 /**
- * Created by mwei on 10/1/15.
+ * Encodes messages into direct buffers from the allocator of the channel, which the
+ * routers configure to be pooled, so that encoding doesn't allocate a buffer per
+ * message, nor copy it to a direct buffer when writing to the socket.
+ *
+ * <p>Created by mwei on 10/1/15.
  */
 @Slf4j
 public class NettyCorfuMessageEncoder extends MessageToByteEncoder<CorfuMsg> {
@@ -18,6 +22,12 @@ public class NettyCorfuMessageEncoder extends MessageToByteEncoder<CorfuMsg> {
 
     final LongAccumulator maxValue = new LongAccumulator(Math::max, Long.MIN_VALUE);
 
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, CorfuMsg msg,
+                                     boolean preferDirect) {
+        return ctx.alloc().directBuffer();
+    }
+
     @Override
     protected void encode(ChannelHandlerContext channelHandlerContext,
                           CorfuMsg corfuMsg,
@@ -0,0 +1,39 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+/**
+ * A response to a READ_DIGEST_REQUEST, which maps each address read to the digest
+ * of the entry at that address.
+ */
+@Data
+@AllArgsConstructor
+public class ReadDigestResponse implements ICorfuPayload<ReadDigestResponse> {
+
+    @Getter
+    Map<Long, LogDataDigest> digests;
+
+    public ReadDigestResponse(ByteBuf buf) {
+        digests = ICorfuPayload.mapFromBuffer(buf, Long.class, LogDataDigest.class);
+    }
+
+    public ReadDigestResponse() {
+        digests = new HashMap<>();
+    }
+
+    public void put(Long address, LogDataDigest digest) {
+        digests.put(address, digest);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, digests);
+    }
+}
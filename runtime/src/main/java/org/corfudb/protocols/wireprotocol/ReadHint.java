@@ -0,0 +1,38 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * A hint about the access pattern of a read, which lets a log unit decide whether
+ * the entries read are worth caching.
+ */
+@AllArgsConstructor
+public enum ReadHint implements ICorfuPayload<ReadHint> {
+    /** A read of entries which are likely to be read again, such as the tail of the log. */
+    NORMAL(0),
+    /** A read which is part of a sequential scan, such as loading or catching up on
+     * the log, whose entries are unlikely to be read again soon. */
+    SEQUENTIAL(1);
+
+    final int val;
+
+    byte asByte() {
+        return (byte) val;
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        buf.writeByte(asByte());
+    }
+
+    public static Map<Byte, ReadHint> typeMap =
+            Arrays.stream(ReadHint.values())
+                    .collect(Collectors.toMap(ReadHint::asByte, Function.identity()));
+}
@@ -18,6 +18,9 @@ public class ReadRequest implements ICorfuPayload<ReadRequest> {
 
     final Range<Long> range;
 
+    /** The access pattern of the read. */
+    final ReadHint hint;
+
     /**
      * Deserialization Constructor from ByteBuf to ReadRequest.
      *
@@ -25,15 +28,21 @@ public class ReadRequest implements ICorfuPayload<ReadRequest> {
      */
     public ReadRequest(ByteBuf buf) {
         range = ICorfuPayload.rangeFromBuffer(buf, Long.class);
+        hint = ICorfuPayload.fromBuffer(buf, ReadHint.class);
+    }
+
+    public ReadRequest(Range<Long> range) {
+        this(range, ReadHint.NORMAL);
     }
 
     public ReadRequest(Long address) {
-        range = Range.singleton(address);
+        this(Range.singleton(address), ReadHint.NORMAL);
     }
 
     @Override
     public void doSerialize(ByteBuf buf) {
         ICorfuPayload.serialize(buf, range);
+        ICorfuPayload.serialize(buf, hint);
     }
 
 }
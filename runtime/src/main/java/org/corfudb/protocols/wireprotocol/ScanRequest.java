@@ -0,0 +1,47 @@
+package org.corfudb.protocols.wireprotocol;
+
+import com.google.common.collect.Range;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Set;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A request to scan a range of addresses for the entries which belong to any of
+ * a set of streams.
+ */
+@Data
+@AllArgsConstructor
+public class ScanRequest implements ICorfuPayload<ScanRequest> {
+
+    /** The range of addresses to scan. */
+    final Range<Long> range;
+
+    /** The streams to return entries of, or empty, to return entries of any stream. */
+    final Set<UUID> streams;
+
+    /** The size of the entries, in bytes, after which the scan stops. */
+    final int maxBytes;
+
+    /**
+     * Deserialization Constructor from ByteBuf to ScanRequest.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public ScanRequest(ByteBuf buf) {
+        range = ICorfuPayload.rangeFromBuffer(buf, Long.class);
+        streams = ICorfuPayload.setFromBuffer(buf, UUID.class);
+        maxBytes = ICorfuPayload.fromBuffer(buf, Integer.class);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, range);
+        ICorfuPayload.serialize(buf, streams);
+        ICorfuPayload.serialize(buf, maxBytes);
+    }
+}
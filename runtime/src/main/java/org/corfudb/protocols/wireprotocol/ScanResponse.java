@@ -0,0 +1,56 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Map;
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A response to a ScanRequest, which holds the matching entries found, the addresses
+ * examined which hold no entry, and the address to continue the scan from.
+ */
+@Data
+@AllArgsConstructor
+public class ScanResponse implements ICorfuPayload<ScanResponse> {
+
+    /** The continuation address of a scan which covered its entire range. */
+    public static final long SCAN_COMPLETE = -1L;
+
+    /** The matching entries, by address. */
+    final Map<Long, LogData> addresses;
+
+    /** The addresses examined which hold no entry, and may still be written. */
+    final Set<Long> unwritten;
+
+    /** The address to continue the scan from, or SCAN_COMPLETE. */
+    final long nextAddress;
+
+    /**
+     * Deserialization Constructor from ByteBuf to ScanResponse.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public ScanResponse(ByteBuf buf) {
+        addresses = ICorfuPayload.mapFromBuffer(buf, Long.class, LogData.class);
+        unwritten = ICorfuPayload.setFromBuffer(buf, Long.class);
+        nextAddress = ICorfuPayload.fromBuffer(buf, Long.class);
+    }
+
+    /** Return whether the scan covered its entire range.
+     *
+     * @return True, if there is nothing left to scan.
+     */
+    public boolean isComplete() {
+        return nextAddress == SCAN_COMPLETE;
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, addresses);
+        ICorfuPayload.serialize(buf, unwritten);
+        ICorfuPayload.serialize(buf, nextAddress);
+    }
+}
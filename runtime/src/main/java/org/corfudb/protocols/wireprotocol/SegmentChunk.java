@@ -0,0 +1,76 @@
+package org.corfudb.protocols.wireprotocol;
+
+import com.google.common.hash.Hashing;
+
+import io.netty.buffer.ByteBuf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A byte range of a file of a sealed segment, along with its checksum, so it can be
+ * verified when it arrives.
+ */
+@Data
+@AllArgsConstructor
+public class SegmentChunk implements ICorfuPayload<SegmentChunk> {
+
+    /** The segment the chunk was read from. */
+    final long segment;
+
+    /** The file of the segment the chunk was read from. */
+    final SegmentFileType type;
+
+    /** The offset of the chunk in the file. */
+    final long offset;
+
+    /** The length of the whole file, when the chunk was read. */
+    final long fileLength;
+
+    /** The bytes of the chunk. */
+    final byte[] data;
+
+    /** The checksum of the bytes of the chunk. */
+    final int checksum;
+
+    /**
+     * Returns a chunk of a file, with the checksum of its bytes.
+     */
+    public SegmentChunk(long segment, SegmentFileType type, long offset, long fileLength,
+                        byte[] data) {
+        this(segment, type, offset, fileLength, data, getChecksum(data));
+    }
+
+    /**
+     * Deserialization Constructor from ByteBuf to SegmentChunk.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public SegmentChunk(ByteBuf buf) {
+        segment = ICorfuPayload.fromBuffer(buf, Long.class);
+        type = ICorfuPayload.fromBuffer(buf, SegmentFileType.class);
+        offset = ICorfuPayload.fromBuffer(buf, Long.class);
+        fileLength = ICorfuPayload.fromBuffer(buf, Long.class);
+        data = ICorfuPayload.fromBuffer(buf, byte[].class);
+        checksum = ICorfuPayload.fromBuffer(buf, Integer.class);
+    }
+
+    /** Whether the bytes of the chunk match its checksum. */
+    public boolean isValid() {
+        return checksum == getChecksum(data);
+    }
+
+    private static int getChecksum(byte[] data) {
+        return Hashing.crc32c().hashBytes(data).asInt();
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, segment);
+        ICorfuPayload.serialize(buf, type);
+        ICorfuPayload.serialize(buf, offset);
+        ICorfuPayload.serialize(buf, fileLength);
+        ICorfuPayload.serialize(buf, data);
+        ICorfuPayload.serialize(buf, checksum);
+    }
+}
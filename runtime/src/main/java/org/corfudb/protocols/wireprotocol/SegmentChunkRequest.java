@@ -0,0 +1,46 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A request to read a byte range of a file of a sealed segment.
+ */
+@Data
+@AllArgsConstructor
+public class SegmentChunkRequest implements ICorfuPayload<SegmentChunkRequest> {
+
+    /** The segment to read. */
+    final long segment;
+
+    /** The file of the segment to read. */
+    final SegmentFileType type;
+
+    /** The offset in the file to read from. */
+    final long offset;
+
+    /** The maximum number of bytes to read. */
+    final int maxLength;
+
+    /**
+     * Deserialization Constructor from ByteBuf to SegmentChunkRequest.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public SegmentChunkRequest(ByteBuf buf) {
+        segment = ICorfuPayload.fromBuffer(buf, Long.class);
+        type = ICorfuPayload.fromBuffer(buf, SegmentFileType.class);
+        offset = ICorfuPayload.fromBuffer(buf, Long.class);
+        maxLength = ICorfuPayload.fromBuffer(buf, Integer.class);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, segment);
+        ICorfuPayload.serialize(buf, type);
+        ICorfuPayload.serialize(buf, offset);
+        ICorfuPayload.serialize(buf, maxLength);
+    }
+}
@@ -0,0 +1,38 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * The files which make up a segment of a log unit's stream log.
+ */
+@AllArgsConstructor
+public enum SegmentFileType implements ICorfuPayload<SegmentFileType> {
+    /** The records of the segment. */
+    LOG(0),
+    /** The addresses of the segment which were trimmed and compacted. */
+    TRIMMED(1),
+    /** The addresses of the segment which were trimmed, but not compacted yet. */
+    PENDING_TRIMS(2);
+
+    final int val;
+
+    byte asByte() {
+        return (byte) val;
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        buf.writeByte(asByte());
+    }
+
+    public static Map<Byte, SegmentFileType> typeMap =
+            Arrays.stream(SegmentFileType.values())
+                    .collect(Collectors.toMap(SegmentFileType::asByte, Function.identity()));
+}
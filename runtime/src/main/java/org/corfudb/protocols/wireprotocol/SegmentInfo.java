@@ -0,0 +1,42 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Describes the segments of a log unit's stream log, which can be transferred as files.
+ * Segments before the tail segment are sealed, and are no longer appended to.
+ */
+@Data
+@AllArgsConstructor
+public class SegmentInfo implements ICorfuPayload<SegmentInfo> {
+
+    /** The number of addresses in each segment. */
+    final long recordsPerSegment;
+
+    /** The first segment which holds untrimmed addresses. */
+    final long firstSegment;
+
+    /** The segment which is currently appended to. */
+    final long tailSegment;
+
+    /**
+     * Deserialization Constructor from ByteBuf to SegmentInfo.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public SegmentInfo(ByteBuf buf) {
+        recordsPerSegment = ICorfuPayload.fromBuffer(buf, Long.class);
+        firstSegment = ICorfuPayload.fromBuffer(buf, Long.class);
+        tailSegment = ICorfuPayload.fromBuffer(buf, Long.class);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, recordsPerSegment);
+        ICorfuPayload.serialize(buf, firstSegment);
+        ICorfuPayload.serialize(buf, tailSegment);
+    }
+}
@@ -0,0 +1,35 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A response to a STREAM_TAILS_REQUEST, which holds the greatest address a log unit
+ * has written to each stream.
+ */
+@Data
+@AllArgsConstructor
+public class StreamTailsResponse implements ICorfuPayload<StreamTailsResponse> {
+
+    /** The tail of each stream. */
+    final Map<UUID, Long> streamTails;
+
+    /**
+     * Deserialization Constructor from ByteBuf to StreamTailsResponse.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public StreamTailsResponse(ByteBuf buf) {
+        streamTails = ICorfuPayload.mapFromBuffer(buf, UUID.class, Long.class);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, streamTails);
+    }
+}
@@ -6,7 +6,6 @@ import io.netty.buffer.ByteBuf;
 
 import java.util.Collections;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 import lombok.Getter;
@@ -29,13 +28,14 @@ public class TxResolutionInfo implements ICorfuPayload<TxResolutionInfo> {
     @Setter
     Long snapshotTimestamp;
 
-    /** A set of poisoned streams, which have a conflict against all updates. */
-
+    /** The conflict fingerprints read by the txn, as sorted arrays of distinct fingerprints
+     * by stream. A stream mapped to an empty array conflicts against all updates. */
     @Getter
-    final Map<UUID, Set<byte[]>> conflictSet;
+    final Map<UUID, long[]> conflictSet;
 
+    /** The conflict fingerprints written by the txn, in the same form as the conflictSet. */
     @Getter
-    final Map<UUID, Set<byte[]>>  writeConflictParams;
+    final Map<UUID, long[]> writeConflictParams;
 
     /**
      * Constructor for TxResolutionInfo.
@@ -58,8 +58,8 @@ public class TxResolutionInfo implements ICorfuPayload<TxResolutionInfo> {
      * @param conflictMap map of conflict parameters, arranged by stream IDs
      * @param writeConflictParams map of write conflict parameters, arranged by stream IDs
      */
-    public TxResolutionInfo(UUID txId, long snapshotTimestamp, Map<UUID, Set<byte[]>>
-            conflictMap, Map<UUID, Set<byte[]>> writeConflictParams) {
+    public TxResolutionInfo(UUID txId, long snapshotTimestamp, Map<UUID, long[]>
+            conflictMap, Map<UUID, long[]> writeConflictParams) {
         this.TXid = txId;
         this.snapshotTimestamp = snapshotTimestamp;
         this.conflictSet = conflictMap;
@@ -71,35 +71,41 @@ public class TxResolutionInfo implements ICorfuPayload<TxResolutionInfo> {
      *
      * <p>The first entry is a long, the snapshot timestamp.
      * The second is an int, the size of the map.
-     * Next, entries are serialized one by one, first the key, then each value,
-     * itself a set of objects.</p>
+     * Next, entries are serialized one by one, first the key, then the value,
+     * a packed array of fingerprints prefixed by its length.</p>
      *
      * @param buf        The buffer to deserialize.
      */
     public TxResolutionInfo(ByteBuf buf) {
         TXid = ICorfuPayload.fromBuffer(buf, UUID.class);
         snapshotTimestamp = buf.readLong();
+        conflictSet = fingerprintMapFromBuffer(buf);
+        writeConflictParams = fingerprintMapFromBuffer(buf);
+    }
 
-        // conflictSet
+    private static Map<UUID, long[]> fingerprintMapFromBuffer(ByteBuf buf) {
         int numEntries = buf.readInt();
-        ImmutableMap.Builder<UUID, Set<byte[]>> conflictMapBuilder = new ImmutableMap.Builder<>();
-        for (int i = 0; i < numEntries; i++) {
-            UUID k = ICorfuPayload.fromBuffer(buf, UUID.class);
-            Set<byte[]> v = ICorfuPayload.setFromBuffer(buf, byte[].class);
-            conflictMapBuilder.put(k, v);
-        }
-        conflictSet = conflictMapBuilder.build();
-
-        // writeConflictParams
-        numEntries = buf.readInt();
-        ImmutableMap.Builder<UUID, Set<byte[]>> writeMapBuilder = new ImmutableMap.Builder<>();
+        ImmutableMap.Builder<UUID, long[]> mapBuilder = new ImmutableMap.Builder<>();
         for (int i = 0; i < numEntries; i++) {
             UUID k = ICorfuPayload.fromBuffer(buf, UUID.class);
-            Set<byte[]> v = ICorfuPayload.setFromBuffer(buf, byte[].class);
-            writeMapBuilder.put(k, v);
+            long[] v = new long[buf.readInt()];
+            for (int j = 0; j < v.length; j++) {
+                v[j] = buf.readLong();
+            }
+            mapBuilder.put(k, v);
         }
+        return mapBuilder.build();
+    }
 
-        writeConflictParams = writeMapBuilder.build();
+    private static void serializeFingerprintMap(ByteBuf buf, Map<UUID, long[]> map) {
+        buf.writeInt(map.size());
+        map.forEach((k, v) -> {
+            ICorfuPayload.serialize(buf, k);
+            buf.writeInt(v.length);
+            for (long fingerprint : v) {
+                buf.writeLong(fingerprint);
+            }
+        });
     }
 
     /**
@@ -111,20 +117,8 @@ public class TxResolutionInfo implements ICorfuPayload<TxResolutionInfo> {
     public void doSerialize(ByteBuf buf) {
         ICorfuPayload.serialize(buf, TXid);
         buf.writeLong(snapshotTimestamp);
-
-        // conflictSet
-        buf.writeInt(conflictSet.size());
-        conflictSet.entrySet().stream().forEach(x -> {
-            ICorfuPayload.serialize(buf, x.getKey());
-            ICorfuPayload.serialize(buf, x.getValue());
-        });
-
-        // writeConflictParams
-        buf.writeInt(writeConflictParams.size());
-        writeConflictParams.entrySet().stream().forEach(x -> {
-            ICorfuPayload.serialize(buf, x.getKey());
-            ICorfuPayload.serialize(buf, x.getValue());
-        });
+        serializeFingerprintMap(buf, conflictSet);
+        serializeFingerprintMap(buf, writeConflictParams);
     }
 
     @Override
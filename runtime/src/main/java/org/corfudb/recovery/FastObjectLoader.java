@@ -30,6 +30,7 @@ import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.collections.SMRMap;
+import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
 import org.corfudb.runtime.object.CorfuCompileProxy;
 import org.corfudb.runtime.view.Address;
@@ -704,6 +705,10 @@ public class FastObjectLoader {
             final long start = nextRead;
             final long stopNotIncluded = Math.min(start + batchReadSize, logTail + 1);
             nextRead = stopNotIncluded;
+            if (isScanEnabled()) {
+                scanRange(start, stopNotIncluded, logDataProcessor);
+                continue;
+            }
             final Map<Long, ILogData> range = getLogData(runtime, start, stopNotIncluded);
 
             // Sanity
@@ -734,6 +739,41 @@ public class FastObjectLoader {
         killNecromancer();
     }
 
+    /**
+     * In whitelist mode, only the entries of the streams to load are needed, except
+     * to recover the sequencer, which needs the tails of every stream.
+     */
+    private boolean isScanEnabled() {
+        return whiteList && !recoverSequencerMode;
+    }
+
+    /**
+     * Apply the consumer to the entries of the streams to load in a range, which
+     * the log units filter, so that the entries of the other streams are not read.
+     *
+     * @param start start address of the range
+     * @param stopNotIncluded end address of the range (excluded)
+     * @param logDataProcessor
+     */
+    private void scanRange(long start, long stopNotIncluded,
+                           BiConsumer<Long, ILogData> logDataProcessor) {
+        final Map<Long, ILogData> range;
+        try {
+            range = getLogData(runtime, new HashSet<>(streamsToLoad), start, stopNotIncluded);
+        } catch (TrimmedException te) {
+            log.warn("scanRange[{}, start={}] range is trimmed", start, logHead);
+            handleRetry();
+            return;
+        }
+
+        if (start != addressProcessed + 1) {
+            fail("We missed an entry. It can lead to correctness issues.");
+        }
+        addressProcessed = stopNotIncluded - 1;
+        log.trace("scanRange: read up to {}", addressProcessed);
+        invokeNecromancer(range, logDataProcessor);
+    }
+
     @Data
     private class CheckPoint {
         final UUID checkPointId;
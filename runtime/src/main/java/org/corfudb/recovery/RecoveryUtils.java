@@ -14,6 +14,7 @@ import org.corfudb.runtime.view.ObjectsView;
 import org.corfudb.util.serializer.ISerializer;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.corfudb.protocols.logprotocol.CheckpointEntry.CheckpointDictKey.SNAPSHOT_ADDRESS;
@@ -93,6 +94,25 @@ public class RecoveryUtils {
                 cacheFetch(ContiguousSet.create(Range.closedOpen(start, end), DiscreteDomain.longs()));
     }
 
+    /**
+     * Get the LogData of the given streams in a range from the server
+     *
+     * The log units filter the entries of the range, so only the entries
+     * of the streams are transferred, and they are not cached. This read
+     * will return a map ordered by address.
+     *
+     * It uses a ClosedOpen range : [start, end)
+     *
+     * @param streams the streams to get the entries of
+     * @param start start address for the scan
+     * @param end end address for the scan
+     * @return logData map of the streams ordered by addresses (increasing)
+     */
+    static Map<Long, ILogData> getLogData(CorfuRuntime runtime, Set<UUID> streams,
+                                          long start, long end) {
+        return runtime.getAddressSpaceView().scan(Range.closedOpen(start, end), streams);
+    }
+
     /** Deserialize a logData by getting the logEntry
      *
      * Getting the underlying logEntry should trigger deserialization only once.
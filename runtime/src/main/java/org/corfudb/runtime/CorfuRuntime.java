@@ -1,14 +1,17 @@
 package org.corfudb.runtime;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.MetricRegistry;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.regex.Pattern;
@@ -24,6 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.wireprotocol.VersionInfo;
 import org.corfudb.recovery.FastObjectLoader;
 import org.corfudb.runtime.clients.BaseClient;
+import org.corfudb.runtime.clients.ConnectionRoutingPolicy;
 import org.corfudb.runtime.clients.IClientRouter;
 import org.corfudb.runtime.clients.LayoutClient;
 import org.corfudb.runtime.clients.LogUnitClient;
@@ -39,6 +43,7 @@ import org.corfudb.runtime.view.LayoutManagementView;
 import org.corfudb.runtime.view.LayoutView;
 import org.corfudb.runtime.view.ObjectsView;
 import org.corfudb.runtime.view.SequencerView;
+import org.corfudb.runtime.view.StreamSubscription;
 import org.corfudb.runtime.view.StreamsView;
 
 import org.corfudb.util.GitRepositoryState;
@@ -67,6 +72,103 @@ public class CorfuRuntime {
 
         /** Number of times to attempt to read before hole filling. */
         int holeFillRetry = 10;
+
+        /** True, if the native (epoll) transport should be used when available. */
+        boolean nativeTransportEnabled = false;
+
+        /** Number of netty event loop threads per router, or 0 for the default. */
+        int nettyEventLoopThreads = 0;
+
+        /** True, if TCP_NODELAY should be set on client channels. */
+        boolean tcpNoDelay = true;
+
+        /** Low write buffer watermark of client channels, in bytes. */
+        int writeBufferLowWaterMark = 32 * 1024;
+
+        /** High write buffer watermark of client channels, in bytes. */
+        int writeBufferHighWaterMark = 64 * 1024;
+
+        /** True, if flushes of outbound messages should be coalesced per channel. */
+        boolean flushCoalescingEnabled = false;
+
+        /** Maximum number of outbound messages held before a coalesced flush. */
+        int flushCoalescingMaxMessages = 64;
+
+        /** Maximum number of outbound bytes held before a coalesced flush. */
+        int flushCoalescingMaxBytes = 64 * 1024;
+
+        /** Number of connections opened to each endpoint. */
+        int connectionsPerEndpoint = 1;
+
+        /** How requests are spread over the connections to an endpoint. */
+        ConnectionRoutingPolicy connectionRoutingPolicy =
+                ConnectionRoutingPolicy.LEAST_OUTSTANDING;
+
+        /** True, if optimistic transactions should keep their writes in private overlays
+         * for objects which support them, instead of applying them to the shared object. */
+        boolean transactionWriteOverlayEnabled = false;
+
+        /** How old, in milliseconds, a global tail may be to be reused as the snapshot
+         * of a read-only transaction. If zero, every read-only transaction queries the
+         * sequencer (sharing the query with concurrent transactions). */
+        long readOnlyTransactionMaxStalenessMs = 0;
+
+        /** True, if quorum replicated reads should transfer the payload from a single
+         * replica, and only compare digests of the entry from the others. */
+        boolean quorumDigestReadEnabled = false;
+
+        /** The maximum number of bulk read batches in flight at once for a single bulk read. */
+        int bulkReadMaxInFlight = 8;
+
+        /** The size, in bytes, of the entries after which a log unit ends a scan request,
+         * to be continued by the next one. */
+        int scanMaxBytes = 4 * 1024 * 1024;
+
+        /** The maximum size of a chunk of a segment file copied by state transfer. */
+        int stateTransferChunkSize = 1 << 20;
+
+        /** The maximum rate, in bytes per second, at which state transfer copies segment
+         * files, or zero for no limit. */
+        long stateTransferMaxBytesPerSecond = 0L;
+
+        /** The interval, in milliseconds, at which the objects opened with
+         * {@link org.corfudb.runtime.view.ObjectOpenOptions#FOLLOW} are caught up with
+         * their streams. */
+        long objectFollowerIntervalMs = 50L;
+
+        /** The maximum number of entries applied to a followed object per hold of its lock. */
+        int objectFollowerBatchSize = 100;
+
+        /** The maximum number of updates a stream subscription buffers ahead of its
+         * consumer. */
+        int subscriptionBufferSize = 1024;
+
+        /** The interval, in milliseconds, at which a stream subscription which caught up
+         * with the log polls for new entries. */
+        long subscriptionPollIntervalMs = 50L;
+
+        /** True, if objects should deserialize the entries of their streams in parallel
+         * when they sync, ahead of applying them in order. */
+        boolean parallelStreamSyncEnabled = false;
+
+        /** The number of entries deserialized by each task of a parallel stream sync. */
+        int parallelStreamSyncChunkSize = 64;
+
+        /** The maximum number of chunks a parallel stream sync deserializes ahead of the
+         * chunk being applied. */
+        int parallelStreamSyncMaxChunksInFlight = 8;
+
+        /** Whether the updates to objects outside of transactions are batched into shared
+         * log entries, for all the objects of the runtime. Objects can also opt in with
+         * {@link org.corfudb.runtime.view.ObjectOpenOptions#BATCH_WRITES}. */
+        boolean writeBatchingEnabled = false;
+
+        /** How long a batch of updates waits for more updates after the first, in
+         * microseconds. */
+        long writeBatchWindowMicros = 100L;
+
+        /** The maximum number of updates written in a single batch. */
+        int writeBatchMaxEntries = 64;
     }
 
     @Getter
@@ -115,8 +217,14 @@ public class CorfuRuntime {
     public Map<String, IClientRouter> nodeRouters;
     /**
      * A completable future containing a layout, when completed.
+     * Only replaced through {@link #invalidateLayout(long)} once connected, so that
+     * a single fetch is in flight at a time.
      */
     public volatile CompletableFuture<Layout> layout;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CorfuRuntime, CompletableFuture>
+            layoutUpdater = AtomicReferenceFieldUpdater.newUpdater(CorfuRuntime.class,
+            CompletableFuture.class, "layout");
     /**
      * The rate in seconds to retry accessing a layout, in case of a failure.
      */
@@ -229,6 +337,12 @@ public class CorfuRuntime {
     @Getter
     private static final String mpObj = mp + "object.";
     @Getter
+    private static final String mpST = mp + "state-transfer.";
+    @Getter
+    private static final String mpLayout = mp + "layout.";
+    @Getter
+    private static final String mpLM = mp + "layout-management.";
+    @Getter
     private static MetricRegistry defaultMetrics = new MetricRegistry();
     @Getter
     private MetricRegistry metrics = new MetricRegistry();
@@ -264,7 +378,7 @@ public class CorfuRuntime {
                 // Generate a new router, start it and add it to the table.
                 NettyClientRouter router = new NettyClientRouter(host, port,
                         tlsEnabled, keyStore, ksPasswordFile, trustStore, tsPasswordFile,
-                        saslPlainTextEnabled, usernameFile, passwordFile);
+                        saslPlainTextEnabled, usernameFile, passwordFile, null, parameters);
                 log.debug("Connecting to new router {}:{}", host, port);
                 try {
                     router.addClient(new LayoutClient())
@@ -346,6 +460,8 @@ public class CorfuRuntime {
                 log.error("Runtime shutting down. Exception in terminating fetchLayout: {}", e);
             }
         }
+        getObjectsView().stopFollowing();
+        getObjectsView().stopBatchingWrites();
         stop(true);
     }
 
@@ -470,20 +586,112 @@ public class CorfuRuntime {
         return getRouterFunction.apply(address);
     }
 
+    /**
+     * Subscribe to the updates of a set of streams, from an address of the global log.
+     * Each entry of the log which updates the streams is delivered as a single update,
+     * so the updates of a transaction are delivered together.
+     *
+     * @param streamIds    The ids of the streams to subscribe to.
+     * @param startAddress The address to start scanning the log from.
+     * @return A subscription, which must be closed once no longer needed.
+     */
+    public StreamSubscription subscribe(@NonNull Set<UUID> streamIds, long startAddress) {
+        return getStreamsView().subscribe(streamIds, startAddress);
+    }
+
     /**
      * Invalidate the current layout.
      * If the layout has been previously invalidated and a new layout has not yet been retrieved,
      * this function does nothing.
      */
-    public synchronized void invalidateLayout() {
+    public void invalidateLayout() {
+        invalidateLayout(Long.MAX_VALUE);
+    }
+
+    /**
+     * Invalidate the layout of an epoch, which was found to be stale.
+     *
+     * <p>Only one fetch of the layout is in flight at a time: if a fetch is pending, or
+     * the current layout is already newer than the stale epoch, this function does
+     * nothing, so that the invalidations of all the requests which failed on the same
+     * epoch result in a single fetch.
+     *
+     * @param staleEpoch The epoch of the layout which was found to be stale.
+     */
+    public void invalidateLayout(long staleEpoch) {
+        final CompletableFuture<Layout> current = layout;
         // Is there a pending request to retrieve the layout?
-        if (!layout.isDone()) {
+        if (current == null || !current.isDone()) {
             // Don't create a new request for a layout if there is one pending.
+            getMetrics().counter(mpLayout + "coalesced-invalidations").inc();
+            return;
+        }
+        if (!current.isCompletedExceptionally()) {
+            Layout currentLayout = current.join();
+            if (currentLayout != null && currentLayout.getEpoch() > staleEpoch) {
+                // The layout was already refreshed since the caller read it.
+                getMetrics().counter(mpLayout + "coalesced-invalidations").inc();
+                return;
+            }
+        }
+
+        // Only the thread which installs the next future fetches the layout.
+        final CompletableFuture<Layout> next = new CompletableFuture<>();
+        if (!layoutUpdater.compareAndSet(this, current, next)) {
+            getMetrics().counter(mpLayout + "coalesced-invalidations").inc();
             return;
         }
-        layout = fetchLayout();
+        getMetrics().counter(mpLayout + "fetches").inc();
+        fetchLayout().whenComplete((l, e) -> {
+            if (e != null) {
+                next.completeExceptionally(e);
+            } else {
+                next.complete(l);
+            }
+        });
+    }
+
+    /**
+     * Handles a layout change pushed by a layout server. If a fetch is pending, it may
+     * have been served the previous layout, so the layout is checked again once the
+     * fetch completes.
+     *
+     * @param epoch The epoch of the new layout.
+     */
+    private void onLayoutChange(long epoch) {
+        log.debug("onLayoutChange: Notified of layout with epoch {}", epoch);
+        final CompletableFuture<Layout> current = layout;
+        if (current != null) {
+            current.whenComplete((l, e) -> {
+                if (!isShutdown) {
+                    invalidateLayout(epoch - 1);
+                }
+            });
+        }
     }
 
+    /**
+     * Subscribes to the layout changes of the layout servers of a layout, so that
+     * new layouts are fetched as soon as they are committed. Servers which don't support
+     * subscriptions are only polled, when requests fail on a stale epoch.
+     *
+     * @param l The layout whose layout servers to subscribe to.
+     */
+    private void subscribeToLayoutChanges(Layout l) {
+        for (String server : l.getLayoutServers()) {
+            try {
+                getRouter(server).getClient(LayoutClient.class)
+                        .subscribe(this::onLayoutChange)
+                        .exceptionally(e -> {
+                            log.debug("subscribeToLayoutChanges: Failed to subscribe to {}",
+                                    server, e);
+                            return false;
+                        });
+            } catch (Exception e) {
+                log.debug("subscribeToLayoutChanges: Failed to subscribe to {}", server, e);
+            }
+        }
+    }
 
     /**
      * Return a completable future which is guaranteed to contain a layout.
@@ -543,10 +751,10 @@ public class CorfuRuntime {
                             log.warn("fetchLayout: Error getting router : {}", ne);
                         }
                         layoutServers = l.getLayoutServers();
-                        layout = layoutFuture;
                         //FIXME Synchronization END
 
                         log.debug("Layout server {} responded with layout {}", s, l);
+                        subscribeToLayoutChanges(l);
                         return l;
                     } catch (InterruptedException ie) {
                         throw new UnrecoverableCorfuInterruptedError(
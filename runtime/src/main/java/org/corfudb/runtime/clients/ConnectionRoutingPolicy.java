@@ -0,0 +1,12 @@
+package org.corfudb.runtime.clients;
+
+/**
+ * The policy a {@link NettyClientRouter} uses to pick one of its connections
+ * to an endpoint for each outgoing request.
+ */
+public enum ConnectionRoutingPolicy {
+    /** Cycle through the connections in turn. */
+    ROUND_ROBIN,
+    /** Pick the connection with the fewest requests awaiting a response. */
+    LEAST_OUTSTANDING
+}
@@ -0,0 +1,162 @@
+package org.corfudb.runtime.clients;
+
+import com.codahale.metrics.Histogram;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.Future;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.corfudb.util.MetricsUtils;
+
+/**
+ * An outbound handler which coalesces flushes, so that a burst of small messages
+ * written to a channel results in a single flush (and syscall) instead of one per
+ * message.
+ *
+ * <p>Flushes are deferred until either:
+ * <ul>
+ * <li>the executor servicing the channel has run the writes already queued to it
+ * (the channel goes idle),</li>
+ * <li>a read in progress completes, or</li>
+ * <li>the number of pending messages or bytes reaches its threshold.</li>
+ * </ul>
+ *
+ * <p>This handler must be placed between the message encoder and the framing
+ * handlers, so that it observes encoded buffers.
+ */
+@Slf4j
+public class FlushCoalescingHandler extends ChannelDuplexHandler {
+
+    /** The maximum number of messages to hold before flushing. */
+    private final int maxPendingMessages;
+
+    /** The maximum number of bytes to hold before flushing. */
+    private final long maxPendingBytes;
+
+    /** A histogram of the number of messages written per flush, or null. */
+    private final Histogram messagesPerFlush;
+
+    /** The number of messages written but not yet flushed. */
+    private int pendingMessages;
+
+    /** The number of bytes written but not yet flushed. */
+    private long pendingBytes;
+
+    /** Whether a flush was requested but deferred. */
+    private boolean flushPending;
+
+    /** Whether a read is in progress, in which case we flush on read completion. */
+    private boolean readInProgress;
+
+    /** The scheduled flush task, if any. */
+    private Future<?> scheduledFlush;
+
+    /**
+     * Create a new flush coalescing handler.
+     *
+     * @param maxPendingMessages The maximum number of messages to hold before flushing.
+     * @param maxPendingBytes    The maximum number of bytes to hold before flushing.
+     * @param messagesPerFlush   A histogram to record the messages per flush in, or null.
+     */
+    public FlushCoalescingHandler(int maxPendingMessages, long maxPendingBytes,
+                                  Histogram messagesPerFlush) {
+        this.maxPendingMessages = maxPendingMessages;
+        this.maxPendingBytes = maxPendingBytes;
+        this.messagesPerFlush = messagesPerFlush;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+            throws Exception {
+        pendingMessages++;
+        if (msg instanceof ByteBuf) {
+            pendingBytes += ((ByteBuf) msg).readableBytes();
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        flushPending = true;
+        if (pendingMessages >= maxPendingMessages || pendingBytes >= maxPendingBytes) {
+            flushNow(ctx);
+        } else if (!readInProgress && scheduledFlush == null) {
+            // Flush once the writes already queued on this executor have run.
+            scheduledFlush = ctx.executor().submit(() -> {
+                scheduledFlush = null;
+                flushIfPending(ctx);
+            });
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        readInProgress = true;
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        readInProgress = false;
+        flushIfPending(ctx);
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (!ctx.channel().isWritable()) {
+            // Push out what we have so the channel can drain.
+            flushIfPending(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        flushIfPending(ctx);
+        ctx.fireExceptionCaught(cause);
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        flushIfPending(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        flushIfPending(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        flushIfPending(ctx);
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    private void flushIfPending(ChannelHandlerContext ctx) {
+        if (flushPending) {
+            flushNow(ctx);
+        }
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+        if (messagesPerFlush != null) {
+            MetricsUtils.updateConditionalHistogram(MetricsUtils.isMetricsCollectionEnabled(),
+                    messagesPerFlush, pendingMessages);
+        }
+        log.trace("flushNow: Flushing {} messages, {} bytes", pendingMessages, pendingBytes);
+        pendingMessages = 0;
+        pendingBytes = 0;
+        flushPending = false;
+        ctx.flush();
+    }
+}
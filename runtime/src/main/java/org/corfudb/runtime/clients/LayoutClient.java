@@ -4,8 +4,10 @@ import io.netty.channel.ChannelHandlerContext;
 
 import java.lang.invoke.MethodHandles;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
 
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.Setter;
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
@@ -44,6 +46,11 @@ public class LayoutClient implements IClient {
     public ClientMsgHandler msgHandler = new ClientMsgHandler(this)
             .generateHandlers(MethodHandles.lookup(), this);
 
+    /**
+     * Notified of the epoch of each layout pushed by the server, once subscribed.
+     */
+    private volatile LongConsumer layoutListener;
+
 
     @ClientHandler(type = CorfuMsgType.LAYOUT_RESPONSE)
     private static Object handleLayoutResponse(CorfuMsg msg,
@@ -87,6 +94,17 @@ public class LayoutClient implements IClient {
         throw new AlreadyBootstrappedException();
     }
 
+    @ClientHandler(type = CorfuMsgType.LAYOUT_NOTIFICATION)
+    private static Object handleLayoutNotification(CorfuPayloadMsg<Long> msg,
+                                                   ChannelHandlerContext ctx, IClientRouter r) {
+        LongConsumer listener = r.getClient(LayoutClient.class).layoutListener;
+        if (listener != null) {
+            listener.accept(msg.getPayload());
+        }
+        // A notification doesn't complete any request.
+        return null;
+    }
+
     /**
      * Retrieves the layout from the endpoint, asynchronously.
      *
@@ -152,4 +170,17 @@ public class LayoutClient implements IClient {
                 .payloadMsg(new LayoutCommittedRequest(epoch, layout)));
     }
 
+    /**
+     * Subscribes to the layout changes of the server. Once subscribed, the server
+     * pushes the epoch of each layout it commits to the listener, until the connection
+     * is closed. Subscribing again replaces the listener.
+     *
+     * @param listener Notified of the epoch of each new layout, on the event loop of the
+     *                 router, so it must not block.
+     * @return True, if the subscription was successful.
+     */
+    public CompletableFuture<Boolean> subscribe(@NonNull LongConsumer listener) {
+        layoutListener = listener;
+        return router.sendMessageAndGetCompletable(new CorfuMsg(CorfuMsgType.LAYOUT_SUBSCRIBE));
+    }
 }
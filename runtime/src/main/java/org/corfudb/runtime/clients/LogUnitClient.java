@@ -29,8 +29,17 @@ import org.corfudb.protocols.wireprotocol.IMetadata;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.protocols.wireprotocol.MultipleReadRequest;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
+import org.corfudb.protocols.wireprotocol.ReadDigestResponse;
+import org.corfudb.protocols.wireprotocol.ReadHint;
 import org.corfudb.protocols.wireprotocol.ReadRequest;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.protocols.wireprotocol.ScanRequest;
+import org.corfudb.protocols.wireprotocol.ScanResponse;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.SegmentChunkRequest;
+import org.corfudb.protocols.wireprotocol.SegmentFileType;
+import org.corfudb.protocols.wireprotocol.SegmentInfo;
+import org.corfudb.protocols.wireprotocol.StreamTailsResponse;
 import org.corfudb.protocols.wireprotocol.TrimRequest;
 import org.corfudb.protocols.wireprotocol.WriteMode;
 import org.corfudb.protocols.wireprotocol.WriteRequest;
@@ -204,6 +213,32 @@ public class LogUnitClient implements IClient {
         return msg.getPayload();
     }
 
+    /**
+     * Handle a READ_DIGEST_RESPONSE message.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     */
+    @ClientHandler(type = CorfuMsgType.READ_DIGEST_RESPONSE)
+    private static Object handleReadDigestResponse(CorfuPayloadMsg<ReadDigestResponse> msg,
+                                                   ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload();
+    }
+
+    /**
+     * Handle a SCAN_RESPONSE message.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     */
+    @ClientHandler(type = CorfuMsgType.SCAN_RESPONSE)
+    private static Object handleScanResponse(CorfuPayloadMsg<ScanResponse> msg,
+                                             ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload();
+    }
+
     /**
      * Handle a ERROR_DATA_CORRUPTION message.
      *
@@ -230,6 +265,60 @@ public class LogUnitClient implements IClient {
         return msg.getPayload();
     }
 
+    /**
+     * Handle a STREAM_TAILS_RESPONSE message.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     */
+    @ClientHandler(type = CorfuMsgType.STREAM_TAILS_RESPONSE)
+    private static Object handleStreamTailsResponse(CorfuPayloadMsg<StreamTailsResponse> msg,
+                                                    ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload().getStreamTails();
+    }
+
+    /**
+     * Handle a SEGMENT_INFO_RESPONSE message.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     */
+    @ClientHandler(type = CorfuMsgType.SEGMENT_INFO_RESPONSE)
+    private static Object handleSegmentInfoResponse(CorfuPayloadMsg<SegmentInfo> msg,
+                                                    ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload();
+    }
+
+    /**
+     * Handle a SEGMENT_CHUNK_RESPONSE message.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     */
+    @ClientHandler(type = CorfuMsgType.SEGMENT_CHUNK_RESPONSE)
+    private static Object handleSegmentChunkResponse(CorfuPayloadMsg<SegmentChunk> msg,
+                                                     ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload();
+    }
+
+    /**
+     * Handle an ERROR_SEGMENTS_UNSUPPORTED message, sent by log units which can't
+     * transfer whole segments, so their entries must be transferred record by record.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     * @throws UnsupportedOperationException Always.
+     */
+    @ClientHandler(type = CorfuMsgType.ERROR_SEGMENTS_UNSUPPORTED)
+    private static Object handleSegmentsUnsupported(CorfuMsg msg, ChannelHandlerContext ctx,
+                                                    IClientRouter r) {
+        throw new UnsupportedOperationException("The log unit can't transfer segments");
+    }
+
     /**
      * Handle a HEAD_RESPONSE message
      * @param msg   Incoming Message
@@ -336,9 +425,22 @@ public class LogUnitClient implements IClient {
      * @return CompletableFuture which returns a ReadResponse on completion.
      */
     public CompletableFuture<ReadResponse> read(Range<Long> range) {
+        return read(range, ReadHint.NORMAL);
+    }
+
+    /**
+     * Read data from the log unit server for a range of addresses, hinting at
+     * the access pattern of the read.
+     *
+     * @param range Range of global offsets.
+     * @param hint  SEQUENTIAL, if the read is part of a scan whose entries should
+     *              not be cached by the log unit.
+     * @return CompletableFuture which returns a ReadResponse on completion.
+     */
+    public CompletableFuture<ReadResponse> read(Range<Long> range, ReadHint hint) {
         Timer.Context context = getTimerContext("readRange");
         CompletableFuture<ReadResponse> cf = router.sendMessageAndGetCompletable(
-                CorfuMsgType.READ_REQUEST.payloadMsg(new ReadRequest(range)));
+                CorfuMsgType.READ_REQUEST.payloadMsg(new ReadRequest(range, hint)));
         return cf.thenApply(x -> {
             context.stop();
             return x;
@@ -352,9 +454,62 @@ public class LogUnitClient implements IClient {
      * @return CompletableFuture which returns a ReadResponse on completion.
      */
     public CompletableFuture<ReadResponse> read(List<Long> list) {
+        return read(list, ReadHint.NORMAL);
+    }
+
+    /**
+     * Read data from the log unit server for a list of addresses, hinting at
+     * the access pattern of the read.
+     *
+     * @param list list of global addresses.
+     * @param hint SEQUENTIAL, if the read is part of a scan whose entries should
+     *             not be cached by the log unit.
+     * @return CompletableFuture which returns a ReadResponse on completion.
+     */
+    public CompletableFuture<ReadResponse> read(List<Long> list, ReadHint hint) {
         Timer.Context context = getTimerContext("readList");
         CompletableFuture<ReadResponse> cf = router.sendMessageAndGetCompletable(
-                CorfuMsgType.MULTIPLE_READ_REQUEST.payloadMsg(new MultipleReadRequest(list)));
+                CorfuMsgType.MULTIPLE_READ_REQUEST.payloadMsg(
+                        new MultipleReadRequest(list, hint)));
+        return cf.thenApply(x -> {
+            context.stop();
+            return x;
+        });
+    }
+
+    /**
+     * Read the digests of a list of addresses from the log unit server, without
+     * transferring their payloads.
+     *
+     * @param list The addresses to read the digests of.
+     * @return A CompletableFuture for the digests of the addresses.
+     */
+    public CompletableFuture<ReadDigestResponse> readDigests(List<Long> list) {
+        Timer.Context context = getTimerContext("readDigests");
+        CompletableFuture<ReadDigestResponse> cf = router.sendMessageAndGetCompletable(
+                CorfuMsgType.READ_DIGEST_REQUEST.payloadMsg(new MultipleReadRequest(list)));
+        return cf.thenApply(x -> {
+            context.stop();
+            return x;
+        });
+    }
+
+    /**
+     * Scan a range of addresses on the log unit server for the entries which belong
+     * to any of the given streams. The scan stops once the entries found exceed the
+     * given size, or once the server examined as many addresses as it allows per request,
+     * in which case it can be continued from the returned address.
+     *
+     * @param range    The range of addresses to scan.
+     * @param streams  The streams to return entries of, or empty, for any stream.
+     * @param maxBytes The size of the entries, in bytes, after which the scan stops.
+     * @return A CompletableFuture for the entries found and the continuation address.
+     */
+    public CompletableFuture<ScanResponse> scan(Range<Long> range, Set<UUID> streams,
+                                                int maxBytes) {
+        Timer.Context context = getTimerContext("scan");
+        CompletableFuture<ScanResponse> cf = router.sendMessageAndGetCompletable(
+                CorfuMsgType.SCAN_REQUEST.payloadMsg(new ScanRequest(range, streams, maxBytes)));
         return cf.thenApply(x -> {
             context.stop();
             return x;
@@ -371,6 +526,16 @@ public class LogUnitClient implements IClient {
         return router.sendMessageAndGetCompletable(CorfuMsgType.TAIL_REQUEST.msg());
     }
 
+    /**
+     * Get the greatest address the log unit has written to each stream.
+     *
+     * @return A CompletableFuture which will complete with the tail of each stream
+     *     once received.
+     */
+    public CompletableFuture<Map<UUID, Long>> getStreamTails() {
+        return router.sendMessageAndGetCompletable(CorfuMsgType.STREAM_TAILS_REQUEST.msg());
+    }
+
     /**
      * Get the starting address of a loggining unit.
      * @return A CompletableFuture for the starting address
@@ -476,6 +641,54 @@ public class LogUnitClient implements IClient {
                 .payloadMsg(new RangeWriteMsg(range)));
     }
 
+    /**
+     * Get the segments of the log, which fails with an UnsupportedOperationException if
+     * the log is not segmented.
+     *
+     * @return A CompletableFuture which will complete with the segments once received.
+     */
+    public CompletableFuture<SegmentInfo> getSegmentInfo() {
+        return router.sendMessageAndGetCompletable(CorfuMsgType.SEGMENT_INFO_REQUEST.msg());
+    }
+
+    /**
+     * Read a byte range of a file of a sealed segment.
+     *
+     * @param segment   The segment to read.
+     * @param type      The file of the segment to read.
+     * @param offset    The offset in the file to read from.
+     * @param maxLength The maximum number of bytes to read.
+     * @return A CompletableFuture which will complete with the chunk read.
+     */
+    public CompletableFuture<SegmentChunk> readSegmentChunk(long segment, SegmentFileType type,
+                                                            long offset, int maxLength) {
+        return router.sendMessageAndGetCompletable(CorfuMsgType.SEGMENT_CHUNK_REQUEST
+                .payloadMsg(new SegmentChunkRequest(segment, type, offset, maxLength)));
+    }
+
+    /**
+     * Write a chunk of a segment file to transfer. The log unit verifies the checksum of
+     * the chunk before writing it.
+     *
+     * @param chunk The chunk to write.
+     * @return Completable future which returns true on success.
+     */
+    public CompletableFuture<Boolean> writeSegmentChunk(SegmentChunk chunk) {
+        return router.sendMessageAndGetCompletable(CorfuMsgType.SEGMENT_CHUNK_WRITE
+                .payloadMsg(chunk));
+    }
+
+    /**
+     * Install the transferred files of a segment, which must not hold any entries.
+     *
+     * @param segment The transferred segment.
+     * @return Completable future which returns true on success.
+     */
+    public CompletableFuture<Boolean> installSegment(long segment) {
+        return router.sendMessageAndGetCompletable(CorfuMsgType.SEGMENT_INSTALL
+                .payloadMsg(segment));
+    }
+
     /**
      * Send a reset request.
      */
@@ -2,10 +2,14 @@ package org.corfudb.runtime.clients;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
@@ -14,16 +18,16 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.ssl.SslContext;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.EventExecutorGroup;
 
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +37,8 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -45,14 +51,16 @@ import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.NettyCorfuMessageDecoder;
 import org.corfudb.protocols.wireprotocol.NettyCorfuMessageEncoder;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
 import org.corfudb.runtime.exceptions.NetworkException;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
 import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.security.sasl.SaslUtils;
 import org.corfudb.security.sasl.plaintext.PlainTextSaslNettyClient;
 import org.corfudb.security.tls.SslContextConstructor;
-import org.corfudb.util.CFUtils;
+import org.corfudb.util.ChannelImplementation;
 import org.corfudb.util.MetricsUtils;
+import org.corfudb.util.StripedLongObjectMap;
 
 
 /**
@@ -75,6 +83,19 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
     private Counter counterSendDisconnected;
     private Counter counterSendTimeout;
     private Counter counterAsyncOpSent;
+    private Histogram histogramMessagesPerFlush;
+    private Gauge<Integer> gaugeInFlight;
+    private Meter meterTimeout;
+
+    /**
+     * The registry the gauges of this router are registered to.
+     */
+    private final MetricRegistry gaugeRegistry;
+
+    /**
+     * The tick duration of the request timeout timer, in milliseconds.
+     */
+    private static final long TIMEOUT_TICK_MS = 10;
 
     /**
      * A random instance.
@@ -142,17 +163,30 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
      */
     public List<IClient> clientList;
     /**
-     * The outstanding requests on this router.
+     * The outstanding requests on this router, keyed by request id.
+     */
+    public StripedLongObjectMap<PendingRequest<?>> outstandingRequests;
+    /**
+     * The timer which times out outstanding requests.
      */
-    public Map<Long, CompletableFuture> outstandingRequests;
+    private volatile HashedWheelTimer timeoutTimer;
     /**
      * The currently registered channel context.
      */
     public ChannelHandlerContext context;
     /**
-     * The currently registered channel.
+     * The connections to the endpoint, each with its own channel.
+     */
+    private final Connection[] connections;
+    /**
+     * The next connection to use, under the round robin policy.
      */
-    public Channel channel = null;
+    private final AtomicInteger nextConnection = new AtomicInteger();
+    /**
+     * How requests are spread over the connections.
+     */
+    @Getter
+    private final ConnectionRoutingPolicy connectionRoutingPolicy;
     /**
      * The worker group for this router.
      */
@@ -191,6 +225,42 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
 
     private String saslPlainTextPasswordFile;
 
+    /**
+     * The netty transport used by this router.
+     */
+    @Getter
+    private final ChannelImplementation channelImplementation;
+
+    /**
+     * The number of event loop threads used by this router.
+     */
+    private final int eventLoopThreads;
+
+    /**
+     * Whether TCP_NODELAY is set on the channel.
+     */
+    private final boolean tcpNoDelay;
+
+    /**
+     * The write buffer watermarks of the channel.
+     */
+    private final WriteBufferWaterMark writeBufferWaterMark;
+
+    /**
+     * Whether flushes of outbound messages are coalesced.
+     */
+    private final boolean flushCoalescingEnabled;
+
+    /**
+     * Maximum number of messages held before a coalesced flush.
+     */
+    private final int flushCoalescingMaxMessages;
+
+    /**
+     * Maximum number of bytes held before a coalesced flush.
+     */
+    private final int flushCoalescingMaxBytes;
+
     /**
      * Creates a new NettyClientRouter connected to the specified endpoint.
      *
@@ -238,9 +308,53 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
                              String keyStore, String ksPasswordFile, String trustStore,
                              String tsPasswordFile, Boolean saslPlainText, String usernameFile,
                              String passwordFile, MetricRegistry metricRegistry) {
+        this(host, port, tls, keyStore, ksPasswordFile, trustStore, tsPasswordFile,
+                saslPlainText, usernameFile, passwordFile, metricRegistry,
+                new CorfuRuntimeParameters());
+    }
+
+    /**
+     * Creates a new NettyClientRouter connected to the specified host and port with the
+     * specified tls and sasl options, using the transport settings in the given
+     * runtime parameters.
+     *
+     * @param host           Host to connect to.
+     * @param port           Port to conect to.
+     * @param tls            TLS enable flag.
+     * @param keyStore       Key store to be used.
+     * @param ksPasswordFile Key store password file path.
+     * @param trustStore     Trust store to be used.
+     * @param tsPasswordFile Trust store password file path.
+     * @param saslPlainText  Sasl to be used.
+     * @param usernameFile   username file path
+     * @param passwordFile   password file path
+     * @param metricRegistry The registry to report metrics to, or null for the default.
+     * @param parameters     The runtime parameters holding the transport settings.
+     */
+    public NettyClientRouter(String host, Integer port, Boolean tls,
+                             String keyStore, String ksPasswordFile, String trustStore,
+                             String tsPasswordFile, Boolean saslPlainText, String usernameFile,
+                             String passwordFile, MetricRegistry metricRegistry,
+                             CorfuRuntimeParameters parameters) {
         this.host = host;
         this.port = port;
 
+        channelImplementation = ChannelImplementation
+                .select(parameters.isNativeTransportEnabled());
+        eventLoopThreads = ChannelImplementation
+                .resolveThreads(parameters.getNettyEventLoopThreads());
+        tcpNoDelay = parameters.isTcpNoDelay();
+        writeBufferWaterMark = new WriteBufferWaterMark(parameters.getWriteBufferLowWaterMark(),
+                parameters.getWriteBufferHighWaterMark());
+        flushCoalescingEnabled = parameters.isFlushCoalescingEnabled();
+        flushCoalescingMaxMessages = parameters.getFlushCoalescingMaxMessages();
+        flushCoalescingMaxBytes = parameters.getFlushCoalescingMaxBytes();
+        connectionRoutingPolicy = parameters.getConnectionRoutingPolicy();
+        connections = new Connection[Math.max(1, parameters.getConnectionsPerEndpoint())];
+        for (int i = 0; i < connections.length; i++) {
+            connections[i] = new Connection(i);
+        }
+
         clientID = UUID.randomUUID();
         connected = false;
         timeoutConnect = 500;
@@ -250,7 +364,8 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
         handlerMap = new ConcurrentHashMap<>();
         clientList = new ArrayList<>();
         requestID = new AtomicLong();
-        outstandingRequests = new ConcurrentHashMap<>();
+        outstandingRequests = new StripedLongObjectMap<>(Runtime.getRuntime()
+                .availableProcessors() * 2);
         shutdown = true;
 
         MetricRegistry metrics = CorfuRuntime.getDefaultMetrics();
@@ -263,13 +378,21 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
             if (!metrics.getNames().contains(pfx + "connected")) {
                 gaugeConnected = metrics.register(pfx + "connected", () -> connected ? 1 : 0);
             }
+            // Replaces the gauge of any previous router to the endpoint, which would
+            // report the requests of a router which is no longer used.
+            metrics.remove(pfx + "in-flight");
+            gaugeInFlight = metrics.register(pfx + "in-flight",
+                    () -> outstandingRequests.size());
         }
+        gaugeRegistry = metrics;
         timerConnect = metrics.timer(pfx + "connect");
         timerSyncOp = metrics.timer(pfx + "sync-op");
         counterConnectFailed = metrics.counter(pfx + "connect-failed");
         counterSendDisconnected = metrics.counter(pfx + "send-disconnected");
         counterSendTimeout = metrics.counter(pfx + "send-timeout");
         counterAsyncOpSent = metrics.counter(pfx + "async-op-sent");
+        histogramMessagesPerFlush = metrics.histogram(pfx + "messages-per-flush");
+        meterTimeout = metrics.meter(pfx + "timeouts");
 
         if (tls) {
             try {
@@ -339,11 +462,25 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
      */
     public void start(long c) {
         shutdown = false;
+        if (timeoutTimer == null) {
+            timeoutTimer = new HashedWheelTimer(new ThreadFactory() {
+                final AtomicInteger threadNum = new AtomicInteger(0);
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r);
+                    t.setName("timeout-" + threadNum.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                }
+            }, TIMEOUT_TICK_MS, TimeUnit.MILLISECONDS);
+        }
+        // Connections which close while the router runs reconnect through their own close
+        // listener, over the same groups, so only a stopped router builds new ones.
         if (workerGroup == null
-                || workerGroup.isShutdown()
-                || !channel.isOpen()) {
-            workerGroup = new NioEventLoopGroup(Runtime.getRuntime()
-                    .availableProcessors() * 2, new ThreadFactory() {
+                || workerGroup.isShutdown()) {
+            workerGroup = channelImplementation.generateEventLoopGroup(eventLoopThreads,
+                    new ThreadFactory() {
                         final AtomicInteger threadNum = new AtomicInteger(0);
 
                         @Override
@@ -355,8 +492,7 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
                         }
                     });
 
-            ee = new DefaultEventExecutorGroup(Runtime.getRuntime()
-                    .availableProcessors() * 2, new ThreadFactory() {
+            ee = new DefaultEventExecutorGroup(eventLoopThreads, new ThreadFactory() {
 
                         final AtomicInteger threadNum = new AtomicInteger(0);
 
@@ -372,10 +508,12 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
 
             Bootstrap b = new Bootstrap();
             b.group(workerGroup);
-            b.channel(NioSocketChannel.class);
+            b.channel(channelImplementation.getChannelClass());
             b.option(ChannelOption.SO_KEEPALIVE, true);
             b.option(ChannelOption.SO_REUSEADDR, true);
-            b.option(ChannelOption.TCP_NODELAY, true);
+            b.option(ChannelOption.TCP_NODELAY, tcpNoDelay);
+            b.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+            b.option(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark);
             NettyClientRouter router = this;
             b.handler(new ChannelInitializer<SocketChannel>() {
                 @Override
@@ -394,17 +532,32 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
                         ch.pipeline().addLast("sasl/plain-text", saslNettyClient);
                     }
                     ch.pipeline().addLast(ee, new NettyCorfuMessageDecoder());
+                    if (flushCoalescingEnabled) {
+                        // Placed before the encoder, so it sees encoded outbound buffers.
+                        ch.pipeline().addLast(ee, new FlushCoalescingHandler(
+                                flushCoalescingMaxMessages, flushCoalescingMaxBytes,
+                                histogramMessagesPerFlush));
+                    }
                     ch.pipeline().addLast(ee, new NettyCorfuMessageEncoder());
                     ch.pipeline().addLast(ee, router);
                 }
             });
 
             try {
-                connectChannel(b, c);
+                for (Connection conn : connections) {
+                    connectChannel(b, c, conn);
+                }
             } catch (Exception e) {
-
+                // Connections which did succeed must not try to reconnect.
+                shutdown = true;
+                for (Connection conn : connections) {
+                    if (conn.channel != null) {
+                        conn.channel.close();
+                    }
+                }
                 try {
                     // shutdown EventLoopGroup
+                    ee.shutdownGracefully().sync();
                     workerGroup.shutdownGracefully().sync();
                 } catch (InterruptedException ie) {
                     throw new UnrecoverableCorfuInterruptedError(
@@ -416,7 +569,7 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
         }
     }
 
-    synchronized void connectChannel(Bootstrap b, long c) {
+    synchronized void connectChannel(Bootstrap b, long c, Connection conn) {
         boolean isEnabled = MetricsUtils.isMetricsCollectionEnabled();
         try (Timer.Context context = MetricsUtils.getConditionalContext(isEnabled, timerConnect)) {
             ChannelFuture cf = b.connect(host, port);
@@ -427,21 +580,27 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
                 throw new NetworkException(c + " Timeout connecting to endpoint",
                         host + ":" + port);
             }
-            channel = cf.channel();
+            conn.channel = cf.channel();
         }
+        final Channel channel = conn.channel;
         channel.closeFuture().addListener((r) -> {
-            connected = false;
-            outstandingRequests.forEach((reqId, reqCompletableFuture) -> {
+            if (conn.channel != channel) {
+                // The connection was given a new channel already.
+                return;
+            }
+            connected = isAnyConnectionActive();
+            // Only the requests sent over this connection are lost.
+            outstandingRequests.removeIf(req -> req.connection == conn).forEach(req -> {
 //                MetricsUtils.incConditionalCounter(isEnabled, counterSendDisconnected, 1);
-                reqCompletableFuture.completeExceptionally(new NetworkException("Disconnected",
+                req.removed();
+                req.completeExceptionally(new NetworkException("Disconnected",
                         host + ":" + port));
-                outstandingRequests.remove(reqId);
             });
             if (!shutdown) {
-                log.trace("Disconnected, reconnecting...");
+                log.trace("Connection {} disconnected, reconnecting...", conn.index);
                 while (!shutdown) {
                     try {
-                        connectChannel(b, c);
+                        connectChannel(b, c, conn);
                         return;
                     } catch (Exception ex) {
 //                        MetricsUtils.incConditionalCounter(isEnabled,
@@ -471,13 +630,23 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
         connected = false;
 
         if (shutdown) {
-            try {
-                ChannelFuture cf = channel.close();
-                cf.syncUninterruptibly();
-                cf.awaitUninterruptibly(1000);
-            } catch (Exception e) {
-                log.error("Error in closing channel");
+            for (Connection conn : connections) {
+                if (conn.channel == null) {
+                    continue;
+                }
+                try {
+                    ChannelFuture cf = conn.channel.close();
+                    cf.syncUninterruptibly();
+                    cf.awaitUninterruptibly(1000);
+                } catch (Exception e) {
+                    log.error("Error in closing channel");
+                }
+            }
+            if (timeoutTimer != null) {
+                timeoutTimer.stop();
+                timeoutTimer = null;
             }
+            gaugeRegistry.removeMatching((name, metric) -> metric == gaugeInFlight);
             try {
                 ee.shutdownGracefully().sync();
                 workerGroup.shutdownGracefully().sync();
@@ -485,10 +654,95 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
                 throw new UnrecoverableCorfuInterruptedError("Interrupted while stopping", e);
             }
         } else {
-            ChannelFuture cf = channel.disconnect();
-            cf.syncUninterruptibly();
-            boolean b1 = cf.awaitUninterruptibly(1000);
+            for (Connection conn : connections) {
+                if (conn.channel == null) {
+                    continue;
+                }
+                ChannelFuture cf = conn.channel.disconnect();
+                cf.syncUninterruptibly();
+                boolean b1 = cf.awaitUninterruptibly(1000);
+            }
+        }
+    }
+
+    /**
+     * Get the connections to the endpoint.
+     *
+     * @return The connections, in index order.
+     */
+    @VisibleForTesting
+    Connection[] getConnections() {
+        return connections;
+    }
+
+    /**
+     * Check whether any connection is active.
+     *
+     * @return True, if some connection has an active channel.
+     */
+    private boolean isAnyConnectionActive() {
+        for (Connection conn : connections) {
+            if (conn.isActive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Select the connection to send a new request over, according to
+     * the routing policy. Inactive connections are skipped, unless
+     * no connection is active.
+     *
+     * @return The connection to use.
+     */
+    private Connection selectConnection() {
+        if (connections.length == 1) {
+            return connections[0];
+        }
+        switch (connectionRoutingPolicy) {
+            case ROUND_ROBIN:
+                for (int i = 0; i < connections.length; i++) {
+                    Connection conn = connections[Math.floorMod(
+                            nextConnection.getAndIncrement(), connections.length)];
+                    if (conn.isActive()) {
+                        return conn;
+                    }
+                }
+                break;
+            case LEAST_OUTSTANDING:
+                Connection least = null;
+                for (Connection conn : connections) {
+                    if (conn.isActive() && (least == null
+                            || conn.outstanding.get() < least.outstanding.get())) {
+                        least = conn;
+                    }
+                }
+                if (least != null) {
+                    return least;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown routing policy "
+                        + connectionRoutingPolicy);
+        }
+        return connections[0];
+    }
+
+    /**
+     * Get the connection a channel handler context belongs to.
+     *
+     * @param ctx The channel handler context.
+     * @return The connection owning the context's channel, or a connection
+     *     selected by the routing policy if none does.
+     */
+    private Connection getConnection(ChannelHandlerContext ctx) {
+        for (Connection conn : connections) {
+            if (conn.channel == ctx.channel()) {
+                return conn;
+            }
         }
+        return selectConnection();
     }
 
     /**
@@ -508,8 +762,6 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
             MetricsUtils.incConditionalCounter(isEnabled, counterSendDisconnected, 1);
             throw new NetworkException("Disconnected endpoint", host + ":" + port);
         } else {
-            final Timer.Context context = MetricsUtils
-                    .getConditionalContext(isEnabled, timerSyncOp);
             // Get the next request ID.
             final long thisRequest = requestID.getAndIncrement();
             // Set the message fields.
@@ -517,31 +769,56 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
             message.setRequestID(thisRequest);
             message.setEpoch(epoch);
 
-            // Generate a future and put it in the completion table.
-            final CompletableFuture<T> cf = new CompletableFuture<>();
-            outstandingRequests.put(thisRequest, cf);
+            // Pick the connection to send the request over.
+            final Connection conn = ctx == null ? selectConnection() : getConnection(ctx);
+
+            // Generate a future, put it in the completion table and arm its timeout.
+            final PendingRequest<T> request = new PendingRequest<>(conn,
+                    MetricsUtils.getConditionalContext(isEnabled, timerSyncOp));
+            outstandingRequests.put(thisRequest, request);
+            conn.outstanding.incrementAndGet();
+            conn.sent.incrementAndGet();
+            final HashedWheelTimer timer = timeoutTimer;
+            try {
+                if (timer == null) {
+                    throw new IllegalStateException("Timeout timer stopped");
+                }
+                request.timeout = timer.newTimeout(t -> timeoutRequest(thisRequest),
+                        timeoutResponse, TimeUnit.MILLISECONDS);
+            } catch (IllegalStateException ise) {
+                // The router was stopped after the connected check.
+                completeExceptionally(thisRequest, new NetworkException("Disconnected endpoint",
+                        host + ":" + port));
+                return request;
+            }
             // Write the message out to the channel.
             if (ctx == null) {
-                channel.writeAndFlush(message);
+                conn.channel.writeAndFlush(message);
             } else {
                 ctx.writeAndFlush(message);
             }
             log.trace("Sent message: {}", message);
-            final CompletableFuture<T> cfElapsed = cf.thenApply(x -> {
-                MetricsUtils.stopConditionalContext(context);
-                return x;
-            });
-            // Generate a timeout future, which will complete exceptionally
-            // if the main future is not completed.
-            final CompletableFuture<T> cfTimeout =
-                    CFUtils.within(cfElapsed, Duration.ofMillis(timeoutResponse));
-            cfTimeout.exceptionally(e -> {
-//                MetricsUtils.incConditionalCounter(isEnabled, counterSendTimeout, 1);
-                outstandingRequests.remove(thisRequest);
-                log.debug("Remove request {} due to timeout!", thisRequest);
-                return null;
-            });
-            return cfTimeout;
+            return request;
+        }
+    }
+
+    /**
+     * Time out an outstanding request, if it is still outstanding.
+     *
+     * @param requestId The request to time out.
+     */
+    private void timeoutRequest(long requestId) {
+        PendingRequest<?> request = outstandingRequests.remove(requestId);
+        if (request != null) {
+            request.removed();
+            MetricsUtils.incConditionalCounter(MetricsUtils.isMetricsCollectionEnabled(),
+                    counterSendTimeout, 1);
+            if (MetricsUtils.isMetricsCollectionEnabled()) {
+                meterTimeout.mark();
+            }
+            log.debug("Remove request {} due to timeout!", requestId);
+            request.completeExceptionally(new TimeoutException("Timeout after "
+                    + timeoutResponse + " ms"));
         }
     }
 
@@ -552,14 +829,11 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
      * @param message The message to send.
      */
     public void sendMessage(ChannelHandlerContext ctx, CorfuMsg message) {
-        ChannelHandlerContext outContext = context;
-        if (ctx == null) {
-            if (context == null) {
-                // if the router's context is not set, return a failure
-                log.warn("Attempting to send on a channel that is not ready.");
-                return;
-            }
-            outContext = context;
+        Channel outChannel = ctx == null ? selectConnection().channel : ctx.channel();
+        if (outChannel == null) {
+            // if the channel is not connected yet, return a failure
+            log.warn("Attempting to send on a channel that is not ready.");
+            return;
         }
         // Get the next request ID.
         final long thisRequest = requestID.getAndIncrement();
@@ -568,7 +842,7 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
         message.setRequestID(thisRequest);
         message.setEpoch(epoch);
         // Write this message out on the channel.
-        outContext.writeAndFlush(message);
+        outChannel.writeAndFlush(message);
 //        MetricsUtils.incConditionalCounter(MetricsUtils
 //                .isMetricsCollectionEnabled(), counterAsyncOpSent, 1);
         log.trace("Sent one-way message: {}", message);
@@ -598,11 +872,13 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
      */
     @Deprecated // TODO: Add replacement method that conforms to style
     @SuppressWarnings("checkstyle:abbreviation") // Due to deprecation
+    @SuppressWarnings("unchecked")
     public <T> void completeRequest(long requestID, T completion) {
-        CompletableFuture<T> cf;
-        if ((cf = (CompletableFuture<T>) outstandingRequests.get(requestID)) != null) {
-            cf.complete(completion);
-            outstandingRequests.remove(requestID);
+        PendingRequest<T> request;
+        if ((request = (PendingRequest<T>) outstandingRequests.remove(requestID)) != null) {
+            request.removed();
+            MetricsUtils.stopConditionalContext(request.timerContext);
+            request.complete(completion);
         } else {
             log.warn("Attempted to complete request {}, but request not outstanding!", requestID);
         }
@@ -615,10 +891,10 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
      * @param cause     The cause to give for the exceptional completion.
      */
     public void completeExceptionally(long requestID, Throwable cause) {
-        CompletableFuture cf;
-        if ((cf = outstandingRequests.get(requestID)) != null) {
-            cf.completeExceptionally(cause);
-            outstandingRequests.remove(requestID);
+        PendingRequest<?> request;
+        if ((request = outstandingRequests.remove(requestID)) != null) {
+            request.removed();
+            request.completeExceptionally(cause);
         } else {
             log.warn("Attempted to exceptionally complete request {}, but request not outstanding!",
                     requestID);
@@ -683,6 +959,76 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
         ctx.close();
     }
 
+    /**
+     * A single connection (channel) to the endpoint, and the requests
+     * sent over it which are awaiting a response.
+     */
+    static class Connection {
+        /**
+         * The index of this connection.
+         */
+        final int index;
+        /**
+         * The channel of this connection, or null if never connected.
+         */
+        volatile Channel channel;
+        /**
+         * The number of requests sent over this connection and awaiting a response.
+         */
+        final AtomicInteger outstanding = new AtomicInteger();
+        /**
+         * The number of requests sent over this connection.
+         */
+        final AtomicLong sent = new AtomicLong();
+
+        Connection(int index) {
+            this.index = index;
+        }
+
+        boolean isActive() {
+            Channel ch = channel;
+            return ch != null && ch.isActive();
+        }
+    }
+
+    /**
+     * An outstanding request: the future completed by the reply, which also carries
+     * the state needed to account for the request, so that a request only costs a
+     * single future.
+     *
+     * @param <T> The type of the reply.
+     */
+    static class PendingRequest<T> extends CompletableFuture<T> {
+        /**
+         * The connection the request was sent over.
+         */
+        final Connection connection;
+        /**
+         * The timer context measuring the request latency, or null.
+         */
+        final Timer.Context timerContext;
+        /**
+         * The timeout of the request.
+         */
+        volatile Timeout timeout;
+
+        PendingRequest(Connection connection, Timer.Context timerContext) {
+            this.connection = connection;
+            this.timerContext = timerContext;
+        }
+
+        /**
+         * Release the resources of a request removed from the completion table.
+         */
+        void removed() {
+            Timeout t = timeout;
+            if (t != null) {
+                t.cancel();
+            }
+            connection.outstanding.decrementAndGet();
+        }
+    }
+
     @Override
     public void channelRegistered(ChannelHandlerContext ctx) throws Exception {
         context = ctx;
@@ -47,6 +47,12 @@ public class SequencerClient implements IClient {
         return msg.getPayload();
     }
 
+    @ClientHandler(type = CorfuMsgType.SEQUENCER_CONTINUITY_RES)
+    private static Object handleContinuityResponse(CorfuPayloadMsg<Long> msg,
+                                                   ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload();
+    }
+
     public CompletableFuture<TokenResponse> nextToken(Set<UUID> streamIDs, long numTokens) {
         return router.sendMessageAndGetCompletable(
                 CorfuMsgType.TOKEN_REQ.payloadMsg(new TokenRequest(numTokens, streamIDs)));
@@ -72,6 +78,18 @@ public class SequencerClient implements IClient {
                 .payloadMsg(address));
     }
 
+    /**
+     * Fetches the epoch since which the sequencer has served every epoch without
+     * resetting its state. Tokens issued by the sequencer since that epoch remain valid.
+     *
+     * @return A completable future with the epoch, or -1 if the sequencer was
+     *     never bootstrapped.
+     */
+    public CompletableFuture<Long> getContinuousSinceEpoch() {
+        return router.sendMessageAndGetCompletable(
+                new CorfuMsg(CorfuMsgType.SEQUENCER_CONTINUITY_REQ));
+    }
+
     /**
      * Resets the sequencer with the specified initialToken
      *
@@ -19,6 +19,7 @@ import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -34,6 +35,7 @@ import org.corfudb.annotations.DontInstrument;
 import org.corfudb.annotations.Mutator;
 import org.corfudb.annotations.MutatorAccessor;
 import org.corfudb.annotations.TransactionalMethod;
+import org.corfudb.runtime.object.ICorfuSMROverlayable;
 
 /** The CorfuTable implements a simple key-value store.
  *
@@ -57,7 +59,7 @@ import org.corfudb.annotations.TransactionalMethod;
 @Slf4j
 @CorfuObject
 public class CorfuTable<K ,V, F extends Enum<F> & CorfuTable.IndexSpecification, I>
-        implements ICorfuMap<K, V> {
+        implements ICorfuMap<K, V>, ICorfuSMROverlayable<CorfuTable<K, V, F, I>> {
 
     /** Helper function to get a map (non-secondary index) Corfu table.
      *
@@ -144,8 +146,13 @@ public class CorfuTable<K ,V, F extends Enum<F> & CorfuTable.IndexSpecification,
         }
     }
 
-    /** The "main" map which contains the primary key-value mappings. */
-    protected final Map<K,V> mainMap = new HashMap<>();
+    /** The "main" map which contains the primary key-value mappings. If this table is an
+     * overlay, this is an {@link OverlayMap} over the main map of the base table. */
+    protected Map<K,V> mainMap = new HashMap<>();
+
+    /** The table this table is an overlay of, or null if this table is not an overlay.
+     * The secondary indexes of an overlay only map the entries it wrote itself. */
+    CorfuTable<K, V, F, I> overlayBase;
 
     protected final Set<F> indexFunctions = new HashSet<>();
 
@@ -258,34 +265,103 @@ public class CorfuTable<K ,V, F extends Enum<F> & CorfuTable.IndexSpecification,
                                  @Nonnull Predicate<? super Map.Entry<K, V>>
                                                                   entryPredicate,
                                  I index) {
-        Stream<Map.Entry<K,V>> entryStream;
+        Stream<Map.Entry<K,V>> entryStream = getIndexEntryStream(indexFunction, index);
+
+        return projectionFunction.generateProjection(index, entryStream.filter(entryPredicate))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /** Get a stream of the entries mapped to an index.
+     *
+     * @param indexFunction The index function to use.
+     * @param index         The index to lookup.
+     * @return              A stream of the entries mapped to the index, or of all
+     *                      entries if there are no secondary indexes.
+     */
+    @DontInstrument
+    Stream<Map.Entry<K, V>> getIndexEntryStream(@Nonnull F indexFunction, I index) {
+        if (overlayBase != null) {
+            return getOverlayIndexEntryStream(indexFunction, index);
+        }
 
         if (indexFunctions.isEmpty()) {
             // If there are no index functions, use the entire map
-            entryStream = mainMap.entrySet().parallelStream();
             log.debug("getByIndexAndFilter: Attempted getByIndexAndFilter without indexing");
-        } else {
-            Map<I, Map<K, V>> secondaryMap = indexMap.get(indexFunction);
-            if (secondaryMap != null) {
-                // Otherwise, use the secondary index that was generated.
-                if (secondaryMap.get(index) != null) {
-                    entryStream = secondaryMap.get(index).entrySet().stream();
-                } else {
-                    entryStream = Stream.empty();
-                }
-            } else {
-                // For some reason the function is not present (maybe someone passed the
-                // wrong function).
-                log.error("getByIndexAndFilter: Attempted to read from a index function which"
-                        + "is not available, falling back to no secondary index");
-                entryStream = mainMap.entrySet().parallelStream();
-            }
+            return mainMap.entrySet().parallelStream();
         }
+        return getSecondaryEntryStream(indexFunction, index,
+                () -> mainMap.entrySet().parallelStream());
+    }
 
-        return projectionFunction.generateProjection(index, entryStream.filter(entryPredicate))
-                .collect(Collectors.toCollection(ArrayList::new));
+    /** Get a stream of the entries mapped to an index by the secondary indexes of
+     * this table.
+     *
+     * @param indexFunction The index function to use.
+     * @param index         The index to lookup.
+     * @param fallback      The stream to use if the index function is not available.
+     * @return              A stream of the entries mapped to the index.
+     */
+    @DontInstrument
+    Stream<Map.Entry<K, V>> getSecondaryEntryStream(@Nonnull F indexFunction, I index,
+                                    Supplier<Stream<Map.Entry<K, V>>> fallback) {
+        Map<I, Map<K, V>> secondaryMap = indexMap.get(indexFunction);
+        if (secondaryMap == null) {
+            // For some reason the function is not present (maybe someone passed the
+            // wrong function).
+            log.error("getByIndexAndFilter: Attempted to read from a index function which"
+                    + "is not available, falling back to no secondary index");
+            return fallback.get();
+        }
+        // Otherwise, use the secondary index that was generated.
+        Map<K, V> indexedEntries = secondaryMap.get(index);
+        return indexedEntries == null ? Stream.empty() : indexedEntries.entrySet().stream();
+    }
+
+    /** Get a stream of the entries mapped to an index in an overlay, which combines
+     * the entries the base table maps to the index and which the overlay did not
+     * override, with the entries the overlay wrote itself.
+     *
+     * @param indexFunction The index function to use.
+     * @param index         The index to lookup.
+     * @return              A stream of the entries mapped to the index.
+     */
+    @DontInstrument
+    Stream<Map.Entry<K, V>> getOverlayIndexEntryStream(@Nonnull F indexFunction, I index) {
+        OverlayMap<K, V> overlayMap = (OverlayMap<K, V>) mainMap;
+        if (indexFunctions.isEmpty() || overlayBase.indexFunctions.isEmpty()) {
+            // Without secondary indexes on both tables, scan the merged view.
+            return mainMap.entrySet().parallelStream();
+        }
+        return Stream.concat(
+                overlayBase.getSecondaryEntryStream(indexFunction, index,
+                        () -> overlayBase.mainMap.entrySet().parallelStream())
+                        .filter(e -> !overlayMap.isOverridden(e.getKey())),
+                getSecondaryEntryStream(indexFunction, index,
+                        overlayMap::writtenEntryStream));
     }
 
+    /** {@inheritDoc}
+     *
+     * <p>The overlay maintains secondary indexes for the entries it writes, so
+     * index lookups do not degrade to a scan of the base table.
+     */
+    @Override
+    @DontInstrument
+    public CorfuTable<K, V, F, I> newOverlay() {
+        CorfuTable<K, V, F, I> overlay = indexerClass == null
+                ? new CorfuTable<>() : new CorfuTable<>(indexerClass);
+        overlay.mainMap = new OverlayMap<>(mainMap);
+        bindOverlay(overlay);
+        return overlay;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @DontInstrument
+    public void bindOverlay(CorfuTable<K, V, F, I> overlay) {
+        overlay.overlayBase = this;
+        ((OverlayMap<K, V>) overlay.mainMap).setBase(mainMap);
+    }
 
     /**
      * Register new index class
@@ -0,0 +1,163 @@
+package org.corfudb.runtime.collections;
+
+import com.google.common.collect.Iterators;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/** A map which records updates privately on top of a base map, which it never modifies.
+ *
+ * <p>Reads consult the private updates first and fall through to the base map. Removals
+ * are recorded as tombstones, and a clear hides the entire base map. The base map may be
+ * swapped out, in which case the private updates are applied on top of the new base.
+ *
+ * <p>This map is not thread-safe, and the base map must not be modified while this map
+ * is being accessed.
+ *
+ * @param <K>   The type of the keys.
+ * @param <V>   The type of the values.
+ */
+public class OverlayMap<K, V> extends AbstractMap<K, V> {
+
+    /** Marks a key which was removed from the base map. */
+    private static final Object TOMBSTONE = new Object();
+
+    /** The map the private updates are applied on top of. */
+    @Getter
+    @Setter
+    private Map<K, V> base;
+
+    /** The private updates, which map a key to its value or a TOMBSTONE. */
+    private final Map<K, Object> delta = new HashMap<>();
+
+    /** True, if the base map was cleared, and is hidden entirely. */
+    @Getter
+    private boolean cleared = false;
+
+    /** Generate an empty overlay of the given base map.
+     *
+     * @param base  The map to read through to.
+     */
+    public OverlayMap(Map<K, V> base) {
+        this.base = base;
+    }
+
+    /** Return whether the value the base map holds for a key is hidden by this overlay.
+     *
+     * @param key   The key to check.
+     * @return      True, if the key was updated, removed or cleared by this overlay.
+     */
+    public boolean isOverridden(Object key) {
+        return cleared || delta.containsKey(key);
+    }
+
+    /** Get a stream of the entries which were written (and not removed) by this overlay.
+     *
+     * @return  A stream of the written entries.
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<Map.Entry<K, V>> writtenEntryStream() {
+        return delta.entrySet().stream()
+                .filter(e -> e.getValue() != TOMBSTONE)
+                .map(e -> new SimpleImmutableEntry<>(e.getKey(), (V) e.getValue()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (delta.containsKey(key)) {
+            Object value = delta.get(key);
+            return value == TOMBSTONE ? null : (V) value;
+        }
+        return cleared ? null : base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (delta.containsKey(key)) {
+            return delta.get(key) != TOMBSTONE;
+        }
+        return !cleared && base.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        V previous = get(key);
+        delta.put(key, value);
+        return previous;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        V previous = get(key);
+        if (!cleared && base.containsKey(key)) {
+            delta.put((K) key, TOMBSTONE);
+        } else {
+            delta.remove(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        cleared = true;
+        delta.clear();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        if (!cleared) {
+            size = base.size();
+            for (K key : delta.keySet()) {
+                if (base.containsKey(key)) {
+                    size--;
+                }
+            }
+        }
+        for (Object value : delta.values()) {
+            if (value != TOMBSTONE) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                Iterator<Entry<K, V>> written = writtenEntryStream().iterator();
+                if (cleared) {
+                    return written;
+                }
+                // Base entries are copied, so they cannot be used to modify the base.
+                return Iterators.concat(written,
+                        Iterators.transform(
+                                Iterators.filter(base.entrySet().iterator(),
+                                        e -> !delta.containsKey(e.getKey())),
+                                e -> new SimpleImmutableEntry<>(e.getKey(), e.getValue())));
+            }
+
+            @Override
+            public int size() {
+                return OverlayMap.this.size();
+            }
+        };
+    }
+}
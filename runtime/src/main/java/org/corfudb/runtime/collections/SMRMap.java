@@ -20,7 +20,9 @@ import java.util.stream.Collectors;
 
 import org.corfudb.annotations.Accessor;
 import org.corfudb.annotations.CorfuObject;
+import org.corfudb.annotations.DontInstrument;
 import org.corfudb.annotations.TransactionalMethod;
+import org.corfudb.runtime.object.ICorfuSMROverlayable;
 
 /**
  * Created by mwei on 1/7/16.
@@ -28,7 +30,84 @@ import org.corfudb.annotations.TransactionalMethod;
 @CorfuObject
 @Deprecated // TODO: Add replacement method that conforms to style
 @SuppressWarnings("checkstyle:abbreviation") // Due to deprecation
-public class SMRMap<K, V> extends HashMap<K, V> implements ISMRMap<K,V> {
+public class SMRMap<K, V> extends HashMap<K, V> implements ISMRMap<K,V>,
+        ICorfuSMROverlayable<SMRMap<K, V>> {
+
+    /** If this map is an overlay, the map which holds its updates on top of the base map.
+     * Otherwise null, and the contents of this map are held by the HashMap itself. */
+    private transient OverlayMap<K, V> overlay;
+
+    /** {@inheritDoc} */
+    @Override
+    @DontInstrument
+    public SMRMap<K, V> newOverlay() {
+        SMRMap<K, V> overlayMap = new SMRMap<>();
+        overlayMap.overlay = new OverlayMap<>(this);
+        return overlayMap;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @DontInstrument
+    public void bindOverlay(SMRMap<K, V> overlayMap) {
+        overlayMap.overlay.setBase(this);
+    }
+
+    // The basic map operations are redirected to the overlay, if this map is one.
+    // The remaining operations are built on top of these.
+
+    @Override
+    public int size() {
+        return overlay == null ? super.size() : overlay.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return overlay == null ? super.isEmpty() : overlay.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return overlay == null ? super.containsKey(key) : overlay.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return overlay == null ? super.containsValue(value) : overlay.containsValue(value);
+    }
+
+    @Override
+    public V get(Object key) {
+        return overlay == null ? super.get(key) : overlay.get(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return overlay == null ? super.put(key, value) : overlay.put(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return overlay == null ? super.remove(key) : overlay.remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        if (overlay == null) {
+            super.putAll(m);
+        } else {
+            overlay.putAll(m);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (overlay == null) {
+            super.clear();
+        } else {
+            overlay.clear();
+        }
+    }
 
     /**
      * Returns a {@link Set} view of the keys contained in this map.
@@ -47,7 +126,7 @@ public class SMRMap<K, V> extends HashMap<K, V> implements ISMRMap<K,V> {
      */
     @Override
     public Set<K> keySet() {
-        return ImmutableSet.copyOf(super.keySet());
+        return ImmutableSet.copyOf(overlay == null ? super.keySet() : overlay.keySet());
     }
 
     /**
@@ -67,7 +146,7 @@ public class SMRMap<K, V> extends HashMap<K, V> implements ISMRMap<K,V> {
      */
     @Override
     public Collection<V> values() {
-        return ImmutableList.copyOf(super.values());
+        return ImmutableList.copyOf(overlay == null ? super.values() : overlay.values());
     }
 
     /**
@@ -80,7 +159,8 @@ public class SMRMap<K, V> extends HashMap<K, V> implements ISMRMap<K,V> {
      */
     @Accessor
     public List<V> scanAndFilter(Predicate<? super V> p) {
-        return super.values().parallelStream().filter(p).collect(Collectors.toList());
+        return (overlay == null ? super.values() : overlay.values()).parallelStream()
+                .filter(p).collect(Collectors.toList());
     }
 
     /**
@@ -94,8 +174,8 @@ public class SMRMap<K, V> extends HashMap<K, V> implements ISMRMap<K,V> {
     @Accessor
     public Collection<Map.Entry<K, V>> scanAndFilterByEntry(Predicate<? super Map.Entry<K, V>>
                                                                         entryPredicate) {
-        return super.entrySet().parallelStream().filter(entryPredicate).collect(Collectors
-                .toCollection(ArrayList::new));
+        return (overlay == null ? super.entrySet() : overlay.entrySet()).parallelStream()
+                .filter(entryPredicate).collect(Collectors.toCollection(ArrayList::new));
     }
 
     /**
@@ -116,7 +196,7 @@ public class SMRMap<K, V> extends HashMap<K, V> implements ISMRMap<K,V> {
      */
     @Override
     public Set<Entry<K, V>> entrySet() {
-        return ImmutableSet.copyOf(super.entrySet());
+        return ImmutableSet.copyOf(overlay == null ? super.entrySet() : overlay.entrySet());
     }
 
     /**
@@ -14,6 +14,7 @@ import java.util.UUID;
 import java.util.function.Supplier;
 
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import org.corfudb.protocols.logprotocol.SMREntry;
@@ -98,6 +99,13 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
      */
     final Object[] args;
 
+    /**
+     * Whether updates made outside of transactions are batched with concurrent
+     * updates, regardless of the parameters of the runtime.
+     */
+    @Setter
+    volatile boolean batchWrites = false;
+
     private final MetricRegistry metrics;
     /**
      * Metrics: meter (counter), histogram.
@@ -242,7 +250,10 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
         // If we aren't in a transaction, we can just write the modification.
         // We need to add the acquired token into the pending upcall list.
         SMREntry smrEntry = new SMREntry(smrUpdateFunction, args, serializer);
-        long address = underlyingObject.logUpdate(smrEntry, keepUpcallResult);
+        long address = batchWrites || rt.getParameters().isWriteBatchingEnabled()
+                ? rt.getObjectsView().getWriteBatcher()
+                        .append(streamID, underlyingObject, smrEntry, keepUpcallResult)
+                : underlyingObject.logUpdate(smrEntry, keepUpcallResult);
         log.trace("Update[{}] {}@{} ({}) conflictObj={}",
                 this, smrUpdateFunction, address, args, conflictObject);
         correctnessLogger.trace("Version, {}", address);
@@ -0,0 +1,32 @@
+package org.corfudb.runtime.object;
+
+/** An interface for SMR objects which can generate transaction-private overlays
+ * of themselves.
+ *
+ * <p>An overlay is an instance of the object whose reads fall through to a base
+ * instance, but whose updates are kept privately and never modify the base. Optimistic
+ * transactions apply their write set to an overlay instead of the shared object, so
+ * concurrent transactions do not have to roll back each other's optimistic updates.
+ *
+ * <p>Implementations must mark these methods @DontInstrument, since they operate on
+ * the underlying object and not through the proxy.
+ *
+ * @param <T> The type of the SMR object.
+ */
+public interface ICorfuSMROverlayable<T> {
+
+    /** Generate a new, empty overlay which reads through to this object.
+     *
+     * @return  A new overlay of this object.
+     */
+    T newOverlay();
+
+    /** Make an overlay read through to this object, keeping its private updates.
+     *
+     * <p>The object backing a proxy may be replaced (for example, by a reset), so an
+     * overlay must be rebound to the current object before it is used.
+     *
+     * @param overlay   An overlay previously generated by newOverlay.
+     */
+    void bindOverlay(T overlay);
+}
@@ -0,0 +1,240 @@
+package org.corfudb.runtime.object;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.protocols.wireprotocol.TokenResponse;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.exceptions.TrimmedException;
+import org.corfudb.runtime.view.Address;
+import org.corfudb.runtime.view.stream.IStreamView;
+
+/**
+ * Keeps SMR objects up to date with their streams in the background, so that the
+ * readers of an object don't have to replay the updates written since the last access.
+ *
+ * <p>The tails of the streams of all the followed objects are queried from the sequencer
+ * in a single request per poll. For each followed object, the follower then reads the
+ * entries appended to its stream ahead of the object, outside of the lock of the object,
+ * which loads them into the read cache of the runtime. It then applies them to the object
+ * in batches, each under a short hold of the write lock. Objects which are being modified
+ * by a transaction are left alone until the transaction completes.
+ *
+ * <p>The lag of each followed object, in addresses, is exported as a gauge.
+ */
+@Slf4j
+public class ObjectFollower {
+
+    private final CorfuRuntime runtime;
+
+    private final ScheduledExecutorService executor;
+
+    private final Map<UUID, FollowedObject> followedObjects = new ConcurrentHashMap<>();
+
+    private final MetricRegistry metrics;
+
+    private final Timer timerSync;
+
+    /**
+     * An object being followed.
+     */
+    private class FollowedObject {
+        final ICorfuSMRProxyInternal<?> proxy;
+
+        /** Reads the stream ahead of the object. */
+        IStreamView prefetchStream;
+
+        /** The tail of the stream, as of the last poll. */
+        volatile long tail = Address.NEVER_READ;
+
+        /** The version of the object, as of the last batch applied. */
+        volatile long version = Address.NEVER_READ;
+
+        FollowedObject(ICorfuSMRProxyInternal<?> proxy) {
+            this.proxy = proxy;
+            this.prefetchStream = runtime.getStreamsView().get(proxy.getStreamID());
+        }
+
+        long getLag() {
+            return Math.max(0L, tail - version);
+        }
+    }
+
+    /**
+     * Returns a follower which polls the streams of the followed objects at the
+     * interval configured in the parameters of the runtime.
+     *
+     * @param runtime the runtime of the followed objects
+     */
+    public ObjectFollower(@NonNull CorfuRuntime runtime) {
+        this.runtime = runtime;
+        this.metrics = runtime.getMetrics();
+        this.timerSync = metrics.timer(CorfuRuntime.getMpObj() + "follower.sync");
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("ObjectFollower-%d")
+                .build());
+        final long intervalMs = runtime.getParameters().getObjectFollowerIntervalMs();
+        executor.scheduleWithFixedDelay(this::pollAll, intervalMs, intervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start following an object.
+     *
+     * @param proxy the proxy of the object to follow
+     */
+    public void follow(@NonNull ICorfuSMRProxyInternal<?> proxy) {
+        followedObjects.computeIfAbsent(proxy.getStreamID(), id -> {
+            log.debug("follow: Following {}", proxy.getUnderlyingObject());
+            FollowedObject followed = new FollowedObject(proxy);
+            metrics.remove(getLagMetricName(id));
+            metrics.register(getLagMetricName(id), (Gauge<Long>) followed::getLag);
+            return followed;
+        });
+    }
+
+    /**
+     * Stop following an object.
+     *
+     * @param streamId the id of the stream of the object
+     */
+    public void unfollow(@NonNull UUID streamId) {
+        if (followedObjects.remove(streamId) != null) {
+            metrics.remove(getLagMetricName(streamId));
+        }
+    }
+
+    /**
+     * Get the lag of a followed object.
+     *
+     * @param streamId the id of the stream of the object
+     * @return the number of addresses the object is behind the tail of its stream, as of
+     *     the last poll, or zero if the object is not followed
+     */
+    public long getLag(@NonNull UUID streamId) {
+        FollowedObject followed = followedObjects.get(streamId);
+        return followed == null ? 0L : followed.getLag();
+    }
+
+    /**
+     * Stop following all the objects.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        followedObjects.keySet().forEach(this::unfollow);
+    }
+
+    private String getLagMetricName(UUID streamId) {
+        return CorfuRuntime.getMpObj() + "follower.lag." + streamId;
+    }
+
+    private void pollAll() {
+        if (followedObjects.isEmpty()) {
+            return;
+        }
+
+        // The tails of all the followed streams are fetched in a single query.
+        final Map<UUID, Long> tails;
+        try {
+            tails = getTails(followedObjects.keySet());
+        } catch (Throwable t) {
+            // Any escaping error would cancel the polling of all the objects.
+            log.warn("pollAll: Failed to query the tails of the followed streams", t);
+            return;
+        }
+
+        for (FollowedObject followed : followedObjects.values()) {
+            try {
+                followed.tail = tails.getOrDefault(followed.proxy.getStreamID(), followed.tail);
+                poll(followed);
+            } catch (TrimmedException te) {
+                log.warn("poll: Encountered trim following {}, resetting",
+                        followed.proxy.getUnderlyingObject());
+                followed.proxy.getUnderlyingObject().update(o -> {
+                    o.resetUnsafe();
+                    return null;
+                });
+                followed.prefetchStream = runtime.getStreamsView()
+                        .get(followed.proxy.getStreamID());
+                followed.version = Address.NEVER_READ;
+            } catch (Throwable t) {
+                // Any escaping error would cancel the polling of all the objects.
+                log.warn("poll: Failed to follow {}", followed.proxy.getUnderlyingObject(), t);
+            }
+        }
+    }
+
+    /**
+     * Query the tails of streams from the sequencer.
+     *
+     * @param streamIds the ids of the streams
+     * @return the tail of each stream
+     */
+    private Map<UUID, Long> getTails(Set<UUID> streamIds) {
+        final Set<UUID> queried = new HashSet<>(streamIds);
+        final TokenResponse response = runtime.getSequencerView().nextToken(queried, 0);
+        // The tail of a single stream is returned as the token.
+        if (queried.size() == 1) {
+            return Collections.singletonMap(queried.iterator().next(),
+                    response.getToken().getTokenValue());
+        }
+        return response.getBackpointerMap();
+    }
+
+    /**
+     * Read the entries appended to the stream of an object up to the tail of the last
+     * poll, and apply them to the object, a batch at a time.
+     */
+    private void poll(FollowedObject followed) {
+        // Reads outside of the lock, which caches the entries for the object.
+        List<ILogData> entries = followed.prefetchStream.remainingUpTo(followed.tail);
+
+        final int batchSize = runtime.getParameters().getObjectFollowerBatchSize();
+        for (int start = 0; start < entries.size(); start += batchSize) {
+            final long batchEnd = entries.get(Math.min(start + batchSize, entries.size()) - 1)
+                    .getGlobalAddress();
+            sync(followed, batchEnd);
+        }
+
+        // The entries read while the object was modified by a transaction weren't applied,
+        // and won't be read again. Readers may also have caught the object up since the
+        // last poll.
+        if (entries.isEmpty() && followed.version < followed.tail) {
+            sync(followed, followed.tail);
+        }
+    }
+
+    /**
+     * Apply the updates up to an address to an object, unless it is being modified by a
+     * transaction.
+     */
+    private void sync(FollowedObject followed, long address) {
+        try (Timer.Context context = timerSync.time()) {
+            followed.version = followed.proxy.getUnderlyingObject().update(o -> {
+                if (o.getOptimisticStreamUnsafe() == null
+                        && o.getVersionUnsafe() < address) {
+                    o.syncObjectUnsafe(address);
+                }
+                return o.getVersionUnsafe();
+            });
+        }
+    }
+}
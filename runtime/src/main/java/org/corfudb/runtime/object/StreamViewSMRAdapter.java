@@ -6,6 +6,7 @@ import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
 import org.corfudb.protocols.logprotocol.ISMRConsumable;
@@ -16,6 +17,7 @@ import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.view.Address;
 import org.corfudb.runtime.view.stream.IStreamView;
+import org.corfudb.runtime.view.stream.ParallelStreamSpliterator;
 
 /**
  * StreamViewSMRAdapter wraps a stream and implements the ISMRStream API over
@@ -68,6 +70,15 @@ public class StreamViewSMRAdapter implements ISMRStream {
         }
     }
 
+    private List<SMREntry> smrUpdatesMapper(ILogData logData) {
+        if (logData.getType() == DataType.DATA
+                && (logData.getPayload(runtime) instanceof ISMRConsumable
+                || logData.hasCheckpointMetadata())) {
+            return dataAndCheckpointMapper(logData);
+        }
+        return Collections.emptyList();
+    }
+
     /**
      * Returns all entries remaining upto the specified the global address specified.
      *
@@ -139,8 +150,20 @@ public class StreamViewSMRAdapter implements ISMRStream {
         return streamUpTo(Address.MAX);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If parallel stream sync is enabled in the parameters of the runtime, the payloads
+     * of the entries are deserialized in parallel, ahead of the consumer of the stream.
+     */
     @Override
     public Stream<SMREntry> streamUpTo(long maxGlobal) {
+        if (runtime.getParameters().isParallelStreamSyncEnabled()) {
+            return StreamSupport.stream(new ParallelStreamSpliterator<>(streamView, maxGlobal,
+                    this::smrUpdatesMapper,
+                    runtime.getParameters().getParallelStreamSyncChunkSize(),
+                    runtime.getParameters().getParallelStreamSyncMaxChunksInFlight()), false);
+        }
         return streamView.streamUpTo(maxGlobal)
                 .filter(m -> m.getType() == DataType.DATA)
                 .filter(m -> m.getPayload(runtime) instanceof ISMRConsumable
@@ -529,6 +529,38 @@ public class VersionLockedObject<T> {
         return ret;
     }
 
+    /**
+     * Check whether the object can generate transaction-private overlays.
+     *
+     * @return True, if the object implements {@link ICorfuSMROverlayable}.
+     */
+    public boolean isOverlayable() {
+        // The type of the object never changes, so no lock is required.
+        return object instanceof ICorfuSMROverlayable;
+    }
+
+    /**
+     * Apply an SMR update to an overlay of the object. Unlike applyUpdateUnsafe, the
+     * object itself is not modified and no undo record is generated.
+     *
+     * <p>Unsafe, requires that the caller has acquired a write lock, since the
+     * overlay may read the object.
+     *
+     * @param overlay The overlay to apply the update to.
+     * @param entry   The entry to apply.
+     * @return The result of the upcall.
+     */
+    public Object applyUpdateToOverlayUnsafe(T overlay, SMREntry entry) {
+        log.trace("ApplyOverlay[{}] of {} ({})", this, entry.getSMRMethod(),
+                entry.getSMRArguments());
+
+        ICorfuSMRUpcallTarget<T> target = upcallTargetMap.get(entry.getSMRMethod());
+        if (target == null) {
+            throw new RuntimeException("Unknown upcall " + entry.getSMRMethod());
+        }
+        return target.upcall(overlay, entry.getSMRArguments());
+    }
+
     /**
      * Roll back the given stream by applying undo records in reverse order
      * from the current stream position until rollbackVersion.
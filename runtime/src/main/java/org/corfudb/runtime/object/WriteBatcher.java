@@ -0,0 +1,245 @@
+package org.corfudb.runtime.object;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.corfudb.protocols.logprotocol.MultiObjectSMREntry;
+import org.corfudb.protocols.logprotocol.SMREntry;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuError;
+import org.corfudb.util.CFUtils;
+
+/**
+ * Batches the updates to SMR objects made outside of transactions, so that the updates
+ * made concurrently, to the same or different objects, are written to the log as a
+ * single {@link MultiObjectSMREntry}, with a single token and a single write.
+ *
+ * <p>A single thread writes the batches. A batch is started by the first update queued,
+ * and waits up to the configured window for more updates, unless it is full. The updates
+ * queued while a batch is being written are written by the next batch, so the window
+ * only delays updates when the log is idle. Each update is completed with the address
+ * of its batch.
+ *
+ * <p>Upcall results are stored by address, and only the first update to an object at
+ * an address has its upcall result stored. So an update which keeps its upcall result
+ * is never batched behind another update to the same object, it waits for the next
+ * batch instead.
+ */
+@Slf4j
+public class WriteBatcher {
+
+    private final CorfuRuntime runtime;
+
+    private final ExecutorService executor;
+
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+    private final Histogram histogramBatchSize;
+
+    private final Timer timerWrite;
+
+    /** True once the batches are no longer written. */
+    private volatile boolean stopped = false;
+
+    /**
+     * An update waiting to be written.
+     */
+    @AllArgsConstructor
+    private static class PendingWrite {
+        final UUID streamId;
+        final VersionLockedObject<?> object;
+        final SMREntry entry;
+        final boolean saveUpcall;
+        final CompletableFuture<Long> address = new CompletableFuture<>();
+    }
+
+    /**
+     * Updates written as a single entry.
+     */
+    private static class Batch {
+        final List<PendingWrite> writes = new ArrayList<>();
+        final Set<UUID> streamIds = new HashSet<>();
+        final MultiObjectSMREntry entry = new MultiObjectSMREntry();
+
+        /**
+         * Add an update to the batch.
+         *
+         * @return false if the update keeps its upcall result, and the batch already
+         *     updates the same object
+         */
+        boolean add(PendingWrite write) {
+            if (write.saveUpcall && streamIds.contains(write.streamId)) {
+                return false;
+            }
+            writes.add(write);
+            streamIds.add(write.streamId);
+            entry.addTo(write.streamId, write.entry);
+            return true;
+        }
+
+        /**
+         * Register or unregister the address of the batch for the upcall results of the
+         * updates which keep them.
+         */
+        void setPendingUpcalls(long address, boolean pending) {
+            for (PendingWrite write : writes) {
+                if (!write.saveUpcall) {
+                    continue;
+                }
+                if (pending) {
+                    write.object.pendingUpcalls.add(address);
+                } else {
+                    write.object.pendingUpcalls.remove(address);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a batcher which writes batches as configured in the parameters of the
+     * runtime.
+     *
+     * @param runtime the runtime to write with
+     */
+    public WriteBatcher(@NonNull CorfuRuntime runtime) {
+        this.runtime = runtime;
+        this.histogramBatchSize = runtime.getMetrics()
+                .histogram(CorfuRuntime.getMpObj() + "write-batch.size");
+        this.timerWrite = runtime.getMetrics()
+                .timer(CorfuRuntime.getMpObj() + "write-batch.write");
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("WriteBatcher-%d")
+                .build());
+        executor.submit(this::writeBatches);
+    }
+
+    /**
+     * Log an update to an object with the next batch, and wait for the batch to be
+     * written.
+     *
+     * @param streamId   the id of the stream of the object
+     * @param object     the object being updated
+     * @param entry      the update to log
+     * @param saveUpcall true, if the upcall result of the update should be saved
+     * @return the address the update was logged at
+     */
+    public long append(@NonNull UUID streamId, @NonNull VersionLockedObject<?> object,
+                       @NonNull SMREntry entry, boolean saveUpcall) {
+        PendingWrite write = new PendingWrite(streamId, object, entry, saveUpcall);
+        queue.add(write);
+        // Updates queued after the batches stopped being written would never be written.
+        if (stopped || executor.isShutdown()) {
+            failPendingWrites();
+        }
+        return CFUtils.getUninterruptibly(write.address);
+    }
+
+    /**
+     * Stop writing batches. The updates which are still queued fail.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        failPendingWrites();
+    }
+
+    private void failPendingWrites() {
+        PendingWrite write;
+        while ((write = queue.poll()) != null) {
+            write.address.completeExceptionally(
+                    new UnrecoverableCorfuError("Write batcher was shut down"));
+        }
+    }
+
+    private void writeBatches() {
+        final long windowNanos = TimeUnit.MICROSECONDS.toNanos(
+                runtime.getParameters().getWriteBatchWindowMicros());
+        final int maxEntries = Math.max(1, runtime.getParameters().getWriteBatchMaxEntries());
+        PendingWrite next = null;
+        Batch batch = null;
+        try {
+            while (true) {
+                batch = new Batch();
+                batch.add(next == null ? queue.take() : next);
+                next = null;
+
+                final long deadline = System.nanoTime() + windowNanos;
+                while (batch.writes.size() < maxEntries) {
+                    final long remaining = deadline - System.nanoTime();
+                    PendingWrite write = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (write == null) {
+                        break;
+                    }
+                    if (!batch.add(write)) {
+                        next = write;
+                        break;
+                    }
+                }
+                write(batch);
+            }
+        } catch (InterruptedException ie) {
+            log.debug("writeBatches: Write batcher shut down");
+        } catch (Throwable t) {
+            log.error("writeBatches: Write batcher stopped", t);
+        } finally {
+            // Fail the updates which were taken from the queue but not written, and the
+            // updates still queued.
+            stopped = true;
+            UnrecoverableCorfuError error =
+                    new UnrecoverableCorfuError("Write batcher was shut down");
+            if (batch != null) {
+                batch.writes.forEach(w -> w.address.completeExceptionally(error));
+            }
+            if (next != null) {
+                next.address.completeExceptionally(error);
+            }
+            failPendingWrites();
+        }
+    }
+
+    private void write(Batch batch) {
+        histogramBatchSize.update(batch.writes.size());
+        try (Timer.Context context = timerWrite.time()) {
+            final long address = append(batch);
+            batch.writes.forEach(w -> w.address.complete(address));
+        } catch (Throwable t) {
+            log.warn("write: Failed to write a batch of {} updates to {}",
+                    batch.writes.size(), batch.streamIds, t);
+            batch.writes.forEach(w -> w.address.completeExceptionally(t));
+            // Errors, such as an interrupt, stop the batcher.
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+        }
+    }
+
+    /**
+     * Append a batch to the log, registering each address it acquires for the upcall
+     * results of the batch until the address is lost.
+     *
+     * @return the address the batch was written to
+     */
+    private long append(Batch batch) {
+        return runtime.getStreamsView().append(batch.streamIds, batch.entry, null,
+                address -> batch.setPendingUpcalls(address, true),
+                address -> batch.setPendingUpcalls(address, false));
+    }
+}
@@ -1,12 +1,15 @@
 package org.corfudb.runtime.object.transactions;
 
+import com.google.common.primitives.Longs;
+
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+
+import net.openhft.hashing.LongHashFunction;
 
 import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
 
@@ -28,25 +31,55 @@ public class ConflictSetInfo {
         return p.getSerializer().hash(o);
     }
 
+    /** Get a fixed-width, 64-bit fingerprint for the object, given a proxy.
+     *
+     * <p>Hashes which are already 64 bits wide (such as the xxHash of a string or of a
+     * serialized object) are used as is, while other hashes are folded with xxHash.
+     */
+    public static long generateFingerprintFromObject(ICorfuSMRProxyInternal p, Object o) {
+        byte[] hash = generateHashFromObject(p, o);
+        return hash.length == Long.BYTES
+                ? Longs.fromByteArray(hash) : LongHashFunction.xx().hashBytes(hash);
+    }
+
     /** Get the hashed conflict set.
+     *
+     * <p>Each stream is mapped to a sorted array of the distinct fingerprints of its
+     * conflict objects. An empty array means the stream conflicts as a whole.
+     *
      * @return              The hashed conflict set.
      */
-    public Map<UUID, Set<byte[]>> getHashedConflictSet() {
-        return conflicts.entrySet().stream()
-                .collect(Collectors.toMap(
-                        // Key = UUID
-                        e -> e.getKey().getStreamID(),
-                        // Value = Generated hash.
-                        e -> e.getValue().stream()
-                                .map(o -> ConflictSetInfo.generateHashFromObject(e.getKey(), o))
-                                .collect(Collectors.toSet()),
-                        // Merge function, in case key was already mapped
-                        // (If two proxies have the same stream).
-                        (v1,v2) -> {
-                            // Combine the two sets.
-                            v1.addAll(v2);
-                            return v1;
-                        }));
+    public Map<UUID, long[]> getHashedConflictSet() {
+        Map<UUID, long[]> hashedConflictSet = new HashMap<>();
+        conflicts.forEach((proxy, objects) -> {
+            long[] fingerprints = objects.stream()
+                    .mapToLong(o -> generateFingerprintFromObject(proxy, o))
+                    .toArray();
+            // Two proxies may have the same stream, so combine their fingerprints.
+            hashedConflictSet.merge(proxy.getStreamID(), fingerprints, Longs::concat);
+        });
+        hashedConflictSet.replaceAll((streamId, fingerprints) -> sortedDistinct(fingerprints));
+        return hashedConflictSet;
+    }
+
+    /** Sort an array of fingerprints and remove duplicates from it, in place.
+     *
+     * @param fingerprints  The fingerprints to deduplicate.
+     * @return              The distinct fingerprints, in ascending order.
+     */
+    static long[] sortedDistinct(long[] fingerprints) {
+        if (fingerprints.length < 2) {
+            return fingerprints;
+        }
+        Arrays.sort(fingerprints);
+        int distinct = 1;
+        for (int i = 1; i < fingerprints.length; i++) {
+            if (fingerprints[i] != fingerprints[distinct - 1]) {
+                fingerprints[distinct++] = fingerprints[i];
+            }
+        }
+        return distinct == fingerprints.length
+                ? fingerprints : Arrays.copyOf(fingerprints, distinct);
     }
 
     /** Merge a conflict set into this conflict set.
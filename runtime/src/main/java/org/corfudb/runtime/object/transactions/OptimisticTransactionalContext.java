@@ -1,6 +1,6 @@
 package org.corfudb.runtime.object.transactions;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +22,7 @@ import org.corfudb.runtime.exceptions.AbortCause;
 import org.corfudb.runtime.exceptions.TransactionAbortedException;
 import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.object.ICorfuSMRAccess;
+import org.corfudb.runtime.object.ICorfuSMROverlayable;
 import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
 import org.corfudb.runtime.object.VersionLockedObject;
 
@@ -47,6 +48,11 @@ import static org.corfudb.runtime.view.ObjectsView.TRANSACTION_STREAM_ID;
  *     read (the "read set") were modified between the first read
  *     ("first read timestamp") and the time of commit.
  *
+ * <p>If transaction write overlays are enabled, the writes of a (non-nested) transaction
+ * to objects which support overlays are applied to a transaction-private overlay of the
+ * object instead of the shared object. Reads of the object in the transaction are then
+ * served by the overlay, and the shared object is never modified optimistically.
+ *
  * <p>Created by mwei on 4/4/16.
  */
 @Slf4j
@@ -57,6 +63,18 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
     private final Set<ICorfuSMRProxyInternal> modifiedProxies =
             new HashSet<>();
 
+    /** The transaction-private overlays of the objects accessed by this transaction,
+     * by stream ID. */
+    private final Map<UUID, WriteOverlay<?>> writeOverlays = new HashMap<>();
+
+    /** A transaction-private overlay of an object. */
+    private static class WriteOverlay<T> {
+        /** The overlay, or null if it has not been generated yet. */
+        T overlay;
+
+        /** The number of entries in the write set which were applied to the overlay. */
+        int appliedUpdates = 0;
+    }
 
     OptimisticTransactionalContext(TransactionBuilder builder) {
         super(builder);
@@ -88,6 +106,10 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
         // First, we add this access to the read set
         addToReadSet(proxy, conflictObject);
 
+        if (isOverlayAccess(proxy)) {
+            return accessOverlay(proxy, accessFunction);
+        }
+
         // Next, we sync the object, which will bring the object
         // to the correct version, reflecting any optimistic
         // updates.
@@ -149,6 +171,19 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
         if (wrapper != null && wrapper.isHaveUpcallResult()) {
             return wrapper.getUpcallResult();
         }
+
+        // If the object is overlaid, applying the pending writes to the overlay
+        // generates the result.
+        if (isOverlayAccess(proxy)) {
+            accessOverlay(proxy, overlay -> null);
+            SMREntry wrapper2 = getWriteSetEntryList(proxy.getStreamID()).get((int)timestamp);
+            if (wrapper2 != null && wrapper2.isHaveUpcallResult()) {
+                return wrapper2.getUpcallResult();
+            }
+            throw new RuntimeException("Tried to get upcall during a transaction but"
+                    + " we don't have it even after applying the overlay (asked for "
+                    + timestamp + ")");
+        }
         // Otherwise, we need to sync the object
         return proxy.getUnderlyingObject().update(o -> {
             log.trace("Upcall[{}] {} Sync'd", this,  timestamp);
@@ -164,6 +199,79 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
         });
     }
 
+    /** Return whether an access to an object should be served by an overlay.
+     *
+     * <p>Nested transactions use the optimistic stream instead, since their writes
+     * must be discarded on abort without affecting the parent.
+     *
+     * @param proxy The proxy of the object being accessed.
+     * @return      True, if overlays are enabled and supported by the object.
+     */
+    private boolean isOverlayAccess(ICorfuSMRProxyInternal<?> proxy) {
+        return this.builder.runtime.getParameters().isTransactionWriteOverlayEnabled()
+                && !TransactionalContext.isInNestedTransaction()
+                && proxy.getUnderlyingObject().isOverlayable();
+    }
+
+    /**
+     * Access an object through the transaction-private overlay of this transaction.
+     *
+     * <p>The shared object is synced to the snapshot of this transaction, but no
+     * optimistic stream is installed on it. Instead, any writes of this transaction
+     * which were not yet applied to the overlay are applied to it, and the access
+     * function is invoked on the overlay.
+     *
+     * @param proxy          The proxy of the object to access.
+     * @param accessFunction The function to invoke on the overlay.
+     * @param <R>            The return type of the access function.
+     * @param <T>            The type of the object.
+     * @return The return value of the access function.
+     */
+    @SuppressWarnings("unchecked")
+    private <R, T> R accessOverlay(ICorfuSMRProxyInternal<T> proxy,
+                                   ICorfuSMRAccess<R, T> accessFunction) {
+        final VersionLockedObject<T> vlo = proxy.getUnderlyingObject();
+        final WriteOverlay<T> writeOverlay = (WriteOverlay<T>) writeOverlays
+                .computeIfAbsent(proxy.getStreamID(), id -> new WriteOverlay<T>());
+
+        return vlo.access(o -> {
+                    long streamReadPosition = getKnownStreamPosition()
+                            .getOrDefault(proxy.getStreamID(), getSnapshotTimestamp());
+                    return !o.isOptimisticallyModifiedUnsafe()
+                            && o.getVersionUnsafe() == streamReadPosition
+                            && writeOverlay.appliedUpdates
+                                == getWriteSetEntrySize(proxy.getStreamID());
+                },
+                o -> {
+                    // Remove any optimistic stream (possibly installed by a nested
+                    // transaction of this one), and sync to the snapshot.
+                    syncWithRetryUnsafe(o, getSnapshotTimestamp(), proxy, x -> {
+                        if (x.getOptimisticStreamUnsafe() != null) {
+                            x.setOptimisticStreamUnsafe(null);
+                        }
+                    });
+                    getKnownStreamPosition().put(proxy.getStreamID(), o.getVersionUnsafe());
+                },
+                object -> {
+                    ICorfuSMROverlayable<T> base = (ICorfuSMROverlayable<T>) object;
+                    if (writeOverlay.overlay == null) {
+                        writeOverlay.overlay = base.newOverlay();
+                    } else {
+                        base.bindOverlay(writeOverlay.overlay);
+                    }
+                    // Pending writes are only present if the object was updated, in
+                    // which case we hold the write lock.
+                    List<SMREntry> writes = getWriteSetEntryList(proxy.getStreamID());
+                    while (writeOverlay.appliedUpdates < writes.size()) {
+                        SMREntry entry = writes.get(writeOverlay.appliedUpdates);
+                        entry.setUpcallResult(vlo.applyUpdateToOverlayUnsafe(
+                                writeOverlay.overlay, entry));
+                        writeOverlay.appliedUpdates++;
+                    }
+                    return accessFunction.access(writeOverlay.overlay);
+                });
+    }
+
     /** Set the correct optimistic stream for this transaction (if not already).
      *
      * If the Optimistic stream doesn't reflect the current transaction context,
@@ -400,10 +508,9 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
             return atc.getSnapshotTimestamp();
         } else {
             // Otherwise, fetch a read token from the sequencer the linearize
-            // ourselves against.
+            // ourselves against. Concurrent transactions share the query.
             long currentTail = builder.runtime
-                    .getSequencerView().nextToken(Collections.emptySet(),
-                            0).getToken().getTokenValue();
+                    .getSequencerView().queryGlobalTail();
             log.trace("SnapshotTimestamp[{}] {}", this, currentTail);
             return currentTail;
         }
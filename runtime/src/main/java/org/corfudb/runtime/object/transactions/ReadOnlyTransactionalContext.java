@@ -0,0 +1,41 @@
+package org.corfudb.runtime.object.transactions;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.corfudb.runtime.CorfuRuntime;
+
+/**
+ * A read-only transactional context.
+ *
+ * <p>Like a snapshot transaction, a read-only transaction keeps no read or write set,
+ * cannot modify objects and commits locally, without contacting the sequencer. Instead
+ * of a snapshot given by the TransactionBuilder, it reads at the global tail when it
+ * starts, which it may share with concurrent transactions, or reuse from a recent
+ * transaction if the runtime allows stale snapshots
+ * (see {@link CorfuRuntime.CorfuRuntimeParameters#readOnlyTransactionMaxStalenessMs}).
+ */
+@Slf4j
+public class ReadOnlyTransactionalContext extends SnapshotTransactionalContext {
+
+    public ReadOnlyTransactionalContext(TransactionBuilder builder) {
+        super(builder);
+    }
+
+    /** Get the global tail to read at, or the snapshot of the root transaction,
+     * if this transaction is nested.
+     *
+     * @return The snapshot to read at.
+     */
+    @Override
+    public long obtainSnapshotTimestamp() {
+        final AbstractTransactionalContext atc = TransactionalContext.getRootContext();
+        if (atc != null && atc != this) {
+            return atc.getSnapshotTimestamp();
+        }
+        final CorfuRuntime runtime = getBuilder().getRuntime();
+        final long tail = runtime.getSequencerView().getGlobalTail(
+                runtime.getParameters().getReadOnlyTransactionMaxStalenessMs());
+        log.trace("SnapshotTimestamp[{}] {}", this, tail);
+        return tail;
+    }
+}
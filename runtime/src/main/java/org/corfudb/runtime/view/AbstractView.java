@@ -23,7 +23,9 @@ import org.corfudb.util.Utils;
  * <p>The layoutHelper function is called whenever a view tries to access a layout.
  * If the layoutHelper catches an exception which is due to connection issues
  * or an incorrect epoch, it asks the runtime to invalidate that layout
- * by reporting it to a layout server, and retries the function.</p>
+ * by reporting it to a layout server, and retries the function. Since the epoch of the
+ * layout is reported, the invalidations of concurrent requests which failed on the same
+ * layout result in a single fetch.</p>
  *
  * <p>Created by mwei on 12/10/15.</p>
  */
@@ -76,13 +78,15 @@ public abstract class AbstractView {
                                                                           function)
             throws A, B, C, D {
         while (true) {
+            Layout layout = null;
             try {
-                return function.apply(runtime.layout.get());
+                layout = runtime.layout.get();
+                return function.apply(layout);
             } catch (RuntimeException re) {
                 if (re.getCause() instanceof TimeoutException) {
                     log.warn("Timeout executing remote call, invalidating view and retrying in {}s",
                             runtime.retryRate);
-                    runtime.invalidateLayout();
+                    invalidateLayout(layout);
                     Utils.sleepUninterruptibly(runtime.retryRate * 1000);
                 } else if (re instanceof ServerNotReadyException) {
                     log.warn("Server still not ready. Waiting for server to start "
@@ -92,7 +96,7 @@ public abstract class AbstractView {
                     WrongEpochException we = (WrongEpochException) re;
                     log.warn("Got a wrong epoch exception, updating epoch to {} and "
                             + "invalidate view", we.getCorrectEpoch());
-                    runtime.invalidateLayout();
+                    invalidateLayout(layout);
                 } else {
                     throw re;
                 }
@@ -107,6 +111,19 @@ public abstract class AbstractView {
         }
     }
 
+    /**
+     * Invalidate a layout which was found to be stale.
+     *
+     * @param layout The stale layout, or null if it couldn't be retrieved.
+     */
+    private void invalidateLayout(Layout layout) {
+        if (layout == null) {
+            runtime.invalidateLayout();
+        } else {
+            runtime.invalidateLayout(layout.getEpoch());
+        }
+    }
+
     @FunctionalInterface
     public interface LayoutFunction<V, R, A extends Throwable,
             B extends Throwable, C extends Throwable, D extends Throwable> {
@@ -5,13 +5,29 @@ import com.codahale.metrics.MetricRegistry;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
-import com.google.common.collect.Iterables;
-
-import java.util.HashMap;
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -22,6 +38,7 @@ import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.IToken;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.ScanResponse;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.clients.LogUnitClient;
 import org.corfudb.runtime.exceptions.OverwriteException;
@@ -42,6 +59,26 @@ import java.util.Comparator;
 @Slf4j
 public class AddressSpaceView extends AbstractView {
 
+    /** The maximum number of threads issuing the batches of bulk reads, shared by all
+     * the bulk reads of the process. */
+    private static final int BULK_READ_THREADS =
+            Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+    /** Issues the batches of bulk reads concurrently. The batches which find every
+     * thread busy are queued, and the idle threads exit. */
+    private static final ExecutorService bulkReadExecutor = newBulkReadExecutor();
+
+    private static ExecutorService newBulkReadExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(BULK_READ_THREADS,
+                BULK_READ_THREADS, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("AddressSpaceView-bulkRead-%d")
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * A cache for read results.
      */
@@ -96,6 +133,8 @@ public class AddressSpaceView extends AbstractView {
      *                              by the token has adopted
      *                              another value.
      * @throws WrongEpochException  If the token epoch is invalid.
+     * @throws StaleTokenException  If the token was issued in an earlier epoch, and
+     *                              the sequencer has reset its state since.
      */
     public void write(IToken token, Object data) throws OverwriteException {
         final ILogData ld = new LogData(DataType.DATA, data);
@@ -103,8 +142,9 @@ public class AddressSpaceView extends AbstractView {
         layoutHelper(l -> {
             // Check if the token issued is in the same
             // epoch as the layout we are about to write
-            // to.
-            if (token.getEpoch() != l.getEpoch()) {
+            // to, or was carried over to it.
+            if (token.getEpoch() != l.getEpoch()
+                    && !runtime.getSequencerView().isTokenValid(token, l)) {
                 throw new StaleTokenException(l.getEpoch());
             }
 
@@ -299,26 +339,57 @@ public class AddressSpaceView extends AbstractView {
      */
     public @Nonnull
     Map<Long, ILogData> cacheFetch(Iterable<Long> addresses) {
-        Map<Long, ILogData> allAddresses = new HashMap<>();
-
-        Iterable<List<Long>> batches = Iterables.partition(addresses, runtime.getBulkReadSize());
+        // Group the addresses by the stripe which owns them, so that each batch
+        // is served by the log units of a single stripe.
+        final Layout layout = getCurrentLayout();
+        Map<Layout.LayoutStripe, List<Long>> addressesByStripe = new LinkedHashMap<>();
+        for (Long address : addresses) {
+            addressesByStripe.computeIfAbsent(layout.getStripe(address),
+                    k -> new ArrayList<>()).add(address);
+        }
 
-        for (List<Long> batch : batches) {
-            try {
-                //doesn't handle the case where some address have a different replication mode
-                allAddresses.putAll(layoutHelper(l -> l.getReplicationMode(batch.iterator().next())
-                        .getReplicationProtocol(runtime)
-                        .readAll(l, batch)));
-            } catch (Exception e) {
-                log.error("cacheFetch: Couldn't read addresses {}", batch, e);
+        // Interleave the batches of each stripe, so that all stripes are read concurrently.
+        List<Iterator<List<Long>>> stripeBatches = addressesByStripe.values().stream()
+                .map(stripeAddresses -> Lists.partition(stripeAddresses,
+                        runtime.getBulkReadSize()).iterator())
+                .collect(Collectors.toList());
+
+        final Map<Long, ILogData> allAddresses = new ConcurrentHashMap<>();
+        final Semaphore inFlight = new Semaphore(
+                Math.max(1, runtime.getParameters().getBulkReadMaxInFlight()));
+        final List<CompletableFuture<Void>> reads = new ArrayList<>();
+        boolean remaining = true;
+        while (remaining) {
+            remaining = false;
+            for (Iterator<List<Long>> batches : stripeBatches) {
+                if (!batches.hasNext()) {
+                    continue;
+                }
+                remaining = true;
+                final List<Long> batch = batches.next();
+                inFlight.acquireUninterruptibly();
+                reads.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        allAddresses.putAll(layoutHelper(l ->
+                                l.getReplicationMode(batch.get(0))
+                                .getReplicationProtocol(runtime)
+                                .readAll(l, batch)));
+                    } catch (Exception e) {
+                        log.error("cacheFetch: Couldn't read addresses {}", batch, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                }, bulkReadExecutor));
             }
         }
 
+        CompletableFuture.allOf(reads.toArray(new CompletableFuture[reads.size()])).join();
         return allAddresses;
     }
 
     /**
-     * Fetch a collection of addresses.
+     * Fetch a collection of addresses, as part of a sequential scan of the log,
+     * whose entries the log units do not cache.
      *
      * @param addresses collection of addresses to read from.
      * @return A result to be cached
@@ -331,6 +402,102 @@ public class AddressSpaceView extends AbstractView {
     }
 
 
+    /**
+     * Read the entries of a range of addresses which belong to any of the given streams,
+     * bypassing the cache.
+     *
+     * <p>In chain replicated segments, the last log unit of each stripe filters the entries
+     * of the stripe, so that only the matching entries are transferred, and the log unit
+     * does not cache the entries it scans. Addresses the log unit holds no entry for are
+     * read individually, hole filling them if necessary, so that an entry which is still
+     * being written is not skipped. Other segments are read in bulk and filtered here.
+     *
+     * @param range   The range of addresses to read.
+     * @param streams The streams to read the entries of, or empty, for any stream.
+     * @return The matching entries, by address, in address order.
+     */
+    public @Nonnull
+    Map<Long, ILogData> scan(@Nonnull Range<Long> range, @Nonnull Set<UUID> streams) {
+        final ContiguousSet<Long> addresses = ContiguousSet.create(range, DiscreteDomain.longs());
+        if (addresses.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return layoutHelper(l -> {
+            final Map<Long, ILogData> entries = new TreeMap<>();
+            long start = addresses.first();
+            while (start <= addresses.last()) {
+                final Layout.LayoutSegment segment = l.getSegment(start);
+                final long end = segment.getEnd() == -1 ? addresses.last()
+                        : Math.min(addresses.last(), segment.getEnd() - 1);
+                if (segment.getReplicationMode() == Layout.ReplicationMode.CHAIN_REPLICATION) {
+                    for (Layout.LayoutStripe stripe : segment.getStripes()) {
+                        scanStripe(l, stripe, start, end, streams, entries);
+                    }
+                } else {
+                    segment.getReplicationMode().getReplicationProtocol(runtime)
+                            .readRange(l, ContiguousSet.create(Range.closed(start, end),
+                                    DiscreteDomain.longs()))
+                            .forEach((address, entry) -> {
+                                if (isScanned(entry, streams)) {
+                                    entries.put(address, entry);
+                                }
+                            });
+                }
+                start = end + 1;
+            }
+            return entries;
+        });
+    }
+
+    /**
+     * Scan the addresses of a stripe in a range, continuing the scan until the log unit
+     * covered the entire range.
+     *
+     * @param layout  The layout to scan with.
+     * @param stripe  The stripe to scan.
+     * @param start   The first address to scan.
+     * @param end     The last address to scan.
+     * @param streams The streams to read the entries of, or empty, for any stream.
+     * @param entries The map to add the matching entries to.
+     */
+    private void scanStripe(Layout layout, Layout.LayoutStripe stripe, long start, long end,
+                            Set<UUID> streams, Map<Long, ILogData> entries) {
+        final List<String> logServers = stripe.getLogServers();
+        final LogUnitClient client = runtime.getRouter(logServers.get(logServers.size() - 1))
+                .getClient(LogUnitClient.class);
+        long next = start;
+        while (next != ScanResponse.SCAN_COMPLETE) {
+            ScanResponse response = CFUtils.getUninterruptibly(client.scan(
+                    Range.closed(next, end), streams,
+                    runtime.getParameters().getScanMaxBytes()),
+                    TrimmedException.class, WrongEpochException.class);
+            entries.putAll(response.getAddresses());
+            for (Long address : response.getUnwritten()) {
+                if (!stripe.equals(layout.getStripe(address))) {
+                    continue;
+                }
+                ILogData entry = layout.getReplicationMode(address)
+                        .getReplicationProtocol(runtime)
+                        .read(layout, address);
+                if (isScanned(entry, streams)) {
+                    entries.put(address, entry);
+                }
+            }
+            next = response.getNextAddress();
+        }
+    }
+
+    /**
+     * Return whether a scan of the given streams returns an entry.
+     */
+    private static boolean isScanned(ILogData entry, Set<UUID> streams) {
+        if (entry.isTrimmed()) {
+            throw new TrimmedException();
+        }
+        return entry.getType() == DataType.DATA
+                && (streams.isEmpty() || streams.stream().anyMatch(entry::containsStream));
+    }
+
     /**
      * Explicitly fetch a given address, bypassing the cache.
      *
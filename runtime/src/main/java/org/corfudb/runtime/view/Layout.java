@@ -150,14 +150,7 @@ public class Layout implements Cloneable {
         Map<String, CompletableFuture<Boolean>> resultMap =
                 SealServersHelper.asyncSetRemoteEpoch(this);
 
-        // Validate if we received enough layout server responses.
-        SealServersHelper.waitForLayoutSeal(layoutServers, resultMap);
-        // Validate if we received enough log unit server responses depending on the
-        // replication mode.
-        for (LayoutSegment layoutSegment : getSegments()) {
-            layoutSegment.getReplicationMode().validateSegmentSeal(layoutSegment, resultMap);
-        }
-        log.debug("Layout has been sealed successfully.");
+        SealServersHelper.waitForSeal(this, resultMap);
     }
 
     /**
@@ -453,11 +446,13 @@ public class Layout implements Cloneable {
 
             @Override
             public IReplicationProtocol getReplicationProtocol(CorfuRuntime r) {
+                final boolean digestReads = r.getParameters().isQuorumDigestReadEnabled();
                 if (r.isHoleFillingDisabled()) {
-                    return new QuorumReplicationProtocol(new NeverHoleFillPolicy(100));
+                    return new QuorumReplicationProtocol(new NeverHoleFillPolicy(100),
+                            digestReads);
                 } else {
                     return new QuorumReplicationProtocol(new ReadWaitHoleFillPolicy(100,
-                            r.getParameters().getHoleFillRetry()));
+                            r.getParameters().getHoleFillRetry()), digestReads);
                 }
             }
 
@@ -1,16 +1,34 @@
 package org.corfudb.runtime.view;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
 
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
+import org.corfudb.protocols.wireprotocol.SequencerTailsRecoveryMsg;
 import org.corfudb.recovery.FastObjectLoader;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.clients.IClientRouter;
@@ -21,22 +39,59 @@ import org.corfudb.runtime.exceptions.LayoutModificationException;
 import org.corfudb.runtime.exceptions.OutrankedException;
 import org.corfudb.runtime.exceptions.QuorumUnreachableException;
 import org.corfudb.runtime.exceptions.RecoveryException;
+import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
+import org.corfudb.util.CFUtils;
 
 /**
  * A view of the Layout Manager to manage reconfigurations of the Corfu Cluster.
  *
+ * <p>The latency of each phase of a reconfiguration is recorded in timers under
+ * {@link CorfuRuntime#getMpLM()}: seal, tail-collection, consensus and
+ * sequencer-bootstrap, and the whole reconfiguration. The log units which could not be
+ * caught up by state transfer are counted in catch-up-failures.</p>
+ *
  * <p>Created by zlokhandwala on 11/1/17.</p>
  */
 @Slf4j
 public class LayoutManagementView extends AbstractView {
 
+    /** The maximum number of log units caught up by state transfer at once. */
+    private static final int STATE_TRANSFER_THREADS = 2;
+
+    /** The maximum number of blocking steps of a reconfiguration run at once. */
+    private static final int RECONFIGURATION_THREADS = 4;
+
     public LayoutManagementView(@NonNull CorfuRuntime runtime) {
         super(runtime);
     }
 
     private volatile long prepareRank = 1L;
 
+    /** Runs the state transfers which catch up log units, outside of the reconfigurations
+     * which require them. The idle threads exit. */
+    private final ExecutorService stateTransferExecutor =
+            newExecutor(STATE_TRANSFER_THREADS, "stateTransfer");
+
+    /** Runs the steps of a reconfiguration which block on the responses of the servers,
+     * such as the paxos prepare, so that they stay off the common pool. */
+    private final ExecutorService reconfigurationExecutor =
+            newExecutor(RECONFIGURATION_THREADS, "reconfiguration");
+
+    /** The log units being caught up, which are healed once their catch up completes. */
+    private final Set<String> catchingUp = ConcurrentHashMap.newKeySet();
+
+    private static ExecutorService newExecutor(int threads, String purpose) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1,
+                TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("LayoutManagementView-" + purpose + "-%d")
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * On restart, if MANAGEMENT_LAYOUT exists in the local datastore.
      * the Management Server attempts to recover the cluster from that layout.
@@ -60,6 +115,11 @@ public class LayoutManagementView extends AbstractView {
      * It then seals the epoch to prevent any client from accessing the stale layout.
      * Finally we run paxos to update all servers with the new layout.
      *
+     * <p>Healed log units may have missed entries while they were unresponsive. They stay
+     * marked unresponsive, and are caught up by state transfer in the background. Each is
+     * healed by another reconfiguration once its transfer succeeds. A failed transfer is
+     * counted and logged, and is retried when the log unit is next found healed.
+     *
      * @param currentLayout The current layout
      * @param failedServers Set of failed server addresses
      * @param healedServers Set of healed server addresses
@@ -71,15 +131,84 @@ public class LayoutManagementView extends AbstractView {
             throws QuorumUnreachableException, OutrankedException, InterruptedException,
             ExecutionException, LayoutModificationException, CloneNotSupportedException {
 
-        // Generates a new layout by removing the failed nodes from the existing layout
-        Layout newLayout = failureHandlerPolicy
-                .generateLayout(currentLayout,
-                        runtime,
-                        failedServers,
-                        healedServers);
-        runLayoutReconfiguration(currentLayout, newLayout, false);
+        Set<String> laggingLogUnits = healedServers.stream()
+                .filter(endpoint -> currentLayout.getSegments().stream()
+                        .flatMap(segment -> segment.getStripes().stream())
+                        .anyMatch(stripe -> stripe.getLogServers().contains(endpoint)))
+                .collect(Collectors.toSet());
+        Set<String> caughtUpServers = new HashSet<>(healedServers);
+        caughtUpServers.removeAll(laggingLogUnits);
+
+        // There is nothing to reconfigure if only lagging log units were healed.
+        if (!failedServers.isEmpty() || !caughtUpServers.isEmpty()
+                || laggingLogUnits.isEmpty()) {
+            // Generates a new layout by removing the failed nodes from the existing layout
+            Layout newLayout = failureHandlerPolicy
+                    .generateLayout(currentLayout,
+                            runtime,
+                            failedServers,
+                            caughtUpServers);
+            runLayoutReconfiguration(currentLayout, newLayout, false);
+        }
+
+        laggingLogUnits.forEach(this::catchUp);
     }
 
+    /**
+     * Catches up a healed log unit with the entries of its stripes in the background,
+     * then heals it in the layout. Does nothing if the log unit is already being caught up.
+     *
+     * @param endpoint The log unit to catch up.
+     */
+    private void catchUp(String endpoint) {
+        if (!catchingUp.add(endpoint)) {
+            log.debug("catchUp: {} is already being caught up", endpoint);
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            Layout layout = runtime.getLayoutView().getLayout();
+            transferStripes(layout, endpoint, (segment, stripe) ->
+                    stripe.getLogServers().contains(endpoint));
+            try {
+                healServer(endpoint);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, stateTransferExecutor).whenComplete((v, ex) -> {
+            catchingUp.remove(endpoint);
+            if (ex != null) {
+                runtime.getMetrics().counter(CorfuRuntime.getMpLM()
+                        + "catch-up-failures").inc();
+                log.error("catchUp: Failed to catch up {}, it stays unresponsive",
+                        endpoint, ex);
+            } else {
+                log.info("catchUp: {} caught up and healed", endpoint);
+            }
+        });
+    }
+
+    /**
+     * Heals a server which was caught up, by removing it from the unresponsive servers
+     * of the latest layout.
+     *
+     * @param endpoint The server to heal.
+     */
+    private void healServer(String endpoint)
+            throws QuorumUnreachableException, OutrankedException, InterruptedException,
+            ExecutionException, CloneNotSupportedException {
+        runtime.invalidateLayout();
+        Layout currentLayout = (Layout) runtime.getLayoutView().getLayout().clone();
+        if (!currentLayout.getUnresponsiveServers().contains(endpoint)) {
+            return;
+        }
+        currentLayout.setRuntime(runtime);
+        Layout newLayout = new LayoutBuilder(currentLayout)
+                .removeUnResponsiveServers(Collections.singleton(endpoint))
+                .build();
+        newLayout.setRuntime(runtime);
+        newLayout.setEpoch(newLayout.getEpoch() + 1);
+        runLayoutReconfiguration(currentLayout, newLayout, false);
+    }
 
     /**
      * Bootstraps the new node with the current layout.
@@ -112,6 +241,10 @@ public class LayoutManagementView extends AbstractView {
 
     /**
      * Adds a new node to the existing layout.
+     * A new log unit serves the new segment right away, and is then caught up with the
+     * entries of the earlier segments by state transfer in the background. It only serves
+     * those segments once they are merged with the new one, which should wait for the
+     * returned future.
      *
      * @param currentLayout        Current layout.
      * @param endpoint             New endpoint to be added.
@@ -125,8 +258,10 @@ public class LayoutManagementView extends AbstractView {
      * @throws OutrankedException         if consensus outranked.
      * @throws InterruptedException       if fetching global tail interrupted.
      * @throws ExecutionException         if fetching global tail failed.
+     * @return A future which completes once the new log unit is caught up, or completes
+     *     exceptionally if the state transfer failed.
      */
-    public void addNode(Layout currentLayout,
+    public CompletableFuture<Void> addNode(Layout currentLayout,
                         String endpoint,
                         boolean isLayoutServer,
                         boolean isSequencerServer,
@@ -147,8 +282,8 @@ public class LayoutManagementView extends AbstractView {
             layoutBuilder.addSequencerServer(endpoint);
         }
         if (isLogUnitServer) {
-            layoutBuilder.addLogunitServer(logUnitStripeIndex, getMaxGlobalTail(currentLayout),
-                    endpoint);
+            layoutBuilder.addLogunitServer(logUnitStripeIndex,
+                    getMaxGlobalTail(currentLayout).get(), endpoint);
         }
         if (isUnresponsiveServer) {
             layoutBuilder.addUnresponsiveServers(Collections.singleton(endpoint));
@@ -159,14 +294,89 @@ public class LayoutManagementView extends AbstractView {
         attemptConsensus(newLayout);
 
         try {
+            CompletableFuture<SequencerTailsRecoveryMsg> sequencerTails =
+                    collectSequencerTails(currentLayout, newLayout, true);
             // Add node is successful even if reconfigure sequencer fails.
             // TODO: Optimize this by retrying or submitting a workflow to retry.
-            reconfigureSequencerServers(currentLayout, newLayout, true);
+            reconfigureSequencerServers(newLayout, sequencerTails);
         } catch (InterruptedException ie) {
             throw new UnrecoverableCorfuInterruptedError(ie);
         } catch (ExecutionException e) {
             log.debug("addNode: exception while adding", e);
         }
+
+        if (!isLogUnitServer) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // The new log unit only holds the entries of the new segment, transfer the entries
+        // of the segments before it.
+        CompletableFuture<Void> catchUp = CompletableFuture.runAsync(() ->
+                transferStripes(newLayout, endpoint, (segment, stripe) ->
+                        stripe == segment.getStripes().get(logUnitStripeIndex)
+                                && !stripe.getLogServers().contains(endpoint)),
+                stateTransferExecutor);
+        catchUp.whenComplete((v, ex) -> {
+            if (ex != null) {
+                runtime.getMetrics().counter(CorfuRuntime.getMpLM()
+                        + "catch-up-failures").inc();
+                log.error("addNode: Failed to catch up {}", endpoint, ex);
+            }
+        });
+        return catchUp;
+    }
+
+    /**
+     * Transfers the entries of the stripes of a layout selected by a predicate to a
+     * log unit.
+     *
+     * @param layout    The layout to transfer the stripes of.
+     * @param endpoint  The log unit to transfer to.
+     * @param selector  Selects the stripes of the segments to transfer.
+     */
+    private void transferStripes(Layout layout, String endpoint,
+                                 BiPredicate<Layout.LayoutSegment, Layout.LayoutStripe> selector) {
+        StateTransfer stateTransfer = new StateTransfer(runtime);
+        for (Layout.LayoutSegment segment : layout.getSegments()) {
+            for (Layout.LayoutStripe stripe : segment.getStripes()) {
+                if (selector.test(segment, stripe)) {
+                    transferStripe(stateTransfer, layout, segment, stripe, endpoint);
+                }
+            }
+        }
+    }
+
+    /**
+     * Transfers the entries of a stripe of a segment to a log unit, from another
+     * responsive log unit of the stripe.
+     *
+     * @param stateTransfer The state transfer to use.
+     * @param layout        The layout of the segment.
+     * @param segment       The segment to transfer.
+     * @param stripe        The stripe of the segment to transfer.
+     * @param endpoint      The log unit to transfer to.
+     */
+    private void transferStripe(StateTransfer stateTransfer, Layout layout,
+                                Layout.LayoutSegment segment, Layout.LayoutStripe stripe,
+                                String endpoint) {
+        Optional<String> source = stripe.getLogServers().stream()
+                .filter(s -> !s.equals(endpoint)
+                        && !layout.getUnresponsiveServers().contains(s))
+                .findFirst();
+        if (!source.isPresent()) {
+            throw new IllegalStateException("No log unit to transfer [" + segment.getStart()
+                    + ", " + segment.getEnd() + ") to " + endpoint + " from");
+        }
+
+        // The end of a segment is exclusive, and the last segment is open.
+        final long end = segment.getEnd() >= 0 ? segment.getEnd() - 1
+                : CFUtils.getUninterruptibly(runtime.getRouter(source.get())
+                        .getClient(LogUnitClient.class).getTail());
+        if (end >= segment.getStart()) {
+            log.info("transferStripe: Transferring [{}, {}] from {} to {}",
+                    segment.getStart(), end, source.get(), endpoint);
+            stateTransfer.transfer(source.get(), endpoint, segment.getStart(), end);
+        }
     }
 
     /**
@@ -195,7 +405,9 @@ public class LayoutManagementView extends AbstractView {
         attemptConsensus(newLayout);
 
         try {
-            reconfigureSequencerServers(currentLayout, newLayout, true);
+            CompletableFuture<SequencerTailsRecoveryMsg> sequencerTails =
+                    collectSequencerTails(currentLayout, newLayout, true);
+            reconfigureSequencerServers(newLayout, sequencerTails);
         } catch (InterruptedException ie) {
             throw new UnrecoverableCorfuInterruptedError(ie);
         } catch (ExecutionException e) {
@@ -207,8 +419,9 @@ public class LayoutManagementView extends AbstractView {
 
     /**
      * Runs the layout reconfiguration process.
-     * Seals the layout.
-     * Runs paxos.
+     * Seals the layout, sending the paxos prepare to each layout server as soon as it is
+     * sealed.
+     * Once sealed, collects the tails for the sequencer while paxos completes.
      * During paxos if in recovery mode, we increment rank until committed on same epoch.
      * If not in recovery, we fail with outrankedException.
      * The new committed layout is then verified by invalidating the runtime.
@@ -222,19 +435,60 @@ public class LayoutManagementView extends AbstractView {
                                           final boolean forceSequencerRecovery)
             throws QuorumUnreachableException, OutrankedException, InterruptedException,
             ExecutionException {
+        final MetricRegistry metrics = runtime.getMetrics();
+        try (Timer.Context reconfiguration = metrics.timer(CorfuRuntime.getMpLM()
+                + "reconfiguration").time()) {
+
+            // Seals the incremented epoch (Assumes newLayout epoch = currentLayout epoch + 1).
+            final Timer.Context seal = timeSeal();
+            currentLayout.setRuntime(runtime);
+            currentLayout.setEpoch(currentLayout.getEpoch() + 1);
+            Map<String, CompletableFuture<Boolean>> sealFutures =
+                    SealServersHelper.asyncSetRemoteEpoch(currentLayout);
+
+            // Phase 1 of paxos is pipelined behind the seal of each layout server.
+            final long rank = prepareRank;
+            CompletableFuture<Layout> prepared = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return runtime.getLayoutView().prepare(newLayout.getEpoch(), rank,
+                            sealFutures);
+                } catch (QuorumUnreachableException | OutrankedException e) {
+                    throw new CompletionException(e);
+                }
+            }, reconfigurationExecutor);
+
+            try {
+                SealServersHelper.waitForSeal(currentLayout, sealFutures);
+            } catch (QuorumUnreachableException | RuntimeException e) {
+                // Don't leave the prepare running behind a failed reconfiguration.
+                prepared.handle((layout, pe) -> null).join();
+                throw e;
+            } finally {
+                seal.stop();
+            }
 
-        // Seals the incremented epoch (Assumes newLayout epoch = currentLayout epoch + 1).
-        currentLayout.setRuntime(runtime);
-        sealEpoch(currentLayout);
-
-        attemptConsensus(newLayout);
+            // The log units are sealed, so their tails don't change anymore.
+            CompletableFuture<SequencerTailsRecoveryMsg> sequencerTails =
+                    collectSequencerTails(currentLayout, newLayout, forceSequencerRecovery);
+
+            try (Timer.Context consensus = metrics.timer(CorfuRuntime.getMpLM()
+                    + "consensus").time()) {
+                Layout alreadyProposedLayout = CFUtils.getUninterruptibly(prepared,
+                        OutrankedException.class, QuorumUnreachableException.class,
+                        WrongEpochException.class);
+                completeConsensus(newLayout, rank, alreadyProposedLayout);
+            } catch (OutrankedException oe) {
+                outranked(oe);
+                throw oe;
+            }
 
-        //TODO: Since sequencer reset is moved after paxos. Make sure the runtime has the latest
-        //TODO: layout view and latest client router epoch. (Use quorum layout fetch.)
-        //TODO: Handle condition if primary sequencer is not marked ready, reset fails.
-        // Reconfigure servers if required
-        // Primary sequencer would be in a not-ready state if its in recovery mode.
-        reconfigureSequencerServers(currentLayout, newLayout, forceSequencerRecovery);
+            //TODO: Since sequencer reset is moved after paxos. Make sure the runtime has the
+            //TODO: latest layout view and latest client router epoch. (Use quorum layout fetch.)
+            //TODO: Handle condition if primary sequencer is not marked ready, reset fails.
+            // Reconfigure servers if required
+            // Primary sequencer would be in a not-ready state if its in recovery mode.
+            reconfigureSequencerServers(newLayout, sequencerTails);
+        }
     }
 
     /**
@@ -243,8 +497,17 @@ public class LayoutManagementView extends AbstractView {
      * @param layout Layout to be sealed
      */
     private void sealEpoch(Layout layout) throws QuorumUnreachableException {
-        layout.setEpoch(layout.getEpoch() + 1);
-        layout.moveServersToEpoch();
+        try (Timer.Context seal = timeSeal()) {
+            layout.setEpoch(layout.getEpoch() + 1);
+            layout.moveServersToEpoch();
+        }
+    }
+
+    /**
+     * Starts timing the seal phase of a reconfiguration.
+     */
+    private Timer.Context timeSeal() {
+        return runtime.getMetrics().timer(CorfuRuntime.getMpLM() + "seal").time();
     }
 
     /**
@@ -256,19 +519,47 @@ public class LayoutManagementView extends AbstractView {
      */
     private void attemptConsensus(Layout layout)
             throws OutrankedException, QuorumUnreachableException {
-        // Attempts to update all the layout servers with the modified layout.
-        try {
+        try (Timer.Context consensus = runtime.getMetrics().timer(CorfuRuntime.getMpLM()
+                + "consensus").time()) {
+            // Attempts to update all the layout servers with the modified layout.
             runtime.getLayoutView().updateLayout(layout, prepareRank);
             prepareRank = 1L;
         } catch (OutrankedException oe) {
-            // Update rank since outranked.
-            log.error("Conflict in updating layout by failureHandlerDispatcher: {}", oe);
-            // Update rank to be able to outrank other competition and complete paxos.
-            prepareRank = oe.getNewRank() + 1;
+            outranked(oe);
             throw oe;
         }
+        verifyCommittedLayout(layout);
+    }
+
+    /**
+     * Completes consensus, once the prepare was accepted.
+     *
+     * @param layout                Layout to propose.
+     * @param rank                  Rank the prepare was accepted with.
+     * @param alreadyProposedLayout Layout returned by the prepare, if any.
+     * @throws OutrankedException         if consensus is outranked.
+     * @throws QuorumUnreachableException if consensus could not be achieved.
+     */
+    private void completeConsensus(Layout layout, long rank, Layout alreadyProposedLayout)
+            throws OutrankedException, QuorumUnreachableException {
+        runtime.getLayoutView().proposeAndCommit(layout, rank, alreadyProposedLayout);
+        prepareRank = 1L;
+        verifyCommittedLayout(layout);
+    }
+
+    /**
+     * Update rank to be able to outrank other competition and complete paxos.
+     */
+    private void outranked(OutrankedException oe) {
+        // Update rank since outranked.
+        log.error("Conflict in updating layout by failureHandlerDispatcher: {}", oe);
+        prepareRank = oe.getNewRank() + 1;
+    }
 
-        // Check if our proposed layout got selected and committed.
+    /**
+     * Check if our proposed layout got selected and committed.
+     */
+    private void verifyCommittedLayout(Layout layout) {
         runtime.invalidateLayout();
         if (runtime.getLayoutView().getLayout().equals(layout)) {
             log.info("New Layout Committed = {}", layout);
@@ -280,24 +571,23 @@ public class LayoutManagementView extends AbstractView {
 
     /**
      * Fetches the max global log tail from the log unit cluster. This depends on the mode of
-     * replication being used.
-     * CHAIN: Block on fetch of global log tail from the head log unitin every stripe.
-     * QUORUM: Block on fetch of global log tail from a majority in every stripe.
+     * replication being used. The tails of all the stripes are queried in parallel.
+     * CHAIN: Fetch the global log tail from the head log unit in every stripe.
+     * QUORUM: Fetch the global log tail from a majority in every stripe.
      *
      * @param layout Current layout.
-     * @return The max global log tail obtained from the log unit servers.
+     * @return A future of the max global log tail obtained from the log unit servers.
      */
-    private long getMaxGlobalTail(Layout layout)
-            throws ExecutionException, InterruptedException {
-        long maxTokenRequested = 0;
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Long> getMaxGlobalTail(Layout layout) {
+        List<CompletableFuture<Long>> stripeTails = new ArrayList<>();
         for (Layout.LayoutSegment segment : layout.getSegments()) {
 
             // Query the tail of every log unit in every stripe.
             if (segment.getReplicationMode().equals(Layout.ReplicationMode.CHAIN_REPLICATION)) {
                 for (Layout.LayoutStripe stripe : segment.getStripes()) {
-                    maxTokenRequested = Math.max(maxTokenRequested, runtime.getRouter(stripe
-                            .getLogServers().get(0))
-                            .getClient(LogUnitClient.class).getTail().get());
+                    stripeTails.add(runtime.getRouter(stripe.getLogServers().get(0))
+                            .getClient(LogUnitClient.class).getTail());
                 }
             } else if (segment.getReplicationMode()
                     .equals(Layout.ReplicationMode.QUORUM_REPLICATION)) {
@@ -310,59 +600,145 @@ public class LayoutManagementView extends AbstractView {
                     QuorumFuturesFactory.CompositeFuture<Long> quorumFuture =
                             QuorumFuturesFactory.getQuorumFuture(Comparator.naturalOrder(),
                                     completableFutures);
-                    maxTokenRequested = Math.max(maxTokenRequested, quorumFuture.get());
+                    stripeTails.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return quorumFuture.get();
+                        } catch (InterruptedException ie) {
+                            throw new UnrecoverableCorfuInterruptedError(ie);
+                        } catch (ExecutionException e) {
+                            throw new CompletionException(e.getCause());
+                        }
+                    }, reconfigurationExecutor));
                 }
             }
         }
-        return maxTokenRequested;
+        return CompletableFuture.allOf(stripeTails.toArray(new CompletableFuture[0]))
+                .thenApply(v -> stripeTails.stream()
+                        .mapToLong(CompletableFuture::join)
+                        .reduce(0L, Math::max));
     }
 
     /**
-     * Reconfigures the sequencer.
+     * Collects the tails to bootstrap the primary sequencer of a new layout with.
      * If the primary sequencer has changed in the new layout,
-     * the global tail of the log units are queried and used to set
-     * the initial token of the new primary sequencer.
+     * the global tail and the stream tails of the log units are queried in parallel, and
+     * used to set the initial tokens of the new primary sequencer. Otherwise, the sequencer
+     * keeps its state.
      *
      * @param originalLayout   Current layout to get the latest state of servers.
      * @param newLayout        New Layout to be reconfigured.
      * @param forceReconfigure Flag to force reconfiguration.
+     * @return A future of the bootstrap message of the sequencer. Its stream tails are null
+     *     if the log units can't provide them, in which case they must be recovered from
+     *     the log.
      */
-    private void reconfigureSequencerServers(Layout originalLayout, Layout
-            newLayout, boolean forceReconfigure)
-            throws InterruptedException, ExecutionException {
-
-        long maxTokenRequested = 0L;
-        Map<UUID, Long> streamTails = Collections.emptyMap();
-
-        // Reconfigure Primary Sequencer if required
-        if (forceReconfigure
-                || !originalLayout.getSequencers().get(0).equals(newLayout.getSequencers()
+    private CompletableFuture<SequencerTailsRecoveryMsg> collectSequencerTails(
+            Layout originalLayout, Layout newLayout, boolean forceReconfigure) {
+        if (!forceReconfigure
+                && originalLayout.getSequencers().get(0).equals(newLayout.getSequencers()
                 .get(0))) {
-            maxTokenRequested = getMaxGlobalTail(originalLayout);
+            return CompletableFuture.completedFuture(new SequencerTailsRecoveryMsg(0L,
+                    Collections.emptyMap(), newLayout.getEpoch()));
+        }
 
-            FastObjectLoader fastObjectLoader = new FastObjectLoader(runtime);
-            fastObjectLoader.setRecoverSequencerMode(true);
-            fastObjectLoader.setLoadInCache(false);
+        final Timer.Context tailCollection = runtime.getMetrics()
+                .timer(CorfuRuntime.getMpLM() + "tail-collection").time();
+        CompletableFuture<Map<UUID, Long>> streamTails = getStreamTails(newLayout)
+                .handle((tails, e) -> {
+                    if (e != null) {
+                        log.warn("collectSequencerTails: Couldn't fetch the stream tails "
+                                + "from the log units, recovering them from the log.", e);
+                        return null;
+                    }
+                    return tails;
+                });
+        return getMaxGlobalTail(originalLayout)
+                .thenCombine(streamTails, (globalTail, tails) ->
+                        // Incrementing the maxTokenRequested value for sequencer reset.
+                        new SequencerTailsRecoveryMsg(globalTail + 1, tails,
+                                newLayout.getEpoch()))
+                .whenComplete((msg, e) -> tailCollection.stop());
+    }
 
-            // FastSMRLoader sets the logHead based on trim mark.
-            fastObjectLoader.setLogTail(maxTokenRequested);
-            fastObjectLoader.loadMaps();
-            streamTails = fastObjectLoader.getStreamTails();
+    /**
+     * Reconfigures the sequencer, bootstrapping the primary sequencer of the new layout
+     * with the collected tails. If the log units couldn't provide the stream tails, they
+     * are recovered by scanning the log.
+     *
+     * @param newLayout      New Layout to be reconfigured.
+     * @param sequencerTails The bootstrap message of the sequencer, being collected.
+     */
+    private void reconfigureSequencerServers(Layout newLayout,
+            CompletableFuture<SequencerTailsRecoveryMsg> sequencerTails)
+            throws InterruptedException, ExecutionException {
+        SequencerTailsRecoveryMsg msg = sequencerTails.get();
+
+        try (Timer.Context bootstrap = runtime.getMetrics().timer(CorfuRuntime.getMpLM()
+                + "sequencer-bootstrap").time()) {
+            Map<UUID, Long> streamTails = msg.getStreamTails();
+            if (streamTails == null) {
+                streamTails = recoverStreamTails(msg.getGlobalTail() - 1);
+            }
             verifyStreamTailsMap(streamTails);
 
-            // Incrementing the maxTokenRequested value for sequencer reset.
-            maxTokenRequested++;
+            // Configuring the new sequencer.
+            boolean sequencerBootstrapResult = newLayout.getSequencer(0)
+                    .bootstrap(msg.getGlobalTail(), streamTails, msg.getReadyStateEpoch())
+                    .get();
+            if (sequencerBootstrapResult) {
+                log.info("Sequencer bootstrap successful.");
+            } else {
+                log.warn("Sequencer bootstrap failed. Already bootstrapped.");
+            }
         }
+    }
 
-        // Configuring the new sequencer.
-        boolean sequencerBootstrapResult = newLayout.getSequencer(0)
-                .bootstrap(maxTokenRequested, streamTails, newLayout.getEpoch()).get();
-        if (sequencerBootstrapResult) {
-            log.info("Sequencer bootstrap successful.");
-        } else {
-            log.warn("Sequencer bootstrap failed. Already bootstrapped.");
+    /**
+     * Fetches the stream tails from every responsive log unit in the layout, which track
+     * them as they are written to, and merges them.
+     *
+     * @param layout Layout of the log units to query.
+     * @return The greatest address written to each stream.
+     */
+    private CompletableFuture<Map<UUID, Long>> getStreamTails(Layout layout) {
+        Set<String> logServers = new HashSet<>();
+        for (Layout.LayoutSegment segment : layout.getSegments()) {
+            for (Layout.LayoutStripe stripe : segment.getStripes()) {
+                logServers.addAll(stripe.getLogServers());
+            }
         }
+        logServers.removeAll(layout.getUnresponsiveServers());
+
+        List<CompletableFuture<Map<UUID, Long>>> futures = logServers.stream()
+                .map(s -> runtime.getRouter(s).getClient(LogUnitClient.class).getStreamTails())
+                .collect(Collectors.toList());
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> {
+                    Map<UUID, Long> streamTails = new HashMap<>();
+                    for (CompletableFuture<Map<UUID, Long>> future : futures) {
+                        future.join().forEach((streamId, tail) -> streamTails.merge(streamId,
+                                tail, Math::max));
+                    }
+                    return streamTails;
+                });
+    }
 
+    /**
+     * Recovers the stream tails by scanning the log up to the global tail.
+     *
+     * @param logTail The global log tail.
+     * @return The greatest address written to each stream.
+     */
+    private Map<UUID, Long> recoverStreamTails(long logTail) {
+        FastObjectLoader fastObjectLoader = new FastObjectLoader(runtime);
+        fastObjectLoader.setRecoverSequencerMode(true);
+        fastObjectLoader.setLoadInCache(false);
+
+        // FastSMRLoader sets the logHead based on trim mark.
+        fastObjectLoader.setLogTail(logTail);
+        fastObjectLoader.loadMaps();
+        return fastObjectLoader.getStreamTails();
     }
 
     /**
@@ -3,12 +3,16 @@ package org.corfudb.runtime.view;
 import static java.util.Arrays.stream;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -70,14 +74,29 @@ public class LayoutView extends AbstractView {
             throws QuorumUnreachableException, OutrankedException, WrongEpochException {
         // Note this step is done because we have added the layout to the Epoch.
         long epoch = layout.getEpoch();
-        Layout currentLayout = getLayout();
-        if (currentLayout.getEpoch() != epoch - 1) {
-            log.error("Runtime layout has epoch {} but expected {} to move to epoch {}",
-                    currentLayout.getEpoch(), epoch - 1, epoch);
-            throw new WrongEpochException(epoch - 1);
-        }
+        checkNextEpoch(epoch);
         //phase 1: prepare with a given rank.
         Layout alreadyProposedLayout = prepare(epoch, rank);
+        proposeAndCommit(layout, rank, alreadyProposedLayout);
+    }
+
+    /**
+     * Drives the phases of the consensus protocol which follow a successful prepare.
+     *
+     * @param layout                The layout to propose.
+     * @param rank                  The rank the prepare was accepted with.
+     * @param alreadyProposedLayout The layout with the highest rank returned by the prepare,
+     *                              which is proposed instead, or null if there is none.
+     *
+     * @throws QuorumUnreachableException Thrown if responses not received from a majority of
+     *                                    layout servers.
+     * @throws OutrankedException outranked exception, i.e., higher rank.
+     * @throws WrongEpochException wrong epoch number.
+     */
+    public void proposeAndCommit(Layout layout, long rank, @Nullable Layout alreadyProposedLayout)
+            throws QuorumUnreachableException, OutrankedException, WrongEpochException {
+        long epoch = layout.getEpoch();
+        checkNextEpoch(epoch);
         Layout layoutToPropose = alreadyProposedLayout != null ? alreadyProposedLayout : layout;
         // For some reason, the alreadyProposedLayout sometimes doesn't have a runtime
         // we need to remove runtime from the layout, but for now, let's manually take
@@ -89,6 +108,18 @@ public class LayoutView extends AbstractView {
         committed(epoch, layoutToPropose);
     }
 
+    /**
+     * Checks that the runtime layout precedes the epoch to move to.
+     */
+    private void checkNextEpoch(long epoch) throws WrongEpochException {
+        Layout currentLayout = getLayout();
+        if (currentLayout.getEpoch() != epoch - 1) {
+            log.error("Runtime layout has epoch {} but expected {} to move to epoch {}",
+                    currentLayout.getEpoch(), epoch - 1, epoch);
+            throw new WrongEpochException(epoch - 1);
+        }
+    }
+
     /**
      * Sends prepare to the current layout and can proceed only if it is accepted by a quorum.
      *
@@ -99,23 +130,54 @@ public class LayoutView extends AbstractView {
      * @throws OutrankedException outranked exception, i.e., higher rank.
      * @throws WrongEpochException wrong epoch number.
      */
-    @SuppressWarnings("unchecked")
     public Layout prepare(long epoch, long rank)
             throws QuorumUnreachableException, OutrankedException, WrongEpochException {
+        return prepare(epoch, rank, Collections.emptyMap());
+    }
+
+    /**
+     * Sends prepare to the current layout and can proceed only if it is accepted by a quorum.
+     * The prepare is sent to each layout server as soon as it was sealed, so that the prepare
+     * doesn't wait for the whole seal to complete.
+     *
+     * @param rank        The rank for the proposed layout.
+     * @param sealFutures The seals of the servers in the epoch, by server. The prepare is sent
+     *                    to a server once its seal succeeded, and fails with the error of
+     *                    the seal otherwise, so that a server which isn't sealed is never
+     *                    left with a prepare.
+     * @return layout
+     * @throws QuorumUnreachableException Thrown if responses not received from a majority of
+     *                                    layout servers.
+     * @throws OutrankedException outranked exception, i.e., higher rank.
+     * @throws WrongEpochException wrong epoch number.
+     */
+    @SuppressWarnings("unchecked")
+    public Layout prepare(long epoch, long rank,
+                          Map<String, CompletableFuture<Boolean>> sealFutures)
+            throws QuorumUnreachableException, OutrankedException, WrongEpochException {
 
         CompletableFuture<LayoutPrepareResponse>[] prepareList = getLayout().getLayoutServers()
                 .stream()
                 .map(x -> {
-                    CompletableFuture<LayoutPrepareResponse> cf = new CompletableFuture<>();
-                    try {
-                        // Connection to router can cause network exception too.
-                        LayoutClient layoutClient = runtime.getRouter(x)
-                                .getClient(LayoutClient.class);
-                        cf = layoutClient.prepare(epoch, rank);
-                    } catch (Exception e) {
-                        cf.completeExceptionally(e);
-                    }
-                    return cf;
+                    CompletableFuture<Boolean> seal = sealFutures.getOrDefault(x,
+                            CompletableFuture.completedFuture(true));
+                    return seal.handle((sealed, e) -> e).thenCompose(sealError -> {
+                        CompletableFuture<LayoutPrepareResponse> cf = new CompletableFuture<>();
+                        if (sealError != null) {
+                            cf.completeExceptionally(sealError instanceof CompletionException
+                                    ? sealError.getCause() : sealError);
+                            return cf;
+                        }
+                        try {
+                            // Connection to router can cause network exception too.
+                            LayoutClient layoutClient = runtime.getRouter(x)
+                                    .getClient(LayoutClient.class);
+                            cf = layoutClient.prepare(epoch, rank);
+                        } catch (Exception e) {
+                            cf.completeExceptionally(e);
+                        }
+                        return cf;
+                    });
                 })
                 .toArray(CompletableFuture[]::new);
         LayoutPrepareResponse[] acceptList;
@@ -100,8 +100,8 @@ public class ObjectBuilder<T> implements IObjectBuilder<T> {
 
         try {
             if (options.contains(ObjectOpenOptions.NO_CACHE)) {
-                return CorfuCompileWrapperBuilder.getWrapper(type, runtime, streamID,
-                        arguments, serializer);
+                return applyOptions(CorfuCompileWrapperBuilder.getWrapper(type, runtime,
+                        streamID, arguments, serializer));
             } else {
                 ObjectsView.ObjectID<T> oid = new ObjectsView.ObjectID(streamID, type);
                 T result = (T) runtime.getObjectsView().objectCache.computeIfAbsent(oid, x -> {
@@ -142,7 +142,7 @@ public class ObjectBuilder<T> implements IObjectBuilder<T> {
                             oid,
                             objectSerializer.getClass().getSimpleName());
                 }
-                return result;
+                return applyOptions(result);
             }
         } catch (Exception ex) {
             log.error("Runtime instrumentation no longer supported and no compiled class found"
@@ -151,5 +151,13 @@ public class ObjectBuilder<T> implements IObjectBuilder<T> {
         }
     }
 
-
+    private T applyOptions(T object) {
+        if (options.contains(ObjectOpenOptions.BATCH_WRITES)) {
+            ((CorfuCompileProxy) ((ICorfuSMR) object).getCorfuSMRProxy()).setBatchWrites(true);
+        }
+        if (options.contains(ObjectOpenOptions.FOLLOW)) {
+            runtime.getObjectsView().follow(object);
+        }
+        return object;
+    }
 }
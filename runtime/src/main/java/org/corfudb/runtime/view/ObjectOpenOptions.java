@@ -5,5 +5,9 @@ package org.corfudb.runtime.view;
  */
 public enum ObjectOpenOptions {
     NO_CACHE,
-    CREATE_ONLY
+    CREATE_ONLY,
+    /** Keep the object up to date with its stream in the background. */
+    FOLLOW,
+    /** Batch the updates made outside of transactions with concurrent updates. */
+    BATCH_WRITES
 }
@@ -22,6 +22,9 @@ import org.corfudb.runtime.exceptions.NetworkException;
 import org.corfudb.runtime.exceptions.TransactionAbortedException;
 import org.corfudb.runtime.object.CorfuCompileWrapperBuilder;
 import org.corfudb.runtime.object.ICorfuSMR;
+import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
+import org.corfudb.runtime.object.ObjectFollower;
+import org.corfudb.runtime.object.WriteBatcher;
 import org.corfudb.runtime.object.transactions.AbstractTransactionalContext;
 import org.corfudb.runtime.object.transactions.TransactionBuilder;
 import org.corfudb.runtime.object.transactions.TransactionType;
@@ -50,6 +53,17 @@ public class ObjectsView extends AbstractView {
     @Getter
     Map<ObjectID, Object> objectCache = new ConcurrentHashMap<>();
 
+    /**
+     * Keeps the followed objects up to date, created when the first object is followed.
+     */
+    private volatile ObjectFollower objectFollower;
+
+    /**
+     * Batches the updates made outside of transactions, created when the first update
+     * is batched.
+     */
+    private volatile WriteBatcher writeBatcher;
+
     public ObjectsView(@Nonnull final CorfuRuntime runtime) {
         super(runtime);
     }
@@ -238,6 +252,84 @@ public class ObjectsView extends AbstractView {
                 .forEach(x -> x.getCorfuSMRProxy().sync());
     }
 
+    /** Given a Corfu object, keeps the object up to date with its stream in the background,
+     * so that accessing it doesn't have to replay the updates written since the last access.
+     * If the object is not a Corfu object, this function won't do anything.
+     * @param object    The Corfu object to follow.
+     */
+    public void follow(Object object) {
+        if (object instanceof ICorfuSMR<?>) {
+            getObjectFollower().follow((ICorfuSMRProxyInternal<?>)
+                    ((ICorfuSMR<?>) object).getCorfuSMRProxy());
+        }
+    }
+
+    /** Given a Corfu object, stops keeping the object up to date in the background.
+     * @param object    The Corfu object to stop following.
+     */
+    public void unfollow(Object object) {
+        ObjectFollower follower = objectFollower;
+        if (follower != null && object instanceof ICorfuSMR<?>) {
+            follower.unfollow(((ICorfuSMR<?>) object).getCorfuStreamID());
+        }
+    }
+
+    /** Given a Corfu object, gets how far behind its stream the object is.
+     * @param object    The followed Corfu object.
+     * @return  The number of addresses the object is behind the tail of its stream,
+     *          or zero if the object is not followed.
+     */
+    public long getFollowerLag(Object object) {
+        ObjectFollower follower = objectFollower;
+        if (follower == null || !(object instanceof ICorfuSMR<?>)) {
+            return 0L;
+        }
+        return follower.getLag(((ICorfuSMR<?>) object).getCorfuStreamID());
+    }
+
+    /** Stops keeping all the followed objects up to date.
+     */
+    public synchronized void stopFollowing() {
+        if (objectFollower != null) {
+            objectFollower.shutdown();
+            objectFollower = null;
+        }
+    }
+
+    private synchronized ObjectFollower getObjectFollower() {
+        if (objectFollower == null) {
+            objectFollower = new ObjectFollower(runtime);
+        }
+        return objectFollower;
+    }
+
+    /** Get the batcher which groups the updates made outside of transactions into
+     * shared log entries.
+     * @return          The write batcher of the runtime.
+     */
+    public WriteBatcher getWriteBatcher() {
+        WriteBatcher batcher = writeBatcher;
+        if (batcher == null) {
+            synchronized (this) {
+                batcher = writeBatcher;
+                if (batcher == null) {
+                    batcher = new WriteBatcher(runtime);
+                    writeBatcher = batcher;
+                }
+            }
+        }
+        return batcher;
+    }
+
+    /** Stops batching updates. The updates waiting for a batch fail.
+     */
+    public synchronized void stopBatchingWrites() {
+        if (writeBatcher != null) {
+            writeBatcher.shutdown();
+            writeBatcher = null;
+        }
+    }
+
     @Data
     @SuppressWarnings({"checkstyle:abbreviation"})
     public static class ObjectID<T> {
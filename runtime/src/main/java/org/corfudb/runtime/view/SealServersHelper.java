@@ -47,6 +47,27 @@ public class SealServersHelper {
         return resultMap;
     }
 
+    /**
+     * Wait for enough servers of a layout to respond to be sealed: a quorum of the layout
+     * servers, and the log unit servers required by the replication mode of each segment.
+     *
+     * @param layout               Layout being sealed.
+     * @param completableFutureMap A map of completableFutures for every remoteSetEpoch call.
+     * @throws QuorumUnreachableException Thrown if not enough servers responded.
+     */
+    public static void waitForSeal(Layout layout, Map<String, CompletableFuture<Boolean>>
+            completableFutureMap) throws QuorumUnreachableException {
+        // Validate if we received enough layout server responses.
+        waitForLayoutSeal(layout.getLayoutServers(), completableFutureMap);
+        // Validate if we received enough log unit server responses depending on the
+        // replication mode.
+        for (Layout.LayoutSegment layoutSegment : layout.getSegments()) {
+            layoutSegment.getReplicationMode().validateSegmentSeal(layoutSegment,
+                    completableFutureMap);
+        }
+        log.debug("Layout has been sealed successfully.");
+    }
+
     /**
      * Wait for a quorum of layout servers to respond to be sealed.
      *
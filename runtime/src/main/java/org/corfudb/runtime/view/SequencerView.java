@@ -1,24 +1,166 @@
 package org.corfudb.runtime.view;
 
+import java.util.Collections;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import org.corfudb.protocols.wireprotocol.IToken;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.exceptions.ServerNotReadyException;
+import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.util.CFUtils;
 
 
 /**
  * Created by mwei on 12/10/15.
  */
-
+@Slf4j
 public class SequencerView extends AbstractView {
 
+    /** A global tail, along with the time the query which obtained it was issued. */
+    @Data
+    private static class TimestampedTail {
+        final long tail;
+        final long queryNanos;
+    }
+
+    /** The continuity of the sequencer state, as reported in an epoch. */
+    @Data
+    private static class Continuity {
+        final long layoutEpoch;
+        final long continuousSinceEpoch;
+    }
+
+    /** A query for the global tail, shared by all the requests which join it. */
+    private static class TailQuery {
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+        final AtomicBoolean issued = new AtomicBoolean();
+    }
+
+    /** The most recently obtained global tail, or null, if no tail was obtained yet. */
+    private volatile TimestampedTail lastTail = null;
+
+    /** Guards the query in flight and the next query. */
+    private final Object tailQueryLock = new Object();
+
+    /** The query for the global tail in flight, or null, if there is none. */
+    private TailQuery tailQueryInFlight = null;
+
+    /** The query shared by the requests which arrived while a query was in flight,
+     * issued once that query completes, or null, if there is none.
+     */
+    private TailQuery nextTailQuery = null;
+
+    /** The continuity of the sequencer state in the latest epoch it was queried in,
+     * or null, if it was never queried.
+     */
+    private volatile Continuity continuity = null;
+
     public SequencerView(CorfuRuntime runtime) {
         super(runtime);
     }
 
+    /**
+     * Return the global tail, querying the sequencer only if the last tail obtained
+     * is older than the given staleness bound.
+     *
+     * <p>A tail is considered as old as the query which obtained it, so a tail obtained
+     * within the bound reflects every write completed more than the bound ago. With a
+     * bound of zero, the tail reflects every write completed before this call.</p>
+     *
+     * @param maxStalenessMs The maximum age, in milliseconds, of a tail which may be reused.
+     * @return The global tail.
+     */
+    public long getGlobalTail(long maxStalenessMs) {
+        final TimestampedTail cached = lastTail;
+        if (maxStalenessMs > 0 && cached != null
+                && System.nanoTime() - cached.getQueryNanos()
+                <= TimeUnit.MILLISECONDS.toNanos(maxStalenessMs)) {
+            return cached.getTail();
+        }
+        return queryGlobalTail();
+    }
+
+    /**
+     * Query the sequencer for the global tail, sharing the query with concurrent callers.
+     *
+     * <p>Only one query is in flight at a time. Callers which arrive while a query is in
+     * flight cannot use its result, since it may have been issued before their own writes
+     * completed, so they all wait for it and then share a single query issued after it.</p>
+     *
+     * @return The global tail.
+     */
+    public long queryGlobalTail() {
+        final TailQuery query;
+        TailQuery previous = null;
+        synchronized (tailQueryLock) {
+            if (tailQueryInFlight == null) {
+                tailQueryInFlight = new TailQuery();
+                query = tailQueryInFlight;
+            } else {
+                if (nextTailQuery == null) {
+                    nextTailQuery = new TailQuery();
+                }
+                query = nextTailQuery;
+                previous = tailQueryInFlight;
+            }
+        }
+
+        if (previous != null) {
+            // Our query is promoted to be in flight once the previous one completes,
+            // regardless of its outcome.
+            previous.result.handle((r, e) -> null).join();
+        }
+
+        if (query.issued.compareAndSet(false, true)) {
+            issueTailQuery(query);
+        }
+        return CFUtils.getUninterruptibly(query.result);
+    }
+
+    /**
+     * Issue a query for the global tail, and complete it with the result.
+     *
+     * @param query The query to issue.
+     */
+    private void issueTailQuery(TailQuery query) {
+        final long queryNanos = System.nanoTime();
+        long tail = Address.NON_ADDRESS;
+        Throwable failure = null;
+        try {
+            tail = nextToken(Collections.emptySet(), 0).getToken().getTokenValue();
+            final TimestampedTail cached = lastTail;
+            if (cached == null || cached.getQueryNanos() - queryNanos < 0) {
+                lastTail = new TimestampedTail(tail, queryNanos);
+            }
+            log.trace("queryGlobalTail: tail={}", tail);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+
+        // The next query must be in flight before this one completes, since completing
+        // this one lets the next one be issued. Otherwise, a caller arriving in between
+        // would still see this query in flight, and join the next one after it was issued.
+        synchronized (tailQueryLock) {
+            tailQueryInFlight = nextTailQuery;
+            nextTailQuery = null;
+        }
+
+        if (failure == null) {
+            query.result.complete(tail);
+        } else {
+            query.result.completeExceptionally(failure);
+        }
+    }
+
     /**
      * Return the next token in the sequencer for a particular stream.
      *
@@ -42,6 +184,51 @@ public class SequencerView extends AbstractView {
                 streamIDs, numTokens, conflictInfo)));
     }
 
+    /**
+     * Check whether a token can be used to write in the epoch of a layout.
+     *
+     * <p>A token issued in an earlier epoch remains valid if the sequencer of the layout
+     * has kept its state since that epoch, for example when the layout only changed
+     * because an unrelated server failed. The token was then not issued again, and the
+     * conflicts it was checked against are still tracked, so it can be written as is
+     * instead of aborting the transaction it belongs to. The sequencer is queried once
+     * per epoch.</p>
+     *
+     * @param token  The token to check.
+     * @param layout The layout to write in.
+     * @return True, if the token can be used in the epoch of the layout.
+     */
+    public boolean isTokenValid(IToken token, Layout layout) {
+        if (token.getEpoch() == layout.getEpoch()) {
+            return true;
+        } else if (token.getEpoch() > layout.getEpoch()) {
+            return false;
+        }
+
+        Continuity current = continuity;
+        if (current == null || current.getLayoutEpoch() != layout.getEpoch()) {
+            try {
+                current = new Continuity(layout.getEpoch(), CFUtils.getUninterruptibly(
+                        layout.getSequencer(0).getContinuousSinceEpoch()));
+            } catch (WrongEpochException | ServerNotReadyException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.warn("isTokenValid: Couldn't query the continuity of the sequencer", e);
+                return false;
+            }
+            continuity = current;
+        }
+
+        final boolean valid = current.getContinuousSinceEpoch() >= 0
+                && current.getContinuousSinceEpoch() <= token.getEpoch();
+        if (valid) {
+            runtime.getMetrics().counter(CorfuRuntime.getMpASV() + "carried-over-tokens").inc();
+        }
+        log.debug("isTokenValid: Token {} of epoch {} valid in epoch {}: {}",
+                token.getTokenValue(), token.getEpoch(), layout.getEpoch(), valid);
+        return valid;
+    }
+
     public void trimCache(long address) {
         getCurrentLayout().getSequencer(0).trimCache(address);
     }
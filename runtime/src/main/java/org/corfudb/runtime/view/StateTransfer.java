@@ -0,0 +1,229 @@
+package org.corfudb.runtime.view;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.Range;
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.ReadHint;
+import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.SegmentFileType;
+import org.corfudb.protocols.wireprotocol.SegmentInfo;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.clients.LogUnitClient;
+import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.util.CFUtils;
+
+/**
+ * Transfers the entries of a range of addresses from one log unit to another, for
+ * example to catch up a log unit which was added to the layout.
+ *
+ * <p>Sealed segments are copied as they are, file by file, in chunks which are
+ * verified by the destination as they arrive, and installed once complete. The
+ * segment which is still open on the source, and any segment which cannot be copied
+ * as a whole, are transferred record by record.
+ */
+@Slf4j
+public class StateTransfer {
+
+    /** The number of times a segment is copied again if it changes during the copy. */
+    static final int SEGMENT_COPY_RETRIES = 3;
+
+    /** The number of addresses transferred by each read of the record transfer. */
+    static final int RECORD_BATCH_SIZE = 100;
+
+    private final CorfuRuntime runtime;
+
+    /** Limits the bytes of segment files copied per second, or null for no limit. */
+    private final RateLimiter rateLimiter;
+
+    private final Counter bytesTransferred;
+    private final Counter segmentsTransferred;
+    private final Counter recordsTransferred;
+
+    /**
+     * Returns a state transfer which uses a runtime to relay the transfer.
+     *
+     * @param runtime the runtime to connect to the log units with
+     */
+    public StateTransfer(@NonNull CorfuRuntime runtime) {
+        this.runtime = runtime;
+        final long maxBytesPerSecond = runtime.getParameters().getStateTransferMaxBytesPerSecond();
+        this.rateLimiter = maxBytesPerSecond > 0 ? RateLimiter.create(maxBytesPerSecond) : null;
+
+        MetricRegistry metrics = runtime.getMetrics();
+        this.bytesTransferred = metrics.counter(CorfuRuntime.getMpST() + "bytes");
+        this.segmentsTransferred = metrics.counter(CorfuRuntime.getMpST() + "segments");
+        this.recordsTransferred = metrics.counter(CorfuRuntime.getMpST() + "records");
+    }
+
+    /**
+     * Transfer the entries of a range of addresses from one log unit to another. The
+     * destination is first trimmed up to the trim mark of the source.
+     *
+     * @param source      the endpoint of the log unit to transfer from
+     * @param destination the endpoint of the log unit to transfer to
+     * @param from        the first address to transfer
+     * @param to          the last address to transfer
+     */
+    public void transfer(@NonNull String source, @NonNull String destination, long from,
+                         long to) {
+        LogUnitClient src = runtime.getRouter(source).getClient(LogUnitClient.class);
+        LogUnitClient dst = runtime.getRouter(destination).getClient(LogUnitClient.class);
+
+        final long trimMark = CFUtils.getUninterruptibly(src.getTrimMark());
+        if (trimMark > 0) {
+            CFUtils.getUninterruptibly(dst.prefixTrim(trimMark - 1));
+        }
+
+        // Whole segments are only transferred if both log units are segmented.
+        SegmentInfo segments = null;
+        try {
+            segments = CFUtils.getUninterruptibly(src.getSegmentInfo());
+            CFUtils.getUninterruptibly(dst.getSegmentInfo());
+        } catch (UnsupportedOperationException e) {
+            log.info("transfer: {} or {} can't transfer segments, transferring records "
+                    + "instead", source, destination);
+            segments = null;
+        }
+
+        log.info("transfer: Transferring [{}, {}] from {} to {}", Math.max(from, trimMark), to,
+                source, destination);
+        long address = Math.max(from, trimMark);
+        while (address <= to) {
+            final long recordsPerSegment = segments == null
+                    ? RECORD_BATCH_SIZE : segments.getRecordsPerSegment();
+            final long segment = address / recordsPerSegment;
+            final long segmentEnd = (segment + 1) * recordsPerSegment - 1;
+
+            if (segments != null
+                    && segment < segments.getTailSegment()
+                    && address == segment * recordsPerSegment
+                    && segmentEnd <= to
+                    && transferSegment(src, dst, segment)) {
+                address = segmentEnd + 1;
+                continue;
+            }
+
+            final long end = Math.min(to, segmentEnd);
+            transferRecords(src, dst, address, end);
+            address = end + 1;
+        }
+    }
+
+    /**
+     * Copy the files of a sealed segment, and install them on the destination.
+     *
+     * @return true if the segment was installed, or false if it must be transferred
+     *     record by record
+     */
+    private boolean transferSegment(LogUnitClient src, LogUnitClient dst, long segment) {
+        final int chunkSize = runtime.getParameters().getStateTransferChunkSize();
+        try {
+            for (int attempt = 0; attempt <= SEGMENT_COPY_RETRIES; attempt++) {
+                if (!copySegmentFiles(src, dst, segment, chunkSize)) {
+                    log.debug("transferSegment: Segment {} changed during the copy, "
+                            + "attempt {}", segment, attempt);
+                    continue;
+                }
+                CFUtils.getUninterruptibly(dst.installSegment(segment));
+                segmentsTransferred.inc();
+                return true;
+            }
+            log.warn("transferSegment: Segment {} kept changing during the copy", segment);
+        } catch (RuntimeException e) {
+            log.warn("transferSegment: Failed to transfer segment {}", segment, e);
+        }
+        return false;
+    }
+
+    /**
+     * Copy each file of a segment in chunks.
+     *
+     * @return true if the files were copied, or false if a file changed during the copy
+     */
+    private boolean copySegmentFiles(LogUnitClient src, LogUnitClient dst, long segment,
+                                     int chunkSize) {
+        for (SegmentFileType type : SegmentFileType.values()) {
+            long offset = 0L;
+            long fileLength = -1L;
+            do {
+                SegmentChunk chunk = CFUtils.getUninterruptibly(
+                        src.readSegmentChunk(segment, type, offset, chunkSize));
+                if (fileLength >= 0 && chunk.getFileLength() != fileLength) {
+                    return false;
+                }
+                fileLength = chunk.getFileLength();
+                if (type == SegmentFileType.LOG && fileLength == 0) {
+                    throw new IllegalStateException("Segment " + segment + " has no log file");
+                }
+
+                final int length = chunk.getData().length;
+                if (rateLimiter != null && length > 0) {
+                    rateLimiter.acquire(length);
+                }
+                // The first chunk is always written, so the file is created even if empty.
+                CFUtils.getUninterruptibly(dst.writeSegmentChunk(chunk));
+                bytesTransferred.inc(length);
+                offset += length;
+            } while (offset < fileLength);
+        }
+        return true;
+    }
+
+    /**
+     * Transfer a range of addresses record by record, skipping addresses which are
+     * unwritten or trimmed on the source.
+     */
+    private void transferRecords(LogUnitClient src, LogUnitClient dst, long start, long end) {
+        for (long batchStart = start; batchStart <= end; batchStart += RECORD_BATCH_SIZE) {
+            final long batchEnd = Math.min(end, batchStart + RECORD_BATCH_SIZE - 1);
+            ReadResponse response = CFUtils.getUninterruptibly(
+                    src.read(Range.closed(batchStart, batchEnd), ReadHint.SEQUENTIAL));
+
+            List<LogData> run = new ArrayList<>();
+            for (long address = batchStart; address <= batchEnd; address++) {
+                LogData entry = response.getAddresses().get(address);
+                if (entry == null || entry.isEmpty() || entry.isTrimmed()) {
+                    writeRecords(dst, run);
+                    run = new ArrayList<>();
+                } else {
+                    run.add(entry);
+                }
+            }
+            writeRecords(dst, run);
+        }
+    }
+
+    /**
+     * Write a run of consecutive entries. If some of them were already written, write
+     * each of the others on its own.
+     */
+    private void writeRecords(LogUnitClient dst, List<LogData> run) {
+        if (run.isEmpty()) {
+            return;
+        }
+
+        try {
+            CFUtils.getUninterruptibly(dst.writeRange(run), OverwriteException.class);
+        } catch (OverwriteException e) {
+            for (LogData entry : run) {
+                try {
+                    CFUtils.getUninterruptibly(dst.write(entry), OverwriteException.class);
+                } catch (OverwriteException oe) {
+                    log.trace("writeRecords: {} was already written",
+                            entry.getGlobalAddress());
+                }
+            }
+        }
+        recordsTransferred.inc(run.size());
+    }
+}
@@ -0,0 +1,209 @@
+package org.corfudb.runtime.view;
+
+import com.google.common.collect.Range;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.corfudb.protocols.logprotocol.ISMRConsumable;
+import org.corfudb.protocols.logprotocol.SMREntry;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.runtime.CorfuRuntime;
+
+/**
+ * A subscription to the updates of a set of streams, starting at an address of the
+ * global log.
+ *
+ * <p>The log is scanned in order for the entries of the subscribed streams, which are
+ * filtered by the log units and bypass the read cache of the runtime, and each entry
+ * which updates a subscribed stream is delivered as a single {@link Update}, so the
+ * updates of a transaction are delivered together. Checkpoint entries and holes are
+ * skipped.
+ *
+ * <p>Updates are buffered up to a bound, past which the scan waits for the consumer to
+ * poll them. To resume a subscription, a consumer persists the
+ * {@link #getResumeAddress() resume address} along with the effects of the updates it
+ * polled, and subscribes again from it.
+ *
+ * <p>If the scan fails, for example because the log was trimmed past the subscription,
+ * the failure is thrown by {@link #poll(long, TimeUnit)} as soon as the buffered updates
+ * were polled.
+ */
+@Slf4j
+public class StreamSubscription implements AutoCloseable {
+
+    /** Runs the scans of the subscriptions. */
+    private static final ExecutorService scanExecutor = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("StreamSubscription-%d")
+                    .build());
+
+    /**
+     * The updates of the subscribed streams in a single entry of the log.
+     */
+    @Value
+    public static class Update {
+        /** The address of the entry. */
+        long address;
+
+        /** The updates of each subscribed stream in the entry. */
+        Map<UUID, List<SMREntry>> updates;
+    }
+
+    /** Queued behind the buffered updates once the scan failed, to wake up the consumer. */
+    private static final Update FAILED = new Update(Address.NON_EXIST,
+            Collections.emptyMap());
+
+    private final CorfuRuntime runtime;
+
+    @Getter
+    private final Set<UUID> streamIds;
+
+    private final BlockingQueue<Update> buffer;
+
+    private final Future<?> scan;
+
+    /** The failure of the scan, if any. */
+    private volatile RuntimeException failure;
+
+    /** The address following the last update polled. */
+    private volatile long resumeAddress;
+
+    private volatile boolean closed = false;
+
+    StreamSubscription(@NonNull CorfuRuntime runtime, @NonNull Set<UUID> streamIds,
+                       long startAddress) {
+        this.runtime = runtime;
+        this.streamIds = Collections.unmodifiableSet(streamIds);
+        this.resumeAddress = startAddress;
+        this.buffer = new LinkedBlockingQueue<>(
+                runtime.getParameters().getSubscriptionBufferSize());
+        this.scan = scanExecutor.submit(() -> scan(startAddress));
+    }
+
+    /**
+     * Get the next update, waiting for it if necessary.
+     *
+     * @param timeout how long to wait for an update
+     * @param unit    the unit of the timeout
+     * @return the next update, or null if no update was available in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Update poll(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        // The failure is only reported once all the updates before it were polled.
+        if (failure != null && buffer.isEmpty()) {
+            throw failure;
+        }
+        Update update = buffer.poll(timeout, unit);
+        if (update == null) {
+            return null;
+        } else if (update == FAILED) {
+            throw failure;
+        }
+        resumeAddress = update.getAddress() + 1;
+        return update;
+    }
+
+    /**
+     * Get the address to resume the subscription from, so that the updates which were
+     * polled are not delivered again.
+     *
+     * @return the address following the last update polled, or the start address
+     */
+    public long getResumeAddress() {
+        return resumeAddress;
+    }
+
+    /**
+     * Stop scanning the log. The buffered updates are discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        scan.cancel(true);
+        buffer.clear();
+    }
+
+    private void scan(long startAddress) {
+        final int window = runtime.getBulkReadSize()
+                * Math.max(1, runtime.getParameters().getBulkReadMaxInFlight());
+        long address = startAddress;
+        try {
+            while (!closed) {
+                final long tail = runtime.getSequencerView().queryGlobalTail();
+                if (address > tail) {
+                    Thread.sleep(runtime.getParameters().getSubscriptionPollIntervalMs());
+                    continue;
+                }
+
+                // Only the entries of the subscribed streams are returned, in order.
+                final long end = Math.min(tail, address + window - 1);
+                Map<Long, ILogData> entries = runtime.getAddressSpaceView()
+                        .scan(Range.closed(address, end), streamIds);
+
+                for (ILogData entry : entries.values()) {
+                    Update update = getUpdate(entry);
+                    if (update != null) {
+                        buffer.put(update);
+                    }
+                }
+                address = end + 1;
+            }
+        } catch (InterruptedException ie) {
+            log.debug("scan: Subscription to {} closed at {}", streamIds, address);
+        } catch (RuntimeException e) {
+            log.warn("scan: Subscription to {} failed at {}", streamIds, address, e);
+            failure = e;
+            try {
+                buffer.put(FAILED);
+            } catch (InterruptedException ie) {
+                log.debug("scan: Subscription to {} closed at {}", streamIds, address);
+            }
+        }
+    }
+
+    /**
+     * Get the updates of the subscribed streams in an entry.
+     *
+     * @return the update, or null if the entry doesn't update any subscribed stream
+     */
+    private Update getUpdate(ILogData entry) {
+        if (entry.getType() != DataType.DATA || entry.hasCheckpointMetadata()) {
+            return null;
+        }
+
+        Map<UUID, List<SMREntry>> updates = new HashMap<>();
+        for (UUID streamId : entry.getStreams()) {
+            if (!streamIds.contains(streamId)) {
+                continue;
+            }
+            Object payload = entry.getPayload(runtime);
+            if (!(payload instanceof ISMRConsumable)) {
+                return null;
+            }
+            List<SMREntry> streamUpdates = ((ISMRConsumable) payload).getSMRUpdates(streamId);
+            if (!streamUpdates.isEmpty()) {
+                updates.put(streamId, streamUpdates);
+            }
+        }
+        return updates.isEmpty() ? null : new Update(entry.getGlobalAddress(), updates);
+    }
+}
@@ -1,8 +1,10 @@
 package org.corfudb.runtime.view;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -63,6 +65,17 @@ public class StreamsView extends AbstractView {
                 .getReplicationMode().getStreamView(runtime, stream, options);
     }
 
+    /**
+     * Subscribe to the updates of a set of streams, from an address of the global log.
+     *
+     * @param streamIds    The ids of the streams to subscribe to.
+     * @param startAddress The address to start scanning the log from.
+     * @return A subscription, which must be closed once no longer needed.
+     */
+    public StreamSubscription subscribe(@Nonnull Set<UUID> streamIds, long startAddress) {
+        return new StreamSubscription(runtime, new HashSet<>(streamIds), startAddress);
+    }
+
     /**
      * Make a copy-on-append copy of a stream.
      *
@@ -110,6 +123,31 @@ public class StreamsView extends AbstractView {
      */
     public long append(@Nonnull Set<UUID> streamIDs, @Nonnull Object object,
                        @Nullable TxResolutionInfo conflictInfo) throws TransactionAbortedException {
+        return append(streamIDs, object, conflictInfo, address -> { }, address -> { });
+    }
+
+    /**
+     * Append to multiple streams simultaneously, possibly providing
+     * information on how to resolve conflicts, and notifying the caller of
+     * each address acquired for the entry.
+     *
+     * <p>Without conflict information, an append whose token went stale is
+     * retried with a new token, rather than aborted.
+     *
+     * @param streamIDs    The streams to append to.
+     * @param object       The object to append to each stream.
+     * @param conflictInfo Conflict information for the sequencer to check.
+     * @param acquired     Called with each address acquired, before it is written.
+     * @param lost         Called with each address acquired which could not be
+     *                     written, because it was overwritten or went stale.
+     * @return The address the entry was written to.
+     * @throws TransactionAbortedException If the transaction was aborted by
+     *                                     the sequencer.
+     */
+    public long append(@Nonnull Set<UUID> streamIDs, @Nonnull Object object,
+                       @Nullable TxResolutionInfo conflictInfo,
+                       @Nonnull LongConsumer acquired, @Nonnull LongConsumer lost)
+            throws TransactionAbortedException {
 
         // Go to the sequencer, grab an initial token.
         TokenResponse tokenResponse = conflictInfo == null
@@ -147,11 +185,13 @@ public class StreamsView extends AbstractView {
             }
 
             // Attempt to write to the log
+            acquired.accept(tokenResponse.getTokenValue());
             try {
                 runtime.getAddressSpaceView().write(tokenResponse, object);
                 // If we're here, we succeeded, return the acquired token
                 return tokenResponse.getTokenValue();
             } catch (OverwriteException oe) {
+                lost.accept(tokenResponse.getTokenValue());
 
                 // We were overwritten, get a new token and try again.
                 log.warn("append[{}]: Overwritten after {} retries, streams {}",
@@ -184,6 +224,13 @@ public class StreamsView extends AbstractView {
                 // the epoch changed from when we grabbed the token from sequencer
                 log.warn("append[{}]: StaleToken , streams {}", tokenResponse.getTokenValue(),
                         streamIDs.stream().map(Utils::toReadableId).collect(Collectors.toSet()));
+                lost.accept(tokenResponse.getTokenValue());
+
+                // Without a transaction to abort, the entry is appended with a new token.
+                if (conflictInfo == null) {
+                    tokenResponse = runtime.getSequencerView().nextToken(streamIDs, 1);
+                    continue;
+                }
 
                 throw new TransactionAbortedException(
                         conflictInfo,
@@ -2,6 +2,9 @@ package org.corfudb.runtime.view.replication;
 
 import com.google.common.collect.Range;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -10,6 +13,7 @@ import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.ReadHint;
 import org.corfudb.runtime.exceptions.OverwriteException;
 import org.corfudb.runtime.exceptions.RecoveryException;
 import org.corfudb.runtime.view.Layout;
@@ -108,9 +112,26 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
         int numUnits = layout.getSegmentLength(startAddress);
         log.trace("readRange[{}-{}]: chain {}/{}", startAddress, endAddress, numUnits, numUnits);
 
-        Map<Long, LogData> logResult = CFUtils.getUninterruptibly(layout
-                .getLogUnitClient(startAddress, numUnits - 1)
-                .read(range)).getAddresses();
+        // Each stripe is read from the last unit of its own chain, hinting that the
+        // read is a scan, whose entries the log unit should not cache.
+        Map<Layout.LayoutStripe, List<Long>> addressesByStripe = new LinkedHashMap<>();
+        for (Long address : globalAddresses) {
+            addressesByStripe.computeIfAbsent(layout.getStripe(address),
+                    k -> new ArrayList<>()).add(address);
+        }
+        Map<Long, LogData> logResult = new HashMap<>();
+        if (addressesByStripe.size() == 1) {
+            logResult.putAll(CFUtils.getUninterruptibly(layout
+                    .getLogUnitClient(startAddress, numUnits - 1)
+                    .read(range, ReadHint.SEQUENTIAL)).getAddresses());
+        } else {
+            for (List<Long> addresses : addressesByStripe.values()) {
+                logResult.putAll(CFUtils.getUninterruptibly(layout
+                        .getLogUnitClient(addresses.get(0),
+                                layout.getSegmentLength(addresses.get(0)) - 1)
+                        .read(addresses, ReadHint.SEQUENTIAL)).getAddresses());
+            }
+        }
 
         //in case of a hole, do a normal read and use its hole fill policy
         Map<Long, ILogData> returnResult = new TreeMap<>();
@@ -79,6 +79,8 @@ public interface IReplicationProtocol {
      *
      * <p>This method functions exactly like a readAll, except
      * that it returns the result for a range of addresses.
+     * It serves sequential bulk readers, so an implementation
+     * should hint the log units not to cache the entries read.
      *
      * <p>An implementation may optimize for this type of
      * bulk request, but the default implementation
@@ -7,12 +7,20 @@
 package org.corfudb.runtime.view.replication;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,7 +29,11 @@ import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.IMetadata;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.LogDataDigest;
+import org.corfudb.protocols.wireprotocol.ReadDigestResponse;
+import org.corfudb.protocols.wireprotocol.ReadHint;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.runtime.clients.LogUnitClient;
 import org.corfudb.runtime.exceptions.DataOutrankedException;
 import org.corfudb.runtime.exceptions.HoleFillRequiredException;
 import org.corfudb.runtime.exceptions.LogUnitException;
@@ -57,8 +69,27 @@ public class QuorumReplicationProtocol extends AbstractReplicationProtocol {
         x.setRandomPortion(QUORUM_RECOVERY_READ_WAIT_RANDOM_PART);
     };
 
+    /** The comparator used to find a quorum of replicas which agree on an entry. */
+    private static final Comparator<LogDataDigest> DIGEST_COMPARATOR = new DigestComparator();
+
+    /** True, if only one replica should return the payload of a read, while the
+     * others only return its digest. */
+    private final boolean digestReads;
+
     public QuorumReplicationProtocol(IHoleFillPolicy holeFillPolicy) {
+        this(holeFillPolicy, false);
+    }
+
+    /** Build the quorum replication protocol.
+     *
+     * @param holeFillPolicy    The hole filling policy to be applied when
+     *                          a read returns uncommitted data.
+     * @param digestReads       True, if reads should transfer the payload from a single
+     *                          replica, and only digests from the others.
+     */
+    public QuorumReplicationProtocol(IHoleFillPolicy holeFillPolicy, boolean digestReads) {
         super(holeFillPolicy);
+        this.digestReads = digestReads;
     }
 
 
@@ -67,6 +98,16 @@ public class QuorumReplicationProtocol extends AbstractReplicationProtocol {
      */
     @Override
     public ILogData peek(Layout layout, long address) {
+        if (digestReads) {
+            final List<Long> addresses = Collections.singletonList(address);
+            LogData result = quorumRead(address,
+                    sendBulkReads(layout, address, addresses,
+                            client -> client.read(address)));
+            if (result != null) {
+                return isEmptyType(result.getType()) ? null : result;
+            }
+            log.debug("Peek[{}]: replicas disagree, falling back to full reads", address);
+        }
         int numUnits = layout.getSegmentLength(address);
         log.trace("Peek[{}]: quorum {}/{}", address, numUnits, numUnits);
         try {
@@ -97,6 +138,137 @@ public class QuorumReplicationProtocol extends AbstractReplicationProtocol {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Each replica of a stripe is sent a single bulk read for all the addresses
+     * in that stripe. Addresses which the replicas do not agree on, or which hold
+     * no committed data, are read individually, hole filling if necessary.
+     */
+    @Override
+    public Map<Long, ILogData> readAll(Layout layout, List<Long> globalAddresses) {
+        return readAll(layout, globalAddresses, ReadHint.NORMAL);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Long, ILogData> readRange(Layout layout, Set<Long> globalAddresses) {
+        return readAll(layout, new ArrayList<>(globalAddresses), ReadHint.SEQUENTIAL);
+    }
+
+    /** Read the given addresses, sending a single bulk read with the given hint to each
+     * replica of a stripe.
+     *
+     * @param layout            The layout to read with.
+     * @param globalAddresses   The addresses to read.
+     * @param hint              The access pattern of the read.
+     * @return                  A map of addresses to committed entries.
+     */
+    private Map<Long, ILogData> readAll(Layout layout, List<Long> globalAddresses,
+                                        ReadHint hint) {
+        // Group the addresses by the stripe, and hence the replicas, they map to.
+        Map<Layout.LayoutStripe, List<Long>> addressesByStripe = new LinkedHashMap<>();
+        for (Long address : globalAddresses) {
+            addressesByStripe.computeIfAbsent(layout.getStripe(address),
+                    k -> new ArrayList<>()).add(address);
+        }
+
+        Map<Long, ILogData> returnResult = new TreeMap<>();
+        for (List<Long> addresses : addressesByStripe.values()) {
+            long startAddress = addresses.get(0);
+            log.trace("readAll[{}]: quorum {}/{}", addresses,
+                    layout.getSegmentLength(startAddress), layout.getSegmentLength(startAddress));
+            BulkRead bulkRead = sendBulkReads(layout, startAddress, addresses,
+                    client -> client.read(addresses, hint));
+            for (Long address : addresses) {
+                ILogData value = quorumRead(address, bulkRead);
+                if (value == null || isEmptyType(value.getType())) {
+                    value = read(layout, address);
+                }
+                returnResult.put(address, value);
+            }
+        }
+        return returnResult;
+    }
+
+    /** Send a bulk read to every replica of a stripe. If digest reads are enabled, only
+     * a randomly chosen replica returns data, and the others return digests.
+     *
+     * @param layout        The layout to read with.
+     * @param startAddress  An address in the stripe to read from.
+     * @param addresses     The addresses to read.
+     * @param dataRead      The function which sends a read returning data to a replica.
+     * @return              The reads which were sent.
+     */
+    private BulkRead sendBulkReads(Layout layout, long startAddress, List<Long> addresses,
+                                   Function<LogUnitClient, CompletableFuture<ReadResponse>>
+                                           dataRead) {
+        int numUnits = layout.getSegmentLength(startAddress);
+        int dataUnit = ThreadLocalRandom.current().nextInt(numUnits);
+        BulkRead bulkRead = new BulkRead(new CompletableFuture[numUnits],
+                new CompletableFuture[numUnits]);
+        for (int i = 0; i < numUnits; i++) {
+            LogUnitClient client = layout.getLogUnitClient(startAddress, i);
+            if (!digestReads || i == dataUnit) {
+                bulkRead.dataFutures[i] = dataRead.apply(client);
+            } else {
+                bulkRead.digestFutures[i] = client.readDigests(addresses);
+            }
+        }
+        return bulkRead;
+    }
+
+    /** Find the entry a quorum of replicas agree on at an address.
+     *
+     * @param address   The address to find the entry for.
+     * @param bulkRead  The reads which were sent to the replicas.
+     * @return          The entry a quorum agrees on, or null, if no quorum agrees on
+     *                  an entry, or no replica which returned data holds that entry.
+     */
+    private LogData quorumRead(long address, BulkRead bulkRead) {
+        int numUnits = bulkRead.dataFutures.length;
+        CompletableFuture<LogDataDigest>[] digests = new CompletableFuture[numUnits];
+        for (int i = 0; i < numUnits; i++) {
+            digests[i] = bulkRead.dataFutures[i] != null
+                    ? bulkRead.dataFutures[i].thenApply(rr ->
+                            LogDataDigest.of(rr.getAddresses().get(address)))
+                    : bulkRead.digestFutures[i].thenApply(rr ->
+                            rr.getDigests().getOrDefault(address, LogDataDigest.of(null)));
+        }
+
+        LogDataDigest agreed;
+        try {
+            agreed = CFUtils.getUninterruptibly(
+                    QuorumFuturesFactory.getQuorumFuture(DIGEST_COMPARATOR, digests),
+                    QuorumUnreachableException.class);
+        } catch (QuorumUnreachableException e) {
+            log.debug(e.getMessage(), e);
+            return null;
+        }
+
+        // Prefer replicas which already responded.
+        List<CompletableFuture<ReadResponse>> dataFutures = new ArrayList<>();
+        for (CompletableFuture<ReadResponse> f : bulkRead.dataFutures) {
+            if (f != null) {
+                dataFutures.add(f);
+            }
+        }
+        dataFutures.sort(Comparator.comparing(f -> !f.isDone()));
+        for (CompletableFuture<ReadResponse> f : dataFutures) {
+            try {
+                LogData result = CFUtils.getUninterruptibly(f).getAddresses().get(address);
+                if (DIGEST_COMPARATOR.compare(LogDataDigest.of(result), agreed) == 0) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                log.debug("quorumRead[{}]: data replica failed", address, e);
+            }
+        }
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -266,6 +438,43 @@ public class QuorumReplicationProtocol extends AbstractReplicationProtocol {
     }
 
 
+    /** The reads sent to the replicas of a stripe, where each replica was sent
+     * either a read returning data or a read returning digests.
+     */
+    @AllArgsConstructor
+    private static class BulkRead {
+        final CompletableFuture<ReadResponse>[] dataFutures;
+        final CompletableFuture<ReadDigestResponse>[] digestFutures;
+    }
+
+    /** Orders digests by rank, and then by type and checksum, so that only digests
+     * of the same entry compare equal.
+     */
+    private static class DigestComparator implements Comparator<LogDataDigest> {
+        @Override
+        public int compare(LogDataDigest d1, LogDataDigest d2) {
+            if (d1.getType() == DataType.TRIMMED || d2.getType() == DataType.TRIMMED) {
+                throw new TrimmedException();
+            }
+            IMetadata.DataRank rank1 = d1.getRank();
+            IMetadata.DataRank rank2 = d2.getRank();
+            if (rank1 == null && rank2 != null) {
+                return 1;
+            }
+            if (rank2 == null && rank1 != null) {
+                return -1;
+            }
+            int result = rank1 == null ? 0 : rank1.compareTo(rank2);
+            if (result == 0) {
+                result = d1.getType().compareTo(d2.getType());
+            }
+            if (result == 0) {
+                result = Long.compare(d1.getChecksum(), d2.getChecksum());
+            }
+            return result;
+        }
+    }
+
     @Data
     @AllArgsConstructor
     private class ReadResponseComparator implements Comparator<ReadResponse> {
@@ -0,0 +1,152 @@
+package org.corfudb.runtime.view.stream;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.protocols.wireprotocol.ILogData;
+
+/** A spliterator for streams, which maps the entries of the stream in parallel,
+ * while still delivering the results in the order of the stream.
+ *
+ * <p>On the first advance, the addresses of the stream up to the maximum global address
+ * are resolved, and the entries are fetched with bulk reads, through
+ * {@link IStreamView#remainingUpTo(long)}. The entries are then mapped, which typically
+ * deserializes their payloads, in chunks on a shared pool of threads. Only a bounded
+ * number of chunks are mapped ahead of the chunk being consumed, so that the mapped
+ * results which wait to be consumed in order are bounded as well.
+ *
+ * <p>Like {@link StreamSpliterator}, this spliterator never reads past the maximum
+ * global address, and concurrent modification of the stream during iteration is NOT
+ * supported. Unlike it, the stream pointer is moved to the maximum global address
+ * on the first advance, rather than one entry at a time.
+ *
+ * @param <R> The type of the results of the mapping.
+ */
+@Slf4j
+public class ParallelStreamSpliterator<R> extends Spliterators.AbstractSpliterator<R> {
+
+    /** Maps the chunks of entries. */
+    private static final ExecutorService mappingExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("ParallelStreamSpliterator-%d")
+                    .build());
+
+    /** The stream view which backs the spliterator. */
+    final IStreamView streamView;
+
+    /** The maximum global address the spliterator permits reading up to. */
+    final long maxGlobal;
+
+    /** Maps an entry of the stream to the results it produces, in order. */
+    final Function<ILogData, List<R>> mapper;
+
+    /** The number of entries mapped by each task. */
+    final int chunkSize;
+
+    /** The maximum number of chunks mapped ahead of the chunk being consumed. */
+    final int maxChunksInFlight;
+
+    /** The entries read from the stream, or null before the first advance. */
+    private List<ILogData> entries = null;
+
+    /** The start of the next chunk to map. */
+    private int nextChunk = 0;
+
+    /** The chunks being mapped, in the order of the stream. */
+    private final Deque<CompletableFuture<List<R>>> reorderBuffer = new ArrayDeque<>();
+
+    /** The results of the chunk being consumed. */
+    private Iterator<R> current = Collections.emptyIterator();
+
+    /** Construct a parallel stream spliterator with the given view and limit.
+     * @param view              The view to construct the spliterator with.
+     * @param maxGlobal         The maximum global address to limit reads up to.
+     * @param mapper            Maps an entry to the results it produces.
+     * @param chunkSize         The number of entries mapped by each task.
+     * @param maxChunksInFlight The maximum number of chunks mapped ahead.
+     */
+    public ParallelStreamSpliterator(IStreamView view, long maxGlobal,
+                                     Function<ILogData, List<R>> mapper,
+                                     int chunkSize, int maxChunksInFlight) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.streamView = view;
+        this.maxGlobal = maxGlobal;
+        this.mapper = mapper;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxChunksInFlight = Math.max(1, maxChunksInFlight);
+    }
+
+    /**
+     * {@inheritDoc}
+     * */
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        if (entries == null) {
+            entries = streamView.remainingUpTo(maxGlobal);
+            log.trace("tryAdvance[{}]: mapping {} entries up to {}", streamView,
+                    entries.size(), maxGlobal);
+            fillReorderBuffer();
+        }
+
+        while (!current.hasNext()) {
+            CompletableFuture<List<R>> chunk = reorderBuffer.pollFirst();
+            if (chunk == null) {
+                return false;
+            }
+            fillReorderBuffer();
+            try {
+                current = chunk.join().iterator();
+            } catch (CompletionException ce) {
+                if (ce.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ce.getCause();
+                }
+                throw ce;
+            }
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    /**
+     * Start mapping chunks until the reorder buffer is full. A stream which fits in a
+     * single chunk is mapped by the consuming thread.
+     */
+    private void fillReorderBuffer() {
+        while (reorderBuffer.size() < maxChunksInFlight && nextChunk < entries.size()) {
+            final List<ILogData> chunk = entries.subList(nextChunk,
+                    Math.min(nextChunk + chunkSize, entries.size()));
+            if (nextChunk == 0 && chunk.size() == entries.size()) {
+                reorderBuffer.add(CompletableFuture.completedFuture(mapChunk(chunk)));
+            } else {
+                reorderBuffer.add(CompletableFuture.supplyAsync(() -> mapChunk(chunk),
+                        mappingExecutor));
+            }
+            nextChunk += chunk.size();
+        }
+    }
+
+    private List<R> mapChunk(List<ILogData> chunk) {
+        List<R> results = new ArrayList<>();
+        for (ILogData entry : chunk) {
+            results.addAll(mapper.apply(entry));
+        }
+        return results;
+    }
+}
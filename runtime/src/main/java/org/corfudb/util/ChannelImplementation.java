@@ -0,0 +1,87 @@
+package org.corfudb.util;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+import java.util.concurrent.ThreadFactory;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The netty transports which can be used by the client and server routers.
+ *
+ * <p>NIO is available everywhere, while EPOLL uses the native Linux transport,
+ * which avoids the NIO selector overhead on every message.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public enum ChannelImplementation {
+    NIO(NioSocketChannel.class, NioServerSocketChannel.class, NioEventLoopGroup::new),
+    EPOLL(EpollSocketChannel.class, EpollServerSocketChannel.class, EpollEventLoopGroup::new);
+
+    /** The class used for client channels. */
+    @Getter
+    final Class<? extends SocketChannel> channelClass;
+
+    /** The class used for server (accepting) channels. */
+    @Getter
+    final Class<? extends ServerSocketChannel> serverChannelClass;
+
+    /** A generator for event loops of this transport. */
+    final EventLoopGroupGenerator generator;
+
+    /**
+     * Generate a new event loop group for this transport.
+     *
+     * @param numThreads    The number of threads in the group.
+     * @param threadFactory The factory to generate threads with.
+     * @return A new event loop group.
+     */
+    public EventLoopGroup generateEventLoopGroup(int numThreads, ThreadFactory threadFactory) {
+        return generator.generate(numThreads, threadFactory);
+    }
+
+    /**
+     * Select the transport to use.
+     *
+     * @param preferNative True, if the native transport should be used when available.
+     * @return EPOLL, if the native transport was requested and is available on this
+     *     platform, NIO otherwise.
+     */
+    public static ChannelImplementation select(boolean preferNative) {
+        if (!preferNative) {
+            return NIO;
+        }
+        if (Epoll.isAvailable()) {
+            return EPOLL;
+        }
+        log.warn("select: Native transport requested but unavailable, falling back to NIO",
+                Epoll.unavailabilityCause());
+        return NIO;
+    }
+
+    /**
+     * Resolve the number of event loop threads to use.
+     *
+     * @param configured The configured number of threads, or zero or less for the default.
+     * @return The number of threads to use, which defaults to twice the available processors.
+     */
+    public static int resolveThreads(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    @FunctionalInterface
+    interface EventLoopGroupGenerator {
+        EventLoopGroup generate(int numThreads, ThreadFactory threadFactory);
+    }
+}
@@ -2,6 +2,7 @@ package org.corfudb.util;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.MetricSet;
@@ -159,4 +160,11 @@ public class MetricsUtils {
             counter.inc(amount);
         }
     }
+
+    public static void updateConditionalHistogram(boolean enabled, Histogram histogram,
+                                                  long value) {
+        if (enabled) {
+            histogram.update(value);
+        }
+    }
 }
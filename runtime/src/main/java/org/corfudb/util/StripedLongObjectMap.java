@@ -0,0 +1,126 @@
+package org.corfudb.util;
+
+import io.netty.util.collection.LongObjectHashMap;
+import io.netty.util.collection.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe map keyed by primitive longs, which avoids boxing keys and
+ * allocating an entry per mapping.
+ *
+ * <p>The map is split into a power-of-two number of stripes, each a
+ * {@link LongObjectHashMap} guarded by its own lock. Keys which are handed out
+ * sequentially (such as request ids) are spread evenly over the stripes.
+ *
+ * @param <V> The type of the values.
+ */
+public class StripedLongObjectMap<V> {
+
+    /** The stripes, each guarded by its own monitor. */
+    private final LongObjectHashMap<V>[] stripes;
+
+    /** The mask used to select a stripe from a key. */
+    private final int mask;
+
+    /**
+     * Create a new striped map.
+     *
+     * @param concurrency The expected number of concurrently updating threads,
+     *                    rounded up to a power of two to give the number of stripes.
+     */
+    @SuppressWarnings("unchecked")
+    public StripedLongObjectMap(int concurrency) {
+        int numStripes = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+        stripes = new LongObjectHashMap[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            stripes[i] = new LongObjectHashMap<>();
+        }
+        mask = numStripes - 1;
+    }
+
+    private LongObjectHashMap<V> stripeOf(long key) {
+        return stripes[(int) (key ^ (key >>> 32)) & mask];
+    }
+
+    /**
+     * Associate a value with a key.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @return The previous value associated with the key, or null.
+     */
+    public V put(long key, V value) {
+        LongObjectHashMap<V> stripe = stripeOf(key);
+        synchronized (stripe) {
+            return stripe.put(key, value);
+        }
+    }
+
+    /**
+     * Get the value associated with a key.
+     *
+     * @param key The key.
+     * @return The value associated with the key, or null.
+     */
+    public V get(long key) {
+        LongObjectHashMap<V> stripe = stripeOf(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * Remove the value associated with a key.
+     *
+     * @param key The key.
+     * @return The value which was associated with the key, or null.
+     */
+    public V remove(long key) {
+        LongObjectHashMap<V> stripe = stripeOf(key);
+        synchronized (stripe) {
+            return stripe.remove(key);
+        }
+    }
+
+    /**
+     * Remove all the values matching a predicate.
+     *
+     * @param predicate The predicate values to remove must match.
+     * @return The removed values.
+     */
+    public List<V> removeIf(Predicate<V> predicate) {
+        List<V> removed = new ArrayList<>();
+        for (LongObjectHashMap<V> stripe : stripes) {
+            synchronized (stripe) {
+                List<Long> keys = new ArrayList<>();
+                for (LongObjectMap.PrimitiveEntry<V> entry : stripe.entries()) {
+                    if (predicate.test(entry.value())) {
+                        keys.add(entry.key());
+                    }
+                }
+                for (long key : keys) {
+                    removed.add(stripe.remove(key));
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Get the number of mappings in this map.
+     *
+     * @return The number of mappings.
+     */
+    public int size() {
+        int size = 0;
+        for (LongObjectHashMap<V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+}
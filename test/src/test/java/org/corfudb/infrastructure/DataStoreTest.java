@@ -2,6 +2,9 @@ package org.corfudb.infrastructure;
 
 import com.google.common.collect.ImmutableMap;
 
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.UUID;
 
 import org.corfudb.AbstractCorfuTest;
@@ -99,4 +102,74 @@ public class DataStoreTest extends AbstractCorfuTest {
             assertThat(dataStore.get(String.class, "test", "key")).isEqualTo("NEW_VALUE");
         }
     }
+
+    @Test
+    public void testDeleteWithRestart() {
+        String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        DataStore dataStore = new DataStore(new ImmutableMap.Builder<String, Object>()
+                .put("--log-path", serviceDir)
+                .build());
+        dataStore.put(String.class, "test", "key1", "value1");
+        dataStore.put(String.class, "test", "key2", "value2");
+        dataStore.delete(String.class, "test", "key1");
+
+        //Simulate a restart of data store
+        dataStore = new DataStore(new ImmutableMap.Builder<String, Object>()
+                .put("--log-path", serviceDir)
+                .build());
+        assertThat(dataStore.get(String.class, "test", "key1")).isNull();
+        assertThat(dataStore.getAll(String.class, "test")).containsExactly("value2");
+    }
+
+    @Test
+    public void testTornRecordIsDiscarded() throws Exception {
+        String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        DataStore dataStore = new DataStore(new ImmutableMap.Builder<String, Object>()
+                .put("--log-path", serviceDir)
+                .build());
+        dataStore.put(String.class, "test", "key", "value");
+
+        // Simulate a crash in the middle of appending a record.
+        final byte[] tornRecord = {0, 0, 1, 0, 1, 2};
+        Files.write(Paths.get(serviceDir, DataStoreLog.LOG_FILE_NAME), tornRecord,
+                StandardOpenOption.APPEND);
+
+        dataStore = new DataStore(new ImmutableMap.Builder<String, Object>()
+                .put("--log-path", serviceDir)
+                .build());
+        assertThat(dataStore.get(String.class, "test", "key")).isEqualTo("value");
+
+        // Records appended after recovery should not be lost behind the torn record.
+        dataStore.put(String.class, "test", "key", "NEW_VALUE");
+        dataStore = new DataStore(new ImmutableMap.Builder<String, Object>()
+                .put("--log-path", serviceDir)
+                .build());
+        assertThat(dataStore.get(String.class, "test", "key")).isEqualTo("NEW_VALUE");
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        DataStore dataStore = new DataStore(new ImmutableMap.Builder<String, Object>()
+                .put("--log-path", serviceDir)
+                .build());
+        dataStore.put(String.class, "test", "other", "value");
+
+        final int numUpdates = DataStoreLog.COMPACTION_MIN_RECORDS * 4;
+        for (int i = 0; i < numUpdates; i++) {
+            dataStore.put(Integer.class, "counter", "key", i);
+        }
+
+        // Superseded records are compacted away, so the log holds fewer records than
+        // were written, each of which is larger than 16 bytes.
+        final long maxLogSize = numUpdates * 16L;
+        assertThat(Files.size(Paths.get(serviceDir, DataStoreLog.LOG_FILE_NAME)))
+                .isLessThan(maxLogSize);
+
+        dataStore = new DataStore(new ImmutableMap.Builder<String, Object>()
+                .put("--log-path", serviceDir)
+                .build());
+        assertThat(dataStore.get(Integer.class, "counter", "key")).isEqualTo(numUpdates - 1);
+        assertThat(dataStore.get(String.class, "test", "other")).isEqualTo("value");
+    }
 }
@@ -129,6 +129,43 @@ public class LogUnitServerTest extends AbstractServerTest {
                 .matchesDataAtAddress(HIGH_ADDRESS, high_payload.getBytes());
     }
 
+    @Test
+    public void checkThatStreamTailsAreRecoveredAfterSegmentRoll() {
+        String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+
+        LogUnitServer s1 = new LogUnitServer(new ServerContextBuilder()
+                .setLogPath(serviceDir)
+                .setMemory(false)
+                .build());
+        this.router.reset();
+        this.router.addServer(s1);
+
+        final String streamA = "a";
+        final String streamB = "b";
+        final long segmentStart = StreamLogFiles.RECORDS_PER_LOG_FILE;
+        rawWrite(0L, "0", streamA);
+        rawWrite(1L, "1", streamB);
+        // Starting the next segment persists the stream tails of the first one, the
+        // writes which follow must be recovered from the log itself.
+        rawWrite(segmentStart, "2", streamB);
+        rawWrite(segmentStart + 1, "3", streamA);
+
+        s1.shutdown();
+
+        LogUnitServer s2 = new LogUnitServer(new ServerContextBuilder()
+                .setLogPath(serviceDir)
+                .setMemory(false)
+                .build());
+        this.router.reset();
+        this.router.addServer(s2);
+
+        sendMessage(CorfuMsgType.STREAM_TAILS_REQUEST.msg());
+        assertThat(getLastPayloadMessageAs(StreamTailsResponse.class).getStreamTails())
+                .containsEntry(CorfuRuntime.getStreamID(streamA), segmentStart + 1)
+                .containsEntry(CorfuRuntime.getStreamID(streamB), segmentStart)
+                .hasSize(2);
+    }
+
     protected void rawWrite(long addr, String s, String streamName) {
         ByteBuf b = Unpooled.buffer();
         Serializers.CORFU.serialize(s.getBytes(), b);
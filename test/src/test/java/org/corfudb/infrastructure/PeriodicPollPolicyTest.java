@@ -3,6 +3,7 @@ package org.corfudb.infrastructure;
 import org.corfudb.infrastructure.management.IFailureDetectorPolicy;
 import org.corfudb.infrastructure.management.PeriodicPollPolicy;
 import org.corfudb.infrastructure.management.PollReport;
+import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.clients.TestRule;
 import org.corfudb.runtime.view.AbstractViewTest;
@@ -123,6 +124,61 @@ public class PeriodicPollPolicyTest extends AbstractViewTest {
 
     }
 
+    /**
+     * Polls 3 running servers, of which the requests to SERVERS.PORT_2 are dropped
+     * before they leave the polling runtime.
+     * Returns failed status for SERVERS.PORT_2 only.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void failedPollingOfDroppedRequests() throws InterruptedException {
+        corfuRuntime.getRouter(getEndpoint(SERVERS.PORT_2));
+        addClientRule(corfuRuntime, getEndpoint(SERVERS.PORT_2), new TestRule().always().drop());
+
+        Set<String> expectedResult = new HashSet<>();
+        expectedResult.add(getEndpoint(SERVERS.PORT_2));
+
+        pollAndMatchExpectedResult(expectedResult);
+    }
+
+    /**
+     * Polls 3 running servers, which all report a load above the thresholds, except
+     * SERVERS.PORT_2 whose heartbeats time out.
+     * Asserts the first 2 are degraded, and that no server is failed: neither degraded
+     * servers, nor servers which don't answer heartbeats.
+     *
+     * @throws InterruptedException Sleep interrupted
+     */
+    @Test
+    public void degradedPolling() throws InterruptedException {
+        // Answer heartbeats, without detecting failures on the servers themselves.
+        getManagementServer(SERVERS.PORT_0).setShutdown(false);
+        getManagementServer(SERVERS.PORT_1).setShutdown(false);
+        getManagementServer(SERVERS.PORT_2).setShutdown(false);
+        addClientRule(corfuRuntime, getEndpoint(SERVERS.PORT_2), new TestRule()
+                .matches(m -> m.getMsgType().equals(CorfuMsgType.HEARTBEAT_REQUEST))
+                .drop());
+
+        PeriodicPollPolicy pollPolicy = new PeriodicPollPolicy();
+        // Every reported queue depth exceeds the threshold.
+        pollPolicy.setMaxQueueDepth(-1L);
+
+        final int pollsToDeclareDegraded = 10;
+        for (int i = 0; i < pollsToDeclareDegraded; i++) {
+            pollPolicy.executePolicy(layout, corfuRuntime);
+            Thread.sleep(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+        }
+        // A little more than responseTimeout for the heartbeats
+        Thread.sleep(PARAMETERS.TIMEOUT_SHORT.toMillis());
+
+        PollReport result = pollPolicy.getServerStatus();
+        assertThat(result.getDegradedNodes())
+                .containsExactlyInAnyOrder(getEndpoint(SERVERS.PORT_0),
+                        getEndpoint(SERVERS.PORT_1));
+        assertThat(result.getFailingNodes()).isEmpty();
+    }
+
     private void pollAndMatchExpectedResult(Set<String> expectedResult)
             throws InterruptedException {
 
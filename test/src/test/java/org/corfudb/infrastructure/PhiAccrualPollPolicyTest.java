@@ -0,0 +1,162 @@
+package org.corfudb.infrastructure;
+
+import org.corfudb.infrastructure.management.PhiAccrualFailureDetector;
+import org.corfudb.infrastructure.management.PhiAccrualPollPolicy;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.clients.TestRule;
+import org.corfudb.runtime.view.AbstractViewTest;
+import org.corfudb.runtime.view.Layout;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the phi accrual failure detector and the polling policy built on it.
+ */
+public class PhiAccrualPollPolicyTest extends AbstractViewTest {
+
+    private static final int WINDOW_SIZE = 100;
+    private static final double MIN_STD_DEVIATION_MS = 100.0;
+    private static final long INTERVAL_MS = 1000L;
+    private static final double FAILURE_THRESHOLD = 8.0;
+
+    private Layout layout = null;
+    private CorfuRuntime corfuRuntime = null;
+    private final AtomicLong clock = new AtomicLong();
+    private PhiAccrualPollPolicy policy = null;
+
+    @Before
+    public void pollingEnvironmentSetup() {
+        addServer(SERVERS.PORT_0);
+        addServer(SERVERS.PORT_1);
+        addServer(SERVERS.PORT_2);
+
+        layout = new TestLayoutBuilder()
+                .setEpoch(1L)
+                .addLayoutServer(SERVERS.PORT_0)
+                .addLayoutServer(SERVERS.PORT_1)
+                .addLayoutServer(SERVERS.PORT_2)
+                .addSequencer(SERVERS.PORT_0)
+                .buildSegment()
+                .buildStripe()
+                .addLogUnit(SERVERS.PORT_0)
+                .addLogUnit(SERVERS.PORT_1)
+                .addLogUnit(SERVERS.PORT_2)
+                .addToSegment()
+                .addToLayout()
+                .build();
+        bootstrapAllServers(layout);
+        getManagementServer(SERVERS.PORT_0).shutdown();
+        getManagementServer(SERVERS.PORT_1).shutdown();
+        getManagementServer(SERVERS.PORT_2).shutdown();
+
+        corfuRuntime = new CorfuRuntime();
+        layout.getLayoutServers().forEach(corfuRuntime::addLayoutServer);
+        corfuRuntime.connect();
+
+        layout.getAllServers().forEach(serverEndpoint -> {
+            corfuRuntime.getRouter(serverEndpoint).setTimeoutConnect(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+            corfuRuntime.getRouter(serverEndpoint).setTimeoutResponse(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+            corfuRuntime.getRouter(serverEndpoint).setTimeoutRetry(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+        });
+
+        policy = new PhiAccrualPollPolicy(clock::get);
+    }
+
+    private PhiAccrualFailureDetector getDetector() {
+        return new PhiAccrualFailureDetector(WINDOW_SIZE, MIN_STD_DEVIATION_MS, 0.0,
+                INTERVAL_MS, 0L);
+    }
+
+    /**
+     * The suspicion of a node grows with the time since its last heartbeat.
+     */
+    @Test
+    public void suspicionGrowsWithSilence() {
+        PhiAccrualFailureDetector detector = getDetector();
+        long now = 0L;
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            now += INTERVAL_MS;
+            detector.heartbeat(now);
+        }
+
+        final double onTime = detector.phi(now + INTERVAL_MS / 2);
+        final double late = detector.phi(now + INTERVAL_MS * 2);
+        final double silent = detector.phi(now + INTERVAL_MS * 10);
+        assertThat(onTime)
+                .isLessThan(1.0);
+        assertThat(late)
+                .isGreaterThan(onTime);
+        assertThat(silent)
+                .isGreaterThan(FAILURE_THRESHOLD);
+    }
+
+    /**
+     * A node whose heartbeats are irregular is suspected later than a regular one.
+     */
+    @Test
+    public void irregularNodesAreSuspectedLater() {
+        PhiAccrualFailureDetector regular = getDetector();
+        PhiAccrualFailureDetector irregular = getDetector();
+        long regularNow = 0L;
+        long irregularNow = 0L;
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            regularNow += INTERVAL_MS;
+            regular.heartbeat(regularNow);
+            irregularNow += i % 2 == 0 ? INTERVAL_MS / 4 : INTERVAL_MS * 7 / 4;
+            irregular.heartbeat(irregularNow);
+        }
+
+        final long silenceMs = INTERVAL_MS * 2;
+        assertThat(irregular.phi(irregularNow + silenceMs))
+                .isLessThan(regular.phi(regularNow + silenceMs));
+    }
+
+    private void pollOnce() throws InterruptedException {
+        policy.executePolicy(layout, corfuRuntime);
+        Thread.sleep(PARAMETERS.TIMEOUT_SHORT.toMillis());
+        clock.addAndGet(INTERVAL_MS);
+    }
+
+    /**
+     * Polls 3 servers, one of which stops responding. Only that server is reported
+     * failed, until it responds again.
+     */
+    @Test
+    public void silentServerIsReportedFailed() throws InterruptedException {
+        for (int i = 0; i < PARAMETERS.CONCURRENCY_SOME; i++) {
+            pollOnce();
+        }
+        assertThat(policy.getServerStatus().getIsFailurePresent())
+                .isFalse();
+        assertThat(ServerContext.getMetrics().getGauges())
+                .containsKey("corfu.server.management-server.phi." + getEndpoint(SERVERS.PORT_0));
+
+        addServerRule(SERVERS.PORT_0, new TestRule().always().drop());
+        final int silentPolls = 10;
+        for (int i = 0; i < silentPolls; i++) {
+            pollOnce();
+        }
+        Set<String> failingNodes = policy.getServerStatus().getFailingNodes();
+        assertThat(failingNodes)
+                .containsExactly(getEndpoint(SERVERS.PORT_0));
+        assertThat(policy.getSuspicion(getEndpoint(SERVERS.PORT_0)))
+                .isGreaterThanOrEqualTo(policy.getFailureThreshold());
+
+        clearServerRules(SERVERS.PORT_0);
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            pollOnce();
+            failingNodes = policy.getServerStatus().getFailingNodes();
+            if (failingNodes.isEmpty()) {
+                break;
+            }
+        }
+        assertThat(failingNodes)
+                .isEqualTo(Collections.emptySet());
+    }
+}
@@ -1,16 +1,28 @@
 package org.corfudb.infrastructure;
 
 import org.corfudb.infrastructure.management.ReconfigurationEventHandler;
+import org.corfudb.protocols.wireprotocol.CorfuMsgType;
+import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
+import org.corfudb.protocols.wireprotocol.LayoutPrepareRequest;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.clients.TestRule;
 import org.corfudb.runtime.view.AbstractViewTest;
+import org.corfudb.runtime.view.ConservativeFailureHandlerPolicy;
 import org.corfudb.runtime.view.IFailureHandlerPolicy;
 import org.corfudb.runtime.view.Layout;
 import org.corfudb.runtime.view.PurgeFailurePolicy;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -27,33 +39,8 @@ public class ReconfigurationEventHandlerTest extends AbstractViewTest {
     @Test
     public void updateLayoutOnFailure() {
 
-        addServer(SERVERS.PORT_0);
-        addServer(SERVERS.PORT_1);
-        addServer(SERVERS.PORT_2);
-
-        Layout originalLayout = new TestLayoutBuilder()
-                .setEpoch(1L)
-                .addLayoutServer(SERVERS.PORT_0)
-                .addLayoutServer(SERVERS.PORT_1)
-                .addLayoutServer(SERVERS.PORT_2)
-                .addSequencer(SERVERS.PORT_0)
-                .addSequencer(SERVERS.PORT_1)
-                .addSequencer(SERVERS.PORT_2)
-                .buildSegment()
-                .buildStripe()
-                .addLogUnit(SERVERS.PORT_0)
-                .addLogUnit(SERVERS.PORT_1)
-                .addLogUnit(SERVERS.PORT_2)
-                .addToSegment()
-                .addToLayout()
-                .build();
-        bootstrapAllServers(originalLayout);
-
-        CorfuRuntime corfuRuntime = new CorfuRuntime();
-        corfuRuntime.addLayoutServer(getEndpoint(SERVERS.PORT_0));
-        corfuRuntime.addLayoutServer(getEndpoint(SERVERS.PORT_1));
-        corfuRuntime.addLayoutServer(getEndpoint(SERVERS.PORT_2));
-        corfuRuntime.connect();
+        Layout originalLayout = bootstrapServers();
+        CorfuRuntime corfuRuntime = getConnectedRuntime(originalLayout);
 
         Set<String> failedServers = new HashSet<>();
         failedServers.add(getEndpoint(SERVERS.PORT_2));
@@ -83,5 +70,253 @@ public class ReconfigurationEventHandlerTest extends AbstractViewTest {
         assertThat(getLayoutServer(SERVERS.PORT_0).getCurrentLayout())
                 .isEqualTo(getLayoutServer(SERVERS.PORT_1).getCurrentLayout())
                 .isEqualTo(expectedLayout);
+
+        // The latency of each phase of the reconfiguration is recorded.
+        for (String phase : new String[]{"reconfiguration", "seal", "consensus",
+                "sequencer-bootstrap"}) {
+            assertThat(corfuRuntime.getMetrics().timer(CorfuRuntime.getMpLM() + phase)
+                    .getCount())
+                    .isEqualTo(1L);
+        }
+    }
+
+    /**
+     * Prepares the layout servers while SERVERS.PORT_1 is still being sealed.
+     * Asserts SERVERS.PORT_1 is only sent the prepare once its seal completes.
+     */
+    @Test
+    public void prepareIsSentOnceTheServerIsSealed() throws Exception {
+        Layout layout = bootstrapServers();
+        CorfuRuntime corfuRuntime = getConnectedRuntime(layout);
+        Map<String, AtomicInteger> prepares = countPrepares(corfuRuntime, layout);
+
+        Map<String, CompletableFuture<Boolean>> sealFutures = new HashMap<>();
+        sealFutures.put(SERVERS.ENDPOINT_0, CompletableFuture.completedFuture(true));
+        sealFutures.put(SERVERS.ENDPOINT_1, new CompletableFuture<>());
+        sealFutures.put(SERVERS.ENDPOINT_2, CompletableFuture.completedFuture(true));
+
+        // A quorum is sealed, so the prepare is accepted without waiting for SERVERS.PORT_1.
+        corfuRuntime.getLayoutView().prepare(layout.getEpoch(), 1L, sealFutures);
+        assertThat(prepares.get(SERVERS.ENDPOINT_0).get()).isEqualTo(1);
+        assertThat(prepares.get(SERVERS.ENDPOINT_2).get()).isEqualTo(1);
+        assertThat(prepares.get(SERVERS.ENDPOINT_1).get()).isZero();
+
+        sealFutures.get(SERVERS.ENDPOINT_1).complete(true);
+        assertThat(prepares.get(SERVERS.ENDPOINT_1).get()).isEqualTo(1);
+    }
+
+    /**
+     * Fails to seal SERVERS.PORT_1 and SERVERS.PORT_2, so that the seal doesn't reach a
+     * quorum. Asserts the reconfiguration fails, and that only the sealed server was
+     * prepared.
+     */
+    @Test
+    public void failedSealLeavesNoPrepare() {
+        Layout layout = bootstrapServers();
+        CorfuRuntime corfuRuntime = getConnectedRuntime(layout);
+        setAggressiveTimeouts(layout, corfuRuntime);
+        Map<String, AtomicInteger> prepares = countPrepares(corfuRuntime, layout);
+        for (String server : new String[]{SERVERS.ENDPOINT_1, SERVERS.ENDPOINT_2}) {
+            addClientRule(corfuRuntime, server, new TestRule()
+                    .matches(corfuMsg -> corfuMsg.getMsgType().equals(CorfuMsgType.SET_EPOCH))
+                    .drop());
+        }
+
+        boolean handled = new ReconfigurationEventHandler().handleFailure(
+                new PurgeFailurePolicy(), layout, corfuRuntime,
+                Collections.singleton(SERVERS.ENDPOINT_2), Collections.emptySet());
+
+        // The prepare has settled by the time the reconfiguration fails, so these
+        // counts are final.
+        assertThat(handled).isFalse();
+        assertThat(prepares.get(SERVERS.ENDPOINT_0).get()).isEqualTo(1);
+        assertThat(prepares.get(SERVERS.ENDPOINT_1).get()).isZero();
+        assertThat(prepares.get(SERVERS.ENDPOINT_2).get()).isZero();
+        assertThat(getLayoutServer(SERVERS.PORT_1).getCurrentLayout())
+                .isEqualTo(getLayout());
+
+        // The seal was timed once, and consensus was never attempted.
+        assertThat(corfuRuntime.getMetrics().timer(CorfuRuntime.getMpLM() + "seal")
+                .getCount())
+                .isEqualTo(1L);
+        assertThat(corfuRuntime.getMetrics().timer(CorfuRuntime.getMpLM() + "consensus")
+                .getCount())
+                .isZero();
+    }
+
+    /**
+     * Another client seals the next epoch and prepares it with a higher rank.
+     * Asserts the reconfiguration is outranked, and that it succeeds when retried, with
+     * a rank above the competing one.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void outrankedReconfigurationRetriesWithHigherRank() throws Exception {
+        bootstrapServers();
+        CorfuRuntime corfuRuntime = getConnectedRuntime(getLayout());
+        List<Long> ranks = Collections.synchronizedList(new ArrayList<>());
+        addClientRule(corfuRuntime, new TestRule().matches(corfuMsg -> {
+            if (corfuMsg.getMsgType().equals(CorfuMsgType.LAYOUT_PREPARE)) {
+                ranks.add(((CorfuPayloadMsg<LayoutPrepareRequest>) corfuMsg).getPayload()
+                        .getRank());
+            }
+            return true;
+        }));
+
+        final long competingRank = 5L;
+        CorfuRuntime competitor = getConnectedRuntime(getLayout());
+        Layout sealedLayout = getLayout();
+        sealedLayout.setRuntime(competitor);
+        sealedLayout.setEpoch(sealedLayout.getEpoch() + 1);
+        sealedLayout.moveServersToEpoch();
+        competitor.getLayoutView().prepare(sealedLayout.getEpoch(), competingRank);
+
+        ReconfigurationEventHandler reconfigurationEventHandler = new ReconfigurationEventHandler();
+        Set<String> failedServers = Collections.singleton(SERVERS.ENDPOINT_2);
+        // The reconfiguration changes the epoch of the layout it's given, so each attempt
+        // starts from a copy of the original layout.
+        assertThat(reconfigurationEventHandler.handleFailure(new PurgeFailurePolicy(),
+                getLayout(), corfuRuntime, failedServers, Collections.emptySet()))
+                .isFalse();
+        assertThat(reconfigurationEventHandler.handleFailure(new PurgeFailurePolicy(),
+                getLayout(), corfuRuntime, failedServers, Collections.emptySet()))
+                .isTrue();
+
+        assertThat(ranks)
+                .containsOnly(1L, competingRank + 1)
+                .startsWith(1L)
+                .endsWith(competingRank + 1);
+        assertThat(getLayoutServer(SERVERS.PORT_0).getCurrentLayout().getEpoch())
+                .isEqualTo(sealedLayout.getEpoch());
+        assertThat(getLayoutServer(SERVERS.PORT_0).getCurrentLayout().getLayoutServers())
+                .doesNotContain(SERVERS.ENDPOINT_2);
+    }
+
+    /**
+     * Fails the primary sequencer, after writing to 2 streams.
+     * Asserts the global tail and the stream tails are requested from the log units
+     * before the new primary sequencer is bootstrapped, and that it issues tokens after
+     * them.
+     */
+    @Test
+    public void sequencerIsBootstrappedWithTheCollectedTails() {
+        Layout layout = bootstrapServers();
+        CorfuRuntime corfuRuntime = getConnectedRuntime(layout);
+
+        final UUID streamA = CorfuRuntime.getStreamID("streamA");
+        final UUID streamB = CorfuRuntime.getStreamID("streamB");
+        byte[] testPayload = "hello world".getBytes();
+        corfuRuntime.getStreamsView().get(streamA).append(testPayload);
+        corfuRuntime.getStreamsView().get(streamB).append(testPayload);
+        corfuRuntime.getStreamsView().get(streamA).append(testPayload);
+        final long tailA = 2L;
+        final long tailB = 1L;
+        final long globalTail = 3L;
+
+        List<CorfuMsgType> requests = Collections.synchronizedList(new ArrayList<>());
+        addClientRule(corfuRuntime, new TestRule().matches(corfuMsg -> {
+            if (corfuMsg.getMsgType().equals(CorfuMsgType.TAIL_REQUEST)
+                    || corfuMsg.getMsgType().equals(CorfuMsgType.STREAM_TAILS_REQUEST)
+                    || corfuMsg.getMsgType().equals(CorfuMsgType.BOOTSTRAP_SEQUENCER)) {
+                requests.add(corfuMsg.getMsgType());
+            }
+            return true;
+        }));
+
+        assertThat(new ReconfigurationEventHandler().handleFailure(
+                new ConservativeFailureHandlerPolicy(), layout, corfuRuntime,
+                Collections.singleton(SERVERS.ENDPOINT_0), Collections.emptySet()))
+                .isTrue();
+
+        final int bootstrap = requests.indexOf(CorfuMsgType.BOOTSTRAP_SEQUENCER);
+        assertThat(bootstrap)
+                .isGreaterThan(requests.lastIndexOf(CorfuMsgType.TAIL_REQUEST))
+                .isGreaterThan(requests.lastIndexOf(CorfuMsgType.STREAM_TAILS_REQUEST));
+        assertThat(requests.subList(0, bootstrap))
+                .contains(CorfuMsgType.TAIL_REQUEST, CorfuMsgType.STREAM_TAILS_REQUEST);
+
+        assertThat(corfuRuntime.getLayoutView().getLayout().getSequencers().get(0))
+                .isEqualTo(SERVERS.ENDPOINT_1);
+        assertThat(getSequencer(SERVERS.PORT_1).getGlobalLogTail().get())
+                .isEqualTo(globalTail);
+        assertThat(corfuRuntime.getSequencerView()
+                .nextToken(Collections.singleton(streamA), 0).getToken().getTokenValue())
+                .isEqualTo(tailA);
+        assertThat(corfuRuntime.getSequencerView()
+                .nextToken(Collections.singleton(streamB), 0).getToken().getTokenValue())
+                .isEqualTo(tailB);
+    }
+
+    /**
+     * Returns a new copy of the layout of the 3 servers, at epoch 1.
+     */
+    private Layout getLayout() {
+        return new TestLayoutBuilder()
+                .setEpoch(1L)
+                .addLayoutServer(SERVERS.PORT_0)
+                .addLayoutServer(SERVERS.PORT_1)
+                .addLayoutServer(SERVERS.PORT_2)
+                .addSequencer(SERVERS.PORT_0)
+                .addSequencer(SERVERS.PORT_1)
+                .addSequencer(SERVERS.PORT_2)
+                .buildSegment()
+                .buildStripe()
+                .addLogUnit(SERVERS.PORT_0)
+                .addLogUnit(SERVERS.PORT_1)
+                .addLogUnit(SERVERS.PORT_2)
+                .addToSegment()
+                .addToLayout()
+                .build();
+    }
+
+    /**
+     * Adds 3 servers, and bootstraps them with the layout of {@link #getLayout()}.
+     */
+    private Layout bootstrapServers() {
+        addServer(SERVERS.PORT_0);
+        addServer(SERVERS.PORT_1);
+        addServer(SERVERS.PORT_2);
+
+        Layout layout = getLayout();
+        bootstrapAllServers(layout);
+        return layout;
+    }
+
+    /**
+     * Returns a runtime connected to the layout, with a router to each of its servers, so
+     * that client rules can be installed on them.
+     */
+    private CorfuRuntime getConnectedRuntime(Layout layout) {
+        CorfuRuntime corfuRuntime = new CorfuRuntime();
+        layout.getLayoutServers().forEach(corfuRuntime::addLayoutServer);
+        corfuRuntime.connect();
+        layout.getAllServers().forEach(corfuRuntime::getRouter);
+        return corfuRuntime;
+    }
+
+    private void setAggressiveTimeouts(Layout layout, CorfuRuntime corfuRuntime) {
+        layout.getAllServers().forEach(server -> {
+            corfuRuntime.getRouter(server).setTimeoutConnect(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+            corfuRuntime.getRouter(server).setTimeoutResponse(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+            corfuRuntime.getRouter(server).setTimeoutRetry(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+        });
+    }
+
+    /**
+     * Counts the prepares the runtime sends to each layout server.
+     */
+    private Map<String, AtomicInteger> countPrepares(CorfuRuntime corfuRuntime, Layout layout) {
+        Map<String, AtomicInteger> prepares = new HashMap<>();
+        for (String server : layout.getLayoutServers()) {
+            AtomicInteger count = new AtomicInteger();
+            prepares.put(server, count);
+            addClientRule(corfuRuntime, server, new TestRule().matches(corfuMsg -> {
+                if (corfuMsg.getMsgType().equals(CorfuMsgType.LAYOUT_PREPARE)) {
+                    count.incrementAndGet();
+                }
+                return true;
+            }));
+        }
+        return prepares;
     }
 }
@@ -1,10 +1,13 @@
 package org.corfudb.infrastructure;
 
 import org.corfudb.protocols.wireprotocol.*;
+import org.corfudb.runtime.view.Address;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -109,6 +112,31 @@ public class SequencerServerTest extends AbstractServerTest {
         }
     }
 
+    @Test
+    public void multiStreamQueryReturnsTheTailOfEachStream() {
+        UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
+        UUID streamB = UUID.nameUUIDFromBytes("streamB".getBytes());
+        UUID streamC = UUID.nameUUIDFromBytes("streamC".getBytes());
+
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.TOKEN_REQ,
+                new TokenRequest(1L, Collections.singleton(streamA))));
+        long tailA = getLastPayloadMessageAs(TokenResponse.class).getTokenValue();
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.TOKEN_REQ,
+                new TokenRequest(1L, Collections.singleton(streamB))));
+        long tailB = getLastPayloadMessageAs(TokenResponse.class).getTokenValue();
+
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.TOKEN_REQ,
+                new TokenRequest(0L, new HashSet<>(Arrays.asList(streamA, streamB, streamC)))));
+        TokenResponse query = getLastPayloadMessageAs(TokenResponse.class);
+
+        assertThat(query.getTokenValue())
+                .isEqualTo(tailB);
+        assertThat(query.getBackpointerMap())
+                .containsEntry(streamA, tailA)
+                .containsEntry(streamB, tailB)
+                .containsEntry(streamC, Address.NON_EXIST);
+    }
+
     @Test
     public void checkBackpointersWork() {
         UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
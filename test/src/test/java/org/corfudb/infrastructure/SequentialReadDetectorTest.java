@@ -0,0 +1,72 @@
+package org.corfudb.infrastructure;
+
+import java.util.UUID;
+
+import org.corfudb.AbstractCorfuTest;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the detection of clients which scan the log sequentially.
+ */
+public class SequentialReadDetectorTest extends AbstractCorfuTest {
+
+    private static final long BATCH = 10L;
+
+    @Test
+    public void readsContinuingThePreviousReadAreSequential() {
+        SequentialReadDetector detector = new SequentialReadDetector();
+        UUID client = UUID.randomUUID();
+
+        // The first read of a client is not known to continue anything.
+        assertThat(detector.isSequential(client, 0L, BATCH - 1))
+                .isFalse();
+        for (long first = BATCH; first < BATCH * PARAMETERS.NUM_ITERATIONS_VERY_LOW;
+                first += BATCH) {
+            assertThat(detector.isSequential(client, first, first + BATCH - 1))
+                    .isTrue();
+        }
+    }
+
+    @Test
+    public void readsElsewhereAreNotSequential() {
+        SequentialReadDetector detector = new SequentialReadDetector();
+        UUID client = UUID.randomUUID();
+
+        detector.isSequential(client, 0L, BATCH - 1);
+        // A gap, a re-read and a read backwards all break the scan.
+        assertThat(detector.isSequential(client, BATCH + 1, BATCH * 2))
+                .isFalse();
+        assertThat(detector.isSequential(client, BATCH + 1, BATCH * 2))
+                .isFalse();
+        assertThat(detector.isSequential(client, 0L, BATCH - 1))
+                .isFalse();
+        // The scan resumes from the last read.
+        assertThat(detector.isSequential(client, BATCH, BATCH))
+                .isTrue();
+    }
+
+    @Test
+    public void clientsAreTrackedSeparately() {
+        SequentialReadDetector detector = new SequentialReadDetector();
+        UUID scanner = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        detector.isSequential(scanner, 0L, BATCH - 1);
+        // Another client reading where the scanner stopped is not scanning.
+        assertThat(detector.isSequential(other, BATCH, BATCH * 2 - 1))
+                .isFalse();
+        assertThat(detector.isSequential(scanner, BATCH, BATCH * 2 - 1))
+                .isTrue();
+    }
+
+    @Test
+    public void readsOfUnknownClientsAreNotSequential() {
+        SequentialReadDetector detector = new SequentialReadDetector();
+        assertThat(detector.isSequential(null, 0L, BATCH - 1))
+                .isFalse();
+        assertThat(detector.isSequential(null, BATCH, BATCH * 2 - 1))
+                .isFalse();
+    }
+}
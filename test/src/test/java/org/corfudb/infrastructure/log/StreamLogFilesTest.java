@@ -12,9 +12,11 @@ import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 import io.netty.buffer.Unpooled;
 import org.apache.commons.io.FileUtils;
@@ -24,9 +26,13 @@ import org.corfudb.infrastructure.ServerContext;
 import org.corfudb.infrastructure.ServerContextBuilder;
 import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.protocols.wireprotocol.IMetadata;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.SegmentFileType;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.runtime.view.Address;
 import org.corfudb.util.serializer.Serializers;
 import org.junit.Test;
 
@@ -695,4 +701,191 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
         assertThat(log.getGlobalTail()).isEqualTo(globalTailAfterReset);
         assertThat(log.getTrimMark()).isEqualTo(trimMarkAfterReset);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sequentialReadsUseReadAhead() {
+        StreamLogFiles log = new StreamLogFiles(getContext(), false);
+        final long maxWait = StreamLogFiles.READ_AHEAD_MAX_WAIT_MS;
+        // Wait for the read-ahead, so that every read it covers is served by it.
+        StreamLogFiles.READ_AHEAD_MAX_WAIT_MS = PARAMETERS.TIMEOUT_LONG.toMillis();
+        try {
+            final int numEntries = StreamLogFiles.READ_AHEAD_RECORDS * 3;
+            List<LogData> entries = new ArrayList<>();
+            for (int x = 0; x < numEntries; x++) {
+                ByteBuf b = Unpooled.buffer();
+                Serializers.CORFU.serialize(("Payload" + x).getBytes(), b);
+                LogData ld = new LogData(DataType.DATA, b);
+                ld.setGlobalAddress((long) x);
+                entries.add(ld);
+            }
+            log.append(entries);
+
+            // A trimmed record must not be served from the read-ahead buffer.
+            final long trimmedAddress = StreamLogFiles.READ_AHEAD_RECORDS / 2;
+            log.read(0L);
+            log.read(1L);
+            log.trim(trimmedAddress);
+
+            for (long x = 2; x < numEntries; x++) {
+                LogData ld = log.read(x);
+                if (x == trimmedAddress) {
+                    assertThat(ld.isTrimmed()).isTrue();
+                    continue;
+                }
+                assertThat(ld.getGlobalAddress()).isEqualTo(x);
+                assertThat(ld.getPayload(null)).isEqualTo(("Payload" + x).getBytes());
+            }
+
+            // Every read but the first one, which starts the read-ahead, and the read
+            // of the trimmed record was served by the read-ahead.
+            assertThat(log.getReadAheadHits()).isEqualTo(numEntries - 2);
+        } finally {
+            StreamLogFiles.READ_AHEAD_MAX_WAIT_MS = maxWait;
+            log.close();
+        }
+    }
+
+    @Test
+    public void rankedOverwriteInvalidatesReadAhead() {
+        StreamLogFiles log = new StreamLogFiles(getContext(), false);
+        final long maxWait = StreamLogFiles.READ_AHEAD_MAX_WAIT_MS;
+        StreamLogFiles.READ_AHEAD_MAX_WAIT_MS = PARAMETERS.TIMEOUT_LONG.toMillis();
+        try {
+            final int numEntries = StreamLogFiles.READ_AHEAD_RECORDS;
+            for (long x = 0; x < numEntries; x++) {
+                writeRanked(log, x, "v-1", 1);
+            }
+
+            // Start the read-ahead, and wait for the records before the overwrite.
+            final long overwrittenAddress = StreamLogFiles.READ_AHEAD_RECORDS / 2;
+            for (long x = 0; x < overwrittenAddress; x++) {
+                log.read(x);
+            }
+            final long hits = log.getReadAheadHits();
+            assertThat(hits).isEqualTo(overwrittenAddress - 1);
+
+            writeRanked(log, overwrittenAddress, "v-2", 2);
+
+            // The overwritten record is read directly, the others are still read ahead.
+            for (long x = overwrittenAddress; x < numEntries; x++) {
+                LogData ld = log.read(x);
+                String expected = x == overwrittenAddress ? "v-2" : "v-1";
+                assertThat(new String(ld.getData())).contains(expected);
+            }
+            assertThat(log.getReadAheadHits())
+                    .isEqualTo(hits + numEntries - overwrittenAddress - 1);
+        } finally {
+            StreamLogFiles.READ_AHEAD_MAX_WAIT_MS = maxWait;
+            log.close();
+        }
+    }
+
+    private void writeRanked(StreamLog log, long address, String payload, long rank) {
+        ByteBuf b = Unpooled.buffer();
+        Serializers.CORFU.serialize(payload.getBytes(), b);
+        LogData ld = new LogData(DataType.DATA, b);
+        ld.setRank(new IMetadata.DataRank(rank));
+        log.append(address, ld);
+    }
+
+    private void writeToStream(StreamLog log, long address, UUID streamId) {
+        ByteBuf b = Unpooled.buffer();
+        Serializers.CORFU.serialize("Payload".getBytes(), b);
+        LogData ld = new LogData(DataType.DATA, b);
+        ld.setBackpointerMap(Collections.singletonMap(streamId, Address.NO_BACKPOINTER));
+        log.append(address, ld);
+    }
+
+    @Test
+    public void streamTailsSurviveTrimAndRestart() {
+        ServerContext sc = getContext();
+        StreamLog log = new StreamLogFiles(sc, false);
+        UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
+        UUID streamB = UUID.nameUUIDFromBytes("streamB".getBytes());
+
+        final long tailA = RECORDS_PER_LOG_FILE * 2L;
+        final long tailB = RECORDS_PER_LOG_FILE * 3L + 1;
+        writeToStream(log, 0L, streamA);
+        writeToStream(log, 1L, streamB);
+        writeToStream(log, tailA, streamA);
+        writeToStream(log, tailB, streamB);
+
+        assertThat(log.getStreamTails())
+                .containsEntry(streamA, tailA)
+                .containsEntry(streamB, tailB)
+                .hasSize(2);
+
+        // Trimming the log does not affect the stream tails.
+        log.prefixTrim(tailA);
+        log.compact();
+        assertThat(log.getStreamTails())
+                .containsEntry(streamA, tailA);
+
+        StreamLog log2 = new StreamLogFiles(sc, false);
+        assertThat(log2.getStreamTails())
+                .containsEntry(streamA, tailA)
+                .containsEntry(streamB, tailB)
+                .hasSize(2);
+    }
+
+    private void copySegment(SegmentedStreamLog src, SegmentedStreamLog dst, long segment) {
+        final int chunkSize = 64;
+        for (SegmentFileType type : SegmentFileType.values()) {
+            long offset = 0L;
+            SegmentChunk chunk;
+            do {
+                chunk = src.readSegmentChunk(segment, type, offset, chunkSize);
+                dst.writeSegmentChunk(chunk);
+                offset += chunk.getData().length;
+            } while (offset < chunk.getFileLength());
+        }
+    }
+
+    @Test
+    public void sealedSegmentsAreTransferred() {
+        StreamLogFiles src = new StreamLogFiles(getContext(), false);
+        StreamLogFiles dst = new StreamLogFiles(new ServerContextBuilder()
+                .setLogPath(getDirPath() + File.separator + "dst")
+                .setMemory(false)
+                .build(), false);
+        UUID streamId = UUID.nameUUIDFromBytes("stream".getBytes());
+
+        final long numEntries = 3L;
+        for (long address = 0; address < numEntries; address++) {
+            writeToStream(src, address, streamId);
+        }
+        // Seal the first segment.
+        writeToStream(src, RECORDS_PER_LOG_FILE, streamId);
+        assertThat(src.getSegmentInfo().getTailSegment())
+                .isEqualTo(1L);
+
+        // Only sealed segments can be read.
+        assertThatThrownBy(() -> src.readSegmentChunk(1L, SegmentFileType.LOG, 0L, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Chunks whose bytes don't match their checksum are rejected.
+        SegmentChunk chunk = src.readSegmentChunk(0L, SegmentFileType.LOG, 0L, Short.SIZE);
+        byte[] corrupted = chunk.getData().clone();
+        corrupted[0]++;
+        assertThatThrownBy(() -> dst.writeSegmentChunk(new SegmentChunk(chunk.getSegment(),
+                chunk.getType(), chunk.getOffset(), chunk.getFileLength(), corrupted,
+                chunk.getChecksum())))
+                .isInstanceOf(DataCorruptionException.class);
+
+        copySegment(src, dst, 0L);
+        dst.installSegment(0L);
+        for (long address = 0; address < numEntries; address++) {
+            assertThat(dst.read(address).getPayload(null))
+                    .isEqualTo(src.read(address).getPayload(null));
+        }
+        assertThat(dst.getGlobalTail())
+                .isEqualTo(numEntries - 1);
+        assertThat(dst.getStreamTails())
+                .containsEntry(streamId, numEntries - 1);
+
+        // A segment which already holds entries can't be replaced.
+        copySegment(src, dst, 0L);
+        assertThatThrownBy(() -> dst.installSegment(0L))
+                .isInstanceOf(OverwriteException.class);
+    }
+}
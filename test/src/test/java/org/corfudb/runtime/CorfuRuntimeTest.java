@@ -1,6 +1,8 @@
 package org.corfudb.runtime;
 
+import com.codahale.metrics.Counter;
 import org.corfudb.infrastructure.TestLayoutBuilder;
+import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.runtime.clients.LogUnitClient;
 import org.corfudb.runtime.clients.TestRule;
 import org.corfudb.runtime.exceptions.WrongEpochException;
@@ -173,4 +175,66 @@ public class CorfuRuntimeTest extends AbstractViewTest {
                 .isInstanceOf(ExecutionException.class)
                 .hasRootCauseInstanceOf(WrongEpochException.class);
     }
+
+    /**
+     * Ensures that concurrent invalidations of the same stale layout result in a
+     * single fetch, and that invalidations of an older layout don't fetch at all.
+     */
+    @Test
+    public void concurrentInvalidationsOfAnEpochFetchOnce() throws Exception {
+        CorfuRuntime rt = getDefaultRuntime().connect();
+        rt.retryRate = 0;
+        rt.getRouter(SERVERS.ENDPOINT_0).setTimeoutResponse(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+        final long epoch = rt.layout.get().getEpoch();
+        final Counter fetches = rt.getMetrics().counter(CorfuRuntime.getMpLayout() + "fetches");
+        final long fetchesBefore = fetches.getCount();
+
+        // Hold the fetch until all the invalidations are done.
+        addClientRule(rt, new TestRule().matches(m ->
+                m.getMsgType() == CorfuMsgType.LAYOUT_REQUEST).drop());
+
+        scheduleConcurrently(PARAMETERS.NUM_ITERATIONS_LOW, (v) -> {
+            rt.invalidateLayout(epoch);
+            rt.invalidateLayout(epoch - 1);
+        });
+        executeScheduled(PARAMETERS.CONCURRENCY_SOME, PARAMETERS.TIMEOUT_LONG);
+
+        assertThat(fetches.getCount() - fetchesBefore)
+                .isEqualTo(1L);
+
+        clearClientRules(rt);
+        assertThat(rt.layout.get().getEpoch())
+                .isEqualTo(epoch);
+
+        // The layout is not newer than the stale epoch, so it is fetched again.
+        rt.invalidateLayout(epoch);
+        assertThat(fetches.getCount() - fetchesBefore)
+                .isEqualTo(2L);
+    }
+
+    /**
+     * Ensures that a runtime fetches a layout committed by another runtime, as soon as
+     * the layout servers push it, without any invalidation.
+     */
+    @Test
+    public void committedLayoutIsPushedToRuntimes() throws Exception {
+        CorfuRuntime rt = getDefaultRuntime().connect();
+        final long epoch = rt.layout.get().getEpoch();
+
+        CorfuRuntime otherRt = new CorfuRuntime(getDefaultEndpoint()).connect();
+        Layout newLayout = (Layout) otherRt.getLayoutView().getLayout().clone();
+        newLayout.setRuntime(otherRt);
+        newLayout.setEpoch(epoch + 1);
+        newLayout.moveServersToEpoch();
+        otherRt.getLayoutView().updateLayout(newLayout, 1L);
+
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            if (rt.layout.isDone() && rt.layout.get().getEpoch() == epoch + 1) {
+                break;
+            }
+            Thread.sleep(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+        }
+        assertThat(rt.layout.get().getEpoch())
+                .isEqualTo(epoch + 1);
+    }
 }
@@ -0,0 +1,99 @@
+package org.corfudb.runtime.clients;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import org.corfudb.AbstractCorfuTest;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the coalescing of the flushes of outbound messages.
+ */
+public class FlushCoalescingHandlerTest extends AbstractCorfuTest {
+
+    private static final int MESSAGE_SIZE = 16;
+
+    /**
+     * Counts the flushes which reach the socket.
+     */
+    private static class FlushCounter extends ChannelOutboundHandlerAdapter {
+        int flushes;
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) throws Exception {
+            flushes++;
+            ctx.flush();
+        }
+    }
+
+    private void writeAndFlush(EmbeddedChannel channel, int messages) {
+        for (int i = 0; i < messages; i++) {
+            channel.writeAndFlush(Unpooled.buffer(MESSAGE_SIZE).writeZero(MESSAGE_SIZE));
+        }
+    }
+
+    @Test
+    public void burstOfWritesIsFlushedOnce() {
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter,
+                new FlushCoalescingHandler(Integer.MAX_VALUE, Long.MAX_VALUE, null));
+        final int flushesBefore = counter.flushes;
+
+        writeAndFlush(channel, PARAMETERS.NUM_ITERATIONS_LOW);
+        // The flush waits for the event loop to run the writes queued to it.
+        assertThat(counter.flushes)
+                .isEqualTo(flushesBefore);
+        channel.runPendingTasks();
+        assertThat(counter.flushes)
+                .isEqualTo(flushesBefore + 1);
+        assertThat(channel.outboundMessages())
+                .hasSize(PARAMETERS.NUM_ITERATIONS_LOW);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void writesAreFlushedAtTheThresholds() {
+        final int maxMessages = PARAMETERS.NUM_ITERATIONS_VERY_LOW;
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter,
+                new FlushCoalescingHandler(maxMessages, Long.MAX_VALUE, null));
+        final int flushesBefore = counter.flushes;
+
+        writeAndFlush(channel, maxMessages * 2);
+        assertThat(counter.flushes)
+                .isEqualTo(flushesBefore + 2);
+        channel.finishAndReleaseAll();
+
+        counter = new FlushCounter();
+        channel = new EmbeddedChannel(counter,
+                new FlushCoalescingHandler(Integer.MAX_VALUE, MESSAGE_SIZE * 2, null));
+        final int bytesFlushesBefore = counter.flushes;
+
+        writeAndFlush(channel, 2 * 2);
+        assertThat(counter.flushes)
+                .isEqualTo(bytesFlushesBefore + 2);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void pendingWritesAreFlushedWhenReadCompletes() {
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter,
+                new FlushCoalescingHandler(Integer.MAX_VALUE, Long.MAX_VALUE, null));
+        final int flushesBefore = counter.flushes;
+
+        channel.pipeline().fireChannelRead(Unpooled.EMPTY_BUFFER);
+        // Writes made while reading are flushed together once the read completes.
+        writeAndFlush(channel, PARAMETERS.NUM_ITERATIONS_LOW);
+        assertThat(counter.flushes)
+                .isEqualTo(flushesBefore);
+        channel.pipeline().fireChannelReadComplete();
+        assertThat(counter.flushes)
+                .isEqualTo(flushesBefore + 1);
+        channel.finishAndReleaseAll();
+    }
+}
@@ -1,7 +1,9 @@
 package org.corfudb.runtime.clients;
 
+import com.codahale.metrics.Counter;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Range;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.corfudb.format.Types;
@@ -14,12 +16,17 @@ import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.IMetadata;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.LogDataDigest;
+import org.corfudb.protocols.wireprotocol.ReadDigestResponse;
+import org.corfudb.protocols.wireprotocol.ReadHint;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.protocols.wireprotocol.ScanResponse;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.DataOutrankedException;
 import org.corfudb.runtime.exceptions.OverwriteException;
 import org.corfudb.runtime.exceptions.ValueAdoptedException;
+import org.corfudb.runtime.view.Address;
 import org.corfudb.util.serializer.Serializers;
 import org.junit.Test;
 
@@ -346,6 +353,186 @@ public class LogUnitClientTest extends AbstractClientTest {
         assertThat(resp.getAddresses().size()).isEqualTo(twoBatches);
     }
 
+    @Test
+    public void sequentialReadsBypassServerCache() throws Exception {
+        final long numEntries = 4;
+        byte[] payload = "payload".getBytes();
+        for (long x = 0; x < numEntries; x++) {
+            client.write(x, Collections.emptySet(), null, payload, Collections.emptyMap()).get();
+        }
+        client.flushCache().get();
+
+        // A read hinted as sequential is not cached.
+        client.read(Range.closed(0L, 1L), ReadHint.SEQUENTIAL).get();
+        assertThat(server.getDataCache().asMap()).isEmpty();
+
+        // A read continuing the previous one is detected as sequential.
+        client.read(Collections.singletonList(2L)).get();
+        assertThat(server.getDataCache().asMap()).isEmpty();
+
+        // A read elsewhere is cached.
+        client.read(0).get();
+        assertThat(server.getDataCache().asMap()).containsOnlyKeys(0L);
+    }
+
+    @Test
+    public void digestReadsBypassServerCache() throws Exception {
+        final long numEntries = 4;
+        byte[] payload = "payload".getBytes();
+        List<Long> addresses = new ArrayList<>();
+        for (long x = 0; x < numEntries; x++) {
+            client.write(x, Collections.emptySet(), null, payload, Collections.emptyMap()).get();
+            addresses.add(x);
+        }
+        ReadResponse entries = client.read(addresses).get();
+        client.flushCache().get();
+
+        ReadDigestResponse digests = client.readDigests(addresses).get();
+        assertThat(server.getDataCache().asMap())
+                .isEmpty();
+        for (long x = 0; x < numEntries; x++) {
+            assertThat(digests.getDigests().get(x))
+                    .isEqualTo(LogDataDigest.of(entries.getAddresses().get(x)));
+        }
+    }
+
+    @Test
+    public void streamTailsAreTrackedOnWrite() throws Exception {
+        final long numEntries = 10;
+        final UUID streamA = CorfuRuntime.getStreamID("a");
+        final UUID streamB = CorfuRuntime.getStreamID("b");
+        byte[] payload = "payload".getBytes();
+        assertThat(client.getStreamTails().get())
+                .isEmpty();
+
+        for (long x = 0; x < numEntries; x++) {
+            client.write(x, Collections.emptySet(), null, payload,
+                    Collections.singletonMap(x % 2 == 0 ? streamA : streamB,
+                            Address.NON_EXIST)).get();
+        }
+
+        assertThat(client.getStreamTails().get())
+                .containsEntry(streamA, numEntries - 2)
+                .containsEntry(streamB, numEntries - 1)
+                .hasSize(2);
+    }
+
+    @Test
+    public void sequentialMissesAreCountedAndNotCached() throws Exception {
+        final long numEntries = 4;
+        final String prefix = "corfu.server.logunit.cache.";
+        final Counter sequentialHits = ServerContext.getMetrics()
+                .counter(prefix + "sequential.hits");
+        final Counter sequentialMisses = ServerContext.getMetrics()
+                .counter(prefix + "sequential.misses");
+        final Counter normalMisses = ServerContext.getMetrics()
+                .counter(prefix + "normal.misses");
+        byte[] payload = "payload".getBytes();
+        for (long x = 0; x < numEntries; x++) {
+            client.write(x, Collections.emptySet(), null, payload, Collections.emptyMap()).get();
+        }
+        client.flushCache().get();
+
+        long hits = sequentialHits.getCount();
+        long misses = sequentialMisses.getCount();
+        client.read(Range.closed(0L, 1L), ReadHint.SEQUENTIAL).get();
+        assertThat(sequentialMisses.getCount())
+                .isEqualTo(misses + 2);
+        assertThat(server.getDataCache().asMap())
+                .isEmpty();
+
+        // A normal miss is cached, and then served to a sequential read from the cache.
+        final long normal = normalMisses.getCount();
+        client.read(0).get();
+        assertThat(normalMisses.getCount())
+                .isEqualTo(normal + 1);
+        client.read(Range.closed(0L, 1L), ReadHint.SEQUENTIAL).get();
+        assertThat(sequentialHits.getCount())
+                .isEqualTo(hits + 1);
+        assertThat(sequentialMisses.getCount())
+                .isEqualTo(misses + 3);
+        assertThat(server.getDataCache().asMap())
+                .containsOnlyKeys(0L);
+    }
+
+    @Test
+    public void scanReturnsOnlyRequestedStreams() throws Exception {
+        final long numEntries = 10;
+        final UUID streamA = CorfuRuntime.getStreamID("a");
+        final UUID streamB = CorfuRuntime.getStreamID("b");
+        byte[] payload = "payload".getBytes();
+        for (long x = 0; x < numEntries; x++) {
+            client.write(x, Collections.emptySet(), null, payload,
+                    Collections.singletonMap(x % 2 == 0 ? streamA : streamB,
+                            Address.NON_EXIST)).get();
+        }
+        client.flushCache().get();
+
+        ScanResponse resp = client.scan(Range.closed(0L, numEntries - 1),
+                Collections.singleton(streamA), Integer.MAX_VALUE).get();
+        assertThat(resp.isComplete()).isTrue();
+        assertThat(resp.getAddresses().keySet())
+                .containsExactlyInAnyOrder(0L, 2L, 4L, 6L, 8L);
+        assertThat(resp.getAddresses().get(2L).getPayload(new CorfuRuntime()))
+                .isEqualTo(payload);
+
+        // Scanned entries should not be added to the cache.
+        assertThat(server.getDataCache().asMap())
+                .isEmpty();
+    }
+
+    @Test
+    public void scanCanBeContinued() throws Exception {
+        final long numEntries = 10;
+        byte[] payload = "payload".getBytes();
+        for (long x = 0; x < numEntries; x++) {
+            client.write(x, Collections.emptySet(), null, payload,
+                    Collections.singletonMap(CorfuRuntime.getStreamID("a"),
+                            Address.NON_EXIST)).get();
+        }
+
+        // A scan returns at least one entry, so a limit of one byte scans one by one.
+        List<Long> scanned = new ArrayList<>();
+        long next = 0;
+        while (next != ScanResponse.SCAN_COMPLETE) {
+            ScanResponse resp = client.scan(Range.closed(next, numEntries - 1),
+                    Collections.emptySet(), 1).get();
+            assertThat(resp.getAddresses())
+                    .hasSize(1);
+            scanned.addAll(resp.getAddresses().keySet());
+            next = resp.getNextAddress();
+        }
+        assertThat(scanned)
+                .hasSize((int) numEntries);
+    }
+
+    @Test
+    public void scanOfSparseRangeIsContinued() throws Exception {
+        final long lastAddress = LogUnitServer.SCAN_MAX_ADDRESSES + 1L;
+        final UUID streamA = CorfuRuntime.getStreamID("a");
+        byte[] payload = "payload".getBytes();
+        for (long x : new long[] {0L, lastAddress}) {
+            client.write(x, Collections.emptySet(), null, payload,
+                    Collections.singletonMap(streamA, Address.NON_EXIST)).get();
+        }
+
+        // The first request stops after examining as many addresses as it may.
+        ScanResponse resp = client.scan(Range.closed(1L, lastAddress),
+                Collections.singleton(streamA), Integer.MAX_VALUE).get();
+        assertThat(resp.isComplete()).isFalse();
+        assertThat(resp.getAddresses()).isEmpty();
+        assertThat(resp.getUnwritten())
+                .hasSize(LogUnitServer.SCAN_MAX_ADDRESSES);
+        assertThat(resp.getNextAddress())
+                .isEqualTo(1L + LogUnitServer.SCAN_MAX_ADDRESSES);
+
+        resp = client.scan(Range.closed(resp.getNextAddress(), lastAddress),
+                Collections.singleton(streamA), Integer.MAX_VALUE).get();
+        assertThat(resp.isComplete()).isTrue();
+        assertThat(resp.getAddresses().keySet())
+                .containsExactly(lastAddress);
+    }
+
     @Test
     public void backpointersCanBeWrittenAndRead()
             throws Exception {
@@ -10,6 +10,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -113,4 +114,29 @@ public class ManagementClientTest extends AbstractClientTest {
         byte[] buffer = client.sendHeartbeatRequest().get();
         assertThat(NodeMetrics.parseFrom(buffer)).isNotNull();
     }
+
+    /**
+     * Tests that the heartbeat carries the load of the node, such as the latency of
+     * its request handlers.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void heartbeatReportsLoad()
+            throws Exception {
+        final String writeTimer = "corfu.server.logunit.write";
+        final long slowWriteMs = 2000L;
+        ServerContext.getMetrics().timer(writeTimer).update(slowWriteMs, TimeUnit.MILLISECONDS);
+        try {
+            NodeMetrics nodeMetrics = NodeMetrics.parseFrom(client.sendHeartbeatRequest().get());
+            assertThat(nodeMetrics.getEndpoint())
+                    .isNotEmpty();
+            assertThat(nodeMetrics.hasBatchWriterQueueSize())
+                    .isTrue();
+            assertThat(nodeMetrics.getHandlerLatencyP99Ms())
+                    .isGreaterThanOrEqualTo(slowWriteMs);
+        } finally {
+            ServerContext.getMetrics().remove(writeTimer);
+        }
+    }
 }
@@ -1,8 +1,20 @@
 package org.corfudb.runtime.clients;
 
+import com.codahale.metrics.MetricRegistry;
+import io.netty.channel.Channel;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.corfudb.protocols.wireprotocol.CorfuMsg;
+import org.corfudb.protocols.wireprotocol.CorfuMsgType;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Created by rmichoud on 7/15/17.
@@ -29,4 +41,235 @@ public class NettyClientRouterTest extends NettyCommTest {
                     assertThat(r.getEpoch()).isNotEqualTo(currentEpoch-1).isEqualTo(currentEpoch);
                 });
     }
+
+    @Test
+    public void coalescedFlushesCompleteAllRequests() throws Exception {
+        runWithBaseServer(
+                (port) -> {
+                    return new NettyServerData(port);
+                },
+                (port) -> {
+                    CorfuRuntimeParameters parameters = new CorfuRuntimeParameters();
+                    parameters.setFlushCoalescingEnabled(true);
+                    return new NettyClientRouter("localhost", port, false,
+                            null, null, null, null, false, null, null, null, parameters);
+                },
+                (r, d) -> {
+                    // A single request must still be flushed promptly.
+                    assertThat(r.getClient(BaseClient.class).pingSync())
+                            .isTrue();
+
+                    CompletableFuture<Boolean>[] futures =
+                            new CompletableFuture[PARAMETERS.NUM_ITERATIONS_MODERATE];
+                    for (int i = 0; i < futures.length; i++) {
+                        futures[i] = r.getClient(BaseClient.class).ping();
+                    }
+                    CompletableFuture.allOf(futures).join();
+                    for (CompletableFuture<Boolean> f : futures) {
+                        assertThat(f.join())
+                                .isTrue();
+                    }
+                });
+    }
+
+    @Test
+    public void requestsSpreadOverPooledConnections() throws Exception {
+        for (ConnectionRoutingPolicy policy : ConnectionRoutingPolicy.values()) {
+            runWithBaseServer(
+                    (port) -> {
+                        return new NettyServerData(port);
+                    },
+                    (port) -> {
+                        CorfuRuntimeParameters parameters = new CorfuRuntimeParameters();
+                        parameters.setConnectionsPerEndpoint(PARAMETERS.CONCURRENCY_SOME);
+                        parameters.setConnectionRoutingPolicy(policy);
+                        return new NettyClientRouter("localhost", port, false,
+                                null, null, null, null, false, null, null, null,
+                                parameters);
+                    },
+                    (r, d) -> {
+                        assertThat(r.getConnectionRoutingPolicy())
+                                .isEqualTo(policy);
+                        CompletableFuture<Boolean>[] futures =
+                                new CompletableFuture[PARAMETERS.NUM_ITERATIONS_LOW];
+                        for (int i = 0; i < futures.length; i++) {
+                            futures[i] = r.getClient(BaseClient.class).ping();
+                        }
+                        CompletableFuture.allOf(futures).join();
+                        for (CompletableFuture<Boolean> f : futures) {
+                            assertThat(f.join())
+                                    .isTrue();
+                        }
+
+                        NettyClientRouter.Connection[] connections = r.getConnections();
+                        assertThat(Arrays.stream(connections).mapToLong(c -> c.sent.get()).sum())
+                                .isEqualTo(futures.length);
+                        if (policy == ConnectionRoutingPolicy.ROUND_ROBIN) {
+                            for (NettyClientRouter.Connection c : connections) {
+                                assertThat(c.sent.get())
+                                        .isGreaterThan(0L);
+                            }
+                        } else {
+                            // A busy connection is avoided while others are idle.
+                            final long sentBefore = connections[0].sent.get();
+                            connections[0].outstanding.addAndGet(futures.length);
+                            for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_VERY_LOW; i++) {
+                                assertThat(r.getClient(BaseClient.class).pingSync())
+                                        .isTrue();
+                            }
+                            connections[0].outstanding.addAndGet(-futures.length);
+                            assertThat(connections[0].sent.get())
+                                    .isEqualTo(sentBefore);
+                        }
+                    });
+        }
+    }
+
+    @Test
+    public void closedConnectionReconnectsAlone() throws Exception {
+        runWithBaseServer(
+                (port) -> {
+                    return new NettyServerData(port);
+                },
+                (port) -> {
+                    CorfuRuntimeParameters parameters = new CorfuRuntimeParameters();
+                    parameters.setConnectionsPerEndpoint(PARAMETERS.CONCURRENCY_SOME);
+                    return new NettyClientRouter("localhost", port, false,
+                            null, null, null, null, false, null, null, null, parameters);
+                },
+                (r, d) -> {
+                    NettyClientRouter.Connection[] connections = r.getConnections();
+                    Channel[] channels = Arrays.stream(connections)
+                            .map(c -> c.channel).toArray(Channel[]::new);
+
+                    // Starting a running router keeps its connections.
+                    r.start();
+                    for (int i = 0; i < connections.length; i++) {
+                        assertThat(connections[i].channel)
+                                .isSameAs(channels[i]);
+                    }
+
+                    channels[0].close().syncUninterruptibly();
+                    for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+                        if (connections[0].channel != channels[0]
+                                && connections[0].isActive()) {
+                            break;
+                        }
+                        Thread.sleep(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+                    }
+                    assertThat(connections[0].channel)
+                            .isNotSameAs(channels[0]);
+                    assertThat(connections[0].isActive())
+                            .isTrue();
+                    for (int i = 1; i < connections.length; i++) {
+                        assertThat(connections[i].channel)
+                                .isSameAs(channels[i]);
+                        assertThat(connections[i].isActive())
+                                .isTrue();
+                    }
+                    assertThat(r.getClient(BaseClient.class).pingSync())
+                            .isTrue();
+                });
+    }
+
+    @Test
+    public void unansweredRequestTimesOut() throws Exception {
+        runWithBaseServer(
+                (port) -> {
+                    return new NettyServerData(port);
+                },
+                (port) -> {
+                    return new NettyClientRouter("localhost", port);
+                },
+                (r, d) -> {
+                    r.setTimeoutResponse(PARAMETERS.TIMEOUT_SHORT.toMillis());
+                    final MetricRegistry metrics = CorfuRuntime.getDefaultMetrics();
+                    final String pfx = CorfuRuntime.getMpCR() + r.getHost() + ":"
+                            + r.getPort() + ".";
+                    final long timeoutsBefore = metrics.meter(pfx + "timeouts").getCount();
+
+                    // The base server does not handle tail requests, so it never answers.
+                    CorfuMsg msg = new CorfuMsg(CorfuMsgType.TAIL_REQUEST);
+                    CompletableFuture<Object> future = r.sendMessageAndGetCompletable(null, msg);
+                    assertThat(metrics.getGauges().get(pfx + "in-flight").getValue())
+                            .isEqualTo(1);
+
+                    assertThatThrownBy(future::join)
+                            .hasCauseInstanceOf(TimeoutException.class);
+                    assertThat(metrics.meter(pfx + "timeouts").getCount())
+                            .isEqualTo(timeoutsBefore + 1);
+                    assertThat(metrics.getGauges().get(pfx + "in-flight").getValue())
+                            .isEqualTo(0);
+                    assertThat(r.getConnections()[0].outstanding.get())
+                            .isEqualTo(0);
+
+                    // The router keeps serving requests.
+                    assertThat(r.getClient(BaseClient.class).pingSync())
+                            .isTrue();
+                });
+    }
+
+    @Test
+    public void inFlightGaugeReportsTheLatestRouter() throws Exception {
+        runWithBaseServer(
+                (port) -> {
+                    return new NettyServerData(port);
+                },
+                (port) -> {
+                    return new NettyClientRouter("localhost", port);
+                },
+                (r, d) -> {
+                    final MetricRegistry metrics = CorfuRuntime.getDefaultMetrics();
+                    final String gauge = CorfuRuntime.getMpCR() + r.getHost() + ":"
+                            + r.getPort() + ".in-flight";
+
+                    // A new router to the endpoint, as after a reconnect.
+                    NettyClientRouter other = new NettyClientRouter(r.getHost(), r.getPort());
+                    try {
+                        other.setTimeoutResponse(PARAMETERS.TIMEOUT_SHORT.toMillis());
+                        CorfuMsg msg = new CorfuMsg(CorfuMsgType.TAIL_REQUEST);
+                        CompletableFuture<Object> future =
+                                other.sendMessageAndGetCompletable(null, msg);
+                        assertThat(metrics.getGauges().get(gauge).getValue())
+                                .isEqualTo(1);
+                        assertThatThrownBy(future::join)
+                                .hasCauseInstanceOf(TimeoutException.class);
+                        assertThat(metrics.getGauges().get(gauge).getValue())
+                                .isEqualTo(0);
+                    } finally {
+                        other.stop(true);
+                    }
+
+                    // The gauge of a shut down router is removed.
+                    assertThat(metrics.getGauges())
+                            .doesNotContainKey(gauge);
+                });
+    }
+
+    @Test
+    public void responseAfterTimeoutIsDropped() throws Exception {
+        runWithBaseServer(
+                (port) -> {
+                    return new NettyServerData(port);
+                },
+                (port) -> {
+                    return new NettyClientRouter("localhost", port);
+                },
+                (r, d) -> {
+                    r.setTimeoutResponse(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+                    CorfuMsg msg = new CorfuMsg(CorfuMsgType.TAIL_REQUEST);
+                    CompletableFuture<Object> future = r.sendMessageAndGetCompletable(null, msg);
+                    assertThatThrownBy(future::join)
+                            .hasCauseInstanceOf(TimeoutException.class);
+
+                    // The late response is handled as a response from the server would be.
+                    r.completeRequest(msg.getRequestID(), true);
+                    assertThat(future.isCompletedExceptionally())
+                            .isTrue();
+                    assertThat(r.getConnections()[0].outstanding.get())
+                            .isEqualTo(0);
+                    assertThat(r.outstandingRequests.size())
+                            .isEqualTo(0);
+                });
+    }
 }
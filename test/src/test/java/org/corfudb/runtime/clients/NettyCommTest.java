@@ -2,14 +2,14 @@ package org.corfudb.runtime.clients;
 
 import com.google.common.collect.ImmutableMap;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.logging.LogLevel;
@@ -27,16 +27,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.corfudb.AbstractCorfuTest;
 import org.corfudb.infrastructure.BaseServer;
 import org.corfudb.infrastructure.NettyServerRouter;
+import org.corfudb.protocols.wireprotocol.CorfuMsg;
+import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.NettyCorfuMessageDecoder;
 import org.corfudb.protocols.wireprotocol.NettyCorfuMessageEncoder;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
 import org.corfudb.security.sasl.plaintext.PlainTextSaslNettyServer;
 import org.corfudb.security.tls.SslContextConstructor;
 import org.corfudb.security.tls.TlsUtils;
+import org.corfudb.util.ChannelImplementation;
 import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.net.ServerSocket;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -97,6 +102,98 @@ public class NettyCommTest extends AbstractCorfuTest {
             });
     }
 
+    @Test
+    public void nettyNativeTransportPingable() throws Exception {
+        runWithBaseServer(
+            (port) -> {
+                NettyServerData d = new NettyServerData(port);
+                d.setChannelImplementation(ChannelImplementation.select(true));
+                return d;
+            },
+            (port) -> {
+                CorfuRuntimeParameters parameters = new CorfuRuntimeParameters();
+                parameters.setNativeTransportEnabled(true);
+                return new NettyClientRouter("localhost", port, false,
+                        null, null, null, null, false, null, null, null, parameters);
+            },
+            (r, d) -> {
+                assertThat(r.getChannelImplementation())
+                        .isEqualTo(ChannelImplementation.select(true));
+                assertThat(r.getClient(BaseClient.class).pingSync())
+                        .isTrue();
+            });
+    }
+
+    @Test
+    public void encoderWritesToPooledDirectBuffers() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyCorfuMessageEncoder());
+        channel.config().setAllocator(PooledByteBufAllocator.DEFAULT);
+        channel.writeOutbound(CorfuMsgType.PING.msg());
+
+        ByteBuf encoded = channel.readOutbound();
+        try {
+            assertThat(encoded.isDirect())
+                    .isTrue();
+            assertThat(encoded.alloc())
+                    .isSameAs(PooledByteBufAllocator.DEFAULT);
+            assertThat(CorfuMsg.deserialize(encoded).getMsgType())
+                    .isEqualTo(CorfuMsgType.PING);
+        } finally {
+            encoded.release();
+            channel.finish();
+        }
+    }
+
+    /**
+     * Compare the loopback throughput and latency of the NIO and the
+     * native transport (if available on this platform).
+     */
+    @Test
+    public void loopbackThroughputByTransport() throws Exception {
+        runLoopbackBenchmark(false);
+        if (ChannelImplementation.select(true) == ChannelImplementation.EPOLL) {
+            runLoopbackBenchmark(true);
+        }
+    }
+
+    private void runLoopbackBenchmark(boolean nativeTransport) throws Exception {
+        runWithBaseServer(
+            (port) -> {
+                NettyServerData d = new NettyServerData(port);
+                d.setChannelImplementation(ChannelImplementation.select(nativeTransport));
+                return d;
+            },
+            (port) -> {
+                CorfuRuntimeParameters parameters = new CorfuRuntimeParameters();
+                parameters.setNativeTransportEnabled(nativeTransport);
+                return new NettyClientRouter("localhost", port, false,
+                        null, null, null, null, false, null, null, null, parameters);
+            },
+            (r, d) -> {
+                final String name = r.getChannelImplementation().toString();
+                final BaseClient client = r.getClient(BaseClient.class);
+
+                // Latency: one outstanding ping at a time.
+                long startTime = System.currentTimeMillis();
+                for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_MODERATE; i++) {
+                    assertThat(client.pingSync())
+                            .isTrue();
+                }
+                calculateRequestsPerSecond(name + "-sync", PARAMETERS.NUM_ITERATIONS_MODERATE,
+                        startTime);
+
+                // Throughput: all pings outstanding at once.
+                CompletableFuture<Boolean>[] futures =
+                        new CompletableFuture[PARAMETERS.NUM_ITERATIONS_MODERATE];
+                startTime = System.currentTimeMillis();
+                for (int i = 0; i < futures.length; i++) {
+                    futures[i] = client.ping();
+                }
+                CompletableFuture.allOf(futures).join();
+                calculateRequestsPerSecond(name + "-async", futures.length, startTime);
+            });
+    }
+
     @Test
     public void nettyTlsNoMutualAuth() throws Exception {
         runWithBaseServer(
@@ -474,6 +571,8 @@ public class NettyCommTest extends AbstractCorfuTest {
 
         boolean saslPlainTextAuthEnabled = false;
 
+        ChannelImplementation channelImplementation = ChannelImplementation.NIO;
+
         public NettyServerData(int port) {
             this.port = port;
         }
@@ -498,7 +597,7 @@ public class NettyCommTest extends AbstractCorfuTest {
 
         void bootstrapServer() throws Exception {
             NettyServerRouter nsr = new NettyServerRouter(new ImmutableMap.Builder<String, Object>().build());
-            bossGroup = new NioEventLoopGroup(1, new ThreadFactory() {
+            bossGroup = channelImplementation.generateEventLoopGroup(1, new ThreadFactory() {
                 final AtomicInteger threadNum = new AtomicInteger(0);
 
                 @Override
@@ -509,7 +608,7 @@ public class NettyCommTest extends AbstractCorfuTest {
                 }
             });
 
-            workerGroup = new NioEventLoopGroup(Runtime.getRuntime().availableProcessors() * 2, new ThreadFactory() {
+            workerGroup = channelImplementation.generateEventLoopGroup(Runtime.getRuntime().availableProcessors() * 2, new ThreadFactory() {
                 final AtomicInteger threadNum = new AtomicInteger(0);
 
                 @Override
@@ -536,7 +635,7 @@ public class NettyCommTest extends AbstractCorfuTest {
             final int FRAME_SIZE = 4;
             b = new ServerBootstrap();
             b.group(bossGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
+                    .channel(channelImplementation.getServerChannelClass())
                     .option(ChannelOption.SO_BACKLOG, SO_BACKLOG)
                     .childOption(ChannelOption.SO_KEEPALIVE, true)
                     .childOption(ChannelOption.SO_REUSEADDR, true)
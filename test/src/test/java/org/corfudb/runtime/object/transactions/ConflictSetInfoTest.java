@@ -0,0 +1,60 @@
+package org.corfudb.runtime.object.transactions;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import org.corfudb.AbstractCorfuTest;
+import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the conflict fingerprints generated for transaction resolution.
+ */
+public class ConflictSetInfoTest extends AbstractCorfuTest {
+
+    @Test
+    public void fingerprintsAreSortedAndDistinct() {
+        final long[] fingerprints = {3L, 1L, 3L, -2L, 1L};
+        assertThat(ConflictSetInfo.sortedDistinct(fingerprints))
+                .containsExactly(-2L, 1L, 3L);
+        assertThat(ConflictSetInfo.sortedDistinct(new long[0]))
+                .isEmpty();
+    }
+
+    @Test
+    public void txResolutionInfoRoundTrips() {
+        final long snapshot = 5L;
+        final long[] readFingerprints = {1L, 2L, Long.MAX_VALUE};
+        final long[] writeFingerprints = {Long.MIN_VALUE};
+        UUID txId = UUID.randomUUID();
+        UUID readStream = UUID.randomUUID();
+        UUID wholeStream = UUID.randomUUID();
+        UUID writeStream = UUID.randomUUID();
+
+        TxResolutionInfo info = new TxResolutionInfo(txId, snapshot,
+                ImmutableMap.of(readStream, readFingerprints, wholeStream, new long[0]),
+                Collections.singletonMap(writeStream, writeFingerprints));
+        ByteBuf buf = Unpooled.buffer();
+        info.doSerialize(buf);
+        TxResolutionInfo deserialized = new TxResolutionInfo(buf);
+        buf.release();
+
+        assertThat(deserialized.getTXid())
+                .isEqualTo(txId);
+        assertThat(deserialized.getSnapshotTimestamp())
+                .isEqualTo(snapshot);
+        assertThat(deserialized.getConflictSet().get(readStream))
+                .containsExactly(readFingerprints);
+        assertThat(deserialized.getConflictSet().get(wholeStream))
+                .isEmpty();
+        assertThat(deserialized.getWriteConflictParams().get(writeStream))
+                .containsExactly(writeFingerprints);
+    }
+}
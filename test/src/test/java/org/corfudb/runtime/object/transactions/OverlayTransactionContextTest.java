@@ -0,0 +1,147 @@
+package org.corfudb.runtime.object.transactions;
+
+import com.google.common.reflect.TypeToken;
+
+import org.corfudb.runtime.collections.CorfuTable;
+import org.corfudb.runtime.collections.CorfuTableTest.StringIndexers;
+import org.corfudb.runtime.exceptions.TransactionAbortedException;
+import org.corfudb.runtime.object.ICorfuSMR;
+import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the optimistic transaction tests with transaction write overlays enabled,
+ * along with tests specific to overlays.
+ */
+public class OverlayTransactionContextTest extends OptimisticTransactionContextTest {
+
+    @Before
+    public void enableWriteOverlays() {
+        getRuntime().getParameters().setTransactionWriteOverlayEnabled(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isMapOptimisticallyModified() {
+        ICorfuSMRProxyInternal<?> proxy = (ICorfuSMRProxyInternal<?>)
+                ((ICorfuSMR<?>) getMap()).getCorfuSMRProxy();
+        return proxy.getUnderlyingObject().update(o -> o.isOptimisticallyModifiedUnsafe());
+    }
+
+    /** Writes in a transaction should be kept in the overlay, and never be
+     * applied to the shared object before the transaction commits.
+     */
+    @Test
+    public void writesDoNotModifySharedObject() {
+        t(1, () -> put("k", "v0"));
+        t(1, this::OptimisticTXBegin);
+        t(1, () -> put("k", "v1"))
+                .assertResult()
+                .isEqualTo("v0");
+        t(1, () -> get("k"))
+                .assertResult()
+                .isEqualTo("v1");
+        t(1, this::isMapOptimisticallyModified)
+                .assertResult()
+                .isEqualTo(false);
+        // A non-transactional read sees the committed value.
+        t(2, () -> get("k"))
+                .assertResult()
+                .isEqualTo("v0");
+        t(1, this::TXEnd);
+        t(2, () -> get("k"))
+                .assertResult()
+                .isEqualTo("v1");
+    }
+
+    /** Transactions writing disjoint keys of the same object should both
+     * read their own writes and commit, even when interleaved.
+     */
+    @Test
+    public void interleavedWritersReadTheirOwnWrites() {
+        t(1, this::OptimisticTXBegin);
+        t(2, this::OptimisticTXBegin);
+        t(1, () -> put("k1", "v1"));
+        t(2, () -> put("k2", "v2"));
+        t(1, () -> get("k1"))
+                .assertResult()
+                .isEqualTo("v1");
+        t(2, () -> get("k2"))
+                .assertResult()
+                .isEqualTo("v2");
+        t(1, () -> get("k2"))
+                .assertResult()
+                .isNull();
+        t(1, this::TXEnd)
+                .assertDoesNotThrow(TransactionAbortedException.class);
+        t(2, this::TXEnd)
+                .assertDoesNotThrow(TransactionAbortedException.class);
+        assertThat(getMap())
+                .containsEntry("k1", "v1")
+                .containsEntry("k2", "v2");
+    }
+
+    /** Removes and clears in a transaction should hide entries of the shared
+     * object from the transaction only, and be discarded on abort.
+     */
+    @Test
+    public void removeAndClearAreIsolated() {
+        put("k1", "v1");
+        put("k2", "v2");
+
+        OptimisticTXBegin();
+        assertThat(getMap().remove("k1"))
+                .isEqualTo("v1");
+        assertThat(get("k1"))
+                .isNull();
+        assertThat(getMap().size())
+                .isEqualTo(1);
+        getMap().clear();
+        assertThat(getMap().containsKey("k2"))
+                .isFalse();
+        put("k3", "v3");
+        assertThat(getMap().keySet())
+                .containsExactly("k3");
+        TXAbort();
+
+        assertThat(getMap())
+                .containsEntry("k1", "v1")
+                .containsEntry("k2", "v2")
+                .doesNotContainKey("k3");
+    }
+
+    /** Secondary index lookups in a transaction should merge the indexes of the
+     * shared table with the writes of the transaction.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void indexLookupsReflectOverlay() {
+        CorfuTable<String, String, StringIndexers, String>
+                corfuTable = getRuntime().getObjectsView().build()
+                .setTypeToken(
+                        new TypeToken<CorfuTable<String, String, StringIndexers, String>>() {})
+                .setArguments(StringIndexers.class)
+                .setStreamName("test table")
+                .open();
+
+        corfuTable.put("k1", "a");
+        corfuTable.put("k2", "ab");
+
+        OptimisticTXBegin();
+        corfuTable.put("k3", "ac");
+        corfuTable.remove("k1");
+        corfuTable.put("k2", "b");
+        assertThat(corfuTable.getByIndex(StringIndexers.BY_FIRST_LETTER, "a"))
+                .containsExactly("ac");
+        assertThat(corfuTable.getByIndex(StringIndexers.BY_FIRST_LETTER, "b"))
+                .containsExactly("b");
+        TXEnd();
+
+        assertThat(corfuTable.getByIndex(StringIndexers.BY_FIRST_LETTER, "a"))
+                .containsExactly("ac");
+        assertThat(corfuTable.getByIndex(StringIndexers.BY_VALUE, "ab"))
+                .isEmpty();
+    }
+}
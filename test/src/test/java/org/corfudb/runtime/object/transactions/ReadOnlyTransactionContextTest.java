@@ -0,0 +1,90 @@
+package org.corfudb.runtime.object.transactions;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests read-only transactions, which read at the global tail without a read set.
+ */
+public class ReadOnlyTransactionContextTest extends AbstractTransactionContextTest {
+    @Override
+    public void TXBegin() { ReadOnlyTXBegin(); }
+
+    protected void ReadOnlyTXBegin() {
+        getRuntime().getObjectsView().TXBuild()
+                .setType(TransactionType.READ_ONLY)
+                .begin();
+    }
+
+    /** A read-only transaction should observe every write completed before it started,
+     * and none written after.
+     */
+    @Test
+    public void readOnlyReadsLatestCommittedValue() {
+        t(1, () -> put("k", "v1"));
+        t(1, () -> put("k", "v2"));
+
+        t(2, this::ReadOnlyTXBegin);
+        t(2, () -> get("k"))
+                .assertResult().isEqualTo("v2");
+        t(1, () -> put("k", "v3"));
+        t(2, () -> get("k"))
+                .assertResult().isEqualTo("v2");
+        t(2, this::TXEnd)
+                .assertResult().isEqualTo(AbstractTransactionalContext.NOWRITE_ADDRESS);
+    }
+
+    /** Writes in a read-only transaction are rejected. */
+    @Test
+    public void readOnlyRejectsWrites() {
+        t(1, this::ReadOnlyTXBegin);
+        t(1, () -> put("k", "v1"))
+                .assertThrows()
+                .isInstanceOf(UnsupportedOperationException.class);
+        t(1, this::TXAbort);
+    }
+
+    /** A nested read-only transaction reads at the snapshot of its parent. */
+    @Test
+    public void nestedReadOnlyUsesRootSnapshot() {
+        t(1, () -> put("k", "v1"));
+        t(1, this::ReadOnlyTXBegin);
+        t(1, () -> get("k"))
+                .assertResult().isEqualTo("v1");
+        t(2, () -> put("k", "v2"));
+        t(1, this::ReadOnlyTXBegin);
+        t(1, () -> get("k"))
+                .assertResult().isEqualTo("v1");
+        t(1, this::TXEnd);
+        t(1, this::TXEnd);
+    }
+
+    /** Within the staleness bound, a read-only transaction may reuse the snapshot of an
+     * earlier one, and does not see writes completed in between.
+     */
+    @Test
+    public void readOnlyReusesTailWithinStalenessBound() {
+        getRuntime().getParameters().setReadOnlyTransactionMaxStalenessMs(
+                PARAMETERS.TIMEOUT_LONG.toMillis());
+        put("k", "v1");
+
+        ReadOnlyTXBegin();
+        assertThat(get("k"))
+                .isEqualTo("v1");
+        TXEnd();
+
+        put("k", "v2");
+
+        ReadOnlyTXBegin();
+        assertThat(get("k"))
+                .isEqualTo("v1");
+        TXEnd();
+
+        getRuntime().getParameters().setReadOnlyTransactionMaxStalenessMs(0);
+        ReadOnlyTXBegin();
+        assertThat(get("k"))
+                .isEqualTo("v2");
+        TXEnd();
+    }
+}
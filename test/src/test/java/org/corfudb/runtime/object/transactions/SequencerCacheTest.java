@@ -46,7 +46,7 @@ public class SequencerCacheTest extends AbstractObjectTest {
         }
 
         SequencerServer sequencerServer = getSequencer(0);
-        Cache<String, Long> cache = sequencerServer.getConflictToGlobalTailCache();
+        Cache<SequencerServer.ConflictTxStream, Long> cache = sequencerServer.getConflictToGlobalTailCache();
         assertThat(cache.asMap().size()).isEqualTo(numTxn);
         getDefaultRuntime().getAddressSpaceView().prefixTrim(trimAddress);
         assertThat(cache.asMap().size()).isEqualTo(trimAddress);
@@ -134,6 +134,34 @@ public class AddressSpaceViewTest extends AbstractViewTest {
                 .isEqualTo("3".getBytes());
     }
 
+    /** A bulk read spanning all stripes, split into more batches than may be in
+     * flight at once, should return every address from its owning log unit.
+     */
+    @Test
+    public void bulkReadFansOutAcrossStripes() {
+        CorfuRuntime r = getRuntime().connect();
+        r.setBulkReadSize(2);
+        r.getParameters().setBulkReadMaxInFlight(2);
+
+        final int numAddresses = 20;
+        final long epoch = r.getLayoutView().getLayout().getEpoch();
+        List<Long> addresses = new ArrayList<>();
+        for (long address = 0; address < numAddresses; address++) {
+            r.getAddressSpaceView().write(new Token(address, epoch),
+                    Long.toString(address).getBytes());
+            addresses.add(address);
+        }
+
+        Map<Long, ILogData> m = r.getAddressSpaceView().read(addresses);
+
+        assertThat(m)
+                .hasSize(numAddresses);
+        for (long address = 0; address < numAddresses; address++) {
+            assertThat(m.get(address).getPayload(r))
+                    .isEqualTo(Long.toString(address).getBytes());
+        }
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void readAllWithHoleFill()
@@ -162,4 +190,63 @@ public class AddressSpaceViewTest extends AbstractViewTest {
         assertThat(m.get(ADDRESS_1).isHole());
         assertThat(m.get(ADDRESS_2).isHole());
     }
-}
\ No newline at end of file
+
+    /** A scan should return only the entries of the requested streams, from every
+     * stripe, and hole fill the addresses which were never written.
+     */
+    @Test
+    public void scanReturnsTheEntriesOfStreams() {
+        CorfuRuntime r = getRuntime().connect();
+        final UUID streamA = CorfuRuntime.getStreamID("a");
+        final UUID streamB = CorfuRuntime.getStreamID("b");
+        final long epoch = r.getLayoutView().getLayout().getEpoch();
+
+        final long hole = 6L;
+        final long last = 7L;
+        for (long address = 0; address <= last; address++) {
+            if (address != hole) {
+                r.getAddressSpaceView().write(new TokenResponse(address, epoch,
+                        Collections.singletonMap(address % 2 == 0 || address == last
+                                ? streamA : streamB, Address.NO_BACKPOINTER)),
+                        Long.toString(address).getBytes());
+            }
+        }
+
+        Map<Long, ILogData> m = r.getAddressSpaceView()
+                .scan(Range.closed(0L, last), Collections.singleton(streamA));
+
+        assertThat(m.keySet())
+                .containsExactly(0L, 2L, 4L, last);
+        assertThat(m.get(last).getPayload(r))
+                .isEqualTo(Long.toString(last).getBytes());
+        LogUnitServerAssertions.assertThat(getLogUnit(SERVERS.PORT_0))
+                .containsFilledHoleAtAddress(hole);
+    }
+
+    /** A bulk read of a range is a scan of the log, which should not fill the
+     * caches of the log units.
+     */
+    @Test
+    public void rangeReadIsNotCachedByLogUnits() {
+        CorfuRuntime r = getRuntime().connect();
+        final long numAddresses = 6;
+        final long epoch = r.getLayoutView().getLayout().getEpoch();
+        for (long address = 0; address < numAddresses; address++) {
+            r.getAddressSpaceView().write(new Token(address, epoch),
+                    Long.toString(address).getBytes());
+        }
+        r.getAddressSpaceView().invalidateServerCaches();
+
+        Map<Long, ILogData> m = r.getAddressSpaceView().cacheFetch(
+                ContiguousSet.create(Range.closedOpen(0L, numAddresses), DiscreteDomain.longs()));
+
+        assertThat(m)
+                .hasSize((int) numAddresses);
+        assertThat(getLogUnit(SERVERS.PORT_0).getDataCache().asMap())
+                .isEmpty();
+        assertThat(getLogUnit(SERVERS.PORT_1).getDataCache().asMap())
+                .isEmpty();
+        assertThat(getLogUnit(SERVERS.PORT_2).getDataCache().asMap())
+                .isEmpty();
+    }
+}
@@ -1,6 +1,7 @@
 package org.corfudb.runtime.view;
 
 
+import com.google.common.collect.Range;
 import com.google.common.reflect.TypeToken;
 
 import lombok.Getter;
@@ -9,9 +10,13 @@ import org.corfudb.infrastructure.ServerContext;
 import org.corfudb.infrastructure.ServerContextBuilder;
 import org.corfudb.infrastructure.TestLayoutBuilder;
 import org.corfudb.infrastructure.TestServerRouter;
+import org.corfudb.infrastructure.log.StreamLogFiles;
+import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
+import org.corfudb.protocols.wireprotocol.ReadResponse;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.clients.LogUnitClient;
 import org.corfudb.runtime.clients.ManagementClient;
 import org.corfudb.runtime.clients.SequencerClient;
 import org.corfudb.runtime.clients.TestRule;
@@ -22,6 +27,7 @@ import org.corfudb.runtime.view.stream.IStreamView;
 import org.corfudb.util.CFUtils;
 import org.junit.Test;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
@@ -29,6 +35,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
@@ -436,6 +443,54 @@ public class ManagementViewTest extends AbstractViewTest {
 
     }
 
+    /**
+     * The log units don't answer the stream tails requests, so the new sequencer of a
+     * failover must recover the stream tails by scanning the log with the
+     * FastObjectLoader.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void sequencerFailoverRecoversStreamTailsFromTheLog() throws Exception {
+        getManagementTestLayout();
+
+        final UUID streamA = CorfuRuntime.getStreamID("streamA");
+        final UUID streamB = CorfuRuntime.getStreamID("streamB");
+        IStreamView svA = getCorfuRuntime().getStreamsView().get(streamA);
+        IStreamView svB = getCorfuRuntime().getStreamsView().get(streamB);
+        byte[] testPayload = "hello world".getBytes();
+        final long tailA = 0L;
+        svA.append(testPayload);
+        svB.append(testPayload);
+        svB.append(testPayload);
+        final long tailB = 2L;
+
+        // Either management server can handle the failure.
+        final AtomicInteger streamTailsRequests = new AtomicInteger();
+        for (int port : new int[] {SERVERS.PORT_1, SERVERS.PORT_2}) {
+            addClientRule(getManagementServer(port).getCorfuRuntime(), new TestRule()
+                    .matches(corfuMsg -> {
+                        if (corfuMsg.getMsgType().equals(CorfuMsgType.STREAM_TAILS_REQUEST)) {
+                            streamTailsRequests.incrementAndGet();
+                            return true;
+                        }
+                        return false;
+                    })
+                    .drop());
+        }
+
+        induceSequencerFailureAndWait();
+
+        // The stream tails were requested, but recovered from the log.
+        assertThat(streamTailsRequests.get()).isGreaterThan(0);
+        assertThat(getCorfuRuntime().getSequencerView()
+                .nextToken(Collections.singleton(streamA), 0).getToken().getTokenValue())
+                .isEqualTo(tailA);
+        assertThat(getCorfuRuntime().getSequencerView()
+                .nextToken(Collections.singleton(streamB), 0).getToken().getTokenValue())
+                .isEqualTo(tailB);
+    }
+
     protected <T> Object instantiateCorfuObject(TypeToken<T> tType, String name) {
         return (T)
                 getCorfuRuntime().getObjectsView()
@@ -918,4 +973,180 @@ public class ManagementViewTest extends AbstractViewTest {
                 .build();
         assertThat(l2.asJSONString()).isEqualTo(layoutPhase2.asJSONString());
     }
+
+    private ServerContext getPersistentContext(int port) {
+        return new ServerContextBuilder()
+                .setSingle(false)
+                .setMemory(false)
+                .setLogPath(PARAMETERS.TEST_TEMP_DIR + File.separator + port)
+                .setServerRouter(new TestServerRouter(port))
+                .setPort(port)
+                .build();
+    }
+
+    /**
+     * Add a new log unit, which is caught up by state transfer: the sealed segments of
+     * the existing log unit are copied as files, and its tail segment record by record.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testAddNodeWithCatchup() throws Exception {
+        final int recordsPerSegment = StreamLogFiles.RECORDS_PER_LOG_FILE;
+        StreamLogFiles.RECORDS_PER_LOG_FILE = PARAMETERS.NUM_ITERATIONS_VERY_LOW;
+        try {
+            addServer(SERVERS.PORT_0, getPersistentContext(SERVERS.PORT_0));
+            Layout l1 = new TestLayoutBuilder()
+                    .setEpoch(0L)
+                    .addLayoutServer(SERVERS.PORT_0)
+                    .addSequencer(SERVERS.PORT_0)
+                    .buildSegment()
+                    .buildStripe()
+                    .addLogUnit(SERVERS.PORT_0)
+                    .addToSegment()
+                    .addToLayout()
+                    .build();
+            bootstrapAllServers(l1);
+            addServer(SERVERS.PORT_1, getPersistentContext(SERVERS.PORT_1));
+
+            CorfuRuntime rt = new CorfuRuntime(SERVERS.ENDPOINT_0).connect();
+
+            // Fill two sealed segments, and start the tail segment.
+            final int sealedSegments = 2;
+            final long numEntries =
+                    StreamLogFiles.RECORDS_PER_LOG_FILE * sealedSegments + 2;
+            IStreamView sv = rt.getStreamsView().get(CorfuRuntime.getStreamID("test"));
+            for (long x = 0; x < numEntries; x++) {
+                sv.append(("payload" + x).getBytes());
+            }
+
+            rt.getLayoutManagementView().addNode(l1, SERVERS.ENDPOINT_1,
+                    true,
+                    true,
+                    true,
+                    false,
+                    0).get();
+
+            assertThat(rt.getMetrics().counter(CorfuRuntime.getMpST() + "segments")
+                    .getCount())
+                    .isEqualTo(sealedSegments);
+            assertThat(rt.getMetrics().counter(CorfuRuntime.getMpST() + "records")
+                    .getCount())
+                    .isEqualTo(numEntries - StreamLogFiles.RECORDS_PER_LOG_FILE
+                            * sealedSegments);
+
+            LogUnitClient newLogUnit = rt.getRouter(SERVERS.ENDPOINT_1)
+                    .getClient(LogUnitClient.class);
+            ReadResponse response = newLogUnit
+                    .read(Range.closed(0L, numEntries - 1)).get();
+            for (long x = 0; x < numEntries; x++) {
+                assertThat(response.getAddresses().get(x).getType())
+                        .isEqualTo(DataType.DATA);
+                assertThat(response.getAddresses().get(x).getPayload(rt))
+                        .isEqualTo(("payload" + x).getBytes());
+            }
+        } finally {
+            StreamLogFiles.RECORDS_PER_LOG_FILE = recordsPerSegment;
+        }
+    }
+
+    /**
+     * Returns a layout with a chain of two log units, PORT_0 and PORT_1, of which the
+     * given servers are marked unresponsive.
+     */
+    private Layout getLayoutWithUnresponsive(int... unresponsivePorts) {
+        TestLayoutBuilder builder = new TestLayoutBuilder()
+                .setEpoch(1L)
+                .addLayoutServer(SERVERS.PORT_0)
+                .addSequencer(SERVERS.PORT_0)
+                .buildSegment()
+                .buildStripe()
+                .addLogUnit(SERVERS.PORT_0)
+                .addLogUnit(SERVERS.PORT_1)
+                .addToSegment()
+                .addToLayout();
+        for (int port : unresponsivePorts) {
+            builder.addUnresponsiveServer(port);
+        }
+        return builder.build();
+    }
+
+    /**
+     * A healed log unit should stay unresponsive until it is caught up with the entries
+     * it missed, and only then be healed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void healedLogUnitIsCaughtUpBeforeHealing() throws Exception {
+        addServer(SERVERS.PORT_0);
+        addServer(SERVERS.PORT_1);
+        Layout l = getLayoutWithUnresponsive(SERVERS.PORT_1);
+        bootstrapAllServers(l);
+        CorfuRuntime rt = getRuntime(l).connect();
+
+        // PORT_1 missed these entries while it was unresponsive.
+        final long numEntries = PARAMETERS.NUM_ITERATIONS_VERY_LOW;
+        LogUnitClient head = rt.getRouter(SERVERS.ENDPOINT_0).getClient(LogUnitClient.class);
+        for (long x = 0; x < numEntries; x++) {
+            head.write(x, Collections.emptySet(), null, ("payload" + x).getBytes(),
+                    Collections.emptyMap()).get();
+        }
+
+        rt.getLayoutManagementView().handleFailure(new ConservativeFailureHandlerPolicy(),
+                (Layout) l.clone(), Collections.emptySet(),
+                Collections.singleton(SERVERS.ENDPOINT_1));
+
+        final long deadline = System.currentTimeMillis() + PARAMETERS.TIMEOUT_LONG.toMillis();
+        while (!rt.getLayoutView().getLayout().getUnresponsiveServers().isEmpty()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+            rt.invalidateLayout();
+        }
+        assertThat(rt.getLayoutView().getLayout().getUnresponsiveServers())
+                .isEmpty();
+
+        ReadResponse response = rt.getRouter(SERVERS.ENDPOINT_1)
+                .getClient(LogUnitClient.class)
+                .read(Range.closed(0L, numEntries - 1)).get();
+        for (long x = 0; x < numEntries; x++) {
+            assertThat(response.getAddresses().get(x).getPayload(rt))
+                    .isEqualTo(("payload" + x).getBytes());
+        }
+    }
+
+    /**
+     * A healed log unit which can't be caught up should stay unresponsive, and the
+     * failure should be counted.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void failedCatchUpLeavesLogUnitUnresponsive() throws Exception {
+        addServer(SERVERS.PORT_0);
+        addServer(SERVERS.PORT_1);
+        // No responsive log unit is left to transfer the entries of PORT_1 from.
+        Layout l = getLayoutWithUnresponsive(SERVERS.PORT_0, SERVERS.PORT_1);
+        bootstrapAllServers(l);
+        CorfuRuntime rt = getRuntime(l).connect();
+
+        final String failures = CorfuRuntime.getMpLM() + "catch-up-failures";
+        rt.getLayoutManagementView().handleFailure(new ConservativeFailureHandlerPolicy(),
+                (Layout) l.clone(), Collections.emptySet(),
+                Collections.singleton(SERVERS.ENDPOINT_1));
+
+        final long deadline = System.currentTimeMillis() + PARAMETERS.TIMEOUT_LONG.toMillis();
+        while (rt.getMetrics().counter(failures).getCount() == 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+        }
+        assertThat(rt.getMetrics().counter(failures).getCount())
+                .isEqualTo(1);
+
+        rt.invalidateLayout();
+        assertThat(rt.getLayoutView().getLayout().getEpoch())
+                .isEqualTo(l.getEpoch());
+        assertThat(rt.getLayoutView().getLayout().getUnresponsiveServers())
+                .contains(SERVERS.ENDPOINT_1);
+    }
 }
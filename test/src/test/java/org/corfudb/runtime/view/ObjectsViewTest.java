@@ -9,14 +9,19 @@ import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.collections.SMRMap;
 import org.corfudb.runtime.exceptions.TransactionAbortedException;
+import org.corfudb.runtime.object.CorfuCompileProxy;
+import org.corfudb.runtime.object.ICorfuSMR;
+import org.corfudb.runtime.object.VersionLockedObject;
 import org.corfudb.runtime.view.stream.IStreamView;
 import org.corfudb.util.serializer.Serializers;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -225,4 +230,142 @@ public class ObjectsViewTest extends AbstractViewTest {
                 .containsEntry("b", "b");
     }
 
+    /**
+     * A followed object catches up with the updates of another runtime without
+     * being accessed.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void followedObjectIsKeptUpToDate()
+            throws Exception {
+        CorfuRuntime r = getDefaultRuntime();
+        Map<String, String> followed = r.getObjectsView().build()
+                .setStreamName("map a")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .addOption(ObjectOpenOptions.FOLLOW)
+                .open();
+
+        final long tail;
+        CorfuRuntime writerRuntime = new CorfuRuntime(getDefaultEndpoint()).connect();
+        try {
+            Map<String, String> writer = writerRuntime.getObjectsView().build()
+                    .setStreamName("map a")
+                    .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                    .open();
+            for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+                writer.put(Integer.toString(i), Integer.toString(i));
+            }
+            tail = writerRuntime.getSequencerView()
+                    .nextToken(Collections.singleton(CorfuRuntime.getStreamID("map a")), 0)
+                    .getToken().getTokenValue();
+        } finally {
+            writerRuntime.shutdown();
+        }
+
+        // Wait for the follower, without accessing the object.
+        VersionLockedObject<?> object = ((CorfuCompileProxy) ((ICorfuSMR) followed)
+                .getCorfuSMRProxy()).getUnderlyingObject();
+        final long pollIntervalMs = r.getParameters().getObjectFollowerIntervalMs();
+        final long deadline = System.nanoTime() + PARAMETERS.TIMEOUT_LONG.toNanos();
+        while (object.update(VersionLockedObject::getVersionUnsafe) < tail
+                && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(pollIntervalMs);
+        }
+        assertThat(object.update(VersionLockedObject::getVersionUnsafe))
+                .isEqualTo(tail);
+        assertThat(r.getMetrics().getGauges())
+                .containsKey(CorfuRuntime.getMpObj() + "follower.lag."
+                        + CorfuRuntime.getStreamID("map a"));
+        assertThat(followed)
+                .hasSize(PARAMETERS.NUM_ITERATIONS_LOW);
+
+        r.getObjectsView().unfollow(followed);
+        assertThat(r.getMetrics().getGauges())
+                .doesNotContainKey(CorfuRuntime.getMpObj() + "follower.lag."
+                        + CorfuRuntime.getStreamID("map a"));
+    }
+
+    /**
+     * An object syncs the updates of another runtime when it deserializes them in parallel.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void objectSyncsWithParallelDeserialization()
+            throws Exception {
+        CorfuRuntime r = getDefaultRuntime();
+        r.getParameters().setParallelStreamSyncEnabled(true);
+        r.getParameters().setParallelStreamSyncChunkSize(2);
+        Map<String, String> reader = r.getObjectsView().build()
+                .setStreamName("map a")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+
+        CorfuRuntime writerRuntime = new CorfuRuntime(getDefaultEndpoint()).connect();
+        Map<String, String> writer = writerRuntime.getObjectsView().build()
+                .setStreamName("map a")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            writer.put("key", Integer.toString(i));
+            writer.put(Integer.toString(i), Integer.toString(i));
+        }
+
+        assertThat(reader)
+                .hasSize(PARAMETERS.NUM_ITERATIONS_LOW + 1)
+                .containsEntry("key", Integer.toString(PARAMETERS.NUM_ITERATIONS_LOW - 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void concurrentUpdatesAreBatched()
+            throws Exception {
+        CorfuRuntime r = getDefaultRuntime();
+        // A window long enough for the threads to share batches.
+        final long windowMicros = 10_000L;
+        r.getParameters().setWriteBatchWindowMicros(windowMicros);
+        SMRMap<String, String> mapA = r.getObjectsView().build()
+                .setStreamName("map a")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .addOption(ObjectOpenOptions.BATCH_WRITES)
+                .open();
+        SMRMap<String, String> mapB = r.getObjectsView().build()
+                .setStreamName("map b")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .addOption(ObjectOpenOptions.BATCH_WRITES)
+                .open();
+
+        scheduleConcurrently(PARAMETERS.CONCURRENCY_SOME, t -> {
+            for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_VERY_LOW; i++) {
+                final String key = t + "-" + i;
+                assertThat(mapA.put(key, "first"))
+                        .isNull();
+                assertThat(mapA.put(key, "second"))
+                        .isEqualTo("first");
+                mapB.blindPut(key, key);
+            }
+        });
+        executeScheduled(PARAMETERS.CONCURRENCY_SOME, PARAMETERS.TIMEOUT_LONG);
+
+        // The concurrent updates share addresses.
+        final int updates = PARAMETERS.CONCURRENCY_SOME * PARAMETERS.NUM_ITERATIONS_VERY_LOW * 3;
+        assertThat(r.getSequencerView().queryGlobalTail() + 1)
+                .isLessThan(updates);
+
+        CorfuRuntime readerRuntime = new CorfuRuntime(getDefaultEndpoint()).connect();
+        Map<String, String> readerA = readerRuntime.getObjectsView().build()
+                .setStreamName("map a")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+        Map<String, String> readerB = readerRuntime.getObjectsView().build()
+                .setStreamName("map b")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+        final int keys = PARAMETERS.CONCURRENCY_SOME * PARAMETERS.NUM_ITERATIONS_VERY_LOW;
+        assertThat(readerA)
+                .hasSize(keys)
+                .containsEntry("0-0", "second");
+        assertThat(readerB)
+                .hasSize(keys)
+                .containsEntry("0-0", "0-0");
+    }
 }
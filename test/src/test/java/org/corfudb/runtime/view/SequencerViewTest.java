@@ -2,13 +2,16 @@ package org.corfudb.runtime.view;
 
 import lombok.Getter;
 import org.corfudb.protocols.wireprotocol.Token;
+import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.exceptions.StaleTokenException;
 import org.junit.Test;
 
 import java.util.Collections;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Created by mwei on 12/23/15.
@@ -80,4 +83,111 @@ public class SequencerViewTest extends AbstractViewTest {
         assertThat(r.getSequencerView().nextToken(Collections.singleton(streamB), 1).getBackpointerMap())
                 .containsEntry(streamB, 1L);
     }
+
+    @Test
+    public void globalTailReflectsCompletedTokens() {
+        CorfuRuntime r = getDefaultRuntime();
+        r.getSequencerView().nextToken(Collections.emptySet(), 1);
+        assertThat(r.getSequencerView().queryGlobalTail())
+                .isEqualTo(0L);
+        r.getSequencerView().nextToken(Collections.emptySet(), 1);
+        assertThat(r.getSequencerView().getGlobalTail(0))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    public void globalTailIsReusedWithinStalenessBound() {
+        final long maxStalenessMs = PARAMETERS.TIMEOUT_LONG.toMillis();
+        CorfuRuntime r = getDefaultRuntime();
+        r.getSequencerView().nextToken(Collections.emptySet(), 1);
+        assertThat(r.getSequencerView().getGlobalTail(maxStalenessMs))
+                .isEqualTo(0L);
+        r.getSequencerView().nextToken(Collections.emptySet(), 1);
+        assertThat(r.getSequencerView().getGlobalTail(maxStalenessMs))
+                .isEqualTo(0L);
+        assertThat(r.getSequencerView().getGlobalTail(0))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    public void concurrentQueriesObserveCompletedTokens() throws Exception {
+        final int numThreads = PARAMETERS.CONCURRENCY_SOME;
+        CorfuRuntime r = getDefaultRuntime();
+        scheduleConcurrently(numThreads, threadNumber -> {
+            long token = r.getSequencerView().nextToken(Collections.emptySet(), 1)
+                    .getToken().getTokenValue();
+            assertThat(r.getSequencerView().queryGlobalTail())
+                    .isGreaterThanOrEqualTo(token);
+        });
+        executeScheduled(numThreads, PARAMETERS.TIMEOUT_LONG);
+    }
+
+    /**
+     * Callers keep arriving while queries complete, so some arrive just as a query
+     * completes and the next one is issued. Each must still see its own token.
+     */
+    @Test
+    public void queriesJoinedAsOthersCompleteObserveCompletedTokens() throws Exception {
+        final int numThreads = PARAMETERS.CONCURRENCY_LOTS;
+        CorfuRuntime r = getDefaultRuntime();
+        scheduleConcurrently(numThreads, threadNumber -> {
+            for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+                long token = r.getSequencerView().nextToken(Collections.emptySet(), 1)
+                        .getToken().getTokenValue();
+                assertThat(r.getSequencerView().queryGlobalTail())
+                        .isGreaterThanOrEqualTo(token);
+            }
+        });
+        executeScheduled(numThreads, PARAMETERS.TIMEOUT_LONG);
+    }
+
+    /**
+     * Seals the servers in the next epoch, commits the layout in that epoch and waits
+     * for the runtime to fetch it.
+     */
+    private Layout moveToNextEpoch(CorfuRuntime r) throws Exception {
+        Layout layout = (Layout) r.getLayoutView().getLayout().clone();
+        layout.setRuntime(r);
+        layout.setEpoch(layout.getEpoch() + 1);
+        layout.moveServersToEpoch();
+        r.getLayoutView().updateLayout(layout, 1L);
+        r.invalidateLayout();
+        return r.layout.get();
+    }
+
+    @Test
+    public void tokenIsCarriedOverWhenSequencerKeepsItsState() throws Exception {
+        CorfuRuntime r = getDefaultRuntime();
+        UUID streamA = UUID.nameUUIDFromBytes("stream A".getBytes());
+        TokenResponse token = r.getSequencerView().nextToken(Collections.singleton(streamA), 1);
+
+        Layout layout = moveToNextEpoch(r);
+        assertThat(layout.getEpoch())
+                .isGreaterThan(token.getEpoch());
+        // The sequencer stays primary, so it is bootstrapped without a reset.
+        assertThat(layout.getSequencer(0).bootstrap(0L, Collections.emptyMap(),
+                layout.getEpoch()).get())
+                .isTrue();
+
+        r.getAddressSpaceView().write(token, "hello".getBytes());
+        assertThat(r.getAddressSpaceView().read(token.getTokenValue()).getPayload(r))
+                .isEqualTo("hello".getBytes());
+    }
+
+    @Test
+    public void tokenIsStaleWhenSequencerIsReset() throws Exception {
+        final long resetToken = 10L;
+        CorfuRuntime r = getDefaultRuntime();
+        UUID streamA = UUID.nameUUIDFromBytes("stream A".getBytes());
+        TokenResponse token = r.getSequencerView().nextToken(Collections.singleton(streamA), 1);
+
+        Layout layout = moveToNextEpoch(r);
+        // The sequencer is recovered from the log, so it may issue the token again.
+        assertThat(layout.getSequencer(0).bootstrap(resetToken, Collections.emptyMap(),
+                layout.getEpoch()).get())
+                .isTrue();
+
+        assertThatThrownBy(() -> r.getAddressSpaceView().write(token, "hello".getBytes()))
+                .isInstanceOf(StaleTokenException.class);
+    }
 }
@@ -1,12 +1,17 @@
 package org.corfudb.runtime.view;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.reflect.TypeToken;
 import lombok.Getter;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.SMRMap;
 import org.corfudb.runtime.view.stream.IStreamView;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -58,4 +63,66 @@ public class StreamsViewTest extends AbstractViewTest {
                 .isEqualTo(null);
     }
 
+    /**
+     * A subscription delivers the updates of its streams, one update per transaction,
+     * and can be resumed where it was left.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void subscriptionDeliversTransactionsAndResumes()
+            throws Exception {
+        CorfuRuntime r = getDefaultRuntime().connect();
+        UUID streamA = CorfuRuntime.getStreamID("map a");
+        UUID streamB = CorfuRuntime.getStreamID("map b");
+        Map<String, String> mapA = r.getObjectsView().build()
+                .setStreamID(streamA)
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+        Map<String, String> mapB = r.getObjectsView().build()
+                .setStreamID(streamB)
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+        Map<String, String> mapC = r.getObjectsView().build()
+                .setStreamName("map c")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+
+        mapA.put("a", "1");
+        mapC.put("c", "1");
+        r.getObjectsView().TXBegin();
+        mapA.put("a", "2");
+        mapB.put("b", "2");
+        r.getObjectsView().TXEnd();
+
+        long resumeAddress;
+        try (StreamSubscription subscription = r.subscribe(ImmutableSet.of(streamA, streamB),
+                0L)) {
+            StreamSubscription.Update update = subscription.poll(
+                    PARAMETERS.TIMEOUT_NORMAL.toMillis(), TimeUnit.MILLISECONDS);
+            assertThat(update.getUpdates()).containsOnlyKeys(streamA);
+
+            // The updates of the transaction are delivered together.
+            update = subscription.poll(PARAMETERS.TIMEOUT_NORMAL.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            assertThat(update.getUpdates()).containsOnlyKeys(streamA, streamB);
+            assertThat(update.getUpdates().get(streamB).get(0).getSMRArguments())
+                    .containsExactly("b", "2");
+
+            assertThat(subscription.poll(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis(),
+                    TimeUnit.MILLISECONDS))
+                    .isNull();
+            resumeAddress = subscription.getResumeAddress();
+            assertThat(resumeAddress).isEqualTo(update.getAddress() + 1);
+        }
+
+        mapB.put("b", "3");
+        try (StreamSubscription subscription = r.subscribe(ImmutableSet.of(streamA, streamB),
+                resumeAddress)) {
+            StreamSubscription.Update update = subscription.poll(
+                    PARAMETERS.TIMEOUT_NORMAL.toMillis(), TimeUnit.MILLISECONDS);
+            assertThat(update.getUpdates()).containsOnlyKeys(streamB);
+            assertThat(update.getUpdates().get(streamB).get(0).getSMRArguments())
+                    .containsExactly("b", "3");
+        }
+    }
 }
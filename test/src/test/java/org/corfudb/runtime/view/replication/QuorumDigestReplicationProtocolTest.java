@@ -0,0 +1,74 @@
+package org.corfudb.runtime.view.replication;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.protocols.wireprotocol.LogDataDigest;
+import org.corfudb.protocols.wireprotocol.ReadDigestResponse;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.view.Layout;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Runs the quorum replication protocol tests with digest reads, where only one
+ * replica returns the payload of a read.
+ */
+public class QuorumDigestReplicationProtocolTest extends QuorumReplicationProtocolTest {
+
+    /** {@inheritDoc} */
+    @Override
+    IReplicationProtocol getProtocol() {
+        return new QuorumReplicationProtocol(new AlwaysHoleFillPolicy(), true);
+    }
+
+    /** Check that every replica returns the same digest for an entry, and that
+     * an unwritten address digests as empty.
+     */
+    @Test
+    public void replicasReturnMatchingDigests()
+            throws Exception {
+        setupNodes();
+
+        final CorfuRuntime r = getDefaultRuntime();
+        final IReplicationProtocol rp = getProtocol();
+        final Layout layout = r.getLayoutView().getLayout();
+
+        rp.write(layout, getLogData(0, "hello world".getBytes()));
+
+        LogDataDigest expected = LogDataDigest.of(
+                layout.getLogUnitClient(0, 0).read(0).get().getAddresses().get(0L));
+        for (int i = 0; i < layout.getSegmentLength(0); i++) {
+            ReadDigestResponse rr = layout.getLogUnitClient(0, i)
+                    .readDigests(Arrays.asList(0L, 1L)).get();
+            assertThat(rr.getDigests().get(0L))
+                    .isEqualTo(expected);
+            assertThat(rr.getDigests().get(1L).getType())
+                    .isEqualTo(DataType.EMPTY);
+        }
+    }
+
+    /** Check that a bulk read returns written data, and hole fills unwritten addresses. */
+    @Test
+    public void readAllReturnsCommittedData()
+            throws Exception {
+        setupNodes();
+
+        final CorfuRuntime r = getDefaultRuntime();
+        final IReplicationProtocol rp = getProtocol();
+        final Layout layout = r.getLayoutView().getLayout();
+
+        rp.write(layout, getLogData(0, "zero".getBytes()));
+        rp.write(layout, getLogData(2, "two".getBytes()));
+
+        Map<Long, ILogData> read = rp.readAll(layout, Arrays.asList(0L, 1L, 2L));
+        assertThat(read.get(0L).getPayload(r))
+                .isEqualTo("zero".getBytes());
+        assertThat(read.get(1L).isHole())
+                .isTrue();
+        assertThat(read.get(2L).getPayload(r))
+                .isEqualTo("two".getBytes());
+    }
+}
@@ -4,6 +4,11 @@ import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.view.AbstractViewTest;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -162,4 +167,34 @@ public class BackpointerStreamViewTest extends AbstractViewTest {
         assertThat(((BackpointerStreamView) svB).getBackpointerCount()).isEqualTo(1L);
     }
 
+    /**
+     * Tests that the parallel spliterator maps the entries of a stream in chunks, and
+     * delivers them in the order of the stream.
+     */
+    @Test
+    public void parallelSpliteratorPreservesOrder() {
+        CorfuRuntime runtime = getDefaultRuntime();
+        IStreamView sv = runtime.getStreamsView().get(CorfuRuntime.getStreamID("streamA"));
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            sv.append(String.valueOf(i).getBytes());
+        }
+        final int chunkSize = 3;
+        final int maxChunksInFlight = 2;
+        final long maxGlobal = PARAMETERS.NUM_ITERATIONS_LOW / 2 - 1;
+
+        IStreamView reader = runtime.getStreamsView().get(CorfuRuntime.getStreamID("streamA"));
+        List<String> payloads = StreamSupport.stream(new ParallelStreamSpliterator<>(reader,
+                maxGlobal,
+                d -> Collections.singletonList(new String((byte[]) d.getPayload(runtime))),
+                chunkSize, maxChunksInFlight), false)
+                .collect(Collectors.toList());
+
+        assertThat(payloads).hasSize((int) maxGlobal + 1);
+        for (int i = 0; i < payloads.size(); i++) {
+            assertThat(payloads.get(i)).isEqualTo(String.valueOf(i));
+        }
+        assertThat(reader.getCurrentGlobalPosition()).isEqualTo(maxGlobal);
+        assertThat(new String((byte[]) reader.next().getPayload(runtime)))
+                .isEqualTo(String.valueOf(maxGlobal + 1));
+    }
 }
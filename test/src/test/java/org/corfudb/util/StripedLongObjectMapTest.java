@@ -0,0 +1,78 @@
+package org.corfudb.util;
+
+import java.util.List;
+
+import org.corfudb.AbstractCorfuTest;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the lock-striped map of primitive long keys.
+ */
+public class StripedLongObjectMapTest extends AbstractCorfuTest {
+
+    private static final int CONCURRENCY = 4;
+
+    @Test
+    public void mappingsAreKeptAcrossStripes() {
+        StripedLongObjectMap<String> map = new StripedLongObjectMap<>(CONCURRENCY);
+        for (long key = 0; key < PARAMETERS.NUM_ITERATIONS_LOW; key++) {
+            assertThat(map.put(key, Long.toString(key)))
+                    .isNull();
+        }
+        // Keys which differ only in their upper half map to separate entries.
+        final long highKey = 1L << Integer.SIZE;
+        map.put(highKey, "high");
+
+        assertThat(map.size())
+                .isEqualTo(PARAMETERS.NUM_ITERATIONS_LOW + 1);
+        assertThat(map.get(highKey))
+                .isEqualTo("high");
+        assertThat(map.get(0L))
+                .isEqualTo("0");
+        assertThat(map.put(0L, "zero"))
+                .isEqualTo("0");
+        assertThat(map.remove(0L))
+                .isEqualTo("zero");
+        assertThat(map.get(0L))
+                .isNull();
+        assertThat(map.remove(0L))
+                .isNull();
+    }
+
+    @Test
+    public void removeIfRemovesMatchingValuesFromAllStripes() {
+        StripedLongObjectMap<Long> map = new StripedLongObjectMap<>(CONCURRENCY);
+        for (long key = 0; key < PARAMETERS.NUM_ITERATIONS_LOW; key++) {
+            map.put(key, key);
+        }
+
+        List<Long> removed = map.removeIf(v -> v % 2 == 0);
+        assertThat(removed)
+                .hasSize(PARAMETERS.NUM_ITERATIONS_LOW / 2)
+                .allMatch(v -> v % 2 == 0);
+        assertThat(map.size())
+                .isEqualTo(PARAMETERS.NUM_ITERATIONS_LOW / 2);
+        assertThat(map.get(1L))
+                .isEqualTo(1L);
+        assertThat(map.get(2L))
+                .isNull();
+    }
+
+    @Test
+    public void concurrentUpdatesAreNotLost() throws Exception {
+        StripedLongObjectMap<Integer> map = new StripedLongObjectMap<>(CONCURRENCY);
+        scheduleConcurrently(PARAMETERS.CONCURRENCY_SOME, t -> {
+            for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+                map.put((long) i * PARAMETERS.CONCURRENCY_SOME + t, t);
+            }
+        });
+        executeScheduled(PARAMETERS.CONCURRENCY_SOME, PARAMETERS.TIMEOUT_NORMAL);
+
+        assertThat(map.size())
+                .isEqualTo(PARAMETERS.CONCURRENCY_SOME * PARAMETERS.NUM_ITERATIONS_LOW);
+        assertThat(map.get(PARAMETERS.CONCURRENCY_SOME + 1L))
+                .isEqualTo(1);
+    }
+}